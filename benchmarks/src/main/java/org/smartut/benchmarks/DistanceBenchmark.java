@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.instrumentation.testability.StringHelper;
+import org.smartut.utils.RegexDistanceUtils;
+
+/**
+ * String and regular expression distances computed by the testability
+ * transformation on each string comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistanceBenchmark {
+
+	@Param({ "smartut", "automated unit test generation for java" })
+	public String value;
+
+	@Param({ "[a-z]+@[a-z]+\\.(com|org)" })
+	public String regex;
+
+	private final String target = "generation of unit tests with a search";
+
+	@Benchmark
+	public int editDistance() {
+		return StringHelper.editDistance(value, target);
+	}
+
+	@Benchmark
+	public int regexStandardDistance() {
+		return RegexDistanceUtils.getStandardDistance(value, regex);
+	}
+
+	@Benchmark
+	public double regexDistanceForStringAVM() {
+		return RegexDistanceUtils.getDistanceTailoredForStringAVM(value, regex);
+	}
+}
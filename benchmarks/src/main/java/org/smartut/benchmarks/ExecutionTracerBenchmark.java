@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.Properties;
+import org.smartut.testcase.execution.ExecutionTracer;
+
+/**
+ * Cost of the callback the instrumented code makes at each predicate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutionTracerBenchmark {
+
+	/**
+	 * Number of distinct branches the calls are spread over
+	 */
+	@Param({ "1", "64" })
+	public int branches;
+
+	/**
+	 * Whether the branch distances are also tracked per call context, with
+	 * a few methods on the stack
+	 */
+	@Param({ "false", "true" })
+	public boolean contexts;
+
+	/**
+	 * Whether the trace keeps the distances in arrays instead of maps
+	 */
+	@Param({ "false", "true" })
+	public boolean arrayTrace;
+
+	private int counter = 0;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Properties.INSTRUMENT_CONTEXT = contexts;
+		Properties.ARRAY_EXECUTION_TRACE = arrayTrace;
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.enable();
+		if (contexts) {
+			for (int i = 0; i < 8; i++) {
+				ExecutionTracer.enteredMethod("com.example.Caller" + i, "call()V", null);
+			}
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		Properties.INSTRUMENT_CONTEXT = false;
+		Properties.ARRAY_EXECUTION_TRACE = false;
+	}
+
+	@Benchmark
+	public void passedBranchUnary() {
+		int value = counter++;
+		ExecutionTracer.passedBranch(value, Opcodes.IFEQ, value % branches, 0);
+	}
+
+	@Benchmark
+	public void passedBranchBinary() {
+		int value = counter++;
+		ExecutionTracer.passedBranch(value, 28241, Opcodes.IF_ICMPEQ, value % branches, 0);
+	}
+}
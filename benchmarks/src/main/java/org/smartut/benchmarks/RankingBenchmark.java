@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.ga.operators.ranking.CrowdingDistance;
+import org.smartut.ga.operators.ranking.FastNonDominatedSorting;
+import org.smartut.testcase.TestChromosome;
+import org.smartut.testcase.TestFitnessFunction;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.utils.Randomness;
+
+/**
+ * Sorting of a many-objective population, as done at each generation of
+ * MOSA/DynaMOSA, on synthetic goals with random fitness values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RankingBenchmark {
+
+	@Param({ "50", "200" })
+	public int populationSize;
+
+	@Param({ "10", "100" })
+	public int numberOfGoals;
+
+	private List<TestChromosome> population;
+
+	private Set<TestFitnessFunction> goals;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Randomness.setSeed(42);
+		goals = new LinkedHashSet<>();
+		for (int i = 0; i < numberOfGoals; i++) {
+			goals.add(new Goal(i));
+		}
+
+		population = new ArrayList<>();
+		for (int i = 0; i < populationSize; i++) {
+			TestChromosome test = new TestChromosome();
+			for (TestFitnessFunction goal : goals) {
+				// a few values only, so that there are ties as in a real search
+				test.setFitness(goal, Randomness.nextInt(10) / 10.0);
+			}
+			population.add(test);
+		}
+	}
+
+	@Benchmark
+	public FastNonDominatedSorting<TestChromosome> fastNonDominatedSorting() {
+		FastNonDominatedSorting<TestChromosome> ranking = new FastNonDominatedSorting<>();
+		ranking.computeRankingAssignment(population, goals);
+		return ranking;
+	}
+
+	@Benchmark
+	public List<TestChromosome> crowdingDistance() {
+		new CrowdingDistance<TestChromosome>().crowdingDistanceAssignment(population, new ArrayList<>(goals));
+		return population;
+	}
+
+	/**
+	 * Goal whose fitness values are only set from outside
+	 */
+	private static final class Goal extends TestFitnessFunction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int id;
+
+		Goal(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public double getFitness(TestChromosome individual, ExecutionResult result) {
+			return individual.getFitness(this);
+		}
+
+		@Override
+		public int compareTo(TestFitnessFunction other) {
+			return compareClassName(other);
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Goal && ((Goal) other).id == id;
+		}
+
+		@Override
+		public String getTargetClass() {
+			return "Goal";
+		}
+
+		@Override
+		public String getTargetMethod() {
+			return "goal" + id;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.coverage.branch.BranchCoverageSuiteFitness;
+import org.smartut.testcase.execution.TestCaseExecutor;
+import org.smartut.testcase.factories.RandomLengthTestFactory;
+import org.smartut.testsuite.TestSuiteChromosome;
+
+import com.examples.with.different.packagename.ArrayStack;
+
+/**
+ * Fitness of a test suite whose tests were all executed already, i.e., the
+ * aggregation of the traces done for each new suite of the search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuiteFitnessBenchmark {
+
+	@Param({ "10", "50" })
+	public int numberOfTests;
+
+	private BranchCoverageSuiteFitness fitness;
+
+	private TestSuiteChromosome suite;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		TargetClassSetup.setUp(ArrayStack.class);
+		TestCaseExecutor.initExecutor();
+
+		RandomLengthTestFactory factory = new RandomLengthTestFactory();
+		suite = new TestSuiteChromosome();
+		for (int i = 0; i < numberOfTests; i++) {
+			suite.addTest(factory.getChromosome());
+		}
+		fitness = new BranchCoverageSuiteFitness();
+		// executes the tests and keeps their results
+		fitness.getFitness(suite);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TestCaseExecutor.pullDown();
+		TargetClassSetup.tearDown();
+	}
+
+	@Benchmark
+	public double branchCoverageSuiteFitness() {
+		return fitness.getFitness(suite);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.symbolic.expr.Constraint;
+import org.smartut.symbolic.expr.Operator;
+import org.smartut.symbolic.expr.bv.IntegerBinaryExpression;
+import org.smartut.symbolic.expr.bv.IntegerConstant;
+import org.smartut.symbolic.expr.bv.IntegerValue;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+import org.smartut.symbolic.solver.smt.ExprToSmtVisitor;
+import org.smartut.symbolic.solver.smt.SmtExpr;
+import org.smartut.symbolic.vm.ConstraintFactory;
+import org.smartut.symbolic.vm.ExpressionFactory;
+
+/**
+ * Symbolic expressions of a loop that adds to the same value on each
+ * iteration and checks it, as interned on the operand stack and translated
+ * for the solver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SymbolicExpressionBenchmark {
+
+	/**
+	 * Number of iterations of the loop
+	 */
+	@Param({ "100", "1000" })
+	public int iterations;
+
+	private final IntegerVariable x = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final IntegerConstant one = ExpressionFactory.buildNewIntegerConstant(1);
+
+	/**
+	 * One constraint per iteration, each on the sum of the one before
+	 */
+	private List<Constraint<?>> pathCondition;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		pathCondition = new ArrayList<>(iterations);
+		IntegerValue sum = x;
+		for (int i = 0; i < iterations; i++) {
+			sum = add(sum, i);
+			pathCondition.add(ConstraintFactory.lt(sum, ExpressionFactory.buildNewIntegerConstant(iterations)));
+		}
+	}
+
+	private IntegerValue add(IntegerValue sum, long concreteSum) {
+		return ExpressionFactory.intern(new IntegerBinaryExpression(sum, Operator.PLUS, one, concreteSum + 1));
+	}
+
+	/**
+	 * Sums with a symbolic variable, which are all found in the table
+	 */
+	@Benchmark
+	public IntegerValue internSymbolic() {
+		IntegerValue sum = x;
+		for (int i = 0; i < iterations; i++) {
+			sum = add(sum, i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Concrete values, which are most of the ones pushed on the operand stack
+	 */
+	@Benchmark
+	public IntegerValue internConcrete() {
+		IntegerValue value = null;
+		for (int i = 0; i < iterations; i++) {
+			value = ExpressionFactory.intern(ExpressionFactory.buildNewIntegerConstant(i));
+		}
+		return value;
+	}
+
+	@Benchmark
+	public List<SmtExpr> translate() {
+		ExprToSmtVisitor visitor = new ExprToSmtVisitor();
+		List<SmtExpr> assertions = new ArrayList<>(iterations);
+		for (Constraint<?> constraint : pathCondition) {
+			assertions.add(constraint.getLeftOperand().accept(visitor, null));
+		}
+		return assertions;
+	}
+}
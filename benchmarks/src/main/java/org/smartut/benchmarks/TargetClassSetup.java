@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+
+import org.smartut.Properties;
+import org.smartut.Properties.Criterion;
+import org.smartut.TestGenerationContext;
+import org.smartut.classpath.ClassPathHandler;
+import org.smartut.setup.DependencyAnalysis;
+import org.smartut.utils.Randomness;
+
+/**
+ * Prepares the same state a search would have for one of the example classes
+ * of the client tests: instrumented class loader, branch pool and test
+ * cluster.
+ */
+final class TargetClassSetup {
+
+	private TargetClassSetup() {
+	}
+
+	static void setUp(Class<?> targetClass) {
+		Properties.getInstance().resetToDefaults();
+		Properties.CRITERION = new Criterion[] { Criterion.BRANCH };
+		Properties.TARGET_CLASS = targetClass.getCanonicalName();
+		Randomness.setSeed(42);
+
+		ClassPathHandler.getInstance().addElementToTargetProjectClassPath(getLocation(targetClass));
+		TestGenerationContext.getInstance().resetContext();
+		try {
+			DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS,
+					Arrays.asList(ClassPathHandler.getInstance().getClassPathElementsForTargetProject()));
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("Cannot analyze " + Properties.TARGET_CLASS, e);
+		}
+	}
+
+	static void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static String getLocation(Class<?> clazz) {
+		try {
+			return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException("Cannot locate " + clazz.getName(), e);
+		}
+	}
+}
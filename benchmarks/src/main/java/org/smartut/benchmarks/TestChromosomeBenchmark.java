@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.Properties;
+import org.smartut.testcase.TestChromosome;
+import org.smartut.testcase.factories.RandomLengthTestFactory;
+
+import com.examples.with.different.packagename.ArrayStack;
+
+/**
+ * Variation operators on the tests of a class with a small test cluster.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TestChromosomeBenchmark {
+
+	/**
+	 * Upper bound of the random length of the test
+	 */
+	@Param({ "40", "400" })
+	public int chromosomeLength;
+
+	private TestChromosome test;
+
+	/**
+	 * Fresh copy for each call of mutate, so that the tests do not keep
+	 * growing over the iterations
+	 */
+	private TestChromosome copy;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		TargetClassSetup.setUp(ArrayStack.class);
+		Properties.CHROMOSOME_LENGTH = chromosomeLength;
+		test = new RandomLengthTestFactory().getChromosome();
+	}
+
+	@Setup(Level.Invocation)
+	public void copy() {
+		copy = test.clone();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TargetClassSetup.tearDown();
+	}
+
+	@Benchmark
+	public TestChromosome cloneTest() {
+		return test.clone();
+	}
+
+	/**
+	 * Copies of copies, as made generation after generation, whose references
+	 * were never looked up in their own test
+	 */
+	@Benchmark
+	public TestChromosome cloneCopy() {
+		return copy.clone();
+	}
+
+	@Benchmark
+	public TestChromosome mutate() {
+		copy.mutate();
+		return copy;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smartut.Properties;
+import org.smartut.TestGenerationContext;
+import org.smartut.symbolic.TestCaseBuilder;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testcase.execution.TestCaseExecutor;
+import org.smartut.testcase.variable.VariableReference;
+
+import com.examples.with.different.packagename.FlagExample1;
+
+/**
+ * Execution of a small test on an instrumented class, including the
+ * sandboxing, the timeout thread and the observers of the executor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TestExecutionBenchmark {
+
+	/**
+	 * Number of calls of the method under test in the test
+	 */
+	@Param({ "1", "100" })
+	public int calls;
+
+	/**
+	 * Whether the statements invoke the SUT through method handles
+	 */
+	@Param({ "false", "true" })
+	public boolean methodHandles;
+
+	private TestCase test;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		Properties.METHOD_HANDLE_INVOCATION = methodHandles;
+		TargetClassSetup.setUp(FlagExample1.class);
+		TestCaseExecutor.initExecutor();
+
+		Class<?> clazz = TestGenerationContext.getInstance().getClassLoaderForSUT()
+				.loadClass(FlagExample1.class.getCanonicalName());
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference example = builder.appendConstructor(clazz.getConstructor());
+		VariableReference value = builder.appendIntPrimitive(28241);
+		Method testMe = clazz.getMethod("testMe", int.class);
+		for (int i = 0; i < calls; i++) {
+			builder.appendMethod(example, testMe, value);
+		}
+		test = builder.getDefaultTestCase();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TestCaseExecutor.pullDown();
+		TargetClassSetup.tearDown();
+		Properties.METHOD_HANDLE_INVOCATION = false;
+	}
+
+	@Benchmark
+	public ExecutionResult execute() {
+		return TestCaseExecutor.getInstance().execute(test);
+	}
+}
@@ -315,6 +315,17 @@ public class Properties extends AdaptedProperties {
 	@Parameter(key = "migrants_communication_rate", group = "Test Creation", description = "Determines amount of migrants per communication step")
 	public static int MIGRANTS_COMMUNICATION_RATE = 3;
 
+	public enum MigrationTopology {
+		RING, FULLY_CONNECTED, RANDOM
+	}
+
+	@Parameter(key = "migration_topology", group = "Test Creation", description = "Which clients receive the migrants of a client: the next one in a ring, all the others, or a random one")
+	public static MigrationTopology MIGRATION_TOPOLOGY = MigrationTopology.RING;
+
+	@Parameter(key = "migration_queue_size", group = "Test Creation", description = "Maximum number of migrants a client keeps waiting to be sent. When the queue is full, the oldest migrants are dropped")
+	@IntValue(min = 1)
+	public static int MIGRATION_QUEUE_SIZE = 30;
+
 	@Parameter(key = "master_remote_debug", group = "Test Creation", description = "master process debug")
 	public static boolean MASTER_REMOTE_DEBUG = false;
 
@@ -454,6 +465,35 @@ public class Properties extends AdaptedProperties {
 	@Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
 	public static String CVC4_PATH = null;
 
+	@Parameter(key = "smt_solver_sessions", group = "DSE", description = "Keep the external SMT solver running between queries and solve them incrementally with push/pop, instead of launching a new process per query")
+	public static boolean SMT_SOLVER_SESSIONS = true;
+
+	@Parameter(key = "solver_cache_size", group = "DSE", description = "Maximum number of constraint systems whose SAT/UNSAT result is kept in the solver cache (least recently used ones are evicted)")
+	public static int SOLVER_CACHE_SIZE = 10000;
+
+	@Parameter(key = "solver_cache_model_reuse", group = "DSE", description = "Number of recently found SAT models that are evaluated against a new query before calling the solver")
+	public static int SOLVER_CACHE_MODEL_REUSE = 16;
+
+	public enum DSEExplorationStrategy {
+		/** negate the conditions of the tests in the order the tests were found, last condition first */
+		DEPTH_FIRST,
+		/** negate first the conditions of the tests that covered most, and each condition of a path only once */
+		GENERATIONAL,
+		/** negate first the conditions whose other branch is not covered yet, closest one first */
+		UNCOVERED_BRANCH
+	}
+
+	@Parameter(key = "dse_exploration_strategy", group = "DSE", description = "Order in which DSE negates the branch conditions of the explored paths")
+	public static DSEExplorationStrategy DSE_EXPLORATION_STRATEGY = DSEExplorationStrategy.UNCOVERED_BRANCH;
+
+	@Parameter(key = "dse_max_negation_depth", group = "DSE", description = "Only negate the first X branch conditions of a path condition (0 for no bound)")
+	@IntValue(min = 0)
+	public static int DSE_MAX_NEGATION_DEPTH = 0;
+
+	@Parameter(key = "dse_solver_threads", group = "DSE", description = "Number of threads solving DSE queries of different path conditions concurrently")
+	@IntValue(min = 1)
+	public static int DSE_SOLVER_THREADS = 1;
+
 
 	// --------- LS ---------
 
@@ -839,6 +879,12 @@ public class Properties extends AdaptedProperties {
 	@Parameter(key = "ctg_tmp_tests_dir_name", group = "Continuous Test Generation", description = "")
 	public static String CTG_TMP_TESTS_DIR_NAME = "tests";
 
+	@Parameter(key = "ctg_instrumentation_cache_dir_name", group = "Continuous Test Generation", description = "Name of the folder in ctg_dir where the instrumented bytecode of dependencies is cached across CTG runs")
+	public static String CTG_INSTRUMENTATION_CACHE_DIR_NAME = "instrumentation-cache";
+
+	@Parameter(key = "ctg_classpath_index_dir_name", group = "Continuous Test Generation", description = "Name of the folder in ctg_dir where the index of the classes of each jar of the classpath is kept across CTG runs")
+	public static String CTG_CLASSPATH_INDEX_DIR_NAME = "classpath-index";
+
 	@Parameter(key = "ctg_seeds_file_in", group = "Continuous Test Generation", description = "If specified, load serialized tests from that file")
 	public static String CTG_SEEDS_FILE_IN = null;
 
@@ -1214,6 +1260,9 @@ public class Properties extends AdaptedProperties {
 	@Parameter(key = "inheritance_file", description = "Cached version of inheritance tree")
 	public static String INHERITANCE_FILE = "";
 
+	@Parameter(key = "classpath_index_dir", description = "Directory of a persistent index of the classes in each jar of the classpath, shared by all the client processes. If not set, every jar is scanned from scratch")
+	public static String CLASSPATH_INDEX_DIR = null;
+
 	@Parameter(key = "branch_eval", description = "Jeremy's branch evaluation")
 	public static boolean BRANCH_EVAL = false;
 
@@ -1243,6 +1292,9 @@ public class Properties extends AdaptedProperties {
 	@Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
 	public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+	@Parameter(key = "instrumentation_cache_dir", description = "Directory of a persistent cache of the instrumented bytecode of classes that are not analyzed (e.g., dependencies of the class under test). If not set, every class is instrumented from scratch")
+	public static String INSTRUMENTATION_CACHE_DIR = null;
+
 	@Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
 	public static boolean INSTRUMENT_PARENT = false;
 
@@ -1405,9 +1457,21 @@ public class Properties extends AdaptedProperties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+    @Parameter(key = "loop_iteration_histogram", group = "Output", description = "Output a histogram of the number of iterations of the loops of the CUT per test execution")
+    public static boolean LOOP_ITERATION_HISTOGRAM = false;
+
 	@Parameter(key = "generate_false_next", group = "Test Generation", description = "Whether generate false to the end of iterator next")
 	public static boolean GENERATE_FALSE_NEXT = true;
 
+	@Parameter(key = "array_execution_trace", group = "Test Execution", description = "Keep branch distances and mutant distances of the execution trace in primitive arrays indexed by id, instead of synchronized maps")
+	public static boolean ARRAY_EXECUTION_TRACE = false;
+
+	@Parameter(key = "method_handle_invocation", group = "Test Execution", description = "Invoke the methods, constructors and fields of statements through cached method handles instead of reflection, once they were invoked through reflection")
+	public static boolean METHOD_HANDLE_INVOCATION = false;
+
+	@Parameter(key = "parallel_execution_workers", group = "Test Execution", description = "Number of workers executing tests of the same generation concurrently, each on its own copy of the instrumented classes. Values of 1 or less execute tests sequentially. The mocks of the runtime environment are shared by all workers, so tests are still executed sequentially unless virtual_fs, virtual_net, replace_calls, replace_system_in, replace_gui and jee are all false")
+	public static int PARALLEL_EXECUTION_WORKERS = 1;
+
     // ---------------------------------------------------------------
 	// Debugging
 
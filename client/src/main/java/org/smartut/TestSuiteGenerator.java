@@ -49,6 +49,7 @@ import org.smartut.statistics.RuntimeVariable;
 import org.smartut.statistics.StatisticsSender;
 import org.smartut.strategy.TestGenerationStrategy;
 import org.smartut.symbolic.DSEStats;
+import org.smartut.symbolic.solver.SmtSolverSessions;
 import org.smartut.testcase.*;
 import org.smartut.testcase.execution.*;
 import org.smartut.testcase.execution.reset.ClassReInitializer;
@@ -191,6 +192,7 @@ public class TestSuiteGenerator {
 			// Once class loading is complete we can start checking loops
 			// without risking to interfere with class initialisation
 			LoopCounter.getInstance().setActive(true);
+			LoopCounter.getInstance().setHistogramEnabled(Properties.LOOP_ITERATION_HISTOGRAM);
 		}
 
 		/*
@@ -503,6 +505,7 @@ public class TestSuiteGenerator {
 		DSEStats.getInstance().trackConstraintTypes();
 
 		DSEStats.getInstance().trackSolverStatistics();
+		SmtSolverSessions.getInstance().closeAll();
 
 		if (Properties.DSE_PROBABILITY > 0.0 && Properties.LOCAL_SEARCH_RATE > 0
 				&& Properties.LOCAL_SEARCH_PROBABILITY > 0.0) {
@@ -47,6 +47,17 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 
 	protected OutputTrace<T> trace = new OutputTrace<>();
 
+	/**
+	 * Assertion observers only read the values of the test, which are the
+	 * same before the first observed position as in the execution the
+	 * position was derived from. Observers that call methods of the SUT,
+	 * e.g., inspectors, may change its state and override this.
+	 */
+	@Override
+	public boolean observesAllStatements() {
+		return false;
+	}
+
 	protected boolean checkThread() {
 		return ExecutionTracer.isThreadNeqCurrentThread();
 	}
@@ -33,6 +33,13 @@ import org.objectweb.asm.Type;
 
 public class ComparisonTraceObserver extends AssertionTraceObserver<ComparisonTraceEntry> {
 
+	/** {@inheritDoc} */
+	@Override
+	public boolean observesAllStatements() {
+		// equals may change the state of the objects, unless only pure ones are used
+		return !Properties.PURE_EQUALS;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.smartut.assertion.AssertionTraceObserver#visit(org.smartut.testcase.StatementInterface, org.smartut.testcase.Scope, org.smartut.testcase.VariableReference)
 	 */
@@ -18,6 +18,13 @@ import java.util.Set;
 
 public class ContainsTraceObserver extends AssertionTraceObserver<ContainsTraceEntry> {
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean observesAllStatements() {
+        // contains may change the state of the collection
+        return true;
+    }
+
     /* (non-Javadoc)
 	 * @see org.smartut.assertion.AssertionTraceObserver#visit(org.smartut.testcase.StatementInterface, org.smartut.testcase.Scope, org.smartut.testcase.VariableReference)
 	 */
@@ -35,6 +35,13 @@ import org.smartut.testcase.statements.PrimitiveStatement;
 
 public class InspectorTraceObserver extends AssertionTraceObserver<InspectorTraceEntry> {
 
+	/** {@inheritDoc} */
+	@Override
+	public boolean observesAllStatements() {
+		// Inspectors may change the state of the object, unless only pure ones are used
+		return !Properties.PURE_INSPECTORS;
+	}
+
 	private static Pattern addressPattern = Pattern.compile(".*[\\w+\\.]+@[abcdef\\d]+.*", Pattern.MULTILINE);
 	
 
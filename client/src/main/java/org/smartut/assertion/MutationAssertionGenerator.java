@@ -31,6 +31,7 @@ import java.util.Set;
 import org.smartut.Properties;
 import org.smartut.Properties.Criterion;
 import org.smartut.TestGenerationContext;
+import org.smartut.coverage.mutation.MutantReachObserver;
 import org.smartut.coverage.mutation.Mutation;
 import org.smartut.coverage.mutation.MutationObserver;
 import org.smartut.coverage.mutation.MutationPool;
@@ -76,6 +77,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	protected final static ArrayTraceObserver arrayObserver = new ArrayTraceObserver();
 	protected final static ArrayLengthObserver arrayLengthObserver = new ArrayLengthObserver();
 	protected final static ContainsTraceObserver containsTraceObserver = new ContainsTraceObserver();
+	protected final static MutantReachObserver reachObserver = new MutantReachObserver();
 
 	protected final static Map<Mutation, Integer> timedOutMutations = new HashMap<>();
 
@@ -103,6 +105,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		TestCaseExecutor.getInstance().addObserver(arrayObserver);
 		TestCaseExecutor.getInstance().addObserver(arrayLengthObserver);
 		TestCaseExecutor.getInstance().addObserver(containsTraceObserver);
+		TestCaseExecutor.getInstance().addObserver(reachObserver);
 	}
 
 	/**
@@ -124,6 +127,10 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	 *            The mutant on which the test case shall be executed
 	 */
 	protected ExecutionResult runTest(TestCase test, Mutation mutant) {
+		return runTest(test, mutant, 0);
+	}
+
+	private ExecutionResult runTest(TestCase test, Mutation mutant, int firstObservedPosition) {
 		ExecutionResult result = new ExecutionResult(test, mutant);
 		// resetObservers();
 		comparisonObserver.clear();
@@ -142,7 +149,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 			} else {
 				MutationObserver.activateMutation(mutant);
 			}
-			result = TestCaseExecutor.getInstance().execute(test);
+			result = TestCaseExecutor.getInstance().executeObservingFrom(test, firstObservedPosition);
 			MutationObserver.deactivateMutation(mutant);
 
 			int num = test.size();
@@ -165,6 +172,26 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		return result;
 	}
 
+	/**
+	 * Execute the test on a mutant, and only observe the statements starting
+	 * at the first one that reached the mutant in the original execution. The
+	 * outcome of the statements before is the same as in the original
+	 * execution, and is copied from it.
+	 * 
+	 * @param test
+	 * @param mutant
+	 * @param origResult
+	 *            the result of executing the test without mutant
+	 * @return
+	 */
+	protected ExecutionResult runTest(TestCase test, Mutation mutant, ExecutionResult origResult) {
+		int position = origResult.getFirstPositionReaching(mutant.getId());
+		logger.debug("Mutant {} is first reached at statement {}", mutant.getId(), position);
+		ExecutionResult result = runTest(test, mutant, position);
+		result.addTracesBefore(origResult, position);
+		return result;
+	}
+
 	protected Criterion[] oldCriterion = Properties.CRITERION;
 
 	/**
@@ -64,6 +64,24 @@ public class OutputTrace<T extends OutputTraceEntry> implements Cloneable {
 		trace.get(position).put(var.getStPosition(), entry);
 	}
 
+	/**
+	 * Copy the entries of another trace of the same test for all statements
+	 * before the given position, replacing the entries of this trace for them
+	 * 
+	 * @param other
+	 *            a trace produced by the same kind of observer
+	 * @param position
+	 *            a int.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized void addEntriesBefore(OutputTrace<?> other, int position) {
+		for (Map.Entry<Integer, ? extends Map<Integer, ?>> entry : other.trace.entrySet()) {
+			if (entry.getKey() < position) {
+				trace.put(entry.getKey(), new HashMap<>((Map<Integer, T>) entry.getValue()));
+			}
+		}
+	}
+
 	/**
 	 * Get the current entry at the given position
 	 * 
@@ -200,7 +200,7 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 			*/
 
 			logger.debug("Running test on mutation {}",  m.getMutationName());
-			ExecutionResult mutantResult = runTest(test, m);
+			ExecutionResult mutantResult = runTest(test, m, origResult);
 
 			int numKilled = 0;
 			for (Class<?> observerClass : observerClasses) {
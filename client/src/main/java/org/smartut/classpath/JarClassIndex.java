@@ -0,0 +1,397 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.smartut.Properties;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The classes of a jar file, with what the inheritance tree and the selection
+ * of the classes to test need to know about them, so that the jar does not
+ * have to be parsed again.
+ * 
+ * If {@link Properties#CLASSPATH_INDEX_DIR} is set, the index of each jar is
+ * stored there, under a key made of the path, the size and the modification
+ * time of the jar, and it is shared by all the client processes. A jar that
+ * changes simply gets a new index.
+ */
+public class JarClassIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(JarClassIndex.class);
+
+	/**
+	 * Increase when the information stored or the file format changes
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * What is known about a class of the jar
+	 */
+	public static final class ClassInfo {
+
+		private final String name;
+
+		private final int access;
+
+		private final String superName;
+
+		private final List<String> interfaces;
+
+		private final List<String> methodNames;
+
+		private final List<String> methodDescriptors;
+
+		private final boolean testable;
+
+		private ClassInfo(String name, int access, String superName, List<String> interfaces,
+				List<String> methodNames, List<String> methodDescriptors, boolean testable) {
+			this.name = name;
+			this.access = access;
+			this.superName = superName;
+			this.interfaces = interfaces;
+			this.methodNames = methodNames;
+			this.methodDescriptors = methodDescriptors;
+			this.testable = testable;
+		}
+
+		/**
+		 * @param cn
+		 *            a class read with at least its methods' headers
+		 * @return
+		 */
+		@SuppressWarnings("unchecked")
+		public static ClassInfo of(ClassNode cn) {
+			List<String> methodNames = new ArrayList<>(cn.methods.size());
+			List<String> methodDescriptors = new ArrayList<>(cn.methods.size());
+			boolean testable = false;
+			for (MethodNode mn : (List<MethodNode>) cn.methods) {
+				methodNames.add(mn.name);
+				methodDescriptors.add(mn.desc);
+				// as ResourceList.isClassTestable: public, protected or default
+				if ((mn.access & Opcodes.ACC_PRIVATE) == 0) {
+					testable = true;
+				}
+			}
+			return new ClassInfo(cn.name, cn.access, cn.superName, new ArrayList<>((List<String>) cn.interfaces),
+					methodNames, methodDescriptors, testable);
+		}
+
+		/**
+		 * @return the name of the class, with slashes
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the access flags of the class, including
+		 *         {@link Opcodes#ACC_DEPRECATED}
+		 */
+		public int getAccess() {
+			return access;
+		}
+
+		/**
+		 * @return the name of the superclass with slashes, or null for
+		 *         java/lang/Object
+		 */
+		public String getSuperName() {
+			return superName;
+		}
+
+		public List<String> getInterfaces() {
+			return interfaces;
+		}
+
+		public int getNumberOfMethods() {
+			return methodNames.size();
+		}
+
+		public String getMethodName(int i) {
+			return methodNames.get(i);
+		}
+
+		public String getMethodDescriptor(int i) {
+			return methodDescriptors.get(i);
+		}
+
+		public boolean isInterface() {
+			return (access & Opcodes.ACC_INTERFACE) == Opcodes.ACC_INTERFACE;
+		}
+
+		public boolean isDeprecated() {
+			return (access & Opcodes.ACC_DEPRECATED) == Opcodes.ACC_DEPRECATED;
+		}
+
+		/**
+		 * @return if there is at least one method that is not private
+		 */
+		public boolean isTestable() {
+			return testable;
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			out.writeUTF(name);
+			out.writeInt(access);
+			out.writeBoolean(superName != null);
+			if (superName != null) {
+				out.writeUTF(superName);
+			}
+			out.writeInt(interfaces.size());
+			for (String interfaceName : interfaces) {
+				out.writeUTF(interfaceName);
+			}
+			out.writeInt(methodNames.size());
+			for (int i = 0; i < methodNames.size(); i++) {
+				out.writeUTF(methodNames.get(i));
+				out.writeUTF(methodDescriptors.get(i));
+			}
+			out.writeBoolean(testable);
+		}
+
+		private static ClassInfo read(DataInputStream in) throws IOException {
+			String name = in.readUTF();
+			int access = in.readInt();
+			String superName = in.readBoolean() ? in.readUTF() : null;
+			int numInterfaces = in.readInt();
+			List<String> interfaces = new ArrayList<>(numInterfaces);
+			for (int i = 0; i < numInterfaces; i++) {
+				interfaces.add(in.readUTF());
+			}
+			int numMethods = in.readInt();
+			List<String> methodNames = new ArrayList<>(numMethods);
+			List<String> methodDescriptors = new ArrayList<>(numMethods);
+			for (int i = 0; i < numMethods; i++) {
+				methodNames.add(in.readUTF());
+				methodDescriptors.add(in.readUTF());
+			}
+			boolean testable = in.readBoolean();
+			return new ClassInfo(name, access, superName, interfaces, methodNames, methodDescriptors, testable);
+		}
+	}
+
+	/**
+	 * Key -> full qualifying name of a class in the jar, eg org.some.Foo, in
+	 * the order of the entries of the jar
+	 * <p>
+	 * Value -> the class, or null if it could not be parsed
+	 */
+	private final Map<String, ClassInfo> classes;
+
+	private JarClassIndex(Map<String, ClassInfo> classes) {
+		this.classes = classes;
+	}
+
+	/**
+	 * @return the names (eg foo.Foo) of all the .class files in the jar
+	 */
+	public Set<String> getClassNames() {
+		return Collections.unmodifiableSet(classes.keySet());
+	}
+
+	/**
+	 * @param className
+	 *            a full qualifying name, eg org.some.Foo
+	 * @return null if the class is not in the jar or could not be parsed
+	 */
+	public ClassInfo getClassInfo(String className) {
+		return classes.get(className);
+	}
+
+	public static boolean isEnabled() {
+		return Properties.CLASSPATH_INDEX_DIR != null && !Properties.CLASSPATH_INDEX_DIR.isEmpty();
+	}
+
+	/**
+	 * Reads the stored index of a jar
+	 * 
+	 * @param jar
+	 * @return null if the index is not enabled, or there is no index for the
+	 *         current version of the jar
+	 */
+	public static JarClassIndex load(File jar) {
+		if (!isEnabled()) {
+			return null;
+		}
+		File file = getFile(jar);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			int size = in.readInt();
+			Map<String, ClassInfo> classes = new LinkedHashMap<>(size * 2);
+			for (int i = 0; i < size; i++) {
+				String className = in.readUTF();
+				classes.put(className, in.readBoolean() ? ClassInfo.read(in) : null);
+			}
+			return new JarClassIndex(classes);
+		} catch (IOException e) {
+			logger.warn("Cannot read class index {} of {}: {}", file, jar, e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the stored index of a jar, or parses all the classes of the jar
+	 * and stores their index if the index is enabled
+	 * 
+	 * @param jar
+	 * @return null if the jar cannot be opened
+	 */
+	public static JarClassIndex getOrCreate(File jar) {
+		JarClassIndex index = load(jar);
+		if (index != null) {
+			return index;
+		}
+		index = scan(jar);
+		if (index != null && isEnabled()) {
+			index.store(getFile(jar));
+		}
+		return index;
+	}
+
+	/**
+	 * Parses all the classes of a jar
+	 * 
+	 * @param jar
+	 * @return null if the jar cannot be opened
+	 */
+	public static JarClassIndex scan(File jar) {
+		Map<String, ClassInfo> classes = new LinkedHashMap<>();
+		try (JarFile zf = new JarFile(jar)) {
+			Enumeration<JarEntry> e = zf.entries();
+			while (e.hasMoreElements()) {
+				JarEntry ze = e.nextElement();
+				String entryName = ze.getName();
+				if (!entryName.endsWith(".class")) {
+					continue;
+				}
+				String className = ResourceList.getClassNameFromResourcePath(entryName);
+				if (classes.containsKey(className)) {
+					continue;
+				}
+				classes.put(className, parse(zf, ze));
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to open/analyze jar file " + jar.getAbsolutePath() + " , " + e.getMessage());
+			return null;
+		}
+		return new JarClassIndex(classes);
+	}
+
+	private static ClassInfo parse(JarFile zf, JarEntry ze) {
+		try (InputStream in = zf.getInputStream(ze)) {
+			ClassReader reader = new ClassReader(in);
+			ClassNode cn = new ClassNode();
+			reader.accept(cn, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE);
+			return ClassInfo.of(cn);
+		} catch (Exception e) {
+			/*
+			 * even if there is a problem with one of the entries, we can still
+			 * go on and look at the others
+			 */
+			logger.error("Error while analyzing class " + ze.getName() + " in the jar " + zf.getName() + ": "
+					+ e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * The file is written under a temporary name and then renamed, so that
+	 * concurrent clients never read a partial index
+	 */
+	private void store(File file) {
+		File tmp = null;
+		try {
+			File dir = file.getParentFile();
+			if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+				throw new IOException("Cannot create directory " + dir);
+			}
+			tmp = File.createTempFile(file.getName(), ".tmp", dir);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(classes.size());
+				for (Map.Entry<String, ClassInfo> entry : classes.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeBoolean(entry.getValue() != null);
+					if (entry.getValue() != null) {
+						entry.getValue().write(out);
+					}
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			logger.warn("Cannot write class index {}: {}", file, e.toString());
+			if (tmp != null) {
+				tmp.delete();
+			}
+		}
+	}
+
+	private static File getFile(File jar) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update((FORMAT_VERSION + "|" + jar.getAbsolutePath() + "|" + jar.length() + "|" + jar.lastModified())
+				.getBytes(StandardCharsets.UTF_8));
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+		return new File(Properties.CLASSPATH_INDEX_DIR, key + ".idx");
+	}
+}
@@ -98,6 +98,13 @@ public class ResourceList {
 			}
 		}
 
+		/**
+		 * Key -> the path of a jar file
+		 * <p>
+		 * Value -> the stored index of its classes, if there is one
+		 */
+		public Map<String,JarClassIndex> jarIndexes = new LinkedHashMap<>();
+
 		/**
 		 * Keep track of all jars we opened.
 		 * Key -> the path of the jar file
@@ -343,20 +350,49 @@ public class ResourceList {
 	}
 
 	public boolean isClassAnInterface(String className) throws IOException {
+		JarClassIndex.ClassInfo info = getIndexedClass(className);
+		if(info != null){
+			return info.isInterface();
+		}
 		InputStream input = getClassAsStream(className);		
 		return isClassAnInterface(input);
 	}
 
 	public boolean isClassDeprecated(String className) throws IOException {
+		JarClassIndex.ClassInfo info = getIndexedClass(className);
+		if(info != null){
+			return info.isDeprecated();
+		}
 		InputStream input = getClassAsStream(className);		
 		return isClassDeprecated(input);
 	}
 	
 	public boolean isClassTestable(String className) throws IOException {
+		JarClassIndex.ClassInfo info = getIndexedClass(className);
+		if(info != null){
+			return info.isTestable();
+		}
 		InputStream input = getClassAsStream(className);		
 		return isClassTestable(input);
 	}
 
+	/**
+	 * 
+	 * @param className a fully qualifying name, e.g. org.some.Foo
+	 * @return the class from the stored index of the jar containing it, or null if there is none
+	 */
+	private JarClassIndex.ClassInfo getIndexedClass(String className) {
+		String cpEntry = getCache().mapClassToCP.get(className);
+		if(cpEntry == null){
+			return null;
+		}
+		JarClassIndex index = getCache().jarIndexes.get(cpEntry);
+		if(index == null){
+			return null;
+		}
+		return index.getClassInfo(className);
+	}
+
 	/**
 	 * <p>
 	 * Given a resource path, eg foo/Foo.class, return the class name, eg foo.Foo
@@ -579,6 +615,16 @@ public class ResourceList {
 	}
 
 	private void scanJar(String jarEntry) {
+		JarClassIndex index = JarClassIndex.load(new File(jarEntry));
+		if(index != null){
+			// no need to open the jar until one of its classes is loaded
+			getCache().jarIndexes.put(jarEntry, index);
+			for(String className : index.getClassNames()){
+				addJarClass(jarEntry, className);
+			}
+			return;
+		}
+
 		JarFile zf = getCache().getJar(jarEntry);
 
 		Enumeration<?> e = zf.entries();
@@ -590,26 +636,28 @@ public class ResourceList {
 				continue;
 			}
 
-			String className = getClassNameFromResourcePath(entryName);
-			
-			// The same class may exist in different classpath entries
-			// and only the first one is kept
-			if(getCache().mapClassToCP.containsKey(className))
-				continue;
-			
-			if(className.contains("$")) {
-				String outerClass = className.substring(0, className.indexOf('$'));
-				if(getCache().mapClassToCP.containsKey(outerClass)) {
-					if(!getCache().mapClassToCP.get(outerClass).equals(jarEntry)) {
-						continue;
-					}
+			addJarClass(jarEntry, getClassNameFromResourcePath(entryName));
+		}
+	}
+
+	private void addJarClass(String jarEntry, String className) {
+		// The same class may exist in different classpath entries
+		// and only the first one is kept
+		if(getCache().mapClassToCP.containsKey(className))
+			return;
+
+		if(className.contains("$")) {
+			String outerClass = className.substring(0, className.indexOf('$'));
+			if(getCache().mapClassToCP.containsKey(outerClass)) {
+				if(!getCache().mapClassToCP.get(outerClass).equals(jarEntry)) {
+					return;
 				}
 			}
-			
-			getCache().mapClassToCP.put(className, jarEntry);//getPackageName
-			getCache().mapCPtoClasses.get(jarEntry).add(className);
-			getCache().addPrefix(getParentPackageName(className), jarEntry);
 		}
+
+		getCache().mapClassToCP.put(className, jarEntry);//getPackageName
+		getCache().mapCPtoClasses.get(jarEntry).add(className);
+		getCache().addPrefix(getParentPackageName(className), jarEntry);
 	}
 
 }
\ No newline at end of file
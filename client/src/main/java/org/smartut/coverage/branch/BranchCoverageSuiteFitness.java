@@ -37,8 +37,11 @@ import org.smartut.testcase.TestFitnessFunction;
 import org.smartut.testcase.execution.ExecutionResult;
 import org.smartut.testcase.statements.ConstructorStatement;
 import org.smartut.testcase.statements.Statement;
+import org.smartut.testsuite.IncrementalSuiteFitness;
+import org.smartut.testsuite.SuiteAggregate;
 import org.smartut.testsuite.TestSuiteChromosome;
 import org.smartut.testsuite.TestSuiteFitnessFunction;
+import org.smartut.testsuite.TraceContribution;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +51,7 @@ import org.slf4j.LoggerFactory;
  * 
  * @author Gordon Fraser
  */
-public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
+public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction implements IncrementalSuiteFitness {
 
 	private static final long serialVersionUID = 2991632394620406243L;
 
@@ -80,6 +83,17 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	private final Set<Integer> removedBranchesT = new LinkedHashSet<>();
 	private final Set<Integer> removedBranchesF = new LinkedHashSet<>();
 	private final Set<String> removedRootBranches = new LinkedHashSet<>();
+
+	// Channels of the contributions of the tests
+	private static final int PREDICATES = 0;
+	private static final int TRUE_DISTANCES = 1;
+	private static final int FALSE_DISTANCES = 2;
+	private static final int CALLS = 3;
+	private static final SuiteAggregate.Kind[] CHANNELS = { SuiteAggregate.Kind.SUM, SuiteAggregate.Kind.MIN,
+			SuiteAggregate.Kind.MIN, SuiteAggregate.Kind.SUM };
+
+	// Methods are identified by their position in this map in the contributions
+	private final Map<String, Integer> methodIds = new LinkedHashMap<>();
 	
 	/**
 	 * <p>
@@ -153,7 +167,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	 * @param callCount
 	 */
 	private void handleConstructorExceptions(TestChromosome test, ExecutionResult result,
-	        Map<String, Integer> callCount) {
+	        Set<String> calledMethods, TraceContribution.Builder contribution) {
 
 			if (result.hasTimeout() || result.hasTestException() || result.noThrownExceptions()) {
 				return;
@@ -174,8 +188,10 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 				String className = c.getConstructor().getName();
 				String methodName = "<init>" + Type.getConstructorDescriptor(c.getConstructor().getConstructor());
 				String name = className + "." + methodName;
-				if (!callCount.containsKey(name)) {
-					callCount.put(name, 1);
+				if (!calledMethods.contains(name)) {
+					if (methods.contains(name) || branchlessMethodCoverageMap.containsKey(name)) {
+						contribution.add(CALLS, getMethodId(name), 1);
+					}
 					if (branchlessMethodCoverageMap.containsKey(name)) {
 						TestFitnessFunction goal = branchlessMethodCoverageMap.get(name);
 						test.getTestCase().addCoveredGoal(goal);
@@ -189,17 +205,14 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			}
 	}
 
-	protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Map<String, Integer> callCount) {
+	protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Set<String> calledMethods,
+			TraceContribution.Builder contribution) {
 		for (Entry<String, Integer> entry : result.getTrace().getMethodExecutionCount().entrySet()) {
 
 			if (entry.getKey() == null || !methods.contains(entry.getKey()) || removedRootBranches.contains(entry.getKey()))
 				continue;
-			if (!callCount.containsKey(entry.getKey()))
-				callCount.put(entry.getKey(), entry.getValue());
-			else {
-				callCount.put(entry.getKey(),
-						callCount.get(entry.getKey()) + entry.getValue());
-			}
+			calledMethods.add(entry.getKey());
+			contribution.add(CALLS, getMethodId(entry.getKey()), entry.getValue());
 			// If a specific target method is set we need to check
 			// if this is a target branch or not
 			if (branchlessMethodCoverageMap.containsKey(entry.getKey())) {
@@ -213,33 +226,25 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		}
 	}
 
-	protected void handlePredicateCount(ExecutionResult result, Map<Integer, Integer> predicateCount) {
+	/**
+	 * Predicates that are covered in both directions are not filtered here,
+	 * but when the fitness is computed, as the contribution outlives the
+	 * current set of goals
+	 */
+	protected void handlePredicateCount(ExecutionResult result, TraceContribution.Builder contribution) {
 		for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-			if (!branchesId.contains(entry.getKey())
-					|| (removedBranchesT.contains(entry.getKey())
-					&& removedBranchesF.contains(entry.getKey())))
+			if (!branchesId.contains(entry.getKey()))
 				continue;
-			if (!predicateCount.containsKey(entry.getKey()))
-				predicateCount.put(entry.getKey(), entry.getValue());
-			else {
-				predicateCount.put(entry.getKey(),
-						predicateCount.get(entry.getKey())
-								+ entry.getValue());
-			}
+			contribution.add(PREDICATES, entry.getKey(), entry.getValue());
 		}
 	}
 
 
-	protected void handleTrueDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> trueDistance) {
+	protected void handleTrueDistances(TestChromosome test, ExecutionResult result, TraceContribution.Builder contribution) {
 		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||removedBranchesT.contains(entry.getKey())) continue;
-			if (!trueDistance.containsKey(entry.getKey()))
-				trueDistance.put(entry.getKey(), entry.getValue());
-			else {
-				trueDistance.put(entry.getKey(),
-						Math.min(trueDistance.get(entry.getKey()),
-								entry.getValue()));
-			}
+			if(!branchesId.contains(entry.getKey())) continue;
+			contribution.add(TRUE_DISTANCES, entry.getKey(), entry.getValue());
+			if(removedBranchesT.contains(entry.getKey())) continue;
 			BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageTrueMap.get(entry.getKey());
 			assert goal != null;
 			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
@@ -253,16 +258,15 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
 	}
 
-	protected void handleFalseDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> falseDistance) {
+	protected void handleFalseDistances(TestChromosome test, ExecutionResult result, TraceContribution.Builder contribution) {
 		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||!branchCoverageFalseMap.containsKey(entry.getKey())||removedBranchesF.contains(entry.getKey())) continue;
-			if (!falseDistance.containsKey(entry.getKey()))
-				falseDistance.put(entry.getKey(), entry.getValue());
-			else {
-				falseDistance.put(entry.getKey(),
-						Math.min(falseDistance.get(entry.getKey()),
-								entry.getValue()));
+			if(!branchesId.contains(entry.getKey())) continue;
+			if(removedBranchesF.contains(entry.getKey())) {
+				contribution.add(FALSE_DISTANCES, entry.getKey(), entry.getValue());
+				continue;
 			}
+			if(!branchCoverageFalseMap.containsKey(entry.getKey())) continue;
+			contribution.add(FALSE_DISTANCES, entry.getKey(), entry.getValue());
 			BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageFalseMap.get(entry.getKey());
 			assert goal != null;
 			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
@@ -277,40 +281,40 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	}
 
 	/**
-	 * Iterate over all execution results and summarize statistics
-	 * 
-	 * @param results
-	 * @param predicateCount
-	 * @param callCount
-	 * @param trueDistance
-	 * @param falseDistance
-	 * @return
+	 * Summarizes the statistics of a single execution result. Distances are
+	 * kept for all the goals, including the ones already covered by the
+	 * archive, which are filtered when the fitness is computed.
 	 */
-	private boolean analyzeTraces(TestSuiteChromosome suite,
-								  List<ExecutionResult> results,
-								  Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
-								  Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
-		boolean hasTimeoutOrTestException = false;
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				hasTimeoutOrTestException = true;
-				continue;
-			}
+	@Override
+	public TraceContribution analyzeTrace(ExecutionResult result) {
+		if (result.hasTimeout() || result.hasTestException()) {
+			return TraceContribution.NONE;
+		}
 
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
+
+		TraceContribution.Builder contribution = new TraceContribution.Builder(CHANNELS.length);
+		Set<String> calledMethods = new LinkedHashSet<>();
+		handleBranchlessMethods(test, result, calledMethods, contribution);
+		handlePredicateCount(result, contribution);
+		handleTrueDistances(test, result, contribution);
+		handleFalseDistances(test, result, contribution);
+
+		// In case there were exceptions in a constructor
+		handleConstructorExceptions(test, result, calledMethods, contribution);
+		return contribution.build();
+	}
 
-			handleBranchlessMethods(test, result, callCount);
-			handlePredicateCount(result, predicateCount);
-			handleTrueDistances(test, result, trueDistance);
-			handleFalseDistances(test, result, falseDistance);
+	private int getMethodId(String method) {
+		return methodIds.computeIfAbsent(method, m -> methodIds.size());
+	}
 
-			// In case there were exceptions in a constructor
-			handleConstructorExceptions(test, result, callCount);
-		}
-		return hasTimeoutOrTestException;
+	private boolean isCalled(SuiteAggregate aggregate, String method) {
+		Integer id = methodIds.get(method);
+		return id != null && aggregate.has(CALLS, id);
 	}
 
 	@Override
@@ -380,35 +384,44 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
-		Map<Integer, Double> trueDistance = new LinkedHashMap<>();
-		Map<Integer, Double> falseDistance = new LinkedHashMap<>();
-		Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
-		Map<String, Integer> callCount = new LinkedHashMap<>();
 
-		// Collect stats in the traces 
-		boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-		                                                  callCount, trueDistance,
-		                                                  falseDistance);
+		// Collect stats in the traces, only analyzing the tests that changed
+		SuiteAggregate aggregate = aggregate(suite, results, CHANNELS);
+		boolean hasTimeoutOrTestException = false;
+		for (ExecutionResult result : results) {
+			if (result.hasTimeout() || result.hasTestException()) {
+				hasTimeoutOrTestException = true;
+				break;
+			}
+		}
 
 		// Collect branch distances of covered branches
 		int numCoveredBranches = 0;
+		int numExecutedPredicates = 0;
+
+		for (Integer key : branchesId) {
+			boolean removedT = removedBranchesT.contains(key);
+			boolean removedF = removedBranchesF.contains(key);
+			if (!aggregate.has(PREDICATES, key) || (removedT && removedF))
+				continue;
+			numExecutedPredicates++;
 
-		for (Integer key : predicateCount.keySet()) {
-			
 			double df = 0.0;
 			double dt = 0.0;
-			int numExecuted = predicateCount.get(key);
+			int numExecuted = (int) aggregate.get(PREDICATES, key);
 			
-			if(removedBranchesT.contains(key))
+			if(removedT)
 				numExecuted++;
-			if(removedBranchesF.contains(key))
+			if(removedF)
 				numExecuted++;
-			
-			if (trueDistance.containsKey(key)) {
-				dt =  trueDistance.get(key);
+
+			boolean hasTrueDistance = !removedT && aggregate.has(TRUE_DISTANCES, key);
+			boolean hasFalseDistance = !removedF && aggregate.has(FALSE_DISTANCES, key);
+			if (hasTrueDistance) {
+				dt = aggregate.get(TRUE_DISTANCES, key);
 			}
-			if(falseDistance.containsKey(key)){
-				df = falseDistance.get(key);
+			if(hasFalseDistance){
+				df = aggregate.get(FALSE_DISTANCES, key);
 			}
 			// If the branch predicate was only executed once, then add 1 
 			if (numExecuted == 1) {
@@ -417,20 +430,20 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 				fitness += normalize(df) + normalize(dt);
 			}
 
-			if (falseDistance.containsKey(key)&&(Double.compare(df, 0.0) == 0))
+			if (hasFalseDistance&&(Double.compare(df, 0.0) == 0))
 				numCoveredBranches++;
 
-			if (trueDistance.containsKey(key)&&(Double.compare(dt, 0.0) == 0))
+			if (hasTrueDistance&&(Double.compare(dt, 0.0) == 0))
 				numCoveredBranches++;
 		}
 		
 		// +1 for every branch that was not executed
-		fitness += 2 * (totalBranches - predicateCount.size());
+		fitness += 2 * (totalBranches - numExecutedPredicates);
 
 		// Ensure all methods are called
 		int missingMethods = 0;
 		for (String e : methods) {
-			if (!callCount.containsKey(e)) {
+			if (!isCalled(aggregate, e)) {
 				fitness += 1.0;
 				missingMethods += 1;
 			}
@@ -441,7 +454,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		// Calculate coverage
 		int coverage = numCoveredBranches;
 		for (String e : branchlessMethodCoverageMap.keySet()) {
-			if (callCount.containsKey(e)) {
+			if (isCalled(aggregate, e)) {
 				coverage++;
 			}
 
@@ -24,9 +24,10 @@ import org.smartut.coverage.branch.BranchCoverageSuiteFitness;
 import org.smartut.ga.archive.Archive;
 import org.smartut.testcase.TestChromosome;
 import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testsuite.TraceContribution;
 
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * Created by gordon on 03/04/2016.
@@ -54,7 +55,8 @@ public class TryCatchCoverageSuiteFitness extends BranchCoverageSuiteFitness {
     }
 
     @Override
-    protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Map<String, Integer> callCount) {
+    protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Set<String> calledMethods,
+            TraceContribution.Builder contribution) {
         // no-op
     }
 
@@ -31,8 +31,11 @@ import org.smartut.graphs.cfg.ControlDependency;
 import org.smartut.testcase.TestChromosome;
 import org.smartut.testcase.TestFitnessFunction;
 import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testsuite.IncrementalSuiteFitness;
+import org.smartut.testsuite.SuiteAggregate;
 import org.smartut.testsuite.TestSuiteChromosome;
 import org.smartut.testsuite.TestSuiteFitnessFunction;
+import org.smartut.testsuite.TraceContribution;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +44,7 @@ import org.slf4j.LoggerFactory;
  * 
  * @author Gordon Fraser, Jose Miguel Rojas
  */
-public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
+public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction implements IncrementalSuiteFitness {
 
 	private static final long serialVersionUID = -6369027784777941998L;
 
@@ -62,6 +65,14 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
     private final Set<Integer> branchesToCoverFalse = new LinkedHashSet<>();
     private final Set<Integer> branchesToCoverBoth  = new LinkedHashSet<>();
 
+	// Channels of the contributions of the tests
+	private static final int LINES = 0;
+	private static final int PREDICATES = 1;
+	private static final int TRUE_DISTANCES = 2;
+	private static final int FALSE_DISTANCES = 3;
+	private static final SuiteAggregate.Kind[] CHANNELS = { SuiteAggregate.Kind.SUM, SuiteAggregate.Kind.SUM,
+			SuiteAggregate.Kind.MIN, SuiteAggregate.Kind.MIN };
+
 	public LineCoverageSuiteFitness() {
 		@SuppressWarnings("unused")
 		String prefix = Properties.TARGET_CLASS_PREFIX;
@@ -107,39 +118,42 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	}
 	
 	/**
-	 * Iterate over all execution results and summarize statistics
-	 * 
-	 * @param results
-	 * @param coveredLines
-	 * @return
+	 * Summarizes the statistics of a single execution result: the lines it
+	 * covers, and the branch distances used as guidance
 	 */
-	private boolean analyzeTraces(List<ExecutionResult> results, Set<Integer> coveredLines) {
-		boolean hasTimeoutOrTestException = false;
-
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				hasTimeoutOrTestException = true;
-				continue;
-			}
+	@Override
+	public TraceContribution analyzeTrace(ExecutionResult result) {
+		if (result.hasTimeout() || result.hasTestException()) {
+			return TraceContribution.NONE;
+		}
 
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
 
-			for (Integer goalID : this.lineGoals.keySet()) {
-				TestFitnessFunction goal = this.lineGoals.get(goalID);
+		TraceContribution.Builder contribution = new TraceContribution.Builder(CHANNELS.length);
+		for (Integer goalID : this.lineGoals.keySet()) {
+			TestFitnessFunction goal = this.lineGoals.get(goalID);
 
-				double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
+			double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
 
-				if (fit == 0.0) {
-					coveredLines.add(goalID); // helper to count the number of covered goals
-					this.toRemoveLines.add(goalID); // goal to not be considered by the next iteration of the evolutionary algorithm
-				}
+			if (fit == 0.0) {
+				contribution.add(LINES, goalID, 1); // helper to count the number of covered goals
+				this.toRemoveLines.add(goalID); // goal to not be considered by the next iteration of the evolutionary algorithm
 			}
 		}
 
-		return hasTimeoutOrTestException;
+		for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
+			contribution.add(PREDICATES, entry.getKey(), entry.getValue());
+		}
+		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
+			contribution.add(TRUE_DISTANCES, entry.getKey(), entry.getValue());
+		}
+		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
+			contribution.add(FALSE_DISTANCES, entry.getKey(), entry.getValue());
+		}
+		return contribution.build();
 	}
 
 	/**
@@ -153,14 +167,28 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
-		fitness += getControlDependencyGuidance(results);
+		SuiteAggregate aggregate = aggregate(suite, results, CHANNELS);
+		fitness += getControlDependencyGuidance(aggregate);
 		logger.info("Branch distances: "+fitness);
 
-		Set<Integer> coveredLines = new LinkedHashSet<>();
-		boolean hasTimeoutOrTestException = analyzeTraces(results, coveredLines);
+		boolean hasTimeoutOrTestException = false;
+		for (ExecutionResult result : results) {
+			if (result.hasTimeout() || result.hasTestException()) {
+				hasTimeoutOrTestException = true;
+				break;
+			}
+		}
+
+		// lines already in the archive are counted separately
+		int coveredLines = 0;
+		for (Integer goalID : this.lineGoals.keySet()) {
+			if (aggregate.has(LINES, goalID)) {
+				coveredLines++;
+			}
+		}
 
 		int totalLines = this.numLines;
-		int numCoveredLines = coveredLines.size() + this.removedLines.size();
+		int numCoveredLines = coveredLines + this.removedLines.size();
 		
 		logger.debug("Covered " + numCoveredLines + " out of " + totalLines + " lines, "+removedLines.size() +" in archive");
 		fitness += normalize(totalLines - numCoveredLines);
@@ -264,70 +292,33 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		logger.info("Covering branches both: "+branchesToCoverBoth);
 	}
 
-	private double getControlDependencyGuidance(List<ExecutionResult> results) {
-		Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
-		Map<Integer, Double> trueDistance = new LinkedHashMap<>();
-		Map<Integer, Double> falseDistance = new LinkedHashMap<>();
-
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				continue;
-			}
-			for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-				if (!predicateCount.containsKey(entry.getKey()))
-					predicateCount.put(entry.getKey(), entry.getValue());
-				else {
-					predicateCount.put(entry.getKey(),
-							predicateCount.get(entry.getKey())
-							+ entry.getValue());
-				}
-			}
-			for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-				if (!trueDistance.containsKey(entry.getKey()))
-					trueDistance.put(entry.getKey(), entry.getValue());
-				else {
-					trueDistance.put(entry.getKey(),
-							Math.min(trueDistance.get(entry.getKey()),
-									entry.getValue()));
-				}
-			}
-			for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-				if (!falseDistance.containsKey(entry.getKey()))
-					falseDistance.put(entry.getKey(), entry.getValue());
-				else {
-					falseDistance.put(entry.getKey(),
-							Math.min(falseDistance.get(entry.getKey()),
-									entry.getValue()));
-				}
-			}
-		}
-		
+	private double getControlDependencyGuidance(SuiteAggregate aggregate) {
 		double distance = 0.0;
 
 		for(Integer branchId : branchesToCoverBoth) {
-			if(!predicateCount.containsKey(branchId)) {
+			if(!aggregate.has(PREDICATES, branchId)) {
 				distance += 2.0;
-			} else if(predicateCount.get(branchId) == 1) {
+			} else if(aggregate.get(PREDICATES, branchId) == 1) {
 				distance += 1.0;
 			} else {
-				distance += normalize(trueDistance.get(branchId));
-				distance += normalize(falseDistance.get(branchId));
+				distance += normalize(aggregate.get(TRUE_DISTANCES, branchId));
+				distance += normalize(aggregate.get(FALSE_DISTANCES, branchId));
 			}
 		}
 		
 		for(Integer branchId : branchesToCoverTrue) {
-			if(!trueDistance.containsKey(branchId)) {
+			if(!aggregate.has(TRUE_DISTANCES, branchId)) {
 				distance += 1;
 			} else {
-				distance += normalize(trueDistance.get(branchId));
+				distance += normalize(aggregate.get(TRUE_DISTANCES, branchId));
 			}
 		}
 
 		for(Integer branchId : branchesToCoverFalse) {
-			if(!falseDistance.containsKey(branchId)) {
+			if(!aggregate.has(FALSE_DISTANCES, branchId)) {
 				distance += 1;
 			} else {
-				distance += normalize(falseDistance.get(branchId));
+				distance += normalize(aggregate.get(FALSE_DISTANCES, branchId));
 			}
 		}
 		
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.coverage.mutation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.smartut.testcase.execution.ExecutionObserver;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testcase.execution.ExecutionTracer;
+import org.smartut.testcase.execution.Scope;
+import org.smartut.testcase.statements.Statement;
+
+/**
+ * Records for each mutant the position of the first statement that reached
+ * it, and stores it in the execution result. All statements before that
+ * position behave the same when the test is executed on the mutant, so their
+ * outcome does not need to be observed again.
+ * 
+ * <p>
+ * Mutants reached by the observers after a statement, e.g. through
+ * inspectors, are attributed to that statement.
+ */
+public class MutantReachObserver extends ExecutionObserver {
+
+	private final Map<Integer, Integer> firstReach = new HashMap<>();
+
+	/** Position of the statement executed last */
+	private int position = 0;
+
+	/** {@inheritDoc} */
+	@Override
+	public void output(int position, String output) {
+		// do nothing
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized void beforeStatement(Statement statement, Scope scope) {
+		recordReachedMutants();
+		position = statement.getPosition();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void afterStatement(Statement statement, Scope scope, Throwable exception) {
+		// the observers after this one may still reach mutants
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized void testExecutionFinished(ExecutionResult r, Scope s) {
+		recordReachedMutants();
+		r.setMutantReachPositions(new HashMap<>(firstReach));
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public synchronized void clear() {
+		firstReach.clear();
+		position = 0;
+	}
+
+	private void recordReachedMutants() {
+		for (Integer mutationId : ExecutionTracer.getExecutionTracer().getReachedMutants()) {
+			firstReach.putIfAbsent(mutationId, position);
+		}
+	}
+}
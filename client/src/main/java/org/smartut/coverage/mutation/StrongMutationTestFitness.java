@@ -58,6 +58,8 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 	        new InspectorTraceObserver(), new PrimitiveFieldTraceObserver(),
 	        new NullTraceObserver(), new ArrayTraceObserver(), new ArrayLengthObserver() };
 
+	protected static MutantReachObserver reachObserver = new MutantReachObserver();
+
 	/**
 	 * <p>
 	 * Constructor for StrongMutationTestFitness.
@@ -72,6 +74,7 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 			logger.debug("StrongMutation adding observer " + observer);
 			TestCaseExecutor.getInstance().addObserver(observer);
 		}
+		TestCaseExecutor.getInstance().addObserver(reachObserver);
 	}
 
 	/** {@inheritDoc} */
@@ -80,8 +83,30 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 		return runTest(test, null);
 	}
 
+	/**
+	 * Execute the test on the mutant, and only observe the statements
+	 * starting at the first one that reached the mutant in the original
+	 * execution, copying the outcome of the statements before from it.
+	 * 
+	 * @param test
+	 * @param mutant
+	 * @param origResult
+	 *            the result of executing the test without mutant, with traces
+	 * @return
+	 */
+	public static ExecutionResult runTest(TestCase test, Mutation mutant, ExecutionResult origResult) {
+		int position = origResult.getFirstPositionReaching(mutant.getId());
+		ExecutionResult result = runTest(test, mutant, position);
+		result.addTracesBefore(origResult, position);
+		return result;
+	}
+
 	/** {@inheritDoc} */
 	public static ExecutionResult runTest(TestCase test, Mutation mutant) {
+		return runTest(test, mutant, 0);
+	}
+
+	private static ExecutionResult runTest(TestCase test, Mutation mutant, int firstObservedPosition) {
 
 		ExecutionResult result = new ExecutionResult(test, mutant);
 
@@ -94,7 +119,7 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 
 			if (mutant != null)
 				MutationObserver.activateMutation(mutant);
-			result = TestCaseExecutor.getInstance().execute(test);
+			result = TestCaseExecutor.getInstance().executeObservingFrom(test, firstObservedPosition);
 			if (mutant != null)
 				MutationObserver.deactivateMutation(mutant);
 
@@ -284,6 +309,7 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 				OutputTrace<?> trace = newResult.getTrace(observerClass);
 				result.setTrace(trace, observerClass);
 			}
+			result.setMutantReachPositions(newResult.getMutantReachPositions());
 		}
 
 
@@ -345,7 +371,7 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 				MutationExecutionResult mutationResult = individual.getLastExecutionResult(mutation);
 
 				if (mutationResult == null) {
-					ExecutionResult exResult = runTest(individual.getTestCase(), mutation);
+					ExecutionResult exResult = runTest(individual.getTestCase(), mutation, result);
 					mutationResult = getMutationResult(result, exResult);
 					individual.setLastExecutionResult(mutationResult, mutation);
 				}
@@ -25,7 +25,10 @@ import org.smartut.ga.archive.Archive;
 import org.smartut.testcase.TestChromosome;
 import org.smartut.testcase.TestFitnessFunction;
 import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testsuite.IncrementalSuiteFitness;
+import org.smartut.testsuite.SuiteAggregate;
 import org.smartut.testsuite.TestSuiteChromosome;
+import org.smartut.testsuite.TraceContribution;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -37,10 +40,15 @@ import java.util.Map.Entry;
  * 
  * @author fraser
  */
-public class WeakMutationSuiteFitness extends MutationSuiteFitness {
+public class WeakMutationSuiteFitness extends MutationSuiteFitness implements IncrementalSuiteFitness {
 
 	private static final long serialVersionUID = -1812256816400338180L;
 
+	// Channels of the contributions of the tests
+	private static final int TOUCHED = 0;
+	private static final int DISTANCES = 1;
+	private static final SuiteAggregate.Kind[] CHANNELS = { SuiteAggregate.Kind.SUM, SuiteAggregate.Kind.MIN };
+
 	public WeakMutationSuiteFitness() {
 		super(Properties.Criterion.WEAKMUTATION);
 	}
@@ -74,63 +82,17 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
 		double fitness = branchFitness.getFitness(individual);
 		Properties.TEST_ARCHIVE =  archive;
 
-		Map<Integer, Double> mutant_distance = new LinkedHashMap<>();
-		Set<Integer> touchedMutants = new LinkedHashSet<>();
-
-		for (ExecutionResult result : results) {
-			// Using private reflection can lead to false positives
-			// that represent unrealistic behaviour. Thus, we only
-			// use reflection for basic criteria, not for mutation
-			if (result.hasTimeout() || result.hasTestException() || result.calledReflection()) {
-				continue;
-			}
-
-			touchedMutants.addAll(result.getTrace().getTouchedMutants());
-
-			Map<Integer, Double> touchedMutantsDistances = result.getTrace().getMutationDistances();
-			if (touchedMutantsDistances.isEmpty()) {
-			  // if 'result' does not touch any mutant, no need to continue
-			  continue;
-			}
-
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
-
-			for (final Entry<Integer, MutationTestFitness> entry : this.mutantMap.entrySet()) {
-				int mutantID = entry.getKey();
-				TestFitnessFunction goal = entry.getValue();
-
-				double fit = 0.0;
-				if (touchedMutantsDistances.containsKey(mutantID)) {
-					fit = touchedMutantsDistances.get(mutantID);
-
-					if (!mutant_distance.containsKey(mutantID)) {
-						mutant_distance.put(mutantID, fit);
-					} else {
-						mutant_distance.put(mutantID, Math.min(mutant_distance.get(mutantID), fit));
-					}
-				} else {
-					fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
-				}
-
-				if (fit == 0.0) {
-					test.getTestCase().addCoveredGoal(goal); // update list of covered goals
-					this.toRemoveMutants.add(mutantID); // goal to not be considered by the next iteration of the evolutionary algorithm
-				}
-
-				if (Properties.TEST_ARCHIVE) {
-					Archive.getArchiveInstance().updateArchive(goal, test, fit);
-				}
-			}
-		}
+		SuiteAggregate aggregate = aggregate(individual, results, CHANNELS);
 
 		// Second objective: touch all mutants?
-		fitness += MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutantCounter() - touchedMutants.size();
+		fitness += MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutantCounter() - aggregate.getNumberOfGoals(TOUCHED);
 		int covered = removedMutants.size();
 
-		for (Double distance : mutant_distance.values()) {
+		for (Integer mutantID : this.mutantMap.keySet()) {
+			if (!aggregate.has(DISTANCES, mutantID)) {
+				continue;
+			}
+			double distance = aggregate.get(DISTANCES, mutantID);
 			if (distance < 0) {
 				logger.warn("Distance is " + distance + " / " + Integer.MAX_VALUE + " / "
 				        + Integer.MIN_VALUE);
@@ -149,4 +111,61 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
 
 		return fitness;
 	}
+
+	/**
+	 * Summarizes a single execution result: the mutants it touches and their
+	 * infection distances. Distances are kept for all the mutants, including
+	 * the ones already covered by the archive, which are filtered when the
+	 * fitness is computed.
+	 */
+	@Override
+	public TraceContribution analyzeTrace(ExecutionResult result) {
+		// Using private reflection can lead to false positives
+		// that represent unrealistic behaviour. Thus, we only
+		// use reflection for basic criteria, not for mutation
+		if (result.hasTimeout() || result.hasTestException() || result.calledReflection()) {
+			return TraceContribution.NONE;
+		}
+
+		TraceContribution.Builder contribution = new TraceContribution.Builder(CHANNELS.length);
+		for (Integer mutantID : result.getTrace().getTouchedMutants()) {
+			contribution.add(TOUCHED, mutantID, 1);
+		}
+
+		Map<Integer, Double> touchedMutantsDistances = result.getTrace().getMutationDistances();
+		if (touchedMutantsDistances.isEmpty()) {
+		  // if 'result' does not touch any mutant, no need to continue
+		  return contribution.build();
+		}
+		for (Entry<Integer, Double> entry : touchedMutantsDistances.entrySet()) {
+			contribution.add(DISTANCES, entry.getKey(), entry.getValue());
+		}
+
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
+
+		for (final Entry<Integer, MutationTestFitness> entry : this.mutantMap.entrySet()) {
+			int mutantID = entry.getKey();
+			TestFitnessFunction goal = entry.getValue();
+
+			double fit = 0.0;
+			if (touchedMutantsDistances.containsKey(mutantID)) {
+				fit = touchedMutantsDistances.get(mutantID);
+			} else {
+				fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
+			}
+
+			if (fit == 0.0) {
+				test.getTestCase().addCoveredGoal(goal); // update list of covered goals
+				this.toRemoveMutants.add(mutantID); // goal to not be considered by the next iteration of the evolutionary algorithm
+			}
+
+			if (Properties.TEST_ARCHIVE) {
+				Archive.getArchiveInstance().updateArchive(goal, test, fit);
+			}
+		}
+		return contribution.build();
+	}
 }
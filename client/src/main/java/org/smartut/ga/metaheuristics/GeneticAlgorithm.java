@@ -27,6 +27,7 @@ import java.io.PrintWriter;
 import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.smartut.Properties;
 import org.smartut.Properties.Algorithm;
@@ -42,16 +43,22 @@ import org.smartut.ga.operators.crossover.CrossOverFunction;
 import org.smartut.ga.operators.crossover.SinglePointCrossOver;
 import org.smartut.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.smartut.ga.operators.ranking.RankingFunction;
+import org.smartut.ga.operators.selection.BestKSelection;
+import org.smartut.ga.operators.selection.RandomKSelection;
 import org.smartut.ga.operators.selection.RankSelection;
 import org.smartut.ga.operators.selection.SelectionFunction;
 import org.smartut.ga.populationlimit.IndividualPopulationLimit;
 import org.smartut.ga.populationlimit.PopulationLimit;
 import org.smartut.ga.stoppingconditions.MaxGenerationStoppingCondition;
 import org.smartut.ga.stoppingconditions.StoppingCondition;
+import org.smartut.rmi.ClientServices;
+import org.smartut.rmi.service.ClientNodeLocal;
 import org.smartut.symbolic.DSEStats;
 import org.smartut.testcase.execution.ExecutionTracer;
+import org.smartut.testcase.execution.ParallelTestCaseExecutor;
 import org.smartut.testsuite.TestSuiteChromosome;
 import org.smartut.utils.ArrayUtil;
+import org.smartut.utils.Listener;
 import org.smartut.utils.LoggingUtils;
 import org.smartut.utils.Randomness;
 import org.slf4j.Logger;
@@ -135,6 +142,22 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
      **/
     protected RankingFunction<T> rankingFunction = new RankBasedPreferenceSorting<>();
 
+    /**
+     * Groups of individuals received from the other clients in parallel runs
+     */
+    protected final ConcurrentLinkedQueue<List<T>> immigrants = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Selects the individuals sent to the other clients in parallel runs
+     */
+    protected SelectionFunction<T> emigrantsSelection;
+
+    /**
+     * Receives the immigrants while the search exchanges individuals with the
+     * other clients
+     */
+    private transient Listener<Set<T>> immigrationListener;
+
     /**
      * Constructor
      *
@@ -572,6 +595,10 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
     protected void calculateFitness() {
         logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+        if (ParallelTestCaseExecutor.isEnabled()) {
+            ParallelTestCaseExecutor.getInstance().executeChanged(this.population);
+        }
+
         for (T c : this.population) {
             if (isFinished()) {
                 break;
@@ -803,6 +830,7 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
      * Notify all search listeners of search start
      */
     protected void notifySearchStarted() {
+        startMigration();
         listeners.forEach(l -> l.searchStarted(this));
     }
 
@@ -810,6 +838,7 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
      * Notify all search listeners of search end
      */
     protected void notifySearchFinished() {
+        stopMigration();
         listeners.forEach(l -> l.searchFinished(this));
     }
 
@@ -817,9 +846,95 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
      * Notify all search listeners of iteration
      */
     protected void notifyIteration() {
+        migrate();
         listeners.forEach(l -> l.iteration(this));
     }
 
+    /**
+     * In parallel runs, starts receiving individuals from the other clients
+     */
+    protected void startMigration() {
+        if (Properties.NUM_PARALLEL_CLIENTS <= 1 || immigrationListener != null) {
+            return;
+        }
+
+        switch (Properties.EMIGRANT_SELECTION_FUNCTION) {
+            case RANK:
+                emigrantsSelection = new RankSelection<>();
+                break;
+            case RANDOMK:
+                emigrantsSelection = new RandomKSelection<>();
+                break;
+            default:
+                emigrantsSelection = new BestKSelection<>();
+        }
+
+        immigrationListener = event -> immigrants.add(new LinkedList<>(event));
+        ClientServices.<T>getInstance().getClientNode().addListener(immigrationListener);
+    }
+
+    /**
+     * In parallel runs, stops exchanging individuals with the other clients
+     */
+    protected void stopMigration() {
+        if (immigrationListener == null) {
+            return;
+        }
+
+        ClientNodeLocal<T> clientNode = ClientServices.<T>getInstance().getClientNode();
+        clientNode.deleteListener(immigrationListener);
+        clientNode.finishMigration();
+        immigrationListener = null;
+        immigrants.clear();
+    }
+
+    /**
+     * In parallel runs, integrates the individuals received since the last
+     * iteration, and every {@link Properties#MIGRANTS_ITERATION_FREQUENCY}
+     * iterations queues the selected ones for the other clients. Neither step
+     * waits on the network.
+     */
+    protected void migrate() {
+        if (immigrationListener == null) {
+            return;
+        }
+
+        List<T> received = new ArrayList<>();
+        List<T> group;
+        while ((group = immigrants.poll()) != null) {
+            received.addAll(group);
+        }
+        if (!received.isEmpty()) {
+            received.forEach(this::calculateFitness);
+            integrateImmigrants(received);
+        }
+
+        if (Properties.MIGRANTS_ITERATION_FREQUENCY > 0 && currentIteration > 0
+                && currentIteration % Properties.MIGRANTS_ITERATION_FREQUENCY == 0
+                && !population.isEmpty()) {
+            Set<T> emigrants = new HashSet<>(emigrantsSelection.select(population,
+                    Properties.MIGRANTS_COMMUNICATION_RATE));
+            ClientServices.<T>getInstance().getClientNode().emigrate(emigrants);
+        }
+    }
+
+    /**
+     * Adds evaluated immigrants to the population. By default they replace the
+     * worst individuals, so that the size of the population does not change
+     *
+     * @param received the immigrants, with their fitness already computed
+     */
+    protected void integrateImmigrants(List<T> received) {
+        if (population.isEmpty()) {
+            return;
+        }
+        sortPopulation();
+        int replaced = Math.min(received.size(), population.size());
+        for (int i = 0; i < replaced; i++) {
+            population.set(population.size() - 1 - i, received.get(i));
+        }
+    }
+
     /**
      * Notify all search listeners of fitness evaluation
      *
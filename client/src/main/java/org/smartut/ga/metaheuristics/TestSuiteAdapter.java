@@ -447,6 +447,11 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
         }
     }
 
+    @Override
+    protected void startMigration() {
+        // the adaptee exchanges its own individuals
+    }
+
     @Override
     final public void notifySearchStarted() { // called by the adaptee
         super.notifySearchStarted();
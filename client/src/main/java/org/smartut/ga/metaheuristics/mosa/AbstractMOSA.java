@@ -35,6 +35,7 @@ import org.smartut.testcase.TestChromosome;
 import org.smartut.testcase.TestFactory;
 import org.smartut.testcase.TestFitnessFunction;
 import org.smartut.testcase.secondaryobjectives.TestCaseSecondaryObjective;
+import org.smartut.testcase.execution.ParallelTestCaseExecutor;
 import org.smartut.testcase.statements.*;
 import org.smartut.testcase.variable.VariableReference;
 import org.smartut.testsuite.TestSuiteChromosome;
@@ -139,6 +140,9 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 		List<TestChromosome> offspringPopulation = new ArrayList<>(Properties.POPULATION);
 		// we apply only Properties.POPULATION/2 iterations since in each generation
 		// we generate two offsprings
+		// with parallel execution, offsprings are executed and evaluated together at the end
+		final boolean batchExecution = ParallelTestCaseExecutor.isEnabled();
+
 		for (int i = 0; i < Properties.POPULATION / 2 && !this.isFinished(); i++) {
 			// select best individuals
 
@@ -171,7 +175,9 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 			if (offspring1.isChanged()) {
 				this.clearCachedResults(offspring1);
 				offspring1.updateAge(this.currentIteration);
-				this.calculateFitness(offspring1);
+				if (!batchExecution) {
+					this.calculateFitness(offspring1);
+				}
 				offspringPopulation.add(offspring1);
 			}
 
@@ -180,10 +186,16 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 			if (offspring2.isChanged()) {
 				this.clearCachedResults(offspring2);
 				offspring2.updateAge(this.currentIteration);
-				this.calculateFitness(offspring2);
+				if (!batchExecution) {
+					this.calculateFitness(offspring2);
+				}
 				offspringPopulation.add(offspring2);
 			}
 		}
+		if (batchExecution) {
+			ParallelTestCaseExecutor.getInstance().executeChanged(offspringPopulation);
+			offspringPopulation.forEach(this::calculateFitness);
+		}
 		// Not generate new test during evolve
 		// Add new randomly generate tests
 //		for (int i = 0; i < Properties.POPULATION * Properties.P_TEST_INSERTION; i++) {
@@ -504,6 +516,17 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 		super.notifySearchFinished();
 	}
 
+	/**
+	 * Immigrants join the population, so that they compete with the parents and
+	 * the offspring when the next population is ranked
+	 *
+	 * @param received the immigrants, with their fitness already computed
+	 */
+	@Override
+	protected void integrateImmigrants(List<TestChromosome> received) {
+		this.population.addAll(received);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -24,21 +24,15 @@ import org.smartut.Properties;
 import org.smartut.ga.ChromosomeFactory;
 import org.smartut.ga.comparators.OnlyCrowdingComparator;
 import org.smartut.ga.operators.ranking.CrowdingDistance;
-import org.smartut.ga.operators.selection.BestKSelection;
-import org.smartut.ga.operators.selection.RandomKSelection;
-import org.smartut.ga.operators.selection.RankSelection;
-import org.smartut.ga.operators.selection.SelectionFunction;
 import org.smartut.rmi.ClientServices;
 import org.smartut.rmi.service.ClientNodeLocal;
 import org.smartut.statistics.RuntimeVariable;
 import org.smartut.testcase.TestChromosome;
 import org.smartut.testcase.TestFitnessFunction;
-import org.smartut.utils.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Implementation of the Many-Objective Sorting Algorithm (MOSA) described in the
@@ -52,12 +46,6 @@ public class MOSA extends AbstractMOSA {
 
 	private static final Logger logger = LoggerFactory.getLogger(MOSA.class);
 
-	/** immigrant groups from neighbouring client */
-	private final ConcurrentLinkedQueue<List<TestChromosome>> immigrants =
-			new ConcurrentLinkedQueue<>();
-
-	private final SelectionFunction<TestChromosome> emigrantsSelection;
-
 	/** Crowding distance measure to use */
 	protected CrowdingDistance<TestChromosome> distance = new CrowdingDistance<>();
 
@@ -67,17 +55,6 @@ public class MOSA extends AbstractMOSA {
 	 */
 	public MOSA(ChromosomeFactory<TestChromosome> factory) {
 		super(factory);
-
-		switch (Properties.EMIGRANT_SELECTION_FUNCTION) {
-			case RANK:
-				this.emigrantsSelection = new RankSelection<>();
-				break;
-			case RANDOMK:
-				this.emigrantsSelection = new RandomKSelection<>();
-				break;
-			default:
-				this.emigrantsSelection = new BestKSelection<>();
-		}
 	}
 
 	/**
@@ -92,11 +69,6 @@ public class MOSA extends AbstractMOSA {
 		union.addAll(this.population);
 		union.addAll(offspringPopulation);
 
-		// for parallel runs: integrate possible immigrants
-		if (Properties.NUM_PARALLEL_CLIENTS > 1 && !immigrants.isEmpty()) {
-			union.addAll(immigrants.poll());
-		}
-
 		Set<TestFitnessFunction> uncoveredGoals = this.getUncoveredGoals();
 
 		// Ranking the union
@@ -104,7 +76,8 @@ public class MOSA extends AbstractMOSA {
 		// Ranking the union using the best rank algorithm (modified version of the non dominated sorting algorithm)
 		this.rankingFunction.computeRankingAssignment(union, uncoveredGoals);
 
-		int remain = this.population.size();
+		// immigrants may have made the population larger than its usual size
+		int remain = Math.min(this.population.size(), Properties.POPULATION);
 		int index = 0;
 		List<TestChromosome> front = null;
 		this.population.clear();
@@ -139,15 +112,6 @@ public class MOSA extends AbstractMOSA {
 			remain = 0;
 		}
 
-		// for parallel runs: collect best k individuals for migration
-		if (Properties.NUM_PARALLEL_CLIENTS > 1 && Properties.MIGRANTS_ITERATION_FREQUENCY > 0) {
-			if ((currentIteration + 1) % Properties.MIGRANTS_ITERATION_FREQUENCY == 0 && !this.population.isEmpty()) {
-				HashSet<TestChromosome> emigrants = new HashSet<>(emigrantsSelection.select(this.population,
-						Properties.MIGRANTS_COMMUNICATION_RATE));
-				ClientServices.<TestChromosome>getInstance().getClientNode().emigrate(emigrants);
-			}
-		}
-
 		this.currentIteration++;
 	}
 
@@ -175,12 +139,6 @@ public class MOSA extends AbstractMOSA {
 		final ClientNodeLocal<TestChromosome> clientNode =
 				ClientServices.<TestChromosome>getInstance().getClientNode();
 
-		Listener<Set<TestChromosome>> listener = null;
-		if (Properties.NUM_PARALLEL_CLIENTS > 1) {
-			listener = event -> immigrants.add(new LinkedList<>(event));
-			clientNode.addListener(listener);
-		}
-
 		// TODO add here dynamic stopping condition
 		while (!this.isFinished() && this.getNumberOfUncoveredGoals() > 0) {
 			this.evolve();
@@ -188,7 +146,7 @@ public class MOSA extends AbstractMOSA {
 		}
 
 		if (Properties.NUM_PARALLEL_CLIENTS > 1) {
-			clientNode.deleteListener(listener);
+			this.stopMigration();
 
 			if (ClientProcess.DEFAULT_CLIENT_NAME.equals(ClientProcess.getIdentifier())) {
 				//collect all end result test cases
@@ -21,6 +21,8 @@ package org.smartut.instrumentation;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.smartut.PackageInfo;
 import org.smartut.Properties;
@@ -35,6 +37,7 @@ import org.smartut.instrumentation.testability.StringTransformation;
 import org.smartut.junit.writer.TestSuiteWriterUtils;
 import org.smartut.runtime.RuntimeSettings;
 import org.smartut.runtime.instrumentation.*;
+import org.smartut.seeding.ConstantPoolManager;
 import org.smartut.seeding.PrimitiveClassAdapter;
 import org.smartut.setup.DependencyAnalysis;
 import org.smartut.setup.TestCluster;
@@ -149,6 +152,24 @@ public class BytecodeInstrumentation {
 	 * @return an array of byte.
 	 */
 	public byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader) {
+		return transformBytes(classLoader, className, reader, null);
+	}
+
+	/**
+	 * Same as {@link #transformBytes(ClassLoader, String, ClassReader)} for the
+	 * original bytecode of a class, which is the key of its entry in the
+	 * {@link InstrumentedBytecodeCache}. Only this variant uses the cache.
+	 *
+	 * @param classLoader
+	 * @param className
+	 * @param classBytes
+	 * @return an array of byte.
+	 */
+	public byte[] transformBytes(ClassLoader classLoader, String className, byte[] classBytes) {
+		return transformBytes(classLoader, className, new ClassReader(classBytes), classBytes);
+	}
+
+	private byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader, byte[] classBytes) {
 
 		int readFlags = ClassReader.SKIP_FRAMES;
 
@@ -164,6 +185,11 @@ public class BytecodeInstrumentation {
 
 		TransformationStatistics.reset();
 
+		if (classBytes != null && InstrumentedBytecodeCache.getInstance().isEnabled()
+				&& isCacheable(classNameWithDots)) {
+			return transformCachedBytes(className, classBytes, reader, readFlags);
+		}
+
 		/*
 		 * To use COMPUTE_FRAMES we need to remove JSR commands. Therefore, we
 		 * have a JSRInlinerAdapter in NonTargetClassAdapter as well as
@@ -177,18 +203,7 @@ public class BytecodeInstrumentation {
 			cv = new TraceClassVisitor(cv, new PrintWriter(System.err));
 		}
 
-		if (Properties.RESET_STATIC_FIELDS) {
-			cv = new StaticAccessClassAdapter(cv, className);
-		}
-
-		if (Properties.PURE_INSPECTORS) {
-			CheapPurityAnalyzer purityAnalyzer = CheapPurityAnalyzer.getInstance();
-			cv = new PurityAnalysisClassVisitor(cv, className, purityAnalyzer);
-		}
-
-		if (Properties.MAX_LOOP_ITERATIONS >= 0) {
-			cv = new LoopCounterClassAdapter(cv);
-		}
+		cv = addRuntimeStateAdapters(cv, className);
 
 		// Apply transformations to class under test and its owned classes
 		if (DependencyAnalysis.shouldAnalyze(classNameWithDots)) {
@@ -297,6 +312,111 @@ public class BytecodeInstrumentation {
 		return writer.toByteArray();
 	}
 
+	/**
+	 * The adapters that register their results in state of this JVM, which
+	 * therefore cannot be cached: loop counter indexes, purity analysis and
+	 * static field accesses
+	 */
+	private static ClassVisitor addRuntimeStateAdapters(ClassVisitor cv, String className) {
+		if (Properties.RESET_STATIC_FIELDS) {
+			cv = new StaticAccessClassAdapter(cv, className);
+		}
+
+		if (Properties.PURE_INSPECTORS) {
+			CheapPurityAnalyzer purityAnalyzer = CheapPurityAnalyzer.getInstance();
+			cv = new PurityAnalysisClassVisitor(cv, className, purityAnalyzer);
+		}
+
+		if (Properties.MAX_LOOP_ITERATIONS >= 0) {
+			cv = new LoopCounterClassAdapter(cv);
+		}
+		return cv;
+	}
+
+	/**
+	 * Classes are taken from the {@link InstrumentedBytecodeCache} only if
+	 * their instrumentation does not populate the branch, graph, mutation and
+	 * instruction pools, i.e. they are neither analyzed nor testability
+	 * transformed.
+	 */
+	private boolean isCacheable(String classNameWithDots) {
+		return !Properties.TT && !Properties.TEST_CARVING && !DependencyAnalysis.shouldAnalyze(classNameWithDots)
+				&& !DependencyAnalysis.isTargetClassName(classNameWithDots) && !isTargetClassName(classNameWithDots);
+	}
+
+	/**
+	 * Instruments a class that is not analyzed in two passes: the first one,
+	 * whose result only depends on the original bytecode and the settings, is
+	 * taken from the cache when possible; the second one applies
+	 * {@link #addRuntimeStateAdapters(ClassVisitor, String)} and computes the
+	 * frames.
+	 */
+	private byte[] transformCachedBytes(String className, byte[] classBytes, ClassReader reader, int readFlags) {
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		String key = cache.getKey(className, classBytes);
+		CachedInstrumentation cached = cache.get(key);
+		if (cached != null) {
+			logger.debug("Instrumentation of {} taken from the cache", className);
+			cached.restoreSideTables();
+		} else {
+			cached = instrumentNonTargetClass(className, reader, readFlags);
+			cache.put(key, cached);
+		}
+
+		ClassWriter writer = new ComputeClassWriter(ClassWriter.COMPUTE_FRAMES);
+		ClassVisitor cv = writer;
+		if (logger.isDebugEnabled()) {
+			cv = new TraceClassVisitor(cv, new PrintWriter(System.err));
+		}
+		cv = addRuntimeStateAdapters(cv, className);
+		new ClassReader(cached.getBytecode()).accept(cv, readFlags);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Same adapters as in {@link #transformBytes(ClassLoader, String, ClassReader)}
+	 * for classes that are not analyzed, except for the ones in
+	 * {@link #addRuntimeStateAdapters(ClassVisitor, String)}
+	 */
+	static CachedInstrumentation instrumentNonTargetClass(String className, ClassReader reader, int readFlags) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+		NonTargetClassAdapter nonTargetAdapter = new NonTargetClassAdapter(writer, className);
+		ClassVisitor cv = nonTargetAdapter;
+		if (Properties.MAKE_ACCESSIBLE) {
+			cv = new AccessibleClassAdapter(cv, className);
+		}
+
+		cv = new PrimitiveClassAdapter(cv, className);
+
+		CreateClassResetClassAdapter resetClassAdapter = null;
+		if (Properties.RESET_STATIC_FIELDS) {
+			resetClassAdapter = new CreateClassResetClassAdapter(cv, className,
+					Properties.RESET_STATIC_FINAL_FIELDS);
+			cv = new EndOfClassInitializerVisitor(resetClassAdapter, className);
+		}
+
+		if (TestSuiteWriterUtils.needToUseAgent()) {
+			cv = new MethodCallReplacementClassAdapter(cv, className);
+			if (RuntimeSettings.applyUIDTransformation)
+				cv = new SerialVersionUIDAdder(cv);
+		}
+
+		List<Object> sutConstants = new ArrayList<>();
+		List<Object> nonSUTConstants = new ArrayList<>();
+		ConstantPoolManager.getInstance().startRecording(sutConstants, nonSUTConstants);
+		try {
+			reader.accept(cv, readFlags);
+		} finally {
+			ConstantPoolManager.getInstance().stopRecording();
+		}
+
+		List<String> modifiedStaticFields = resetClassAdapter == null ? new ArrayList<>()
+				: new ArrayList<>(resetClassAdapter.getModifiedStaticFields());
+		return new CachedInstrumentation(writer.toByteArray(), sutConstants, nonSUTConstants,
+				new ArrayList<>(nonTargetAdapter.getFinalClasses()), modifiedStaticFields);
+	}
+
 	private byte[] handleCarving(String className, ClassWriter writer) {
 		ClassReader cr = new ClassReader(writer.toByteArray());
 		ClassNode cn2 = new ClassNode();
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.instrumentation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.asm.Type;
+import org.smartut.runtime.classhandling.ModifiedTargetStaticFields;
+import org.smartut.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.smartut.seeding.ConstantPoolManager;
+
+/**
+ * The bytecode of a class produced by the cacheable part of the
+ * instrumentation, together with the entries that this part adds to global
+ * tables (constant pools, classes whose final modifier was removed, static
+ * fields made non-final). A class loaded from the cache adds the same entries
+ * again via {@link #restoreSideTables()}.
+ */
+final class CachedInstrumentation {
+
+	private static final byte STRING = 's';
+	private static final byte TYPE = 't';
+	private static final byte INT = 'i';
+	private static final byte LONG = 'j';
+	private static final byte FLOAT = 'f';
+	private static final byte DOUBLE = 'd';
+
+	private final byte[] bytecode;
+
+	private final List<Object> sutConstants;
+
+	private final List<Object> nonSUTConstants;
+
+	private final List<String> finalClasses;
+
+	private final List<String> modifiedStaticFields;
+
+	CachedInstrumentation(byte[] bytecode, List<Object> sutConstants, List<Object> nonSUTConstants,
+			List<String> finalClasses, List<String> modifiedStaticFields) {
+		this.bytecode = bytecode;
+		this.sutConstants = sutConstants;
+		this.nonSUTConstants = nonSUTConstants;
+		this.finalClasses = finalClasses;
+		this.modifiedStaticFields = modifiedStaticFields;
+	}
+
+	byte[] getBytecode() {
+		return bytecode;
+	}
+
+	List<Object> getNonSUTConstants() {
+		return nonSUTConstants;
+	}
+
+	List<String> getFinalClasses() {
+		return finalClasses;
+	}
+
+	/**
+	 * Adds the entries recorded when the class was instrumented to the global
+	 * tables of this JVM
+	 */
+	void restoreSideTables() {
+		ConstantPoolManager poolManager = ConstantPoolManager.getInstance();
+		for (Object constant : sutConstants) {
+			poolManager.addSUTConstant(constant);
+		}
+		for (Object constant : nonSUTConstants) {
+			poolManager.addNonSUTConstant(constant);
+		}
+		RemoveFinalClassAdapter.finalClasses.addAll(finalClasses);
+		if (!modifiedStaticFields.isEmpty()) {
+			ModifiedTargetStaticFields.getInstance().addFinalFields(modifiedStaticFields);
+		}
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(bytecode.length);
+		out.write(bytecode);
+		writeConstants(out, sutConstants);
+		writeConstants(out, nonSUTConstants);
+		writeStrings(out, finalClasses);
+		writeStrings(out, modifiedStaticFields);
+	}
+
+	static CachedInstrumentation read(DataInputStream in) throws IOException {
+		byte[] bytecode = new byte[in.readInt()];
+		in.readFully(bytecode);
+		List<Object> sutConstants = readConstants(in);
+		List<Object> nonSUTConstants = readConstants(in);
+		List<String> finalClasses = readStrings(in);
+		List<String> modifiedStaticFields = readStrings(in);
+		return new CachedInstrumentation(bytecode, sutConstants, nonSUTConstants, finalClasses,
+				modifiedStaticFields);
+	}
+
+	/*
+	 * Only the types of constants the pools store are written: the pools
+	 * ignore null values, and only log constants of other types
+	 */
+	private static void writeConstants(DataOutputStream out, List<Object> constants) throws IOException {
+		int count = 0;
+		for (Object constant : constants) {
+			if (isStoredByPools(constant)) {
+				count++;
+			}
+		}
+		out.writeInt(count);
+		for (Object constant : constants) {
+			if (constant instanceof String) {
+				out.writeByte(STRING);
+				writeString(out, (String) constant);
+			} else if (constant instanceof Type) {
+				out.writeByte(TYPE);
+				writeString(out, ((Type) constant).getDescriptor());
+			} else if (constant instanceof Integer) {
+				out.writeByte(INT);
+				out.writeInt((Integer) constant);
+			} else if (constant instanceof Long) {
+				out.writeByte(LONG);
+				out.writeLong((Long) constant);
+			} else if (constant instanceof Float) {
+				out.writeByte(FLOAT);
+				out.writeFloat((Float) constant);
+			} else if (constant instanceof Double) {
+				out.writeByte(DOUBLE);
+				out.writeDouble((Double) constant);
+			}
+		}
+	}
+
+	private static boolean isStoredByPools(Object constant) {
+		return constant instanceof String || constant instanceof Type || constant instanceof Integer
+				|| constant instanceof Long || constant instanceof Float || constant instanceof Double;
+	}
+
+	private static List<Object> readConstants(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<Object> constants = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			byte tag = in.readByte();
+			switch (tag) {
+			case STRING:
+				constants.add(readString(in));
+				break;
+			case TYPE:
+				constants.add(Type.getType(readString(in)));
+				break;
+			case INT:
+				constants.add(in.readInt());
+				break;
+			case LONG:
+				constants.add(in.readLong());
+				break;
+			case FLOAT:
+				constants.add(in.readFloat());
+				break;
+			case DOUBLE:
+				constants.add(in.readDouble());
+				break;
+			default:
+				throw new IOException("Unknown constant tag " + tag);
+			}
+		}
+		return constants;
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (String string : strings) {
+			writeString(out, string);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<String> strings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			strings.add(readString(in));
+		}
+		return strings;
+	}
+
+	/*
+	 * writeUTF is limited to 64KB, which string constants can exceed
+	 */
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
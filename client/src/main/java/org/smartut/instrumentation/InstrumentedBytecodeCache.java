@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.instrumentation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.smartut.Properties;
+import org.smartut.junit.writer.TestSuiteWriterUtils;
+import org.smartut.runtime.RuntimeSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent, content-addressed cache of instrumented bytecode, shared by all
+ * the client processes that use the same {@link Properties#INSTRUMENTATION_CACHE_DIR}.
+ * 
+ * An entry is addressed by the hash of the original bytes of the class, of
+ * the properties that affect the cached instrumentation and of the version of
+ * SmartUt, so changing any of them simply leads to new entries.
+ */
+public class InstrumentedBytecodeCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentedBytecodeCache.class);
+
+	/**
+	 * Increase when the cached instrumentation or the file format changes
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	private static InstrumentedBytecodeCache instance = null;
+
+	private final String toolVersion;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private InstrumentedBytecodeCache() {
+		toolVersion = computeToolVersion();
+	}
+
+	public static synchronized InstrumentedBytecodeCache getInstance() {
+		if (instance == null) {
+			instance = new InstrumentedBytecodeCache();
+		}
+		return instance;
+	}
+
+	public boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null && !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+	}
+
+	/*
+	 * Released jars carry their version, while for development builds the
+	 * location and time stamp of the classes identify the build
+	 */
+	private static String computeToolVersion() {
+		StringBuilder version = new StringBuilder();
+		version.append(BytecodeInstrumentation.class.getPackage().getImplementationVersion());
+		try {
+			CodeSource codeSource = BytecodeInstrumentation.class.getProtectionDomain().getCodeSource();
+			if (codeSource != null && codeSource.getLocation() != null) {
+				File location = new File(codeSource.getLocation().toURI());
+				version.append('|').append(location.getAbsolutePath());
+				version.append('|').append(location.length()).append('|').append(location.lastModified());
+			}
+			URL classFile = BytecodeInstrumentation.class.getResource("BytecodeInstrumentation.class");
+			if (classFile != null && "file".equals(classFile.getProtocol())) {
+				version.append('|').append(new File(classFile.toURI()).lastModified());
+			}
+		} catch (Exception e) {
+			logger.debug("Cannot determine the location of the SmartUt classes: {}", e.toString());
+		}
+		return version.toString();
+	}
+
+	/**
+	 * The properties that affect the bytecode and the side tables stored in
+	 * the cache
+	 */
+	private static String getSettingsFingerprint() {
+		return Arrays.toString(Properties.CRITERION) + "|" + Properties.MAKE_ACCESSIBLE + "|"
+				+ Properties.RESET_STATIC_FIELDS + "|" + Properties.RESET_STATIC_FINAL_FIELDS + "|"
+				+ Properties.INSTRUMENTATION_SKIP_DEBUG + "|" + TestSuiteWriterUtils.needToUseAgent() + "|"
+				+ RuntimeSettings.applyUIDTransformation + "|" + RuntimeSettings.mockJVMNonDeterminism + "|"
+				+ RuntimeSettings.mockSystemIn + "|" + RuntimeSettings.mockGUI + "|" + RuntimeSettings.useVFS + "|"
+				+ RuntimeSettings.useVNET + "|" + RuntimeSettings.useJEE;
+	}
+
+	/**
+	 * @param className
+	 *            the name of the class, with slashes
+	 * @param classBytes
+	 *            the original bytecode of the class
+	 * @return the key of the instrumented class in this cache
+	 */
+	public String getKey(String className, byte[] classBytes) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update((FORMAT_VERSION + "|" + toolVersion + "|" + getSettingsFingerprint() + "|" + className + "|")
+				.getBytes(StandardCharsets.UTF_8));
+		digest.update(classBytes);
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+		return key.toString();
+	}
+
+	private File getFile(String key) {
+		return new File(new File(Properties.INSTRUMENTATION_CACHE_DIR, key.substring(0, 2)), key);
+	}
+
+	/**
+	 * @param key
+	 * @return the cached instrumentation, or null if there is none or it
+	 *         cannot be read
+	 */
+	CachedInstrumentation get(String key) {
+		File file = getFile(key);
+		if (!file.isFile()) {
+			misses.incrementAndGet();
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			CachedInstrumentation entry = CachedInstrumentation.read(in);
+			hits.incrementAndGet();
+			return entry;
+		} catch (IOException e) {
+			logger.warn("Cannot read instrumentation cache entry {}: {}", file, e.toString());
+			misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Stores an entry. The file is written under a temporary name and then
+	 * renamed, so that concurrent clients never read a partial entry
+	 * 
+	 * @param key
+	 * @param entry
+	 */
+	void put(String key, CachedInstrumentation entry) {
+		File file = getFile(key);
+		File tmp = null;
+		try {
+			File dir = file.getParentFile();
+			if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+				throw new IOException("Cannot create directory " + dir);
+			}
+			tmp = File.createTempFile(key, ".tmp", dir);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				entry.write(out);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			logger.warn("Cannot write instrumentation cache entry {}: {}", file, e.toString());
+			if (tmp != null) {
+				tmp.delete();
+			}
+		}
+	}
+
+	public long getNumberOfHits() {
+		return hits.get();
+	}
+
+	public long getNumberOfMisses() {
+		return misses.get();
+	}
+}
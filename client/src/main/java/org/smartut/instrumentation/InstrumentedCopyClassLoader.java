@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.instrumentation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.smartut.runtime.instrumentation.RuntimeInstrumentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class loader defining its own copies of the classes instrumented by an
+ * {@link InstrumentingClassLoader}, reusing the instrumented bytecode as it is.
+ * Branch and mutant ids are the ones of the pools of the instrumenting class
+ * loader, but static state is separate, so that tests can be executed in
+ * parallel on different copies.
+ */
+public class InstrumentedCopyClassLoader extends ClassLoader {
+
+	private final static Logger logger = LoggerFactory.getLogger(InstrumentedCopyClassLoader.class);
+
+	private final InstrumentingClassLoader instrumentingClassLoader;
+
+	private final Map<String, Class<?>> classes = new HashMap<>();
+
+	public InstrumentedCopyClassLoader(InstrumentingClassLoader instrumentingClassLoader) {
+		super(InstrumentingClassLoader.class.getClassLoader());
+		this.instrumentingClassLoader = instrumentingClassLoader;
+	}
+
+	public InstrumentingClassLoader getInstrumentingClassLoader() {
+		return instrumentingClassLoader;
+	}
+
+	@Override
+	public Class<?> loadClass(String name) throws ClassNotFoundException {
+		synchronized (getClassLoadingLock(name)) {
+			if ("<smartut>".equals(name)) {
+				throw new ClassNotFoundException();
+			}
+
+			if (!RuntimeInstrumentation.checkIfCanInstrument(name)) {
+				return instrumentingClassLoader.loadClass(name);
+			}
+
+			Class<?> result = classes.get(name);
+			if (result != null) {
+				return result;
+			}
+
+			byte[] byteBuffer = instrumentingClassLoader.getInstrumentedBytes(name);
+			createPackageDefinition(name);
+			result = defineClass(name, byteBuffer, 0, byteBuffer.length);
+			classes.put(name, result);
+			logger.debug("Defined copy of class: {}", name);
+			return result;
+		}
+	}
+
+	private void createPackageDefinition(String className) {
+		int i = className.lastIndexOf('.');
+		if (i != -1) {
+			String pkgname = className.substring(0, i);
+			if (getPackage(pkgname) == null) {
+				definePackage(pkgname, null, null, null, null, null, null, null);
+			}
+		}
+	}
+}
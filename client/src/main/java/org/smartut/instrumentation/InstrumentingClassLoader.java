@@ -19,6 +19,7 @@
  */
 package org.smartut.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,11 +31,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.io.IOUtils;
 import org.smartut.Properties;
 import org.smartut.TestGenerationContext;
 import org.smartut.classpath.ResourceList;
 import org.smartut.runtime.instrumentation.RuntimeInstrumentation;
-import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +56,12 @@ public class InstrumentingClassLoader extends ClassLoader {
 	private final ClassLoader classLoader;
 	private final Map<String, Class<?>> classes = new HashMap<>();
 
+	/**
+	 * Instrumented bytecode of the loaded classes, only kept when tests are
+	 * executed by parallel workers that define their own copies of the classes
+	 */
+	private final Map<String, byte[]> instrumentedBytes = new HashMap<>();
+
 	/**
 	 * <p>
 	 * Constructor for InstrumentingClassLoader.
@@ -92,21 +99,44 @@ public class InstrumentingClassLoader extends ClassLoader {
 		String className = fullyQualifiedTargetClass.replace('.', '/');
 
 		try(InputStream is = new FileInputStream(new File(fileName))) {
+			Class<?> result = defineTransformedClass(fullyQualifiedTargetClass, className, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+			return result;
+		} catch (Throwable t) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+			throw new ClassNotFoundException(t.getMessage(), t);
+		}
+	}
 
-			byte[] byteBuffer = getTransformedBytes(className, is);
-
-			createPackageDefinition(fullyQualifiedTargetClass);
-			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+	/**
+	 * Same as {@link #loadClassFromFile(String, String)}, for bytecode that was
+	 * compiled in memory
+	 */
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytes) throws ClassNotFoundException {
 
-			classes.put(fullyQualifiedTargetClass, result);
+		String className = fullyQualifiedTargetClass.replace('.', '/');
 
-			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+		try(InputStream is = new ByteArrayInputStream(bytes)) {
+			Class<?> result = defineTransformedClass(fullyQualifiedTargetClass, className, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " from memory");
 			return result;
 		} catch (Throwable t) {
 			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
 			throw new ClassNotFoundException(t.getMessage(), t);
 		}
 	}
+
+	private Class<?> defineTransformedClass(String fullyQualifiedTargetClass, String className, InputStream is)
+			throws IOException {
+		byte[] byteBuffer = getTransformedBytes(className, is);
+
+		createPackageDefinition(fullyQualifiedTargetClass);
+		Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+		classes.put(fullyQualifiedTargetClass, result);
+		retainInstrumentedBytes(fullyQualifiedTargetClass, byteBuffer);
+		return result;
+	}
 	
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
@@ -138,7 +168,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 
 	//This is needed, as it is overridden in subclasses
 	protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-		return instrumentation.transformBytes(this, className, new ClassReader(is));
+		return instrumentation.transformBytes(this, className, IOUtils.toByteArray(is));
 	}
 
 	private Class<?> instrumentClass(String fullyQualifiedTargetClass)throws ClassNotFoundException  {
@@ -156,6 +186,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 			createPackageDefinition(fullyQualifiedTargetClass);
 			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0,byteBuffer.length);
 			classes.put(fullyQualifiedTargetClass, result);
+			retainInstrumentedBytes(fullyQualifiedTargetClass, byteBuffer);
 
 			logger.info("Loaded class: " + fullyQualifiedTargetClass);
 			return result;
@@ -172,6 +203,33 @@ public class InstrumentingClassLoader extends ClassLoader {
 		}
 	}
 
+	private void retainInstrumentedBytes(String className, byte[] byteBuffer) {
+		if (Properties.PARALLEL_EXECUTION_WORKERS > 1) {
+			instrumentedBytes.put(className, byteBuffer);
+		}
+	}
+
+	/**
+	 * Return the instrumented bytecode of the given class, loading it first if
+	 * needed. The ids of branches and mutants in the returned bytecode are the
+	 * ones registered in the pools of this class loader
+	 * 
+	 * @param name
+	 *            fully qualified name of an instrumentable class
+	 * @return the bytecode as defined in this class loader
+	 * @throws ClassNotFoundException
+	 *             if the class cannot be loaded, or was loaded before
+	 *             {@link Properties#PARALLEL_EXECUTION_WORKERS} was set
+	 */
+	public synchronized byte[] getInstrumentedBytes(String name) throws ClassNotFoundException {
+		loadClass(name);
+		byte[] byteBuffer = instrumentedBytes.get(name);
+		if (byteBuffer == null) {
+			throw new ClassNotFoundException("Instrumented bytecode of " + name + " was not retained");
+		}
+		return byteBuffer;
+	}
+
 	/**
 	 * Before a new class is defined, we need to create a package definition for it
 	 * 
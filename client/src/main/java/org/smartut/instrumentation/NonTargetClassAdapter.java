@@ -20,6 +20,9 @@
 
 package org.smartut.instrumentation;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.smartut.runtime.instrumentation.RemoveFinalClassAdapter;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
@@ -35,6 +38,8 @@ public class NonTargetClassAdapter extends ClassVisitor {
 
 	private final String className;
 
+	private final List<String> finalClasses = new ArrayList<>();
+
 	/**
 	 * <p>Constructor for NonTargetClassAdapter.</p>
 	 *
@@ -49,13 +54,26 @@ public class NonTargetClassAdapter extends ClassVisitor {
 	@Override
 	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
 		if((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
-			RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+			addFinalClass(name);
 		}
 
 		// We are removing final access to allow mocking
 		super.visit(version, access & ~Opcodes.ACC_FINAL, name, signature, superName, interfaces);
 	}
 	
+	private void addFinalClass(String name) {
+		String classNameWithDots = name.replace('/', '.');
+		RemoveFinalClassAdapter.finalClasses.add(classNameWithDots);
+		finalClasses.add(classNameWithDots);
+	}
+
+	/**
+	 * @return the classes whose final modifier was removed by this adapter
+	 */
+	public List<String> getFinalClasses() {
+		return finalClasses;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public MethodVisitor visitMethod(int access, String name, String desc,
@@ -71,7 +89,7 @@ public class NonTargetClassAdapter extends ClassVisitor {
 	@Override
 	public void visitInnerClass(String name, String outerName, String innerName, int access) {
 		if((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
-			RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+			addFinalClass(name);
 		}
 		// We are removing final access to allow mocking
 		super.visitInnerClass(name, outerName, innerName, access & ~Opcodes.ACC_FINAL);
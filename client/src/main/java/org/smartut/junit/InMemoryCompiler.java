@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.smartut.classpath.ClassPathHandler;
+import org.smartut.runtime.util.JarPathing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the sources of generated test suites without going through the
+ * file system: all the compilation units are given to a single compiler task,
+ * and the produced bytecode is kept in memory.
+ * 
+ * The compiler and its file manager are reused across calls, so that the
+ * jars on the classpath are only opened once.
+ */
+final class InMemoryCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryCompiler.class);
+
+	private static JavaCompiler compiler = null;
+
+	private static StandardJavaFileManager standardFileManager = null;
+
+	/**
+	 * Outcome of a compilation
+	 */
+	static final class Result {
+
+		private final Map<String, byte[]> classes;
+
+		private final Map<String, List<String>> errors;
+
+		private Result(Map<String, byte[]> classes, Map<String, List<String>> errors) {
+			this.classes = classes;
+			this.errors = errors;
+		}
+
+		public boolean isSuccessful() {
+			return errors.isEmpty();
+		}
+
+		/**
+		 * @return bytecode of all the generated classes, including the nested
+		 *         and anonymous ones, by binary class name
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+
+		/**
+		 * @return the compilation units with errors, with their messages. Errors
+		 *         that cannot be attributed to a unit are reported under the
+		 *         empty name
+		 */
+		public Map<String, List<String>> getErrors() {
+			return errors;
+		}
+	}
+
+	private InMemoryCompiler() {
+		// only static methods
+	}
+
+	public static synchronized boolean isAvailable() {
+		return getCompiler() != null;
+	}
+
+	private static JavaCompiler getCompiler() {
+		if (compiler == null) {
+			compiler = ToolProvider.getSystemJavaCompiler();
+		}
+		return compiler;
+	}
+
+	/**
+	 * Compiles the given sources in one compiler task against the classpath of
+	 * the SUT and of SmartUt.
+	 * 
+	 * @param sources
+	 *            source code by fully qualified name of its top level class
+	 * @return null if no compiler is available
+	 */
+	public static synchronized Result compile(Map<String, String> sources) {
+		JavaCompiler javac = getCompiler();
+		if (javac == null) {
+			logger.error("No Java compiler is available");
+			return null;
+		}
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		if (standardFileManager == null) {
+			standardFileManager = javac.getStandardFileManager(null, Locale.getDefault(), StandardCharsets.UTF_8);
+		}
+		MemoryFileManager fileManager = new MemoryFileManager(standardFileManager);
+
+		List<SourceFile> units = new ArrayList<>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			units.add(new SourceFile(source.getKey(), source.getValue()));
+		}
+
+		String classpath = getClasspath();
+		// errors in one unit must not hide the ones in the others
+		List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", classpath, "-Xmaxerrs",
+				Integer.toString(Integer.MAX_VALUE)));
+
+		CompilationTask task = javac.getTask(null, fileManager, diagnostics, optionList, null, units);
+		boolean compiled;
+		try {
+			compiled = task.call();
+		} catch (RuntimeException e) {
+			// the compiler itself crashed, nothing can be attributed to a unit
+			logger.error("Java compiler failed: " + e, e);
+			Map<String, List<String>> errors = new LinkedHashMap<>();
+			errors.put("", new ArrayList<>(Arrays.asList(e.toString())));
+			return new Result(new LinkedHashMap<>(), errors);
+		}
+
+		Map<String, List<String>> errors = new LinkedHashMap<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+				continue;
+			}
+			String unit = diagnostic.getSource() instanceof SourceFile
+					? ((SourceFile) diagnostic.getSource()).className
+					: "";
+			errors.computeIfAbsent(unit, k -> new ArrayList<>())
+					.add(diagnostic.getMessage(null) + ": " + diagnostic.getLineNumber());
+		}
+		if (!compiled && errors.isEmpty()) {
+			errors.put("", new ArrayList<>(Arrays.asList("Compilation failed without diagnostics")));
+		}
+		if (!errors.isEmpty()) {
+			logger.debug("Classpath: " + classpath);
+		}
+
+		Map<String, byte[]> classes = new LinkedHashMap<>();
+		for (Map.Entry<String, ByteArrayOutputStream> output : fileManager.outputs.entrySet()) {
+			classes.put(output.getKey(), output.getValue().toByteArray());
+		}
+		return new Result(classes, errors);
+	}
+
+	private static String getClasspath() {
+		String smartutCP = ClassPathHandler.getInstance().getSmartUtClassPath();
+		if (JarPathing.containsAPathingJar(smartutCP)) {
+			smartutCP = JarPathing.expandPathingJars(smartutCP);
+		}
+
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if (JarPathing.containsAPathingJar(targetProjectCP)) {
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
+
+		return targetProjectCP + File.pathSeparator + smartutCP;
+	}
+
+	private static final class SourceFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final String code;
+
+		SourceFile(String className, String code) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.className = className;
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private static final class ClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes;
+
+		ClassFile(String className, ByteArrayOutputStream bytes) {
+			super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+			this.bytes = bytes;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			bytes.reset();
+			return bytes;
+		}
+	}
+
+	private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, ByteArrayOutputStream> outputs = new LinkedHashMap<>();
+
+		MemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+				FileObject sibling) throws IOException {
+			if (kind != JavaFileObject.Kind.CLASS) {
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			}
+			ByteArrayOutputStream bytes = outputs.computeIfAbsent(className, k -> new ByteArrayOutputStream());
+			return new ClassFile(className, bytes);
+		}
+
+		@Override
+		public void close() {
+			// the standard file manager is shared across compilations
+		}
+	}
+}
@@ -20,29 +20,18 @@
 package org.smartut.junit;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.*;
 
-import javax.tools.Diagnostic;
-import javax.tools.DiagnosticCollector;
-import javax.tools.JavaCompiler;
-import javax.tools.JavaCompiler.CompilationTask;
-import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
-
 import org.apache.commons.io.FileUtils;
 import org.smartut.Properties;
+import org.smartut.Properties.OutputGranularity;
 import org.smartut.TestGenerationContext;
 import org.smartut.TimeController;
-import org.smartut.classpath.ClassPathHandler;
 import org.smartut.instrumentation.NonInstrumentingClassLoader;
 import org.smartut.junit.writer.TestSuiteWriter;
 import org.smartut.junit.writer.TestSuiteWriterUtils;
 import org.smartut.runtime.classhandling.JDKClassResetter;
 import org.smartut.runtime.sandbox.Sandbox;
-import org.smartut.runtime.util.JarPathing;
 import org.smartut.testcase.TestCase;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
@@ -63,15 +52,19 @@ public class JUnitAnalyzer {
 
 	private static int dirCounter = 0;
 
-	private static final String JAVA = ".java";
-	private static final String CLASS = ".class";
-
 	
 	private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 	
 	/**
-	 * Try to compile each test separately, and remove the ones that cannot be
-	 * compiled
+	 * Compile the tests, and remove the ones that cannot be compiled.
+	 * 
+	 * <p>
+	 * All the tests are compiled in memory by a single compiler task, each in
+	 * its own class, so that the compilation errors can be mapped back to the
+	 * tests causing them. As the compiler may only report some of the errors
+	 * once others are found (e.g., flow analysis is skipped), this is repeated
+	 * on the remaining tests until they compile. If an error cannot be
+	 * attributed to a test, the remaining tests are compiled one at a time.
 	 * 
 	 * @param tests
 	 */
@@ -83,44 +76,101 @@ public class JUnitAnalyzer {
 			return;
 		}
 
-		Iterator<TestCase> iter = tests.iterator();
+		List<TestCase> remaining = new ArrayList<>(tests);
+		for (int round = 0; !remaining.isEmpty(); round++) {
+			if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				return;
+			}
 
-		while (iter.hasNext()) {
-			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
-				break;
+			String name = getNewSuiteName();
+			Map<String, String> sources = generateSources(remaining, OutputGranularity.TESTCASE, name);
+			InMemoryCompiler.Result result = InMemoryCompiler.compile(qualify(sources));
+			if (result == null) {
+				removeAll(tests, remaining);
+				return;
+			}
+			if (result.isSuccessful()) {
+				return;
 			}
 
-			TestCase test = iter.next();
+			List<TestCase> failing = new ArrayList<>();
+			boolean unattributed = false;
+			for (String unit : result.getErrors().keySet()) {
+				int index = getIndexOfTestClass(unit, name);
+				if (index >= 0 && index < remaining.size()) {
+					TestCase test = remaining.get(index);
+					failing.add(test);
+					logger.error("Failed to compile test case:\n" + test.toCode());
+					logger.error("Diagnostic: " + result.getErrors().get(unit));
+				} else {
+					logger.debug("Compilation errors in " + unit + ": " + result.getErrors().get(unit));
+					unattributed = true;
+				}
+			}
 
-			File dir = createNewTmpDir();
-			if (dir == null) {
-				logger.warn("Failed to create tmp dir");
+			if (unattributed || failing.isEmpty() || round >= MAX_COMPILATION_ROUNDS) {
+				removeTestsThatDoNotCompileOneByOne(tests, remaining);
 				return;
 			}
-			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 
-			try {
-				List<TestCase> singleList = new ArrayList<>();
-				singleList.add(test);
-				List<File> generated = compileTests(singleList, dir);
-				if (generated == null) {
-					iter.remove();
-					String code = test.toCode();
-					logger.error("Failed to compile test case:\n" + code);
+			removeAll(tests, failing);
+			removeAll(remaining, failing);
+		}
+	}
+
+	/*
+	 * Fallback for errors that cannot be attributed to a single test
+	 */
+	private static void removeTestsThatDoNotCompileOneByOne(List<TestCase> tests, List<TestCase> remaining) {
+		for (TestCase test : remaining) {
+			if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				break;
+			}
+
+			List<TestCase> singleList = new ArrayList<>();
+			singleList.add(test);
+			Map<String, String> sources = generateSources(singleList, OutputGranularity.MERGED, getNewSuiteName());
+			InMemoryCompiler.Result result = InMemoryCompiler.compile(qualify(sources));
+			if (result == null || !result.isSuccessful()) {
+				removeAll(tests, singleList);
+				logger.error("Failed to compile test case:\n" + test.toCode());
+				if (result != null) {
+					logger.error("Diagnostic: " + result.getErrors());
 				}
-			} finally {
-				//let's be sure we clean up all what we wrote on disk
-				if (dir != null) {
-					try {
-						FileUtils.deleteDirectory(dir);
-						logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-					} catch (Exception e) {
-						logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
-					}
+			}
+		}
+	}
+
+	/*
+	 * Removes by identity, as different tests might be equal
+	 */
+	private static void removeAll(List<TestCase> tests, List<TestCase> toRemove) {
+		Iterator<TestCase> iter = tests.iterator();
+		while (iter.hasNext()) {
+			TestCase test = iter.next();
+			for (TestCase other : toRemove) {
+				if (test == other) {
+					iter.remove();
+					break;
 				}
 			}
+		}
+	}
 
-		} // end of while
+	/**
+	 * @return the index of the test in a suite generated with one class per
+	 *         test, or -1 if the class is not one of the tests
+	 */
+	private static int getIndexOfTestClass(String className, String suiteName) {
+		String prefix = qualify(suiteName) + "_";
+		if (!className.startsWith(prefix)) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(className.substring(prefix.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
 	}
 
 	/**
@@ -143,21 +193,15 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
-		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			Map<String, String> sources = generateSources(tests, Properties.OUTPUT_GRANULARITY, getNewSuiteName());
+			InMemoryCompiler.Result compiled = InMemoryCompiler.compile(qualify(sources));
+			if (compiled == null || !compiled.isSuccessful()) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
 				 */
-				logger.warn("Failed to compile the test cases ");
+				logger.warn("Failed to compile the test cases " + (compiled == null ? "" : compiled.getErrors()));
 				return numUnstable;
 			}
 
@@ -168,14 +212,14 @@ public class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(compiled, sources.keySet());
 
-			if (testClasses == null) {
+			if (testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return numUnstable;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (result.wasSuccessful()) {
 				return numUnstable; //everything is OK
@@ -254,24 +298,13 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return numUnstable;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (Exception e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
-
 		}
 
 		//if we arrive here, then it means at least one test was unstable
 		return numUnstable;
 	}
 
-	private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+	private static JUnitResult runTests(Class<?>[] testClasses)
 	        throws JUnitExecutionException {
 		return runJUnitOnCurrentProcess(testClasses);
 	}
@@ -332,106 +365,53 @@ public class JUnitAnalyzer {
 	 * @return
 	 */
 	public static boolean isJavaCompilerAvailable() {
-		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-		return compiler != null;
+		return InMemoryCompiler.isAvailable();
 	}
 
 	// We have to have a unique name for this test suite as it is loaded by the
 	// SmartUt classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
-	private static List<File> compileTests(List<TestCase> tests, File dir) {
-
-		TestSuiteWriter suite = new TestSuiteWriter();
-		suite.insertAllTests(tests);
+	/*
+	 * Bound on the compilations of removeTestsThatDoNotCompile before
+	 * falling back to compiling the tests one at a time
+	 */
+	private static final int MAX_COMPILATION_ROUNDS = 5;
 
+	private static String getNewSuiteName() {
         //to get name, remove all package before last '.'
         int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
 		String name = Properties.TARGET_CLASS.substring(beginIndex);
 		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		return name;
+	}
 
-		try {
-			//now generate the JUnit test case
-			List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-			for (File file : generated) {
-				if (!file.exists()) {
-					logger.error("Supposed to generate " + file
-					        + " but it does not exist");
-					return null;
-				}
-			}
-
-			//try to compile the test cases
-			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-			if (compiler == null) {
-				logger.error("No Java compiler is available");
-				return null;
-			}
-
-			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-			Locale locale = Locale.getDefault();
-			Charset charset = Charset.forName("UTF-8");
-			StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-			                                                                      locale,
-			                                                                      charset);
-
-			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
-
-			String smartutCP = ClassPathHandler.getInstance().getSmartUtClassPath();
-			if(JarPathing.containsAPathingJar(smartutCP)){
-				smartutCP = JarPathing.expandPathingJars(smartutCP);
-			}
-
-			String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-			if(JarPathing.containsAPathingJar(targetProjectCP)){
-				targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-			}
-
-			String classpath = targetProjectCP + File.pathSeparator + smartutCP;
-
-			List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", classpath));
-
-			CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-			                                        optionList, null, compilationUnits);
-			boolean compiled = task.call();
-			fileManager.close();
-
-			if (!compiled) {
-				logger.error("Compilation failed on compilation units: "+ compilationUnits);
-				logger.error("Classpath: "+classpath);
-				//TODO remove
-				logger.error("smartutCP: "+smartutCP);
-
-
-				for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-					if (diagnostic.getMessage(null).startsWith("error while writing")) {
-						logger.error("Error is due to file permissions, ignoring...");
-						return generated;
-					}
-					logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
-					        + diagnostic.getLineNumber());
-				}
-
-				StringBuffer buffer = new StringBuffer();
-				for (JavaFileObject sourceFile : compilationUnits) {
-					List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
-
-					buffer.append(compilationUnits.iterator().next().toString()+"\n");
-
-					for (int i = 0; i < lines.size(); i++) {
-						buffer.append((i + 1) + ": " + lines.get(i) +"\n");
-					}
-				}
-				logger.error(buffer.toString());
-				return null;
-			}
+	/**
+	 * Generate the JUnit sources of the tests (which implies executing them)
+	 * 
+	 * @return source code by simple class name
+	 */
+	private static Map<String, String> generateSources(List<TestCase> tests, OutputGranularity granularity,
+			String name) {
+		TestSuiteWriter suite = new TestSuiteWriter();
+		suite.insertAllTests(tests);
+		return suite.generateTestSuite(name, Collections.emptyList(), granularity);
+	}
 
-			return generated;
+	private static String qualify(String simpleName) {
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
+		return packagePrefix + simpleName;
+	}
 
-		} catch (IOException e) {
-			logger.error("" + e, e);
-			return null;
+	private static Map<String, String> qualify(Map<String, String> sources) {
+		Map<String, String> qualified = new LinkedHashMap<>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			qualified.put(qualify(source.getKey()), source.getValue());
 		}
+		return qualified;
 	}
 
 	protected static File createNewTmpDir() {
@@ -455,7 +435,7 @@ public class JUnitAnalyzer {
 		return dir;
 	}
 
-	private static Class<?>[] loadTests(List<File> tests) {
+	private static Class<?>[] loadTests(InMemoryCompiler.Result compiled, Collection<String> sourceNames) {
 
 		/*
 		 * Ideally, when we run a generated test case, it
@@ -469,67 +449,46 @@ public class JUnitAnalyzer {
 		 * non-instrumenting classloader to re-load the CUT, and so see
 		 * if the JavaAgent works properly.
 		 */
-		Class<?>[] testClasses = getClassesFromFiles(tests);
-		List<File> otherClasses = listOnlyFiles(tests);
-		/*
-		 * this is important to force the loading of all files generated
-		 * in the target folder.
-		 * If we do not do that, then we will miss all the anonymous classes 
-		 */
-		getClassesFromFiles(otherClasses);
-
-		return testClasses;
-	}
-
-	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
-		if(tests==null || tests.isEmpty()){
-			return null;
+		Set<String> topLevel = new LinkedHashSet<>();
+		for (String name : sourceNames) {
+			topLevel.add(qualify(name));
 		}
 
-		Set<String> classNames = new LinkedHashSet<>();
-		
-		File parentFolder = tests.get(0).getParentFile();
-		for(File file : tests){
-			if(!file.getParentFile().equals(parentFolder)){
-				throw new IllegalArgumentException("Tests file are not in the same folder");
+		/*
+		 * first load only the scaffolding files
+		 */
+		for (String name : topLevel) {
+			if (isScaffolding(name)) {
+				loadClass(name, compiled.getClasses().get(name));
 			}
-			classNames.add(removeFileExtension(file.getName()));
 		}
-		
+
 		/*
-		 * if we already loaded a CUT due to its .java, do not want
-		 * to re-loaded it for a .class file that is in the same folder
+		 * once the scaffoldings are loaded, we can load the tests that
+		 * depend on them 
 		 */
-		
-		List<File> otherClasses = new LinkedList<>();
-		
-		for(File file : parentFolder.listFiles()){
-			String  name = removeFileExtension(file.getName());
-
-			if(classNames.contains(name)){
+		List<Class<?>> classes = new ArrayList<>();
+		for (String name : topLevel) {
+			if (isScaffolding(name)) {
 				continue;
 			}
-			
-			classNames.add(name);
-			otherClasses.add(file);
-		}
-		
-		return otherClasses;
-	}
-	
-
-	private static String removeFileExtension(String str) {
-		if (str == null) {
-			return null;
+			Class<?> clazz = loadClass(name, compiled.getClasses().get(name));
+			if (clazz != null) {
+				classes.add(clazz);
+			}
 		}
 
-		int pos = str.lastIndexOf(".");
-
-		if (pos == -1) {
-			return str;
+		/*
+		 * this is important to force the loading of all the generated classes.
+		 * If we do not do that, then we will miss all the anonymous classes 
+		 */
+		for (Map.Entry<String, byte[]> other : compiled.getClasses().entrySet()) {
+			if (!topLevel.contains(other.getKey())) {
+				loadClass(other.getKey(), other.getValue());
+			}
 		}
 
-		return str.substring(0, pos);
+		return classes.toArray(new Class<?>[classes.size()]);
 	}
 
 	/**
@@ -542,8 +501,7 @@ public class JUnitAnalyzer {
 	 * </p>
 	 * 
 	 * <p>
-	 * Here we compile to a tmp folder, load and execute the test cases, and
-	 * then clean up (ie delete all generated files).
+	 * Here we compile in memory, load and execute the test cases.
 	 * </p>
 	 * 
 	 * @param tests
@@ -557,29 +515,24 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
-		}
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
-				logger.warn("Failed to compile the test cases ");
+			Map<String, String> sources = generateSources(tests, Properties.OUTPUT_GRANULARITY, getNewSuiteName());
+			InMemoryCompiler.Result compiled = InMemoryCompiler.compile(qualify(sources));
+			if (compiled == null || !compiled.isSuccessful()) {
+				logger.warn("Failed to compile the test cases " + (compiled == null ? "" : compiled.getErrors()));
 				return false;
 			}
 
 			//as last step, execute the generated/compiled test cases
 
-			Class<?>[] testClasses = loadTests(generated);
+			Class<?>[] testClasses = loadTests(compiled, sources.keySet());
 
-			if (testClasses == null) {
+			if (testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return false;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (!result.wasSuccessful()) {
 				logger.error("" + result.getFailureCount() + " test cases failed");
@@ -603,15 +556,6 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return false;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (IOException e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
 		}
 
 		logger.debug("Successfully compiled and run test cases generated for "
@@ -619,89 +563,21 @@ public class JUnitAnalyzer {
 		return true;
 	}
 
-	/**
-	 * Given a list of files representing .java/.class classes, load them (it
-	 * assumes the classpath to be correctly set)
-	 * 
-	 * @param files
-	 * @return
-	 */
-	private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-		/*
-		 * first load only the scaffolding files
-		 */
-		for (File file : files) {
-			if(!isScaffolding(file)){
-				continue;
-			}
-			loadClass(file);			
-		}
-		
-		List<Class<?>> classes = new ArrayList<>();
-		
-		/*
-		 * once the scaffoldings are loaded, we can load the tests that
-		 * depend on them 
-		 */
-		for (File file : files) {
-			if(isScaffolding(file)){
-				continue;
-			}
-			Class<?> clazz = loadClass(file);
-			if(clazz != null){
-				classes.add(clazz);
-			}
-		}
-		
-		return classes.toArray(new Class<?>[classes.size()]);
-	}
-
-	private static boolean isScaffolding(File file){
-		String name = file.getName();
-		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
-				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
 	}
 	
-	private static Class<?> loadClass(File file){
-		if (!file.isFile()) {
+	private static Class<?> loadClass(String className, byte[] bytes){
+		if (bytes == null) {
 			return null;
 		}
 
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
-
-		String name = file.getName();
-
-		if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-			/*
-			 * this could happen when we scan a folder for all src/compiled
-			 * files
-			 */
-			return null;
-		}
-
-		String fileName = file.getAbsolutePath();
-
-		if (name.endsWith(JAVA)) {
-			name = name.substring(0, name.length() - JAVA.length());
-			fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-		} else {
-			assert name.endsWith(CLASS);
-			name = name.substring(0, name.length() - CLASS.length());
-		}
-
-		String className = packagePrefix + name;
-
 		Class<?> testClass = null;
 		try {
 			logger.info("Loading class " + className);
-			//testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-			testClass = loader.loadClassFromFile(className,fileName);
+			testClass = loader.loadClassFromBytes(className, bytes);
 		} catch (ClassNotFoundException e) {
-			logger.error("Failed to load test case " + className + " from file "
-			        + file.getAbsolutePath() + " , error " + e, e);
+			logger.error("Failed to load test case " + className + " , error " + e, e);
 		}
 		return testClass;
 	}
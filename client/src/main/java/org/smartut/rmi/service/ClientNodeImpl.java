@@ -101,6 +101,11 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 	
 	private Thread statisticsThread; 
 
+	/**
+	 * Sends and receives migrants in parallel runs
+	 */
+	private MigrationService<T> migration;
+
 	//only for testing
 	protected ClientNodeImpl() {
 	}
@@ -204,13 +209,14 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 	}
 
     @Override
-    public void emigrate(Set<T> immigrants) {
-        try {
-            logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + immigrants.size() + " immigrants");
-            masterNode.smartut_migrate(clientRmiIdentifier, immigrants);
-        } catch (RemoteException e) {
-            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrating individuals to master", e);
-        }
+    public void emigrate(Set<T> emigrants) {
+        logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Queueing " + emigrants.size() + " emigrants");
+        migration.send(emigrants);
+    }
+
+    @Override
+    public void finishMigration() {
+        migration.stop(this);
     }
 
     @Override
@@ -369,6 +375,7 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 		try {
 			masterNode = (MasterNodeRemote) registry.lookup(MasterNodeRemote.RMI_SERVICE_NAME);
 			masterNode.smartut_registerClientNode(clientRmiIdentifier);
+			migration = new MigrationService<>(masterNode, clientRmiIdentifier);
 			masterNode.smartut_informChangeOfStateInClient(clientRmiIdentifier, state,
 					new ClientStateInformation(state));
 
@@ -529,10 +536,12 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 	}
 	
     @Override
-    public void immigrate(Set<T> migrants) throws RemoteException {
-        logger.debug(ClientProcess.getPrettyPrintIdentifier() + "receiving "
-                + (migrants != null ? migrants.size() : 0) + " immigrants");
-        fireEvent(migrants);
+    public void immigrate(byte[] migrants) throws RemoteException {
+        Set<T> unseen = migration.receive(migrants);
+        logger.debug(ClientProcess.getPrettyPrintIdentifier() + "receiving " + unseen.size() + " immigrants");
+        if (!unseen.isEmpty()) {
+            fireEvent(unseen);
+        }
     }
 
     @Override
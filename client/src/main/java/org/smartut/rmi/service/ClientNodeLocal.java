@@ -50,7 +50,18 @@ public interface ClientNodeLocal<T extends Chromosome<T>> extends Listenable<Set
 
 	void waitUntilDone();
 	
-	void emigrate(Set<T> immigrants);
+	/**
+	 * Queues individuals for the other clients of a parallel run. They are
+	 * sent in the background, so this does not wait on the network
+	 *
+	 * @param emigrants the individuals to send
+	 */
+	void emigrate(Set<T> emigrants);
+
+	/**
+	 * Stops sending migrants and tracks how many were exchanged, and at what cost
+	 */
+	void finishMigration();
 	
 	void sendBestSolution(Set<T> solutions);
 
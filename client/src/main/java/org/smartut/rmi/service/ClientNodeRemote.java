@@ -54,7 +54,7 @@ public interface ClientNodeRemote<T extends Chromosome<T>> extends Remote {
 
 	void printClassStatistics() throws RemoteException;
 	
-	void immigrate(Set<T> migrants) throws RemoteException;
+	void immigrate(byte[] migrants) throws RemoteException;
 
     void collectBestSolutions(Set<T> solutions) throws RemoteException;
 }
@@ -57,7 +57,15 @@ public interface MasterNodeRemote extends Remote {
 
 	void smartut_updateProperty(String clientRmiIdentifier, String propertyName, Object value) throws RemoteException, IllegalArgumentException, IllegalAccessException, NoSuchParameterException;
 	
-	void smartut_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants) throws RemoteException;
+	/**
+	 * Forwards a batch of migrants to the neighbours of the sending client, as
+	 * defined by {@link org.smartut.Properties#MIGRATION_TOPOLOGY}
+	 *
+	 * @param clientRmiIdentifier the sending client
+	 * @param migrants the compressed migrants, which are not decoded here
+	 * @throws RemoteException
+	 */
+	void smartut_migrate(String clientRmiIdentifier, byte[] migrants) throws RemoteException;
 
     void smartut_collectBestSolutions(String clientRmiIdentifier, Set<? extends Chromosome> solutions) throws RemoteException;
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.rmi.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.smartut.ClientProcess;
+import org.smartut.Properties;
+import org.smartut.TestGenerationContext;
+import org.smartut.ga.Chromosome;
+import org.smartut.runtime.sandbox.Sandbox;
+import org.smartut.statistics.RuntimeVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exchanges migrants with the other clients of a parallel run.
+ *
+ * <p>
+ * The search thread only puts copies of its emigrants on a bounded queue,
+ * dropping the oldest ones when the queue is full. A background thread
+ * takes everything that is queued, skips the tests that were already sent
+ * or received, and hands the batch to the master as a single compressed
+ * array, which the master forwards to the neighbours of this client without
+ * looking into it.
+ */
+class MigrationService<T extends Chromosome<T>> {
+
+	private static final Logger logger = LoggerFactory.getLogger(MigrationService.class);
+
+	/**
+	 * How many hashes of exchanged migrants are remembered to spot duplicates
+	 */
+	private static final int MAX_SEEN_MIGRANTS = 4096;
+
+	private final MasterNodeRemote masterNode;
+
+	private final String clientRmiIdentifier;
+
+	private final BlockingQueue<T> outbound;
+
+	/**
+	 * Structural hashes of the migrants sent or received most recently
+	 */
+	private final Set<Integer> seen = Collections.newSetFromMap(
+			new LinkedHashMap<Integer, Boolean>() {
+				private static final long serialVersionUID = -2046532290137016522L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+					return size() > MAX_SEEN_MIGRANTS;
+				}
+			});
+
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong discarded = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicLong latency = new AtomicLong();
+
+	private Thread senderThread;
+
+	public MigrationService(MasterNodeRemote masterNode, String clientRmiIdentifier) {
+		this(masterNode, clientRmiIdentifier, Properties.MIGRATION_QUEUE_SIZE);
+	}
+
+	MigrationService(MasterNodeRemote masterNode, String clientRmiIdentifier, int queueSize) {
+		this.masterNode = masterNode;
+		this.clientRmiIdentifier = clientRmiIdentifier;
+		this.outbound = new ArrayBlockingQueue<>(queueSize);
+	}
+
+	/**
+	 * Queues copies of the given individuals for the other clients. This never
+	 * waits on the network.
+	 *
+	 * @param emigrants the individuals to send
+	 */
+	public void send(Collection<T> emigrants) {
+		startSender();
+		for (T emigrant : emigrants) {
+			T copy = emigrant.clone();
+			while (!outbound.offer(copy)) {
+				if (outbound.poll() != null) {
+					discarded.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decodes a batch sent by another client.
+	 *
+	 * @param batch the compressed migrants
+	 * @return the migrants that this client did not see yet
+	 */
+	public Set<T> receive(byte[] batch) {
+		List<T> migrants;
+		try {
+			migrants = decode(batch);
+		} catch (IOException | ClassNotFoundException e) {
+			logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot read immigrating individuals", e);
+			return Collections.emptySet();
+		}
+		received.addAndGet(migrants.size());
+		Set<T> unseen = new LinkedHashSet<>();
+		for (T migrant : migrants) {
+			if (markSeen(migrant)) {
+				unseen.add(migrant);
+			} else {
+				discarded.incrementAndGet();
+			}
+		}
+		return unseen;
+	}
+
+	private synchronized void startSender() {
+		if (senderThread != null) {
+			return;
+		}
+		senderThread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					while (!this.isInterrupted()) {
+						List<T> batch = new ArrayList<>();
+						batch.add(outbound.take()); //this is blocking
+						outbound.drainTo(batch);
+						sendBatch(batch);
+					}
+				} catch (InterruptedException e) {
+					// stopped
+				} catch (RemoteException e) {
+					logger.error(ClientProcess.getPrettyPrintIdentifier()
+							+ "Cannot send immigrating individuals to master, restarting the sender on the next migration", e);
+				} finally {
+					senderStopped(this);
+				}
+			}
+		};
+		senderThread.setName("Migrant sender in client process");
+		senderThread.setDaemon(true);
+		Sandbox.addPrivilegedThread(senderThread);
+		senderThread.start();
+	}
+
+	/**
+	 * Called by the sender thread when it terminates, so that the next call
+	 * of {@link #send(Collection)} starts a new one
+	 */
+	private synchronized void senderStopped(Thread thread) {
+		if (senderThread == thread) {
+			senderThread = null;
+		}
+	}
+
+	private void sendBatch(List<T> batch) throws RemoteException {
+		List<T> unseen = new ArrayList<>(batch.size());
+		for (T migrant : batch) {
+			if (markSeen(migrant)) {
+				unseen.add(migrant);
+			} else {
+				discarded.incrementAndGet();
+			}
+		}
+		if (unseen.isEmpty()) {
+			return;
+		}
+
+		byte[] data;
+		try {
+			data = encode(unseen);
+		} catch (IOException e) {
+			logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot write immigrating individuals", e);
+			discarded.addAndGet(unseen.size());
+			return;
+		}
+
+		logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + unseen.size() + " immigrants in " + data.length + " bytes");
+		long start = System.currentTimeMillis();
+		try {
+			masterNode.smartut_migrate(clientRmiIdentifier, data);
+		} catch (RemoteException e) {
+			discarded.addAndGet(unseen.size());
+			throw e;
+		}
+		latency.addAndGet(System.currentTimeMillis() - start);
+		sent.addAndGet(unseen.size());
+		batches.incrementAndGet();
+		bytes.addAndGet(data.length);
+	}
+
+	private boolean markSeen(T migrant) {
+		synchronized (seen) {
+			return seen.add(migrant.hashCode());
+		}
+	}
+
+	/**
+	 * Stops the background sender, dropping what it did not send yet, and
+	 * tracks the amount and cost of the migration so far.
+	 *
+	 * @param clientNode where to track the output variables
+	 */
+	public void stop(ClientNodeLocal<T> clientNode) {
+		Thread thread;
+		synchronized (this) {
+			thread = senderThread;
+			senderThread = null;
+		}
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(3000);
+			} catch (InterruptedException e) {
+				logger.error("Failed to stop the migrant sender in time");
+			}
+		}
+		discarded.addAndGet(outbound.size());
+		outbound.clear();
+
+		clientNode.trackOutputVariable(RuntimeVariable.Migrants_Sent, sent.get());
+		clientNode.trackOutputVariable(RuntimeVariable.Migrants_Received, received.get());
+		clientNode.trackOutputVariable(RuntimeVariable.Migrants_Discarded, discarded.get());
+		clientNode.trackOutputVariable(RuntimeVariable.Migration_Bytes, bytes.get());
+		long numBatches = batches.get();
+		clientNode.trackOutputVariable(RuntimeVariable.Migration_Latency,
+				numBatches == 0 ? 0.0 : (double) latency.get() / numBatches);
+	}
+
+	static byte[] encode(List<? extends Chromosome<?>> migrants) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(data))) {
+			out.writeObject(new ArrayList<>(migrants));
+		}
+		return data.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> List<T> decode(byte[] batch) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new SUTObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(batch)))) {
+			return (List<T>) in.readObject();
+		}
+	}
+
+	/**
+	 * Resolves the classes of the migrants with the loader of the SUT, so that
+	 * they refer to the instrumented classes of this client
+	 */
+	private static class SUTObjectInputStream extends ObjectInputStream {
+
+		SUTObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(desc.getName(), false,
+						TestGenerationContext.getInstance().getClassLoaderForSUT());
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+	}
+}
@@ -91,6 +91,17 @@ public interface ConstantPool {
 	 *            a {@link java.lang.Object} object.
 	 */
     void add(Object object);
+
+	/**
+	 * Adds an int constant. Pools that store ints without boxing override this
+	 * to avoid allocating on the branch instrumentation.
+	 * 
+	 * @param value
+	 *            a int.
+	 */
+    default void addInt(int value) {
+        add(value);
+    }
 	
 	String toString();
 }
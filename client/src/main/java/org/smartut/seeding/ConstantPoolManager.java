@@ -38,6 +38,14 @@ public class ConstantPoolManager {
 	private double[] probabilities;
 
 	private List<ConstantPool> customizedPools = new LinkedList<>();
+
+	/*
+	 * Constants added to the SUT and non-SUT pools while recording. They are
+	 * stored with the bytecode in the instrumentation cache, so that a class
+	 * taken from the cache contributes the same constants
+	 */
+	private List<Object> recordedSUTConstants = null;
+	private List<Object> recordedNonSUTConstants = null;
 	/*
 	 * We treat it in a special way, for now, just for making experiments
 	 * easier to run
@@ -95,15 +103,59 @@ public class ConstantPoolManager {
 	 */
 
 	public void addSUTConstant(Object value) {
+		if (recordedSUTConstants != null) {
+			recordedSUTConstants.add(value);
+		}
 		pools[SUT_POOL_INDEX].add(value);
 	}
 
 	public void addNonSUTConstant(Object value) {
+		if (recordedNonSUTConstants != null) {
+			recordedNonSUTConstants.add(value);
+		}
 		pools[NON_SUT_POOL_INDEX].add(value);
 	}
 
+	/**
+	 * Starts collecting the constants added to the SUT and non-SUT pools
+	 * 
+	 * @param sutConstants
+	 *            receives the values passed to {@link #addSUTConstant(Object)}
+	 * @param nonSUTConstants
+	 *            receives the values passed to
+	 *            {@link #addNonSUTConstant(Object)}
+	 */
+	public void startRecording(List<Object> sutConstants, List<Object> nonSUTConstants) {
+		recordedSUTConstants = sutConstants;
+		recordedNonSUTConstants = nonSUTConstants;
+	}
+
+	public void stopRecording() {
+		recordedSUTConstants = null;
+		recordedNonSUTConstants = null;
+	}
+
 	public void addDynamicConstant(Object value) {
-		pools[DYNAMIC_POOL_INDEX].add(value);
+		ConstantPool pool = pools[DYNAMIC_POOL_INDEX];
+		if (Properties.PARALLEL_EXECUTION_WORKERS > 1) {
+			// constants are collected from tests executed concurrently
+			synchronized (pool) {
+				pool.add(value);
+			}
+		} else {
+			pool.add(value);
+		}
+	}
+
+	public void addDynamicConstant(int value) {
+		ConstantPool pool = pools[DYNAMIC_POOL_INDEX];
+		if (Properties.PARALLEL_EXECUTION_WORKERS > 1) {
+			synchronized (pool) {
+				pool.addInt(value);
+			}
+		} else {
+			pool.addInt(value);
+		}
 	}
 
 	public ConstantPool getSUTConstantPool() {
@@ -21,6 +21,7 @@ package org.smartut.seeding;
 
 import org.smartut.Properties;
 import org.smartut.utils.DefaultRandomAccessQueue;
+import org.smartut.utils.IntRandomAccessQueue;
 import org.smartut.utils.RandomAccessQueue;
 import org.objectweb.asm.Type;
 
@@ -34,7 +35,7 @@ public class DynamicConstantPool implements ConstantPool {
 
 	private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<>();
 
-	private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<>();
+	private final IntRandomAccessQueue intPool = new IntRandomAccessQueue();
 
 	private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<>();
 
@@ -76,7 +77,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public int getRandomInt() {
-		return intPool.getRandomValue();
+		return intPool.getRandomInt();
 	}
 
 	/* (non-Javadoc)
@@ -126,14 +127,7 @@ public class DynamicConstantPool implements ConstantPool {
 		}
 
 		else if (object instanceof Integer) {
-			if (Properties.RESTRICT_POOL) {
-				int val = (Integer) object;
-				if (Math.abs(val) < Properties.MAX_INT) {
-					intPool.restrictedAdd((Integer) object);
-				}
-			} else {
-				intPool.restrictedAdd((Integer) object);
-			}
+			addInt((Integer) object);
 		} else if (object instanceof Long) {
 			if (Properties.RESTRICT_POOL) {
 				long val = (Long) object;
@@ -164,6 +158,17 @@ public class DynamicConstantPool implements ConstantPool {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see org.smartut.primitives.ConstantPool#addInt(int)
+	 */
+	@Override
+	public void addInt(int value) {
+		if (Properties.RESTRICT_POOL && Math.abs(value) >= Properties.MAX_INT) {
+			return;
+		}
+		intPool.restrictedAdd(value);
+	}
+
 	@Override
 	public String toString() {
 		String res = "DynamicConstantPool:{";
@@ -19,12 +19,12 @@
  */
 package org.smartut.seeding;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,8 +37,8 @@ import org.smartut.Properties;
 import org.smartut.testcarver.extraction.CarvingRunListener;
 import org.smartut.testcase.TestCase;
 import org.smartut.testcase.TestChromosome;
+import org.smartut.testsuite.TestCaseCodec;
 import org.smartut.testsuite.TestSuiteChromosome;
-import org.smartut.utils.DebuggingObjectOutputStream;
 import org.smartut.utils.generic.GenericClass;
 import org.smartut.utils.Randomness;
 import org.junit.runner.JUnitCore;
@@ -156,6 +156,31 @@ public class ObjectPool implements Serializable {
 	 * @param fileName
 	 */
 	public static ObjectPool getPoolFromFile(String fileName) {
+		if (!TestCaseCodec.isBinaryFormat(new File(fileName))) {
+			// written by an older version
+			return getSerializedPoolFromFile(fileName);
+		}
+		try (TestCaseCodec.Reader in = new TestCaseCodec.Reader(new FileInputStream(fileName))) {
+			ObjectPool pool = new ObjectPool();
+			int numClasses = in.readInt();
+			for (int i = 0; i < numClasses; i++) {
+				GenericClass clazz = in.readClass();
+				Set<TestCase> sequences = pool.pool.computeIfAbsent(clazz, c -> new HashSet<>());
+				int numSequences = in.readInt();
+				for (int j = 0; j < numSequences; j++) {
+					sequences.add(in.readTest());
+				}
+			}
+			pool.filterUnaccessibleTests();
+			return pool;
+		} catch (Exception e) {
+			logger.error("Exception while trying to get object pool from " + fileName
+			        + " , " + e.getMessage(), e);
+		}
+		return null;
+	}
+
+	private static ObjectPool getSerializedPoolFromFile(String fileName) {
 		try {
 			InputStream in = new FileInputStream(fileName);
 			ObjectInputStream objectIn = new ObjectInputStream(in);
@@ -255,11 +280,15 @@ public class ObjectPool implements Serializable {
 	}
 
 	public void writePool(String fileName) {
-		try {
-			ObjectOutputStream out = new DebuggingObjectOutputStream(
-			        new FileOutputStream(fileName));
-			out.writeObject(this);
-			out.close();
+		try (TestCaseCodec.Writer out = new TestCaseCodec.Writer(new FileOutputStream(fileName))) {
+			out.writeInt(pool.size());
+			for (Map.Entry<GenericClass, Set<TestCase>> entry : pool.entrySet()) {
+				out.writeClass(entry.getKey());
+				out.writeInt(entry.getValue().size());
+				for (TestCase sequence : entry.getValue()) {
+					out.writeTest(sequence);
+				}
+			}
 		} catch (IOException e) {
 			logger.warn("Error while writing pool to file "+fileName+": "+e);
 		}
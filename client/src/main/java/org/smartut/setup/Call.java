@@ -100,6 +100,18 @@ public class Call implements Serializable {
 		return false;
 	}
 
+	/**
+	 * Same as {@link #equals(Object)} against a call with the given names,
+	 * without creating it
+	 */
+	boolean equals(String className, String methodName) {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((className == null) ? 0 : className.hashCode());
+		result = prime * result + ((methodName == null) ? 0 : methodName.hashCode());
+		return hcode == result;
+	}
+
 	// TODO: Could consider line number?
 	public boolean matches(Call other) {
 		if (approxHcode == other.approxHcode)
@@ -26,6 +26,8 @@ import org.smartut.testcase.execution.MethodCall;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -296,6 +298,120 @@ public class CallContext implements Serializable {
     public List<Call> getContext() {
         return context;
     }
+
+	/**
+	 * The call context of a method on the stack of an execution trace, derived
+	 * from the frame of its caller when the method is entered.
+	 * 
+	 * Frames form a tree shared by all the traces, so that the same sequence of
+	 * calls always yields the same {@link CallContext} instance, and the context
+	 * of a branch is found without walking and copying the stack. The context
+	 * of a frame is the one {@link CallContext#CallContext(LinkedList)} computes
+	 * for the same stack.
+	 */
+	public static final class Frame {
+
+		/* once the tree gets this large, a new one is started */
+		private static final int MAX_FRAMES = 100_000;
+
+		private static volatile Frame root = null;
+
+		private static final AtomicInteger numFrames = new AtomicInteger();
+
+		private final Frame rootFrame;
+
+		private final Frame parent;
+
+		/* last call of the sequence, null for the root */
+		private final Call call;
+
+		/* the sequence without the trailing excluded calls */
+		private final CallContext context;
+
+		/* the value of Properties.JUNIT the excludes of the root were computed for */
+		private final String junit;
+
+		private final ConcurrentHashMap<String, ConcurrentHashMap<String, Frame>> children = new ConcurrentHashMap<>();
+
+		private Frame() {
+			this.rootFrame = this;
+			this.parent = null;
+			this.call = null;
+			this.context = new CallContext();
+			this.junit = Properties.JUNIT;
+		}
+
+		private Frame(Frame parent, Call call, CallContext context) {
+			this.rootFrame = parent.rootFrame;
+			this.parent = parent;
+			this.call = call;
+			this.context = context;
+			this.junit = parent.junit;
+		}
+
+		/**
+		 * @return the frame of an empty stack
+		 */
+		public static Frame getRoot() {
+			Frame current = root;
+			if (current == null || !current.junit.equals(Properties.JUNIT) || numFrames.get() > MAX_FRAMES) {
+				synchronized (Frame.class) {
+					current = root;
+					if (current == null || !current.junit.equals(Properties.JUNIT)
+							|| numFrames.get() > MAX_FRAMES) {
+						numFrames.set(0);
+						current = new Frame();
+						root = current;
+					}
+				}
+			}
+			return current;
+		}
+
+		/**
+		 * @return the frame of the stack after the given method is entered
+		 */
+		public Frame enter(String className, String methodName) {
+			boolean excluded = rootFrame.context.shouldSkipEntry(className);
+			if (call == null && excluded) {
+				// leading excluded calls are not part of the context
+				return this;
+			}
+			if (call != null && parent.call != null && call.equals(className, methodName)
+					&& parent.call.equals(className, methodName)) {
+				// recursion is cut after the third repetition
+				return this;
+			}
+
+			ConcurrentHashMap<String, Frame> methods = children.get(className);
+			if (methods == null) {
+				methods = children.computeIfAbsent(className, k -> new ConcurrentHashMap<>());
+			}
+			Frame child = methods.get(methodName);
+			if (child == null) {
+				child = methods.computeIfAbsent(methodName, k -> newChild(className, methodName, excluded));
+			}
+			return child;
+		}
+
+		private Frame newChild(String className, String methodName, boolean excluded) {
+			numFrames.incrementAndGet();
+			Call newCall = new Call(className, methodName);
+			if (excluded) {
+				return new Frame(this, newCall, context);
+			}
+			LinkedList<Call> calls = new LinkedList<>();
+			calls.add(newCall);
+			for (Frame frame = this; frame.call != null; frame = frame.parent) {
+				calls.addFirst(frame.call);
+			}
+			return new Frame(this, newCall, new CallContext(calls));
+		}
+
+		public CallContext getContext() {
+			return context;
+		}
+	}
 	// ----------------
 	// CALL class
 
@@ -21,6 +21,10 @@ package org.smartut.setup;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -31,6 +35,7 @@ import org.smartut.ClientProcess;
 import org.smartut.PackageInfo;
 import org.smartut.Properties;
 import org.smartut.TestGenerationContext;
+import org.smartut.classpath.JarClassIndex;
 import org.smartut.classpath.ResourceList;
 import org.smartut.rmi.ClientServices;
 import org.smartut.statistics.RuntimeVariable;
@@ -39,7 +44,6 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.InnerClassNode;
-import org.objectweb.asm.tree.MethodNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,18 +88,24 @@ public class InheritanceTreeGenerator {
         }
 
 		logger.debug("CP: {}", classPath);
+		Map<String, JarClassIndex> jarIndexes = indexJars(classPath);
 		for (String classPathEntry : classPath) {
 			logger.debug("Looking at CP entry: {}", classPathEntry);
-			if (classPathEntry.isEmpty())
-				continue;
-
-			if (classPathEntry.matches(".*smartut-.*\\.jar"))
+			if (!isAnalyzed(classPathEntry))
 				continue;
 
 			logger.debug("Analyzing classpath entry {}", classPathEntry);
 			LoggingUtils.getSmartUtLogger().info("  - " + classPathEntry);
+			JarClassIndex index = jarIndexes.get(classPathEntry);
 	        for(String className : ResourceList.getInstance(
 					TestGenerationContext.getInstance().getClassLoaderForSUT()).getAllClasses(classPathEntry, "", true, false)) {
+	        	if (index != null) {
+	        		// classes that could not be parsed are not in the index
+	        		JarClassIndex.ClassInfo info = index.getClassInfo(className);
+	        		if (info != null)
+	        			analyzeClassInfo(inheritanceTree, info, false);
+	        		continue;
+	        	}
 	        	// handle individual class
 				analyzeClassStream(inheritanceTree, ResourceList.getInstance(
 						TestGenerationContext.getInstance().getClassLoaderForSUT()).getClassAsStream(className), false);
@@ -106,6 +116,57 @@ public class InheritanceTreeGenerator {
 		return inheritanceTree;
 	}
 
+	private static boolean isAnalyzed(String classPathEntry) {
+		return !classPathEntry.isEmpty() && !classPathEntry.matches(".*smartut-.*\\.jar");
+	}
+
+	/**
+	 * Gets the index of the classes of each jar in the classpath, parsing the
+	 * jars that have no stored index in parallel
+	 * 
+	 * @param classPath
+	 * @return the indexes by classpath entry, without the jars that could not
+	 *         be indexed
+	 */
+	private static Map<String, JarClassIndex> indexJars(List<String> classPath) {
+		List<String> jars = new ArrayList<>();
+		for (String classPathEntry : classPath) {
+			if (isAnalyzed(classPathEntry) && classPathEntry.endsWith(".jar") && new File(classPathEntry).isFile())
+				jars.add(classPathEntry);
+		}
+		Map<String, JarClassIndex> indexes = new HashMap<>();
+		if (jars.isEmpty())
+			return indexes;
+
+		int threads = Math.min(jars.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Classpath indexing");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			Map<String, Future<JarClassIndex>> futures = new LinkedHashMap<>();
+			for (String jar : jars) {
+				futures.put(jar, executor.submit(() -> JarClassIndex.getOrCreate(new File(jar))));
+			}
+			for (Map.Entry<String, Future<JarClassIndex>> future : futures.entrySet()) {
+				try {
+					JarClassIndex index = future.getValue().get();
+					if (index != null)
+						indexes.put(future.getKey(), index);
+				} catch (ExecutionException e) {
+					logger.warn("Failed to index jar file " + future.getKey() + " , " + e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		logger.debug("Indexed {} of {} jar files", indexes.size(), jars.size());
+		return indexes;
+	}
+
 	/**
 	 * Create inheritance tree only for the classes passed as parameter
 	 * 
@@ -250,30 +311,33 @@ public class InheritanceTreeGenerator {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
 	private static void analyzeClassNode(InheritanceTree inheritanceTree,
 	        ClassNode cn, boolean onlyPublic) {
+		analyzeClassInfo(inheritanceTree, JarClassIndex.ClassInfo.of(cn), onlyPublic);
+	}
+
+	private static void analyzeClassInfo(InheritanceTree inheritanceTree,
+	        JarClassIndex.ClassInfo cn, boolean onlyPublic) {
 		
-		logger.info("Analyzing class {}", cn.name);
+		logger.info("Analyzing class {}", cn.getName());
 		
 		// Don't load classes already seen from a different CP entry
-		if(inheritanceTree.hasClass(cn.name))
+		if(inheritanceTree.hasClass(cn.getName()))
 			return;
 
-		if ((Opcodes.ACC_INTERFACE & cn.access) != Opcodes.ACC_INTERFACE) {
-			for (Object m : cn.methods) {
-				MethodNode mn = (MethodNode) m;
+		if ((Opcodes.ACC_INTERFACE & cn.getAccess()) != Opcodes.ACC_INTERFACE) {
+			for (int i = 0; i < cn.getNumberOfMethods(); i++) {
 				inheritanceTree
-				.addAnalyzedMethod(cn.name, mn.name, mn.desc);
+				.addAnalyzedMethod(cn.getName(), cn.getMethodName(i), cn.getMethodDescriptor(i));
 			}
-			if ((Opcodes.ACC_ABSTRACT & cn.access) == Opcodes.ACC_ABSTRACT) {
-				inheritanceTree.registerAbstractClass(cn.name);
+			if ((Opcodes.ACC_ABSTRACT & cn.getAccess()) == Opcodes.ACC_ABSTRACT) {
+				inheritanceTree.registerAbstractClass(cn.getName());
 			}
 		}else{
-			inheritanceTree.registerInterface(cn.name);
+			inheritanceTree.registerInterface(cn.getName());
 		}
 		if (onlyPublic) {
-			if ((cn.access & Opcodes.ACC_PUBLIC) == 0) {
+			if ((cn.getAccess() & Opcodes.ACC_PUBLIC) == 0) {
 				return;
 			}
 //		} else {
@@ -283,12 +347,11 @@ public class InheritanceTreeGenerator {
 //			}
 		}
 
-		if (cn.superName != null)
-			inheritanceTree.addSuperclass(cn.name, cn.superName, cn.access);
+		if (cn.getSuperName() != null)
+			inheritanceTree.addSuperclass(cn.getName(), cn.getSuperName(), cn.getAccess());
 
-		List<String> interfaces = cn.interfaces;
-		for (String interfaceName : interfaces) {
-			inheritanceTree.addInterface(cn.name, interfaceName);
+		for (String interfaceName : cn.getInterfaces()) {
+			inheritanceTree.addInterface(cn.getName(), interfaceName);
 		}
 	}
 
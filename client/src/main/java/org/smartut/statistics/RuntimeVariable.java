@@ -210,6 +210,20 @@ public enum RuntimeVariable {
 	/** Either use  {@link RuntimeVariable#Length} */
 	@Deprecated
 	Minimized_Length,
+	/** Number of test executions needed to remove statements during minimization */
+	Minimization_Executions,
+	/** Number of test executions saved by removing several statements at once during minimization */
+	Minimization_Saved_Executions,
+	/** Number of individuals sent to other clients in parallel runs */
+	Migrants_Sent,
+	/** Number of individuals received from other clients in parallel runs */
+	Migrants_Received,
+	/** Number of migrants dropped because the outbound queue was full or they had been exchanged already */
+	Migrants_Discarded,
+	/** Number of compressed bytes of the migrants sent to other clients */
+	Migration_Bytes,
+	/** Average time in milliseconds to hand a batch of migrants over to the master */
+	Migration_Latency,
 	/** The random seed used during the search. A random one was used if none was specified at the beginning */
 	Random_Seed,
 	/** How many tests were carved, ie used as input seeds for the search */
@@ -222,6 +236,8 @@ public enum RuntimeVariable {
 	NumUnstableTests,
 	/** An estimate (ie not precise) of the maximum number of threads running at the same time in the CUT */
 	Threads,
+	/** Loop executions by number of iterations, as 'iterations:count' pairs where each power of two counts the executions up to the next one */
+	Loop_Iterations,
 	/** Number of top-level methods throwing an undeclared exception explicitly with a 'throw new' */
 	Explicit_MethodExceptions, 
 	/** Number of undeclared exception types that were explicitly thrown with a 'throw new' at least once */
@@ -377,6 +393,14 @@ public enum RuntimeVariable {
 	NumberOfUsefulNewTests,
 	/** How many SAT queries led to Unuseful (i.e. no better fitness) new tests*/ 
 	NumberOfUnusefulNewTests,
+	/** How many branch conditions DSE scheduled for negation */
+	NumberOfScheduledNegations,
+	/** How many scheduled negations were skipped, as an earlier query covers them */
+	NumberOfSkippedNegations,
+	/** How many scheduled negations were sent to the solver */
+	NumberOfSolvedNegations,
+	/** How many negations led to a test improving the fitness */
+	NumberOfImprovingNegations,
 	
 	/* -------------------------------------------------------------------- */
 	/** Search budget needed to reach the maximum coverage */ 
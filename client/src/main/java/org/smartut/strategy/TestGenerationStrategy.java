@@ -40,6 +40,7 @@ import org.smartut.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.smartut.ga.stoppingconditions.MaxTimeStoppingCondition;
 import org.smartut.ga.stoppingconditions.StoppingCondition;
 import org.smartut.ga.stoppingconditions.ZeroFitnessStoppingCondition;
+import org.smartut.runtime.LoopCounter;
 import org.smartut.setup.TestCluster;
 import org.smartut.statistics.RuntimeVariable;
 import org.smartut.testcase.TestFitnessFunction;
@@ -80,6 +81,30 @@ public abstract class TestGenerationStrategy {
     protected void sendExecutionStatistics() {
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
+        if (Properties.LOOP_ITERATION_HISTOGRAM) {
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Loop_Iterations,
+                    formatIterationHistogram(LoopCounter.getInstance().getIterationHistogram()));
+        }
+    }
+
+    /**
+     * Formats the non empty buckets of a histogram of {@link LoopCounter} as
+     * space separated 'iterations:count' pairs, keyed by the fewest iterations
+     * of the bucket
+     */
+    static String formatIterationHistogram(long[] histogram) {
+        StringBuilder sb = new StringBuilder();
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            if (histogram[bucket] == 0) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            long iterations = bucket == 0 ? 0L : 1L << (bucket - 1);
+            sb.append(iterations).append(':').append(histogram[bucket]);
+        }
+        return sb.toString();
     }
     
     /**
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.smartut.symbolic.expr.Constraint;
+
+/**
+ * A collection of constraint sets that answers whether a set, or a superset of
+ * it, was stored before.
+ *
+ * Each distinct constraint gets an id, and for each id the index keeps the
+ * stored sets containing that constraint as a bitset. The stored sets
+ * containing all constraints of a query are then the intersection of the
+ * bitsets of its constraints, which takes one pass over a few words per
+ * constraint instead of one <code>containsAll</code> per stored set.
+ */
+public class ConstraintSetIndex {
+
+	/**
+	 * Ids of the constraints seen so far
+	 */
+	private final Map<Constraint<?>, Integer> constraintIds = new HashMap<>();
+
+	/**
+	 * For each constraint id, the stored sets that contain the constraint
+	 */
+	private final List<BitSet> setsContaining = new ArrayList<>();
+
+	private final Set<Set<Constraint<?>>> sets = new HashSet<>();
+
+	/**
+	 * Stores a constraint set
+	 *
+	 * @param constraints
+	 * @return <code>false</code> if the set was stored already
+	 */
+	public boolean add(Set<Constraint<?>> constraints) {
+		Set<Constraint<?>> copy = new HashSet<>(constraints);
+		if (!sets.add(copy)) {
+			return false;
+		}
+		int setId = sets.size() - 1;
+		for (Constraint<?> constraint : copy) {
+			Integer id = constraintIds.get(constraint);
+			if (id == null) {
+				id = setsContaining.size();
+				constraintIds.put(constraint, id);
+				setsContaining.add(new BitSet());
+			}
+			setsContaining.get(id).set(setId);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether exactly this set was stored
+	 *
+	 * @param constraints
+	 * @return
+	 */
+	public boolean contains(Set<Constraint<?>> constraints) {
+		return sets.contains(constraints);
+	}
+
+	/**
+	 * Returns whether a stored set contains all the given constraints
+	 *
+	 * @param constraints
+	 * @return
+	 */
+	public boolean containsSupersetOf(Set<Constraint<?>> constraints) {
+		if (sets.isEmpty()) {
+			return false;
+		}
+		BitSet candidates = null;
+		for (Constraint<?> constraint : constraints) {
+			Integer id = constraintIds.get(constraint);
+			if (id == null) {
+				return false;
+			}
+			if (candidates == null) {
+				candidates = (BitSet) setsContaining.get(id).clone();
+			} else {
+				candidates.and(setsContaining.get(id));
+			}
+			if (candidates.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of stored sets
+	 *
+	 * @return
+	 */
+	public int size() {
+		return sets.size();
+	}
+}
@@ -3,6 +3,7 @@ package org.smartut.symbolic;
 import org.smartut.Properties;
 import org.smartut.ga.metaheuristics.GeneticAlgorithm;
 import org.smartut.runtime.classhandling.ClassResetter;
+import org.smartut.runtime.sandbox.Sandbox;
 import org.smartut.symbolic.expr.Constraint;
 import org.smartut.symbolic.expr.IntegerConstraint;
 import org.smartut.symbolic.expr.Variable;
@@ -25,6 +26,10 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class implements a DSE algorithm *as* a subclass of genetic algorithm.
@@ -41,6 +46,16 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
   private final Map<Set<Constraint<?>>, SolverResult> queryCache =
           new HashMap<>();
 
+  /**
+   * The queries in the query cache, indexed to find the ones including a given query
+   */
+  private final ConstraintSetIndex solvedQueries = new ConstraintSetIndex();
+
+  /**
+   * Solves queries of different paths concurrently, if more than one solver thread is configured
+   */
+  private transient ExecutorService solverThreads;
+
   /**
    * Applies DSE test generation on a static non-private method until a stopping condition is met or
    * all queries have been explored.
@@ -72,12 +87,13 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
       return;
     }
 
-    HashSet<Set<Constraint<?>>> pathConditions = new HashSet<>();
+    ConstraintSetIndex pathConditions = new ConstraintSetIndex();
+    ExplorationScheduler scheduler =
+        new ExplorationScheduler(Properties.DSE_EXPLORATION_STRATEGY, Properties.DSE_MAX_NEGATION_DEPTH);
+    explorePath(testCaseWithDefaultValues, null,
+        fitnessBeforeAddingDefaultTest - fitnessAfterAddingDefaultTest, pathConditions, scheduler);
 
-    for (int currentTestIndex = 0; currentTestIndex < generatedTests
-        .size(); currentTestIndex++) {
-
-      TestCase currentTestCase = generatedTests.get(currentTestIndex);
+    while (!scheduler.isEmpty()) {
 
       if (this.isFinished()) {
         logger.debug("DSE test generation met a stopping condition. Exiting with "
@@ -86,54 +102,23 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
         return;
       }
 
-      logger.debug("Starting concolic execution of test case: " + currentTestCase.toCode());
-
-      TestCase clonedTestCase = currentTestCase.clone();
-
-      final PathCondition pathCondition =
-          ConcolicExecution.executeConcolic((DefaultTestCase) clonedTestCase);
-      logger
-          .debug("Path condition collected with : " + pathCondition.size() + " branches");
+      List<ExplorationScheduler.Negation> negations =
+          scheduler.nextOfDifferentPaths(Properties.DSE_SOLVER_THREADS);
 
-      Set<Constraint<?>> constraintsSet = canonicalize(pathCondition.getConstraints());
-      pathConditions.add(constraintsSet);
-      logger.debug("Number of stored path condition: " + pathConditions.size());
+      List<ExplorationScheduler.Negation> negationsToSolve = new ArrayList<>();
+      List<List<Constraint<?>>> queries = new ArrayList<>();
+      List<Set<Constraint<?>>> constraintSets = new ArrayList<>();
+      for (ExplorationScheduler.Negation negation : negations) {
+        logger.debug("negating index " + negation.getConditionIndex() + " of path condition");
 
-      for (int i = pathCondition.size() - 1; i >= 0; i--) {
-        logger.debug("negating index " + i + " of path condition");
-
-        List<Constraint<?>> query = DSETestGenerator.buildQuery(pathCondition, i);
+        List<Constraint<?>> query =
+            DSETestGenerator.buildQuery(negation.getPathCondition(), negation.getConditionIndex());
 
         Set<Constraint<?>> constraintSet = canonicalize(query);
 
-        if (queryCache.containsKey(constraintSet)) {
-          logger.debug("skipping solving of current query since it is in the query cache");
-          continue;
-        }
-
-        if (isSubSetOf(constraintSet, queryCache.keySet())) {
-          logger.debug(
-              "skipping solving of current query because it is satisfiable and solved by previous path condition");
-          continue;
-        }
-
-        if (pathConditions.contains(constraintSet)) {
-          logger.debug("skipping solving of current query because of existing path condition");
+        if (isExplored(constraintSet, pathConditions) || constraintSets.contains(constraintSet)) {
+          DSEStats.getInstance().reportNegationSkipped(scheduler.getStrategy());
           continue;
-
-        }
-
-        if (isSubSetOf(constraintSet, pathConditions)) {
-          logger.debug(
-              "skipping solving of current query because it is satisfiable and solved by previous path condition");
-          continue;
-        }
-
-        if (this.isFinished()) {
-          logger.debug("DSE test generation met a stopping condition. Exiting with "
-              + generatedTests.size() + " generated test cases for method "
-              + staticEntryMethod.getName());
-          return;
         }
 
         logger.debug("Solving query with  " + query.size() + " constraints");
@@ -141,9 +126,20 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
         List<Constraint<?>> varBounds = createVarBounds(query);
         query.addAll(varBounds);
 
-        SolverResult result = DSETestGenerator.solve(query);
+        negationsToSolve.add(negation);
+        queries.add(query);
+        constraintSets.add(constraintSet);
+      }
+
+      List<SolverResult> results = solve(queries);
 
-        queryCache.put(constraintSet, result);
+      for (int i = 0; i < results.size(); i++) {
+        ExplorationScheduler.Negation negation = negationsToSolve.get(i);
+        SolverResult result = results.get(i);
+
+        queryCache.put(constraintSets.get(i), result);
+        solvedQueries.add(constraintSets.get(i));
+        DSEStats.getInstance().reportNegationSolved(scheduler.getStrategy());
         logger.debug("Number of stored entries in query cache : " + queryCache.keySet().size());
 
         if (result == null) {
@@ -153,7 +149,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
           Map<String, Object> solution = result.getModel();
           logger.debug("solver found solution " + solution.toString());
 
-          TestCase newTest = DSETestGenerator.updateTest(currentTestCase, solution);
+          TestCase newTest = DSETestGenerator.updateTest(negation.getTest(), solution);
           logger.debug("Created new test case from SAT solution:" + newTest.toCode());
           generatedTests.add(newTest);
 
@@ -167,6 +163,10 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
           double fitnessAfterAddingNewTest = this.getBestIndividual().getFitness();
           logger.debug("Fitness after adding new test " + fitnessAfterAddingNewTest);
 
+          if (fitnessAfterAddingNewTest < fitnessBeforeAddingNewTest) {
+            DSEStats.getInstance().reportNegationImproving(scheduler.getStrategy());
+          }
+
           this.notifyIteration();
 
           if (fitnessAfterAddingNewTest == 0) {
@@ -174,6 +174,16 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
             return;
           }
 
+          if (this.isFinished()) {
+            logger.debug("DSE test generation met a stopping condition. Exiting with "
+                + generatedTests.size() + " generated test cases for method "
+                + staticEntryMethod.getName());
+            return;
+          }
+
+          explorePath(newTest, negation, fitnessBeforeAddingNewTest - fitnessAfterAddingNewTest,
+              pathConditions, scheduler);
+
         } else {
           assert (result.isUNSAT());
           logger.debug("query is UNSAT (no solution found)");
@@ -185,6 +195,100 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
         + ". Exiting with " + generatedTests.size() + " generated test cases");
   }
 
+  /**
+   * Executes a test concolically and schedules the negations of the branch conditions of its path
+   *
+   * @param test
+   * @param parent the negation the test was generated from, or null
+   * @param gain how much the test improved the fitness
+   * @param pathConditions the path conditions explored so far
+   * @param scheduler
+   */
+  private static void explorePath(TestCase test, ExplorationScheduler.Negation parent, double gain,
+      ConstraintSetIndex pathConditions, ExplorationScheduler scheduler) {
+
+    logger.debug("Starting concolic execution of test case: " + test.toCode());
+
+    TestCase clonedTestCase = test.clone();
+
+    final PathCondition pathCondition =
+        ConcolicExecution.executeConcolic((DefaultTestCase) clonedTestCase);
+    logger
+        .debug("Path condition collected with : " + pathCondition.size() + " branches");
+
+    Set<Constraint<?>> constraintsSet = canonicalize(pathCondition.getConstraints());
+    pathConditions.add(constraintsSet);
+    logger.debug("Number of stored path condition: " + pathConditions.size());
+
+    scheduler.addPath(test, pathCondition, parent, gain);
+  }
+
+  /**
+   * Returns true if a query does not need to be solved, as an explored path condition or an
+   * earlier query includes it
+   *
+   * @param constraintSet
+   * @param pathConditions
+   * @return
+   */
+  private boolean isExplored(Set<Constraint<?>> constraintSet, ConstraintSetIndex pathConditions) {
+    if (queryCache.containsKey(constraintSet)) {
+      logger.debug("skipping solving of current query since it is in the query cache");
+      return true;
+    }
+
+    if (solvedQueries.containsSupersetOf(constraintSet)) {
+      logger.debug(
+          "skipping solving of current query because it is satisfiable and solved by previous path condition");
+      return true;
+    }
+
+    if (pathConditions.contains(constraintSet)) {
+      logger.debug("skipping solving of current query because of existing path condition");
+      return true;
+    }
+
+    if (pathConditions.containsSupersetOf(constraintSet)) {
+      logger.debug(
+          "skipping solving of current query because it is satisfiable and solved by previous path condition");
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Solves the given queries, on the solver threads if there are several
+   *
+   * @param queries queries without common variables
+   * @return the result of each query, null if the solver failed
+   */
+  private List<SolverResult> solve(List<List<Constraint<?>>> queries) {
+    List<SolverResult> results = new ArrayList<>(queries.size());
+    if (queries.size() <= 1 || solverThreads == null) {
+      for (List<Constraint<?>> query : queries) {
+        results.add(DSETestGenerator.solve(query));
+      }
+      return results;
+    }
+
+    List<Future<SolverResult>> futures = new ArrayList<>(queries.size());
+    for (List<Constraint<?>> query : queries) {
+      futures.add(solverThreads.submit(() -> DSETestGenerator.solve(query)));
+    }
+    for (Future<SolverResult> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        results.add(null);
+      } catch (ExecutionException e) {
+        logger.debug("Solver failed: " + e.getCause());
+        results.add(null);
+      }
+    }
+    return results;
+  }
+
   protected static HashSet<Constraint<?>> canonicalize(List<Constraint<?>> query) {
     return new HashSet<>(query);
   }
@@ -226,24 +330,6 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
     return boundsForVariables;
   }
 
-  /**
-   * Returns true if the constraints in the query are a subset of any of the constraints in the set
-   * of queries
-   * 
-   * @param query
-   * @param queries
-   * @return
-   */
-  private static boolean isSubSetOf(Set<Constraint<?>> query,
-      Collection<Set<Constraint<?>>> queries) {
-    for (Set<Constraint<?>> pathCondition : queries) {
-      if (pathCondition.containsAll(query)) {
-        return true;
-      }
-    }
-    return false;
-  }
-
   /**
    * Builds a default test case for a static target method
    * 
@@ -402,25 +488,41 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
     targetStaticMethods.sort(new MethodComparator());
     logger.debug("Found " + targetStaticMethods.size() + " as entry points for DSE");
 
-    for (Method entryMethod : targetStaticMethods) {
+    if (Properties.DSE_SOLVER_THREADS > 1) {
+      solverThreads = Executors.newFixedThreadPool(Properties.DSE_SOLVER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "DSE solver");
+        thread.setDaemon(true);
+        Sandbox.addPrivilegedThread(thread);
+        return thread;
+      });
+    }
 
-      if (this.isFinished()) {
-        logger.debug("A stoping condition was met. No more tests can be generated using DSE.");
-        break;
-      }
+    try {
+      for (Method entryMethod : targetStaticMethods) {
 
-      if (getBestIndividual().getFitness() == 0) {
-        logger.debug("Best individual reached zero fitness");
-        break;
-      }
+        if (this.isFinished()) {
+          logger.debug("A stoping condition was met. No more tests can be generated using DSE.");
+          break;
+        }
 
-      logger.debug("Generating tests for entry method" + entryMethod.getName());
-      int testCaseCount = getBestIndividual().getTests().size();
-      generateTestCasesAndAppendToBestIndividual(entryMethod);
-      int numOfGeneratedTestCases = getBestIndividual().getTests().size() - testCaseCount;
-      logger.debug(numOfGeneratedTestCases + " tests were generated for entry method "
-          + entryMethod.getName());
+        if (getBestIndividual().getFitness() == 0) {
+          logger.debug("Best individual reached zero fitness");
+          break;
+        }
+
+        logger.debug("Generating tests for entry method" + entryMethod.getName());
+        int testCaseCount = getBestIndividual().getTests().size();
+        generateTestCasesAndAppendToBestIndividual(entryMethod);
+        int numOfGeneratedTestCases = getBestIndividual().getTests().size() - testCaseCount;
+        logger.debug(numOfGeneratedTestCases + " tests were generated for entry method "
+            + entryMethod.getName());
 
+      }
+    } finally {
+      if (solverThreads != null) {
+        solverThreads.shutdownNow();
+        solverThreads = null;
+      }
     }
 
     this.updateFitnessFunctionsAndValues();
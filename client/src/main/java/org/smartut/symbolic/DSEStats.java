@@ -21,10 +21,13 @@ package org.smartut.symbolic;
 
 import java.text.NumberFormat;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.smartut.Properties;
+import org.smartut.Properties.DSEExplorationStrategy;
 import org.smartut.rmi.ClientServices;
 import org.smartut.statistics.RuntimeVariable;
 import org.smartut.symbolic.expr.Constraint;
@@ -75,6 +78,8 @@ public class DSEStats {
 	private long nrOfSolutionWithNoImprovement = 0;
 	private long nrOfNewTestFound = 0;
 	private long totalSolvingTimeMillis = 0;
+	private long nrOfSolverQueries = 0;
+	private long totalSolverQueryTimeMillis = 0;
 	private long totalConcolicExecutionTimeMillis = 0;
 	private int constraintTooLongCounter = 0;
 	private int max_path_condition_length;
@@ -88,6 +93,17 @@ public class DSEStats {
 	private final List<Boolean> changes = new LinkedList<>();
 	private final ConstraintTypeCounter constraintTypeCounter = new ConstraintTypeCounter();
 
+	private static final int SCHEDULED = 0;
+	private static final int SKIPPED = 1;
+	private static final int SOLVED = 2;
+	private static final int IMPROVING = 3;
+
+	/**
+	 * Scheduled, skipped, solved and improving negations of branch conditions,
+	 * per exploration strategy
+	 */
+	private final Map<DSEExplorationStrategy, long[]> negations = new EnumMap<>(DSEExplorationStrategy.class);
+
 	public void reportNewUNSAT() {
 		nrOfUNSATs++;
 	}
@@ -178,6 +194,10 @@ public class DSEStats {
 		logConstraintTypeStatistics();
 		logger.info("");
 
+		logger.info("");
+		logExplorationStatistics();
+		logger.info("");
+
 	}
 
 	private void logAdaptationStatistics() {
@@ -198,10 +218,11 @@ public class DSEStats {
 
 	private void logCacheStatistics() {
 		logger.info("* DSE) Constraint Cache Statistics");
-		final int numberOfSATs = SolverCache.getInstance().getNumberOfSATs();
-		final int numberOfUNSATs = SolverCache.getInstance().getNumberOfUNSATs();
+		final SolverCache solverCache = SolverCache.getInstance();
+		final int numberOfSATs = solverCache.getNumberOfSATs();
+		final int numberOfUNSATs = solverCache.getNumberOfUNSATs();
 
-		if (numberOfSATs == 0 || numberOfUNSATs == 0) {
+		if (solverCache.getNumberOfAccesses() == 0) {
 			logger.info("* DSE)   Constraint Cache was not used.");
 
 		} else {
@@ -212,8 +233,13 @@ public class DSEStats {
 
 			NumberFormat percentFormat = NumberFormat.getPercentInstance();
 			percentFormat.setMaximumFractionDigits(1);
-			String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
+			String hit_rate_str = percentFormat.format(solverCache.getHitRate());
 			logger.info(String.format("* DSE)   Cache hit rate: %s", hit_rate_str));
+			logger.info(String.format("* DSE)   Cache hits: %s (%s UNSAT subsumptions, %s reused models)",
+					solverCache.getNumberOfHits(), solverCache.getNumberOfUNSATSubsumptions(),
+					solverCache.getNumberOfReusedModels()));
+			logger.info(String.format("* DSE)   Cache misses: %s", solverCache.getNumberOfMisses()));
+			logger.info(String.format("* DSE)   Cache evictions: %s", solverCache.getNumberOfEvictions()));
 		}
 	}
 
@@ -222,6 +248,8 @@ public class DSEStats {
 		logger.info(String.format("* DSE)   Time spent solving constraints: %sms", totalSolvingTimeMillis));
 		logger.info(String.format("* DSE)   Time spent executing test concolically: %sms",
 				totalConcolicExecutionTimeMillis));
+		logger.info(String.format("* DSE)   External solver queries: %s (%s queries/s)", nrOfSolverQueries,
+				getSolverQueriesPerSecond()));
 	}
 
 	private  void logSolverStatistics() {
@@ -314,6 +342,18 @@ public class DSEStats {
 		}
 	}
 
+	private synchronized void logExplorationStatistics() {
+		logger.info("* DSE) Exploration statistics");
+		if (negations.isEmpty()) {
+			logger.info("* DSE)   No path condition was explored");
+		}
+		for (Map.Entry<DSEExplorationStrategy, long[]> entry : negations.entrySet()) {
+			long[] counters = entry.getValue();
+			logger.info(String.format("* DSE)   %s: %s negations scheduled, %s skipped, %s solved, %s improving",
+					entry.getKey(), counters[SCHEDULED], counters[SKIPPED], counters[SOLVED], counters[IMPROVING]));
+		}
+	}
+
 	private void logConstraintSizeStatistics() {
 		logger.info("* DSE) Constraint size:");
 		logger.info(String.format("* DSE)   max constraint size: %s", max_constraint_size));
@@ -417,6 +457,30 @@ public class DSEStats {
 		totalSolvingTimeMillis += solvingTimeMillis;
 	}
 
+	/**
+	 * Reports a query answered by an external SMT solver
+	 * 
+	 * @param queryTimeMillis
+	 *            time from sending the query to receiving the answer
+	 */
+	public synchronized void reportNewSolverQuery(long queryTimeMillis) {
+		nrOfSolverQueries++;
+		totalSolverQueryTimeMillis += queryTimeMillis;
+	}
+
+	/**
+	 * Returns the throughput of the external SMT solver, or 0 if no query was
+	 * sent
+	 * 
+	 * @return
+	 */
+	public double getSolverQueriesPerSecond() {
+		if (nrOfSolverQueries == 0) {
+			return 0.0;
+		}
+		return nrOfSolverQueries * 1000.0 / Math.max(1, totalSolverQueryTimeMillis);
+	}
+
 	/**
 	 * Reports a new concolic execution time (use of instrumentation and path
 	 * constraint collection)
@@ -439,6 +503,56 @@ public class DSEStats {
 		return nrOfTimeouts;
 	}
 
+	/**
+	 * Reports a branch condition that the given strategy scheduled for
+	 * negation
+	 *
+	 * @param strategy
+	 */
+	public void reportNegationScheduled(DSEExplorationStrategy strategy) {
+		countNegation(strategy, SCHEDULED);
+	}
+
+	/**
+	 * Reports a negation that was not solved, as an earlier query already
+	 * covers it
+	 *
+	 * @param strategy
+	 */
+	public void reportNegationSkipped(DSEExplorationStrategy strategy) {
+		countNegation(strategy, SKIPPED);
+	}
+
+	/**
+	 * Reports a negation that was sent to the solver
+	 *
+	 * @param strategy
+	 */
+	public void reportNegationSolved(DSEExplorationStrategy strategy) {
+		countNegation(strategy, SOLVED);
+	}
+
+	/**
+	 * Reports a negation whose solution improved the fitness
+	 *
+	 * @param strategy
+	 */
+	public void reportNegationImproving(DSEExplorationStrategy strategy) {
+		countNegation(strategy, IMPROVING);
+	}
+
+	private synchronized void countNegation(DSEExplorationStrategy strategy, int counter) {
+		negations.computeIfAbsent(strategy, s -> new long[4])[counter]++;
+	}
+
+	private synchronized long getNegations(int counter) {
+		long total = 0;
+		for (long[] counters : negations.values()) {
+			total += counters[counter];
+		}
+		return total;
+	}
+
 	public void reportNewIncrease() {
 		changes.add(true);
 	}
@@ -489,6 +603,14 @@ public class DSEStats {
 
 		trackOutputVariable(RuntimeVariable.NumberOfUnusefulNewTests, getUnusefulTests());
 
+		trackOutputVariable(RuntimeVariable.NumberOfScheduledNegations, getNegations(SCHEDULED));
+
+		trackOutputVariable(RuntimeVariable.NumberOfSkippedNegations, getNegations(SKIPPED));
+
+		trackOutputVariable(RuntimeVariable.NumberOfSolvedNegations, getNegations(SOLVED));
+
+		trackOutputVariable(RuntimeVariable.NumberOfImprovingNegations, getNegations(IMPROVING));
+
 	}
 
 	private void trackOutputVariable(RuntimeVariable var, Object value) {
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.smartut.Properties.DSEExplorationStrategy;
+import org.smartut.symbolic.expr.Constraint;
+import org.smartut.symbolic.solver.DistanceEstimator;
+import org.smartut.testcase.TestCase;
+
+/**
+ * Decides which branch condition of which explored path DSE negates next.
+ *
+ * <ul>
+ * <li>{@link DSEExplorationStrategy#DEPTH_FIRST} takes the paths in the order
+ * they were explored, and the conditions of a path from the last one.</li>
+ * <li>{@link DSEExplorationStrategy#GENERATIONAL} takes first the paths of the
+ * tests that improved the fitness most. A path found by negating the condition
+ * at index <i>i</i> only has the conditions after <i>i</i> negated, as the ones
+ * before are shared with the path it was derived from.</li>
+ * <li>{@link DSEExplorationStrategy#UNCOVERED_BRANCH} takes first the
+ * conditions whose other branch no explored path took yet, the ones closest to
+ * be flipped first. The distance is the branch distance of the negated
+ * condition under the concrete values of the path.</li>
+ * </ul>
+ *
+ * Branches are identified as the concolic execution numbers them, so the
+ * coverage considered is the one of the explored paths.
+ */
+public class ExplorationScheduler {
+
+	/**
+	 * A branch condition of an explored path that can be negated
+	 */
+	public static final class Negation {
+
+		private final TestCase test;
+
+		private final PathCondition pathCondition;
+
+		private final int conditionIndex;
+
+		private final int generation;
+
+		private final long pathNumber;
+
+		private final double gain;
+
+		private final double distance;
+
+		private boolean otherBranchCovered;
+
+		private Negation(TestCase test, PathCondition pathCondition, int conditionIndex, int generation,
+				long pathNumber, double gain, double distance) {
+			this.test = test;
+			this.pathCondition = pathCondition;
+			this.conditionIndex = conditionIndex;
+			this.generation = generation;
+			this.pathNumber = pathNumber;
+			this.gain = gain;
+			this.distance = distance;
+		}
+
+		/**
+		 * Returns the test whose execution followed the path
+		 *
+		 * @return
+		 */
+		public TestCase getTest() {
+			return test;
+		}
+
+		public PathCondition getPathCondition() {
+			return pathCondition;
+		}
+
+		public int getConditionIndex() {
+			return conditionIndex;
+		}
+
+		/**
+		 * Returns how many negations led from the initial test to the test of
+		 * this path
+		 *
+		 * @return
+		 */
+		public int getGeneration() {
+			return generation;
+		}
+
+		@Override
+		public String toString() {
+			return "negation of condition " + conditionIndex + " of path " + pathNumber;
+		}
+	}
+
+	private static final Comparator<Negation> EXPLORATION_ORDER = Comparator
+			.<Negation>comparingLong(n -> n.pathNumber)
+			.thenComparing(Comparator.<Negation>comparingInt(n -> n.conditionIndex).reversed());
+
+	private final DSEExplorationStrategy strategy;
+
+	private final int maxDepth;
+
+	private final PriorityQueue<Negation> queue;
+
+	/**
+	 * The branches taken by the explored paths
+	 */
+	private final Set<String> takenBranches = new HashSet<>();
+
+	private long numberOfPaths = 0;
+
+	/**
+	 * Creates a scheduler
+	 *
+	 * @param strategy
+	 *            the order of the negations
+	 * @param maxDepth
+	 *            only the conditions before this index are negated, 0 for no
+	 *            bound
+	 */
+	public ExplorationScheduler(DSEExplorationStrategy strategy, int maxDepth) {
+		if (maxDepth < 0) {
+			throw new IllegalArgumentException("Negative depth bound: " + maxDepth);
+		}
+		this.strategy = strategy;
+		this.maxDepth = maxDepth;
+		this.queue = new PriorityQueue<>(getComparator(strategy));
+	}
+
+	private static Comparator<Negation> getComparator(DSEExplorationStrategy strategy) {
+		switch (strategy) {
+		case DEPTH_FIRST:
+			return EXPLORATION_ORDER;
+		case GENERATIONAL:
+			return Comparator.<Negation>comparingDouble(n -> -n.gain)
+					.thenComparingInt(n -> n.generation)
+					.thenComparing(EXPLORATION_ORDER);
+		case UNCOVERED_BRANCH:
+			return Comparator.<Negation, Boolean>comparing(n -> n.otherBranchCovered)
+					.thenComparingDouble(n -> n.distance)
+					.thenComparing(EXPLORATION_ORDER);
+		default:
+			throw new IllegalArgumentException("Unknown exploration strategy " + strategy);
+		}
+	}
+
+	public DSEExplorationStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Schedules the negations of the conditions of a newly explored path
+	 *
+	 * @param test
+	 *            the test that followed the path
+	 * @param pathCondition
+	 *            the path
+	 * @param parent
+	 *            the negation that led to the test, or <code>null</code> for
+	 *            a test DSE started from
+	 * @param gain
+	 *            how much the test improved the fitness
+	 */
+	public void addPath(TestCase test, PathCondition pathCondition, Negation parent, double gain) {
+		long pathNumber = numberOfPaths++;
+		for (BranchCondition condition : pathCondition.getBranchConditions()) {
+			takenBranches.add(getBranchKey(condition, isTrueBranch(condition)));
+		}
+
+		int first = 0;
+		if (strategy == DSEExplorationStrategy.GENERATIONAL && parent != null) {
+			first = parent.conditionIndex + 1;
+		}
+		int end = pathCondition.size();
+		if (maxDepth > 0) {
+			end = Math.min(end, maxDepth);
+		}
+		int generation = parent == null ? 0 : parent.generation + 1;
+
+		for (int i = first; i < end; i++) {
+			double distance = 0.0;
+			if (strategy == DSEExplorationStrategy.UNCOVERED_BRANCH) {
+				Constraint<?> negated = pathCondition.get(i).getConstraint().negate();
+				distance = DistanceEstimator.getDistance(Collections.singleton(negated));
+			}
+			Negation negation = new Negation(test, pathCondition, i, generation, pathNumber, gain, distance);
+			negation.otherBranchCovered = isOtherBranchCovered(pathCondition.get(i));
+			queue.add(negation);
+			DSEStats.getInstance().reportNegationScheduled(strategy);
+		}
+	}
+
+	/**
+	 * Removes and returns the next negation
+	 *
+	 * @return <code>null</code> if no negation is left
+	 */
+	public Negation next() {
+		Negation negation;
+		while ((negation = queue.poll()) != null) {
+			if (strategy == DSEExplorationStrategy.UNCOVERED_BRANCH && !negation.otherBranchCovered
+					&& isOtherBranchCovered(negation.pathCondition.get(negation.conditionIndex))) {
+				// a path explored since it was scheduled took the other branch
+				negation.otherBranchCovered = true;
+				queue.add(negation);
+				continue;
+			}
+			return negation;
+		}
+		return null;
+	}
+
+	/**
+	 * Removes and returns up to the given number of negations of different
+	 * paths, in their order. Queries built from different paths use different
+	 * variables, so they can be solved concurrently.
+	 *
+	 * @param max
+	 * @return an empty list if no negation is left
+	 */
+	public List<Negation> nextOfDifferentPaths(int max) {
+		List<Negation> negations = new ArrayList<>(max);
+		List<Negation> postponed = new ArrayList<>();
+		Set<PathCondition> paths = Collections.newSetFromMap(new IdentityHashMap<>());
+		Negation negation;
+		while (negations.size() < max && postponed.size() < max * max && (negation = next()) != null) {
+			if (paths.add(negation.pathCondition)) {
+				negations.add(negation);
+			} else {
+				postponed.add(negation);
+			}
+		}
+		queue.addAll(postponed);
+		return negations;
+	}
+
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	public int size() {
+		return queue.size();
+	}
+
+	private boolean isOtherBranchCovered(BranchCondition condition) {
+		if (!(condition instanceof IfBranchCondition)) {
+			// the other cases of a switch are not told apart
+			return false;
+		}
+		return takenBranches.contains(getBranchKey(condition, !isTrueBranch(condition)));
+	}
+
+	private static boolean isTrueBranch(BranchCondition condition) {
+		return condition instanceof IfBranchCondition && ((IfBranchCondition) condition).isTrueBranch();
+	}
+
+	private static String getBranchKey(BranchCondition condition, boolean trueBranch) {
+		return condition.getFullName() + ":" + condition.getInstructionIndex() + ":" + trueBranch;
+	}
+}
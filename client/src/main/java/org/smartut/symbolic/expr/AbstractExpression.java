@@ -32,6 +32,13 @@ public abstract class AbstractExpression<T> implements Expression<T> {
 
 	private final int size;
 
+	/**
+	 * The hash code, computed when it is first needed. Expressions do not
+	 * change their structure, so it stays valid, and hashing a large
+	 * expression does not go through its operands again.
+	 */
+	private transient int hashCode;
+
 	public AbstractExpression(T concreteValue, int size, boolean containsSymbolicVariable) {
 		this.concreteValue = concreteValue;
 		this.size = size;
@@ -74,6 +81,26 @@ public abstract class AbstractExpression<T> implements Expression<T> {
 		return concreteValue;
 	}
 
+	@Override
+	public final int hashCode() {
+		int hash = hashCode;
+		if (hash == 0) {
+			hash = computeHashCode();
+			hashCode = hash;
+		}
+		return hash;
+	}
+
+	/**
+	 * Computes the hash code of this expression, which has to be consistent
+	 * with <code>equals</code>
+	 *
+	 * @return the hash code
+	 */
+	protected int computeHashCode() {
+		return super.hashCode();
+	}
+
 	@Override
 	public Set<Object> getConstants() {
 		Set<Object> result = new HashSet<>();
@@ -97,6 +97,10 @@ public abstract class Constraint<T extends Object> implements Serializable {
 		}
 
 		Constraint<?> other = (Constraint<?>) obj;
+		if (this.hashCode() != other.hashCode()) {
+			// cheap, as both hash codes are cached
+			return false;
+		}
 		if (this.getComparator().equals(other.getComparator())
 				// && this.getSize() == other.getSize()
 				&& this.getLeftOperand().equals(other.getLeftOperand())
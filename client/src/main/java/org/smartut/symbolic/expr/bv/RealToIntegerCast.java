@@ -85,7 +85,7 @@ public final class RealToIntegerCast extends AbstractExpression<Long> implements
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.expr.hashCode();
 	}
 
@@ -109,7 +109,7 @@ public final class RealUnaryToIntegerExpression extends AbstractExpression<Long>
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.op.hashCode() + this.getSize() + this.expr.hashCode();
 	}
 
@@ -111,7 +111,7 @@ public final class StringUnaryToIntegerExpression extends AbstractExpression<Lon
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.op.hashCode() + this.expr.hashCode();
 	}
 
@@ -111,7 +111,7 @@ public final class StringUnaryExpression extends AbstractExpression<String> impl
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.op.hashCode() + this.expr.hashCode();
 	}
 
@@ -0,0 +1,406 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.smartut.symbolic.expr.Comparator;
+import org.smartut.symbolic.expr.Constraint;
+import org.smartut.symbolic.expr.ConstraintEvaluator;
+import org.smartut.symbolic.expr.Expression;
+import org.smartut.symbolic.expr.ExpressionEvaluator;
+import org.smartut.symbolic.expr.Variable;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+import org.smartut.symbolic.expr.fp.RealVariable;
+import org.smartut.symbolic.solver.smt.ExprToSmtVisitor;
+import org.smartut.symbolic.solver.smt.SmtBooleanConstant;
+import org.smartut.symbolic.solver.smt.SmtExpr;
+import org.smartut.symbolic.solver.smt.SmtExprEvaluator;
+import org.smartut.symbolic.solver.smt.SmtExprPrinter;
+import org.smartut.symbolic.solver.smt.SmtExprVisitor;
+import org.smartut.symbolic.solver.smt.SmtIntConstant;
+import org.smartut.symbolic.solver.smt.SmtIntVariable;
+import org.smartut.symbolic.solver.smt.SmtOperation;
+import org.smartut.symbolic.solver.smt.SmtRealConstant;
+import org.smartut.symbolic.solver.smt.SmtRealVariable;
+import org.smartut.symbolic.solver.smt.SmtStringConstant;
+import org.smartut.symbolic.solver.smt.SmtStringVariable;
+import org.smartut.symbolic.solver.smt.SmtVariable;
+
+/**
+ * A constraint system in the normal form used as a key by the
+ * {@link SolverCache}.
+ * 
+ * Operands without variables are folded into constants using the
+ * {@link ExpressionEvaluator}, constraints without variables that evaluate to
+ * true are dropped, and the remaining constraints are translated into SMT
+ * expressions, together with the range of each integer and real variable. Two keys are derived from them: the set of printed constraints
+ * (used for subset checks among queries over the same variables) and a string
+ * in which the constraints are sorted and the variables are renamed in order
+ * of appearance (used for exact lookups of alpha-equivalent queries).
+ */
+final class CanonicalQuery {
+
+	private final List<SmtExpr> assertions;
+
+	private final Set<String> constraintKeys;
+
+	private final String key;
+
+	/**
+	 * Variable name in the query to its canonical name
+	 */
+	private final Map<String, String> renaming;
+
+	private CanonicalQuery(List<SmtExpr> assertions, Set<String> constraintKeys, String key,
+			Map<String, String> renaming) {
+		this.assertions = assertions;
+		this.constraintKeys = constraintKeys;
+		this.key = key;
+		this.renaming = renaming;
+	}
+
+	/**
+	 * Builds the normal form of a constraint system.
+	 * 
+	 * @param constraints
+	 * @return null if some constraint cannot be translated
+	 */
+	static CanonicalQuery build(Collection<Constraint<?>> constraints) {
+		List<SmtExpr> assertions = new ArrayList<>(constraints.size());
+		// shared by the constraints, which share their interned subexpressions
+		ExprToSmtVisitor visitor = new ExprToSmtVisitor();
+		for (Constraint<?> constraint : constraints) {
+			if (constraint.getVariables().isEmpty()) {
+				Boolean value = evaluateGround(constraint);
+				if (Boolean.TRUE.equals(value)) {
+					continue;
+				}
+			}
+			SmtExpr assertion;
+			try {
+				assertion = translate(constraint, visitor);
+			} catch (RuntimeException ex) {
+				return null;
+			}
+			if (assertion == null) {
+				return null;
+			}
+			assertions.add(assertion);
+		}
+		try {
+			assertions.addAll(translateBounds(constraints, visitor));
+		} catch (RuntimeException ex) {
+			return null;
+		}
+
+		final int size = assertions.size();
+		List<String> printed = new ArrayList<>(size);
+		List<String> shapes = new ArrayList<>(size);
+		SmtExprPrinter printer = new SmtExprPrinter();
+		RenamingPrinter anonymousPrinter = new RenamingPrinter(null);
+		for (SmtExpr assertion : assertions) {
+			printed.add(assertion.accept(printer, null));
+			shapes.add(assertion.accept(anonymousPrinter, null));
+		}
+
+		// order the constraints independently of the variable names first,
+		// so that renaming in order of appearance is stable
+		List<Integer> order = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			order.add(i);
+		}
+		Collections.sort(order, (i, j) -> {
+			int cmp = shapes.get(i).compareTo(shapes.get(j));
+			return cmp != 0 ? cmp : printed.get(i).compareTo(printed.get(j));
+		});
+
+		Map<String, String> renaming = new LinkedHashMap<>();
+		RenamingPrinter renamingPrinter = new RenamingPrinter(renaming);
+		Set<String> renamed = new TreeSet<>();
+		for (int i : order) {
+			renamed.add(assertions.get(i).accept(renamingPrinter, null));
+		}
+
+		return new CanonicalQuery(assertions, new LinkedHashSet<>(printed), String.join("\n", renamed), renaming);
+	}
+
+	/**
+	 * The range of each integer and real variable restricts the solutions as
+	 * much as the constraints do, so it is part of the query
+	 */
+	private static List<SmtExpr> translateBounds(Collection<Constraint<?>> constraints, ExprToSmtVisitor visitor) {
+		Map<String, Variable<?>> variables = new TreeMap<>();
+		for (Constraint<?> constraint : constraints) {
+			for (Variable<?> variable : constraint.getVariables()) {
+				variables.put(variable.getName(), variable);
+			}
+		}
+		List<SmtExpr> bounds = new ArrayList<>();
+		for (Variable<?> variable : variables.values()) {
+			if (variable instanceof IntegerVariable) {
+				IntegerVariable integerVariable = (IntegerVariable) variable;
+				SmtExpr smtVariable = integerVariable.accept(visitor, null);
+				bounds.add(SmtExprBuilder.mkGe(smtVariable, SmtExprBuilder.mkIntConstant(integerVariable.getMinValue())));
+				bounds.add(SmtExprBuilder.mkLe(smtVariable, SmtExprBuilder.mkIntConstant(integerVariable.getMaxValue())));
+			} else if (variable instanceof RealVariable) {
+				RealVariable realVariable = (RealVariable) variable;
+				SmtExpr smtVariable = realVariable.accept(visitor, null);
+				if (!realVariable.getMinValue().isInfinite() && !realVariable.getMinValue().isNaN()) {
+					bounds.add(SmtExprBuilder.mkGe(smtVariable, SmtExprBuilder.mkRealConstant(realVariable.getMinValue())));
+				}
+				if (!realVariable.getMaxValue().isInfinite() && !realVariable.getMaxValue().isNaN()) {
+					bounds.add(SmtExprBuilder.mkLe(smtVariable, SmtExprBuilder.mkRealConstant(realVariable.getMaxValue())));
+				}
+			}
+		}
+		return bounds;
+	}
+
+	private static Boolean evaluateGround(Constraint<?> constraint) {
+		try {
+			return (Boolean) constraint.accept(new ConstraintEvaluator(), null);
+		} catch (RuntimeException ex) {
+			return null;
+		}
+	}
+
+	private static SmtExpr translate(Constraint<?> constraint, ExprToSmtVisitor visitor) {
+		SmtExpr left = fold(constraint.getLeftOperand(), visitor);
+		SmtExpr right = fold(constraint.getRightOperand(), visitor);
+		if (left == null || right == null) {
+			return null;
+		}
+		return mkComparison(left, constraint.getComparator(), right);
+	}
+
+	private static SmtExpr fold(Expression<?> expr, ExprToSmtVisitor visitor) {
+		if (expr.getVariables().isEmpty()) {
+			Object value;
+			try {
+				value = expr.accept(new ExpressionEvaluator(), null);
+			} catch (RuntimeException ex) {
+				value = null;
+			}
+			if (value instanceof Long) {
+				return SmtExprBuilder.mkIntConstant((Long) value);
+			} else if (value instanceof Double && !((Double) value).isNaN() && !((Double) value).isInfinite()) {
+				return SmtExprBuilder.mkRealConstant((Double) value);
+			} else if (value instanceof String) {
+				return SmtExprBuilder.mkStringConstant((String) value);
+			}
+		}
+		return visitor.translate(expr);
+	}
+
+	private static SmtExpr mkComparison(SmtExpr left, Comparator cmp, SmtExpr right) {
+		switch (cmp) {
+		case LT:
+			return SmtExprBuilder.mkLt(left, right);
+		case LE:
+			return SmtExprBuilder.mkLe(left, right);
+		case GT:
+			return SmtExprBuilder.mkGt(left, right);
+		case GE:
+			return SmtExprBuilder.mkGe(left, right);
+		case EQ:
+			return SmtExprBuilder.mkEq(left, right);
+		case NE:
+			return SmtExprBuilder.mkNot(SmtExprBuilder.mkEq(left, right));
+		default:
+			throw new IllegalArgumentException("Unknown comparator for constraint " + cmp);
+		}
+	}
+
+	boolean isEmpty() {
+		return assertions.isEmpty();
+	}
+
+	String getKey() {
+		return key;
+	}
+
+	Set<String> getConstraintKeys() {
+		return constraintKeys;
+	}
+
+	Set<String> getVariableNames() {
+		return renaming.keySet();
+	}
+
+	/**
+	 * Checks if the given model assigns all the variables of the query and
+	 * satisfies all its constraints.
+	 * 
+	 * @param model
+	 * @return
+	 */
+	boolean isSatisfiedBy(Map<String, Object> model) {
+		if (!model.keySet().containsAll(renaming.keySet())) {
+			return false;
+		}
+		SmtExprEvaluator evaluator = new SmtExprEvaluator(model);
+		try {
+			for (SmtExpr assertion : assertions) {
+				if (!Boolean.TRUE.equals(assertion.accept(evaluator, null))) {
+					return false;
+				}
+			}
+			return true;
+		} catch (RuntimeException ex) {
+			// the model does not fit the types of the query or uses an
+			// operation the evaluator does not support
+			return false;
+		}
+	}
+
+	/**
+	 * Restricts a model of this query to its variables
+	 * 
+	 * @param model
+	 * @return
+	 */
+	Map<String, Object> restrict(Map<String, Object> model) {
+		Map<String, Object> restricted = new HashMap<>();
+		for (String varName : renaming.keySet()) {
+			if (model.containsKey(varName)) {
+				restricted.put(varName, model.get(varName));
+			}
+		}
+		return restricted;
+	}
+
+	/**
+	 * Translates a model of this query to the canonical variable names
+	 * 
+	 * @param model
+	 * @return
+	 */
+	Map<String, Object> toCanonical(Map<String, Object> model) {
+		Map<String, Object> canonical = new HashMap<>();
+		for (Map.Entry<String, String> entry : renaming.entrySet()) {
+			if (model.containsKey(entry.getKey())) {
+				canonical.put(entry.getValue(), model.get(entry.getKey()));
+			}
+		}
+		return canonical;
+	}
+
+	/**
+	 * Translates a model over the canonical variable names to the variables
+	 * of this query
+	 * 
+	 * @param canonical
+	 * @return
+	 */
+	Map<String, Object> fromCanonical(Map<String, Object> canonical) {
+		Map<String, Object> model = new HashMap<>();
+		for (Map.Entry<String, String> entry : renaming.entrySet()) {
+			if (canonical.containsKey(entry.getValue())) {
+				model.put(entry.getKey(), canonical.get(entry.getValue()));
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Prints an SMT expression replacing each variable by a name derived from
+	 * its order of appearance. A null renaming replaces all variables of the
+	 * same sort by the same placeholder.
+	 */
+	private static final class RenamingPrinter implements SmtExprVisitor<String, Void> {
+
+		private final SmtExprPrinter printer = new SmtExprPrinter();
+
+		private final Map<String, String> renaming;
+
+		RenamingPrinter(Map<String, String> renaming) {
+			this.renaming = renaming;
+		}
+
+		private String rename(SmtVariable n, String sort) {
+			if (renaming == null) {
+				return "?" + sort;
+			}
+			String canonicalName = renaming.get(n.getName());
+			if (canonicalName == null) {
+				canonicalName = sort + renaming.size();
+				renaming.put(n.getName(), canonicalName);
+			}
+			return canonicalName;
+		}
+
+		@Override
+		public String visit(SmtBooleanConstant n, Void arg) {
+			return printer.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtIntConstant n, Void arg) {
+			return printer.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtRealConstant n, Void arg) {
+			return printer.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtStringConstant n, Void arg) {
+			return printer.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtIntVariable n, Void arg) {
+			return rename(n, "i");
+		}
+
+		@Override
+		public String visit(SmtRealVariable n, Void arg) {
+			return rename(n, "r");
+		}
+
+		@Override
+		public String visit(SmtStringVariable n, Void arg) {
+			return rename(n, "s");
+		}
+
+		@Override
+		public String visit(SmtOperation n, Void arg) {
+			StringBuilder result = new StringBuilder();
+			result.append("(").append(n.getOperator().toString());
+			for (SmtExpr argument : n.getArguments()) {
+				result.append(" ").append(argument.accept(this, null));
+			}
+			result.append(")");
+			return result.toString();
+		}
+	}
+}
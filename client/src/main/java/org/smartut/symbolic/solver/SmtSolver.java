@@ -22,8 +22,17 @@ package org.smartut.symbolic.solver;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.exec.ExecuteException;
+import org.smartut.symbolic.DSEStats;
+import org.smartut.symbolic.solver.smt.SmtAssertion;
+import org.smartut.symbolic.solver.smt.SmtConstantDeclaration;
+import org.smartut.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.smartut.symbolic.solver.smt.SmtFunctionDefinition;
+import org.smartut.symbolic.solver.smt.SmtQuery;
+import org.smartut.symbolic.solver.smt.SmtQueryPrinter;
 import org.smartut.utils.ProcessLauncher;
 import org.smartut.utils.ProcessTimeoutException;
 
@@ -78,8 +87,62 @@ public abstract class SmtSolver extends Solver {
 			long solver_end_time_millis = System.currentTimeMillis();
 			long solver_duration_secs = (solver_end_time_millis - solver_start_time_millis) / 1000;
 			logger.debug("Solver execution time was {}s", solver_duration_secs);
+			DSEStats.getInstance().reportNewSolverQuery(solver_end_time_millis - solver_start_time_millis);
 		}
 
 	}
 
+	/**
+	 * Solves the query on the long-lived solver session for the given command,
+	 * instead of launching a new process
+	 * 
+	 * @param solverCmd
+	 *            command starting a solver in incremental mode
+	 * @param query
+	 * @param hardTimeout
+	 * @return the output of the solver: <code>sat</code> followed by the
+	 *         model, <code>unsat</code> or <code>unknown</code>
+	 * @throws IOException
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 */
+	protected static String solveInSession(String solverCmd, SmtQuery query, int hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		SmtQueryPrinter printer = new SmtQueryPrinter();
+
+		List<String> preamble = new ArrayList<>();
+		if (query.hasLogic()) {
+			preamble.add("(set-logic " + query.getLogic() + ")");
+		}
+		for (String optionName : query.getOptions()) {
+			preamble.add(String.format("(set-option %s %s)", optionName, query.getOptionValue(optionName)));
+		}
+
+		List<String> declarations = new ArrayList<>();
+		for (SmtConstantDeclaration constantDeclaration : query.getConstantDeclarations()) {
+			declarations.add(printer.print(constantDeclaration));
+		}
+		for (SmtFunctionDeclaration functionDeclaration : query.getFunctionDeclarations()) {
+			declarations.add(printer.print(functionDeclaration));
+		}
+		for (SmtFunctionDefinition functionDefinition : query.getFunctionDefinitions()) {
+			declarations.add(printer.print(functionDefinition));
+		}
+
+		List<String> assertions = new ArrayList<>();
+		for (SmtAssertion assertion : query.getAssertions()) {
+			assertions.add(printer.print(assertion));
+		}
+
+		SmtSolverSession session = SmtSolverSessions.getInstance().getSession(solverCmd, preamble);
+		long solver_start_time_millis = System.currentTimeMillis();
+		try {
+			return session.solve(declarations, assertions, hardTimeout);
+		} finally {
+			long solver_duration_millis = System.currentTimeMillis() - solver_start_time_millis;
+			logger.debug("Solver session time was {}ms", solver_duration_millis);
+			DSEStats.getInstance().reportNewSolverQuery(solver_duration_millis);
+		}
+	}
+
 }
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.exec.CommandLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived SMT-LIB solver process that solves consecutive queries
+ * incrementally. Every assertion is pushed on its own scope, so that a query
+ * sharing a prefix of assertions with the previous one (e.g., a sibling
+ * negated branch condition) only pops and asserts the differing suffix. New
+ * declarations go to the scope of the first assertion that is sent with
+ * them, so they are kept as long as that assertion, and never force the
+ * shared prefix to be popped.
+ * 
+ * <p>
+ * If the process crashes, it is restarted and the query is sent again. If it
+ * does not answer within the hard timeout, it is killed and restarted on the
+ * next query.
+ */
+public class SmtSolverSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSolverSession.class);
+
+	/**
+	 * Echoed after each batch of commands, to know where the answer to the
+	 * batch ends
+	 */
+	private static final String END_OF_ANSWER = "smartut-end-of-answer";
+
+	private static final String SAT = "sat";
+
+	/**
+	 * Put in the output queue when the output of the solver ends, compared by
+	 * identity
+	 */
+	private static final String END_OF_STREAM = new String("<end of stream>");
+
+	private final String solverCmd;
+
+	/** Logic and options, sent once when the process starts */
+	private final List<String> preamble;
+
+	/**
+	 * Most declarations that are kept in the solver before it is restarted,
+	 * for declarations at the base scope that are never popped
+	 */
+	private static final int MAX_DECLARATIONS = 4096;
+
+	/**
+	 * Declarations and definitions known to the solver, with the depth of the
+	 * scope they were made in
+	 */
+	private final Map<String, Integer> declarations = new HashMap<>();
+
+	/** Assertions currently on the scope stack, one scope each */
+	private final List<String> assertionStack = new ArrayList<>();
+
+	private Process process = null;
+
+	private Writer stdin = null;
+
+	private BlockingQueue<String> stdout = null;
+
+	private int numberOfStarts = 0;
+
+	private long numberOfAssertionsSent = 0;
+
+	/**
+	 * @param solverCmd
+	 *            the command starting the solver, reading SMT-LIB commands
+	 *            from its standard input
+	 * @param preamble
+	 *            commands such as <code>set-logic</code> and
+	 *            <code>set-option</code>, sent before any declaration
+	 */
+	public SmtSolverSession(String solverCmd, List<String> preamble) {
+		this.solverCmd = solverCmd;
+		this.preamble = new ArrayList<>(preamble);
+	}
+
+	/**
+	 * Check the satisfiability of the conjunction of the assertions, on top of
+	 * the given declarations
+	 * 
+	 * @param queryDeclarations
+	 *            declarations and definitions needed by the assertions
+	 * @param assertions
+	 *            <code>assert</code> commands, in path condition order
+	 * @param hardTimeoutMillis
+	 *            how long to wait for an answer before killing the solver
+	 * @return the output of the solver, in the same form as for a single query
+	 *         run in its own process: <code>sat</code> followed by the model,
+	 *         <code>unsat</code> or <code>unknown</code>
+	 * @throws IOException
+	 *             if the solver cannot be started, or crashes twice on the
+	 *             query
+	 * @throws SolverTimeoutException
+	 *             if the solver did not answer within the timeout
+	 * @throws SolverErrorException
+	 *             if the solver rejects a command
+	 */
+	public synchronized String solve(List<String> queryDeclarations, List<String> assertions, long hardTimeoutMillis)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		try {
+			return doSolve(queryDeclarations, assertions, hardTimeoutMillis);
+		} catch (IOException e) {
+			logger.debug("Solver session failed, restarting it: {}", e.getMessage());
+			close();
+			try {
+				return doSolve(queryDeclarations, assertions, hardTimeoutMillis);
+			} catch (IOException e2) {
+				close();
+				throw e2;
+			}
+		}
+	}
+
+	private String doSolve(List<String> queryDeclarations, List<String> assertions, long hardTimeoutMillis)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		if (process != null && declarations.size() > MAX_DECLARATIONS) {
+			logger.debug("Restarting solver session with {} declarations", declarations.size());
+			close();
+		}
+		if (process == null) {
+			start();
+		}
+
+		StringBuilder commands = new StringBuilder();
+		int prefix = 0;
+		while (prefix < assertionStack.size() && prefix < assertions.size()
+				&& assertionStack.get(prefix).equals(assertions.get(prefix))) {
+			prefix++;
+		}
+		popTo(prefix, commands);
+
+		// the assertions of the prefix only use declarations that are still
+		// in scope, so the new ones are only needed by the suffix
+		List<String> newDeclarations = new ArrayList<>();
+		for (String declaration : queryDeclarations) {
+			if (!declarations.containsKey(declaration) && !newDeclarations.contains(declaration)) {
+				newDeclarations.add(declaration);
+			}
+		}
+		List<String> sentAssertions = new ArrayList<>(assertions.subList(prefix, assertions.size()));
+		int declarationDepth = sentAssertions.isEmpty() ? prefix : prefix + 1;
+		for (int i = 0; i < sentAssertions.size(); i++) {
+			commands.append("(push 1)\n");
+			if (i == 0) {
+				appendDeclarations(newDeclarations, commands);
+			}
+			commands.append(sentAssertions.get(i)).append('\n');
+		}
+		if (sentAssertions.isEmpty()) {
+			appendDeclarations(newDeclarations, commands);
+		}
+		commands.append("(check-sat)\n");
+
+		// the state of the solver is only known once the answer was received
+		assertionStack.addAll(sentAssertions);
+		for (String declaration : newDeclarations) {
+			declarations.put(declaration, declarationDepth);
+		}
+		numberOfAssertionsSent += sentAssertions.size();
+
+		String answer;
+		try {
+			answer = exchange(commands.toString(), hardTimeoutMillis);
+		} catch (SolverTimeoutException | SolverErrorException e) {
+			close();
+			throw e;
+		}
+		if (!answer.equals(SAT)) {
+			return answer;
+		}
+
+		String model;
+		try {
+			model = exchange("(get-model)\n", hardTimeoutMillis);
+		} catch (SolverTimeoutException | SolverErrorException e) {
+			close();
+			throw e;
+		}
+		return SAT + "\n" + model + "\n";
+	}
+
+	private static void appendDeclarations(List<String> newDeclarations, StringBuilder commands) {
+		for (String declaration : newDeclarations) {
+			commands.append(declaration).append('\n');
+		}
+	}
+
+	private void popTo(int depth, StringBuilder commands) {
+		if (assertionStack.size() > depth) {
+			commands.append("(pop ").append(assertionStack.size() - depth).append(")\n");
+			assertionStack.subList(depth, assertionStack.size()).clear();
+			declarations.values().removeIf(scope -> scope > depth);
+		}
+	}
+
+	/**
+	 * Send the commands and return what the solver printed in response
+	 */
+	private String exchange(String commands, long hardTimeoutMillis)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		stdin.write(commands);
+		stdin.write("(echo \"" + END_OF_ANSWER + "\")\n");
+		stdin.flush();
+
+		long deadline = System.currentTimeMillis() + hardTimeoutMillis;
+		StringBuilder answer = new StringBuilder();
+		while (true) {
+			long remaining = deadline - System.currentTimeMillis();
+			String line;
+			try {
+				line = remaining > 0 ? stdout.poll(remaining, TimeUnit.MILLISECONDS) : null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for the solver");
+			}
+			if (line == null) {
+				logger.debug("Solver stopped due to solver timeout");
+				throw new SolverTimeoutException();
+			}
+			if (line == END_OF_STREAM) {
+				throw new IOException("Solver process terminated");
+			}
+			String trimmed = line.trim();
+			if (trimmed.equals(END_OF_ANSWER) || trimmed.equals("\"" + END_OF_ANSWER + "\"")) {
+				break;
+			}
+			if (trimmed.startsWith("(error")) {
+				logger.debug("Solver reported error: {}", trimmed);
+				throw new SolverErrorException("Solver reported error: " + trimmed);
+			}
+			if (!trimmed.isEmpty()) {
+				if (answer.length() > 0) {
+					answer.append('\n');
+				}
+				answer.append(line);
+			}
+		}
+		return answer.toString();
+	}
+
+	private void start() throws IOException {
+		String[] cmd = CommandLine.parse(solverCmd).toStrings();
+		logger.debug("Starting solver session: {}", Arrays.toString(cmd));
+		ProcessBuilder builder = new ProcessBuilder(cmd);
+		builder.redirectErrorStream(true);
+		process = builder.start();
+		numberOfStarts++;
+
+		stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+		BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+		stdout = lines;
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		Thread readerThread = new Thread(() -> {
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					lines.add(line);
+				}
+			} catch (IOException e) {
+				logger.debug("Error reading solver output: {}", e.getMessage());
+			}
+			lines.add(END_OF_STREAM);
+		}, "SmtSolverSession-reader");
+		readerThread.setDaemon(true);
+		readerThread.start();
+
+		for (String command : preamble) {
+			stdin.write(command);
+			stdin.write('\n');
+		}
+		stdin.flush();
+	}
+
+	/**
+	 * Stop the solver process. The next query starts a new one
+	 */
+	public synchronized void close() {
+		if (process != null) {
+			try {
+				stdin.close();
+			} catch (IOException e) {
+				// the process is destroyed anyway
+			}
+			process.destroyForcibly();
+			process = null;
+			stdin = null;
+			stdout = null;
+		}
+		declarations.clear();
+		assertionStack.clear();
+	}
+
+	/**
+	 * @return how many times a solver process was started
+	 */
+	public synchronized int getNumberOfStarts() {
+		return numberOfStarts;
+	}
+
+	/**
+	 * @return total number of assertions sent to the solver processes
+	 */
+	public synchronized long getNumberOfAssertionsSent() {
+		return numberOfAssertionsSent;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one {@link SmtSolverSession} per solver command and preamble, so that
+ * solver processes are reused across queries.
+ */
+public class SmtSolverSessions {
+
+	private static SmtSolverSessions instance = null;
+
+	private final Map<List<String>, SmtSolverSession> sessions = new LinkedHashMap<>();
+
+	private SmtSolverSessions() {
+	}
+
+	public static synchronized SmtSolverSessions getInstance() {
+		if (instance == null) {
+			instance = new SmtSolverSessions();
+		}
+		return instance;
+	}
+
+	/**
+	 * Return the session for the given command and preamble, creating it if
+	 * needed
+	 * 
+	 * @param solverCmd
+	 * @param preamble
+	 * @return
+	 */
+	public synchronized SmtSolverSession getSession(String solverCmd, List<String> preamble) {
+		List<String> key = new ArrayList<>(preamble.size() + 1);
+		key.add(solverCmd);
+		key.addAll(preamble);
+		return sessions.computeIfAbsent(key, k -> new SmtSolverSession(solverCmd, preamble));
+	}
+
+	/**
+	 * Stop all solver processes
+	 */
+	public synchronized void closeAll() {
+		sessions.values().forEach(SmtSolverSession::close);
+		sessions.clear();
+	}
+}
@@ -20,59 +20,115 @@
 package org.smartut.symbolic.solver;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
+import org.smartut.Properties;
 import org.smartut.symbolic.expr.Constraint;
 
+/**
+ * A bounded cache of solver results shared by all the DSE strategies.
+ * 
+ * Queries are normalized by {@link CanonicalQuery}, so that queries that only
+ * differ in the order of their constraints, in the names of their variables or
+ * in constant sub-expressions share the same entry. Besides exact lookups, a
+ * query is answered without calling the solver if it contains all the
+ * constraints of a query known to be UNSAT, or if one of the most recently
+ * found SAT models satisfies it. Entries are evicted in least recently used
+ * order once {@link Properties#SOLVER_CACHE_SIZE} is reached.
+ */
 public final class SolverCache {
 
 	/**
 	 * 
 	 * @param solver
 	 * @param constraints
-	 * @return 
+	 * @return null if the solver failed to answer the query
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
-			SolverResult cached_solution = getCachedResult();
-			return cached_solution;
+		CanonicalQuery query = CanonicalQuery.build(constraints);
+		SolverResult cachedResult = lookup(query);
+		if (cachedResult != null) {
+			return cachedResult;
 		}
 
 		SolverResult solverResult;
 		try {
 			solverResult = solver.solve(constraints);
-			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
-			} else {
-				addSAT(constraints, solverResult);
-			}
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
-			solverResult = null;
+			return null;
 		}
 
+		if (query != null && !query.isEmpty()) {
+			if (solverResult.isUNSAT()) {
+				addUNSAT(query, solverResult);
+			} else if (solverResult.isSAT()) {
+				addSAT(query, solverResult);
+			}
+		}
 		return solverResult;
-
 	}
 
 	private static final SolverCache instance = new SolverCache();
 
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<>();
+	private static final class CacheEntry {
+
+		private final CanonicalQuery query;
+
+		private final SolverResult result;
+
+		/**
+		 * the model over the canonical variable names (null if UNSAT)
+		 */
+		private final Map<String, Object> canonicalModel;
+
+		CacheEntry(CanonicalQuery query, SolverResult result, Map<String, Object> canonicalModel) {
+			this.query = query;
+			this.result = result;
+			this.canonicalModel = canonicalModel;
+		}
+	}
+
+	/**
+	 * Canonical key to entry, in access order
+	 */
+	private final LinkedHashMap<String, CacheEntry> cached_solver_results = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Constraint to the UNSAT entries containing it
+	 */
+	private final Map<String, List<CacheEntry>> unsat_index = new HashMap<>();
+
+	/**
+	 * Most recently found SAT models, newest first
+	 */
+	private final LinkedList<Map<String, Object>> recent_models = new LinkedList<>();
+
 	private int cached_sat_result_count = 0;
 	private int cached_unsat_result_count = 0;
 
-	public int getNumberOfUNSATs() {
+	private int number_of_accesses = 0;
+	private int number_of_hits = 0;
+	private int number_of_unsat_subsumptions = 0;
+	private int number_of_reused_models = 0;
+	private int number_of_evictions = 0;
+
+	public synchronized int getNumberOfUNSATs() {
 		return cached_unsat_result_count;
 	}
 
-	public int getNumberOfSATs() {
+	public synchronized int getNumberOfSATs() {
 		return cached_sat_result_count;
 	}
 
-	private int number_of_accesses = 0;
-	private int number_of_hits = 0;
-
 	private SolverCache() {
 		/* empty constructor */
 	}
@@ -81,51 +137,180 @@ public final class SolverCache {
 		return instance;
 	}
 
-	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
+	private synchronized void addUNSAT(CanonicalQuery query, SolverResult unsatResult) {
+		CacheEntry entry = new CacheEntry(query, unsatResult, null);
+		if (put(entry)) {
+			for (String constraint : query.getConstraintKeys()) {
+				unsat_index.computeIfAbsent(constraint, k -> new ArrayList<>()).add(entry);
+			}
+		}
 		cached_unsat_result_count++;
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
+	private synchronized void addSAT(CanonicalQuery query, SolverResult satResult) {
+		Map<String, Object> model = satResult.getModel();
+		put(new CacheEntry(query, satResult, query.toCanonical(model)));
+		recent_models.addFirst(model);
+		while (recent_models.size() > Math.max(0, Properties.SOLVER_CACHE_MODEL_REUSE)) {
+			recent_models.removeLast();
+		}
 		cached_sat_result_count++;
 	}
 
-	private boolean valid_cached_solution = false;
-	private SolverResult cached_solution = null;
+	/**
+	 * Stores a new entry and evicts the least recently used ones.
+	 * 
+	 * @return false if an entry for the same key was already present
+	 */
+	private boolean put(CacheEntry entry) {
+		if (cached_solver_results.containsKey(entry.query.getKey())) {
+			return false;
+		}
+		cached_solver_results.put(entry.query.getKey(), entry);
+		Iterator<CacheEntry> it = cached_solver_results.values().iterator();
+		while (cached_solver_results.size() > Math.max(1, Properties.SOLVER_CACHE_SIZE)) {
+			CacheEntry eldest = it.next();
+			it.remove();
+			if (eldest.canonicalModel == null) {
+				for (String constraint : eldest.query.getConstraintKeys()) {
+					List<CacheEntry> entries = unsat_index.get(constraint);
+					entries.remove(eldest);
+					if (entries.isEmpty()) {
+						unsat_index.remove(constraint);
+					}
+				}
+			}
+			number_of_evictions++;
+		}
+		return true;
+	}
 
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
-		number_of_accesses++;
+	/**
+	 * Returns the cached result for a constraint system, if any.
+	 * 
+	 * @param constraints
+	 * @return null if the result cannot be derived from the cache
+	 */
+	public SolverResult getCachedResult(Collection<Constraint<?>> constraints) {
+		return lookup(CanonicalQuery.build(constraints));
+	}
 
-		if (this.cached_solver_results.containsKey(constraints)) {
-			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
-			number_of_hits++;
-			return true;
-		} else {
-			valid_cached_solution = false;
-			return false;
+	private SolverResult lookup(CanonicalQuery query) {
+		List<Map<String, Object>> models;
+		synchronized (this) {
+			number_of_accesses++;
+			if (query == null || query.isEmpty()) {
+				return null;
+			}
+
+			CacheEntry entry = cached_solver_results.get(query.getKey());
+			if (entry != null) {
+				number_of_hits++;
+				if (entry.canonicalModel == null) {
+					return entry.result;
+				}
+				return SolverResult.newSAT(query.fromCanonical(entry.canonicalModel));
+			}
+
+			if (isSubsumedByUNSAT(query)) {
+				number_of_hits++;
+				number_of_unsat_subsumptions++;
+				return SolverResult.newUNSAT();
+			}
+
+			models = new ArrayList<>(recent_models);
+		}
+
+		// evaluating the models does not need the lock
+		for (Map<String, Object> model : models) {
+			if (query.isSatisfiedBy(model)) {
+				SolverResult result = SolverResult.newSAT(query.restrict(model));
+				synchronized (this) {
+					number_of_hits++;
+					number_of_reused_models++;
+					put(new CacheEntry(query, result, query.toCanonical(model)));
+				}
+				return result;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if the query contains all the constraints of a cached UNSAT
+	 * query, and it is therefore UNSAT as well.
+	 */
+	private boolean isSubsumedByUNSAT(CanonicalQuery query) {
+		Map<CacheEntry, Integer> matches = new IdentityHashMap<>();
+		for (String constraint : query.getConstraintKeys()) {
+			List<CacheEntry> entries = unsat_index.get(constraint);
+			if (entries == null) {
+				continue;
+			}
+			for (CacheEntry entry : entries) {
+				int count = matches.merge(entry, 1, Integer::sum);
+				if (count == entry.query.getConstraintKeys().size()) {
+					// touch the subsuming entry so that it is not evicted first
+					cached_solver_results.get(entry.query.getKey());
+					return true;
+				}
+			}
 		}
+		return false;
 	}
 
-	public double getHitRate() {
+	public synchronized double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
 
+	public synchronized int getNumberOfAccesses() {
+		return number_of_accesses;
+	}
+
+	public synchronized int getNumberOfHits() {
+		return number_of_hits;
+	}
+
+	public synchronized int getNumberOfMisses() {
+		return number_of_accesses - number_of_hits;
+	}
+
+	public synchronized int getNumberOfEvictions() {
+		return number_of_evictions;
+	}
+
 	/**
-	 * If not in cache returns IllegalArgumentException()
-	 * 
-	 * @param constraints
-	 * @return
+	 * Number of hits answered because the query contained a cached UNSAT query
 	 */
-	public SolverResult getCachedResult() {
+	public synchronized int getNumberOfUNSATSubsumptions() {
+		return number_of_unsat_subsumptions;
+	}
 
-		if (valid_cached_solution == false) {
-			throw new IllegalArgumentException("The constraint is not cached!");
-		}
+	/**
+	 * Number of hits answered by a model found for a different query
+	 */
+	public synchronized int getNumberOfReusedModels() {
+		return number_of_reused_models;
+	}
+
+	public synchronized int size() {
+		return cached_solver_results.size();
+	}
 
-		valid_cached_solution = false;
-		return this.cached_solution;
+	/**
+	 * Removes all the entries and resets the counters.
+	 */
+	public synchronized void reset() {
+		cached_solver_results.clear();
+		unsat_index.clear();
+		recent_models.clear();
+		cached_sat_result_count = 0;
+		cached_unsat_result_count = 0;
+		number_of_accesses = 0;
+		number_of_hits = 0;
+		number_of_unsat_subsumptions = 0;
+		number_of_reused_models = 0;
+		number_of_evictions = 0;
 	}
 
 }
@@ -128,12 +128,17 @@ public final class CVC4Solver extends SmtSolver {
 		logger.debug("CVC4 Query:");
 		logger.debug(smtQueryStr);
 
-		String cmd = buildCVC4cmd(cvcTimeout);
+		String cmd = buildCVC4cmd(cvcTimeout, Properties.SMT_SOLVER_SESSIONS);
 
-		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 		try {
-			launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
-			String output = stdout.toString("UTF-8");
+			String output;
+			if (Properties.SMT_SOLVER_SESSIONS) {
+				output = solveInSession(cmd, query, (int) cvcTimeout);
+			} else {
+				ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+				launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+				output = stdout.toString("UTF-8");
+			}
 
 			if (output.startsWith("unknown")) {
 				logger.debug("timeout reached when using cvc4");
@@ -250,7 +255,7 @@ public final class CVC4Solver extends SmtSolver {
 
 	}
 
-	private static String buildCVC4cmd(long cvcTimeout) {
+	private static String buildCVC4cmd(long cvcTimeout, boolean incremental) {
 		String cmd = Properties.CVC4_PATH;
 		cmd += "  --rewrite-divk"; // rewrite-divk rewrites division (or
 									// modulus) by a constant value
@@ -273,7 +278,13 @@ public final class CVC4Solver extends SmtSolver {
 		 * More details on both of these points can be found in Sections 5.2 - 5.4 of
 		 * http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
 		 */
-		cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		if (incremental) {
+			// a session solves many queries, so the limit is per query
+			cmd += " --incremental";
+			cmd += " --tlimit-per=" + cvcTimeout;
+		} else {
+			cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		}
 		return cmd;
 	}
 
@@ -19,12 +19,15 @@
  */
 package org.smartut.symbolic.solver.smt;
 
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.smartut.symbolic.expr.Expression;
 import org.smartut.symbolic.expr.ExpressionVisitor;
 import org.smartut.symbolic.expr.Operator;
+import org.smartut.symbolic.expr.Variable;
 import org.smartut.symbolic.expr.bv.IntegerBinaryExpression;
 import org.smartut.symbolic.expr.bv.IntegerComparison;
 import org.smartut.symbolic.expr.bv.IntegerConstant;
@@ -66,6 +69,32 @@ import org.smartut.symbolic.solver.SmtExprBuilder;
 
 public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
+	/**
+	 * Translations of the composite expressions visited so far, by identity.
+	 * Path conditions share their interned subexpressions, which are thus
+	 * translated once per visitor, i.e. once per query.
+	 */
+	private final Map<Expression<?>, SmtExpr> translations = new IdentityHashMap<>();
+
+	/**
+	 * Translates the given expression, or returns the translation already
+	 * made of the same expression object
+	 *
+	 * @param e
+	 * @return null if the expression cannot be translated
+	 */
+	public final SmtExpr translate(Expression<?> e) {
+		if (e instanceof Variable || !e.containsSymbolicVariable()) {
+			return e.accept(this, null);
+		}
+		SmtExpr smtExpr = translations.get(e);
+		if (smtExpr == null && !translations.containsKey(e)) {
+			smtExpr = e.accept(this, null);
+			translations.put(e, smtExpr);
+		}
+		return smtExpr;
+	}
+
 	protected static SmtExpr approximateToConcreteValue(Expression<?> e) {
 		if (e instanceof IntegerValue) {
 			return approximateToConcreteValue((IntegerValue) e);
@@ -108,8 +137,8 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(IntegerBinaryExpression e, Void v) {
-		SmtExpr left = e.getLeftOperand().accept(this, null);
-		SmtExpr right = e.getRightOperand().accept(this, null);
+		SmtExpr left = translate(e.getLeftOperand());
+		SmtExpr right = translate(e.getRightOperand());
 
 		if (left == null || right == null) {
 			return null;
@@ -208,7 +237,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(IntegerUnaryExpression e, Void v) {
-		SmtExpr operand = e.getOperand().accept(this, null);
+		SmtExpr operand = translate(e.getOperand());
 
 		if (operand == null) {
 			return null;
@@ -245,7 +274,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(RealToIntegerCast e, Void v) {
-		SmtExpr operand = e.getArgument().accept(this, null);
+		SmtExpr operand = translate(e.getArgument());
 		if (operand == null) {
 			return null;
 		}
@@ -262,7 +291,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(RealUnaryToIntegerExpression e, Void v) {
-		SmtExpr realExpr = e.getOperand().accept(this, null);
+		SmtExpr realExpr = translate(e.getOperand());
 		if (realExpr == null) {
 			return null;
 		}
@@ -288,7 +317,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(IntegerToRealCast e, Void v) {
-		SmtExpr operand = e.getArgument().accept(this, null);
+		SmtExpr operand = translate(e.getArgument());
 		if (operand == null) {
 			return null;
 		}
@@ -305,9 +334,9 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(RealBinaryExpression e, Void v) {
-		SmtExpr left = e.getLeftOperand().accept(this, null);
+		SmtExpr left = translate(e.getLeftOperand());
 		Operator operator = e.getOperator();
-		SmtExpr right = e.getRightOperand().accept(this, null);
+		SmtExpr right = translate(e.getRightOperand());
 
 		if (left == null || right == null) {
 			return null;
@@ -379,7 +408,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(RealUnaryExpression e, Void v) {
-		SmtExpr operand = e.getOperand().accept(this, null);
+		SmtExpr operand = translate(e.getOperand());
 
 		if (operand == null) {
 			return null;
@@ -456,7 +485,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(IntegerToStringCast e, Void v) {
-		SmtExpr operand = e.getArgument().accept(this, null);
+		SmtExpr operand = translate(e.getArgument());
 		if (operand == null) {
 			return null;
 		}
@@ -472,7 +501,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(RealToStringCast e, Void arg) {
-		SmtExpr operand = e.getArgument().accept(this, null);
+		SmtExpr operand = translate(e.getArgument());
 		if (operand == null) {
 			return null;
 		}
@@ -489,7 +518,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(HasMoreTokensExpr e, Void v) {
-		SmtExpr expr = e.getTokenizerExpr().accept(this, null);
+		SmtExpr expr = translate(e.getTokenizerExpr());
 		if (expr == null) {
 			return null;
 		}
@@ -532,8 +561,8 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 		Expression<?> rightOperand = e.getRightOperand();
 		Operator op = e.getOperator();
 
-		SmtExpr left = leftOperand.accept(this, null);
-		SmtExpr right = rightOperand.accept(this, null);
+		SmtExpr left = translate(leftOperand);
+		SmtExpr right = translate(rightOperand);
 
 		if (left == null || right == null) {
 			return null;
@@ -582,8 +611,8 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringBinaryExpression e, Void arg) {
-		SmtExpr left = e.getLeftOperand().accept(this, null);
-		SmtExpr right = e.getRightOperand().accept(this, null);
+		SmtExpr left = translate(e.getLeftOperand());
+		SmtExpr right = translate(e.getRightOperand());
 		Operator operator = e.getOperator();
 
 		if (left == null || right == null) {
@@ -636,8 +665,8 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 		Operator op = e.getOperator();
 		Expression<?> rightOperand = e.getRightOperand();
 
-		SmtExpr left = leftOperand.accept(this, null);
-		SmtExpr right = rightOperand.accept(this, null);
+		SmtExpr left = translate(leftOperand);
+		SmtExpr right = translate(rightOperand);
 
 		if (left == null || right == null) {
 			return null;
@@ -686,11 +715,11 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringMultipleComparison e, Void arg) {
-		SmtExpr left = e.getLeftOperand().accept(this, null);
+		SmtExpr left = translate(e.getLeftOperand());
 		Operator operator = e.getOperator();
-		SmtExpr right = e.getRightOperand().accept(this, null);
+		SmtExpr right = translate(e.getRightOperand());
 
-		List<SmtExpr> others = e.getOther().stream().map(t -> t.accept(this, null)).collect(Collectors.toList());
+		List<SmtExpr> others = e.getOther().stream().map(this::translate).collect(Collectors.toList());
 
 		if (left == null || right == null || others.contains(null)) {
 			return null;
@@ -734,9 +763,9 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 	@Override
 	public final SmtExpr visit(StringMultipleExpression e, Void arg) {
 		Operator operator = e.getOperator();
-		SmtExpr left = e.getLeftOperand().accept(this, null);
-		SmtExpr right = e.getRightOperand().accept(this, null);
-		List<SmtExpr> others = e.getOther().stream().map(t -> t.accept(this, null)).collect(Collectors.toList());
+		SmtExpr left = translate(e.getLeftOperand());
+		SmtExpr right = translate(e.getRightOperand());
+		List<SmtExpr> others = e.getOther().stream().map(this::translate).collect(Collectors.toList());
 
 		if (left == null || right == null || others.contains(null)) {
 			return null;
@@ -779,9 +808,9 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringMultipleToIntegerExpression e, Void arg) {
-		SmtExpr left = e.getLeftOperand().accept(this, null);
-		SmtExpr right = e.getRightOperand().accept(this, null);
-		List<SmtExpr> others = e.getOther().stream().map(t -> t.accept(this, null)).collect(Collectors.toList());
+		SmtExpr left = translate(e.getLeftOperand());
+		SmtExpr right = translate(e.getRightOperand());
+		List<SmtExpr> others = e.getOther().stream().map(this::translate).collect(Collectors.toList());
 
 		if (left == null || right == null || others.contains(null)) {
 			return null;
@@ -819,7 +848,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringNextTokenExpr n, Void arg) {
-		SmtExpr operand = n.getTokenizerExpr().accept(this, null);
+		SmtExpr operand = translate(n.getTokenizerExpr());
 		if (operand == null) {
 			return null;
 		}
@@ -836,7 +865,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringReaderExpr e, Void arg) {
-		SmtExpr operand = e.getString().accept(this, null);
+		SmtExpr operand = translate(e.getString());
 		if (operand == null) {
 			return null;
 		}
@@ -854,7 +883,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringUnaryExpression e, Void arg) {
-		SmtExpr operand = e.getOperand().accept(this, null);
+		SmtExpr operand = translate(e.getOperand());
 
 		if (operand == null) {
 			return null;
@@ -882,7 +911,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringUnaryToIntegerExpression e, Void arg) {
-		SmtExpr operand = e.getOperand().accept(this, null);
+		SmtExpr operand = translate(e.getOperand());
 		if (operand == null) {
 			return null;
 		}
@@ -928,7 +957,7 @@ public class ExprToSmtVisitor implements ExpressionVisitor<SmtExpr, Void> {
 
 	@Override
 	public final SmtExpr visit(StringToIntegerCast e, Void arg) {
-		SmtExpr operand = e.getArgument().accept(this, null);
+		SmtExpr operand = translate(e.getArgument());
 
 		if (operand == null) {
 			return null;
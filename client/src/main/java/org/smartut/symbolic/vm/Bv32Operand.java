@@ -19,6 +19,7 @@
  */
 package org.smartut.symbolic.vm;
 
+import org.smartut.symbolic.expr.bv.IntegerConstant;
 import org.smartut.symbolic.expr.bv.IntegerValue;
 
 /**
@@ -30,6 +31,37 @@ public final class Bv32Operand implements SingleWordOperand, IntegerOperand {
 
 	private final IntegerValue integerExpr;
 
+	/**
+	 * Operands of the small integer constants, which are shared as they are
+	 * pushed and stored all the time
+	 */
+	private static final Bv32Operand[] CACHE = new Bv32Operand[256];
+
+	private static final int CACHE_LOW = -128;
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = new Bv32Operand(ExpressionFactory.buildNewIntegerConstant(CACHE_LOW + i));
+		}
+	}
+
+	/**
+	 * Returns an operand for the given expression, which is shared if the
+	 * expression is a small constant
+	 *
+	 * @param integerExpr
+	 * @return
+	 */
+	public static Bv32Operand valueOf(IntegerValue integerExpr) {
+		if (integerExpr instanceof IntegerConstant) {
+			long value = integerExpr.getConcreteValue();
+			if (value >= CACHE_LOW && value < CACHE_LOW + CACHE.length) {
+				return CACHE[(int) value - CACHE_LOW];
+			}
+		}
+		return new Bv32Operand(integerExpr);
+	}
+
 	public Bv32Operand(IntegerValue integerExpr) {
 		this.integerExpr = integerExpr;
 	}
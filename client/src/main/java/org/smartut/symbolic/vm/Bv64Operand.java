@@ -19,6 +19,7 @@
  */
 package org.smartut.symbolic.vm;
 
+import org.smartut.symbolic.expr.bv.IntegerConstant;
 import org.smartut.symbolic.expr.bv.IntegerValue;
 
 /**
@@ -29,6 +30,35 @@ import org.smartut.symbolic.expr.bv.IntegerValue;
 public final class Bv64Operand implements DoubleWordOperand, IntegerOperand {
 	private final IntegerValue integerExpr;
 
+	/**
+	 * Operands of the small long constants, as for {@link Bv32Operand}
+	 */
+	private static final Bv64Operand[] CACHE = new Bv64Operand[256];
+
+	private static final int CACHE_LOW = -128;
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = new Bv64Operand(ExpressionFactory.buildNewIntegerConstant(CACHE_LOW + i));
+		}
+	}
+
+	/**
+	 * Returns an operand for the given expression, shared for small constants
+	 *
+	 * @param integerExpr
+	 * @return
+	 */
+	public static Bv64Operand valueOf(IntegerValue integerExpr) {
+		if (integerExpr instanceof IntegerConstant) {
+			long value = integerExpr.getConcreteValue();
+			if (value >= CACHE_LOW && value < CACHE_LOW + CACHE.length) {
+				return CACHE[(int) value - CACHE_LOW];
+			}
+		}
+		return new Bv64Operand(integerExpr);
+	}
+
 	public Bv64Operand(IntegerValue integerExpr) {
 		this.integerExpr = integerExpr;
 	}
@@ -230,11 +230,14 @@ public final class CallVM extends AbstractVM {
 		boolean calleeNeedsThis = false;
 		if (conf.INIT.equals(methName)) {
 			Constructor<?> constructor = resolveConstructorOverloading(className, methDesc);
+			int maxStack = 0;
 			int maxLocals = conf.MAX_LOCALS_DEFAULT;
 			MemberInfo memberInfo = memberInfos.get(constructor);
-			if (memberInfo != null)
+			if (memberInfo != null) {
+				maxStack = memberInfo.maxStack;
 				maxLocals = memberInfo.maxLocals;
-			frame = new ConstructorFrame(constructor, maxLocals);
+			}
+			frame = FramePool.newConstructorFrame(constructor, maxStack, maxLocals);
 			calleeNeedsThis = true;
 
 			if (callerFrame.weInvokedInstrumentedCode() == false) {
@@ -251,11 +254,14 @@ public final class CallVM extends AbstractVM {
 			}
 		} else {
 			Method method = resolveMethodOverloading(className, methName, methDesc);
+			int maxStack = 0;
 			int maxLocals = conf.MAX_LOCALS_DEFAULT;
 			MemberInfo memberInfo = memberInfos.get(method);
-			if (memberInfo != null)
+			if (memberInfo != null) {
+				maxStack = memberInfo.maxStack;
 				maxLocals = memberInfo.maxLocals;
-			frame = new MethodFrame(method, maxLocals);
+			}
+			frame = FramePool.newMethodFrame(method, maxStack, maxLocals);
 			calleeNeedsThis = !Modifier.isStatic(method.getModifiers());
 		}
 
@@ -278,7 +284,7 @@ public final class CallVM extends AbstractVM {
 		 * stack.
 		 */
 		Class<?>[] paramTypes = getArgumentClasses(methDesc);
-		final Deque<Operand> params = new LinkedList<>();
+		final Deque<Operand> params = new ArrayDeque<>(paramTypes.length);
 		Iterator<Operand> it = env.topFrame().operandStack.iterator();
 		for (int i = paramTypes.length - 1; i >= 0; i--) {
 			// read parameters from caller operand srack
@@ -862,7 +868,6 @@ public final class CallVM extends AbstractVM {
 	 * number of local variables.
 	 */
 	private final static class MemberInfo {
-		@SuppressWarnings("unused")
 		final int maxStack, maxLocals;
 
 		MemberInfo(int maxStack, int maxLocals) {
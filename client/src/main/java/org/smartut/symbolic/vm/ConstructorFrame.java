@@ -29,7 +29,7 @@ import java.lang.reflect.Member;
  */
 public final class ConstructorFrame extends Frame 
 {	
-	private final Constructor<?> constructor;
+	private Constructor<?> constructor;
 
 	/**
 	 * Constructor
@@ -38,6 +38,19 @@ public final class ConstructorFrame extends Frame
 		super(maxLocals);
 		this.constructor = constructor;
 	}
+
+	ConstructorFrame(Constructor<?> constructor, int maxStack, int maxLocals) {
+		super(maxStack, maxLocals);
+		this.constructor = constructor;
+	}
+
+	/**
+	 * Reuses this frame for another invocation
+	 */
+	void reset(Constructor<?> constructor, int maxStack, int maxLocals) {
+		reset(maxStack, maxLocals);
+		this.constructor = constructor;
+	}
 	
 	@Override
 	public int getNrFormalParameters() {
@@ -19,6 +19,7 @@
  */
 package org.smartut.symbolic.vm;
 
+import org.smartut.symbolic.expr.Expression;
 import org.smartut.symbolic.expr.Operator;
 import org.smartut.symbolic.expr.bv.IntegerBinaryExpression;
 import org.smartut.symbolic.expr.bv.IntegerConstant;
@@ -49,6 +50,27 @@ public abstract class ExpressionFactory {
 	public static final IntegerConstant ICONST_0 = new IntegerConstant(0);
 	public static final IntegerConstant ICONST_M1 = new IntegerConstant(-1);
 
+	private static final ThreadLocal<ExpressionInterner> interner = ThreadLocal.withInitial(ExpressionInterner::new);
+
+	/**
+	 * Returns an earlier expression with the same operator, the same operands
+	 * and the same concrete value as the given one, or the given one if there
+	 * is none. Equal subexpressions of the path conditions are thus shared, so
+	 * they are hashed once and compared by reference.
+	 *
+	 * Each thread has its own table, and values without symbolic variables are
+	 * returned before it is looked up.
+	 *
+	 * @param expr
+	 * @return
+	 */
+	public static <T extends Expression<?>> T intern(T expr) {
+		if (!ExpressionInterner.isInternable(expr)) {
+			return expr;
+		}
+		return interner.get().intern(expr);
+	}
+
 	public static IntegerConstant buildNewIntegerConstant(int value) {
 		return buildNewIntegerConstant((long) value);
 	}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.vm;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+
+import org.smartut.symbolic.expr.BinaryExpression;
+import org.smartut.symbolic.expr.Cast;
+import org.smartut.symbolic.expr.Expression;
+import org.smartut.symbolic.expr.MultipleExpression;
+import org.smartut.symbolic.expr.UnaryExpression;
+import org.smartut.symbolic.expr.Variable;
+
+/**
+ * A table of symbolic expressions that returns, for each new expression, an
+ * earlier one with the same operator, the same operands and the same
+ * concrete value if there is one.
+ *
+ * Operands are compared by identity, so an expression is only shared once its
+ * operands are, and sharing grows bottom-up as expressions are built. The
+ * concrete value is part of the comparison, so an expression taken from the
+ * table always describes the current execution. Variables are never
+ * replaced, and neither are expressions without symbolic variables, which
+ * are cheap to build and compare.
+ *
+ * The table is open addressed with linear probing, with the hashes in a
+ * primitive array next to the entries, so a lookup allocates nothing. Entries
+ * are weak, so the table keeps no expression alive. The slots of collected
+ * expressions are only reclaimed when the table is rebuilt, which happens
+ * when it is half full. The table is not thread safe.
+ */
+final class ExpressionInterner {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Hash of the expression of each used slot
+	 */
+	private int[] hashes = new int[INITIAL_CAPACITY];
+
+	private WeakReference<?>[] entries = new WeakReference<?>[INITIAL_CAPACITY];
+
+	/**
+	 * Number of used slots, including the ones of collected expressions
+	 */
+	private int used = 0;
+
+	/**
+	 * Returns the expression in the table equal to the given one, and adds the
+	 * given one if there is none
+	 *
+	 * @param expression
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Expression<?>> T intern(T expression) {
+		if (!isInternable(expression)) {
+			return expression;
+		}
+
+		int hash = 31 * expression.hashCode() + Objects.hashCode(expression.getConcreteValue());
+		int mask = entries.length - 1;
+		for (int i = spread(hash) & mask;; i = (i + 1) & mask) {
+			WeakReference<?> entry = entries[i];
+			if (entry == null) {
+				entries[i] = new WeakReference<>(expression);
+				hashes[i] = hash;
+				if (++used * 2 > entries.length) {
+					rebuild();
+				}
+				return expression;
+			}
+			if (hashes[i] == hash) {
+				Expression<?> candidate = (Expression<?>) entry.get();
+				if (candidate != null && isSameNode(candidate, expression)) {
+					// same class, as checked by isSameNode
+					return (T) candidate;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of expressions in the table
+	 *
+	 * @return
+	 */
+	public int size() {
+		int size = 0;
+		for (WeakReference<?> entry : entries) {
+			if (entry != null && entry.get() != null) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Moves the expressions that are still alive to a table in which they
+	 * take at most a quarter of the slots
+	 */
+	private void rebuild() {
+		int size = size();
+		int capacity = INITIAL_CAPACITY;
+		while (capacity < 4 * size) {
+			capacity *= 2;
+		}
+		int[] oldHashes = hashes;
+		WeakReference<?>[] oldEntries = entries;
+		hashes = new int[capacity];
+		entries = new WeakReference<?>[capacity];
+		used = 0;
+		int mask = capacity - 1;
+		for (int j = 0; j < oldEntries.length; j++) {
+			WeakReference<?> entry = oldEntries[j];
+			if (entry == null || entry.get() == null) {
+				continue;
+			}
+			int i = spread(oldHashes[j]) & mask;
+			while (entries[i] != null) {
+				i = (i + 1) & mask;
+			}
+			entries[i] = entry;
+			hashes[i] = oldHashes[j];
+			used++;
+		}
+	}
+
+	/**
+	 * Mixes the high bits of a hash into the low ones, which select the slot
+	 */
+	private static int spread(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	static boolean isInternable(Expression<?> expression) {
+		if (expression instanceof Variable || !expression.containsSymbolicVariable()) {
+			return false;
+		}
+		return expression instanceof BinaryExpression || expression instanceof UnaryExpression
+				|| expression instanceof Cast || expression instanceof MultipleExpression;
+	}
+
+	private static boolean isSameNode(Expression<?> left, Expression<?> right) {
+		if (left.getClass() != right.getClass()
+				|| !Objects.equals(left.getConcreteValue(), right.getConcreteValue())) {
+			return false;
+		}
+		if (left instanceof MultipleExpression) {
+			MultipleExpression<?> l = (MultipleExpression<?>) left;
+			MultipleExpression<?> r = (MultipleExpression<?>) right;
+			if (l.getOperator() != r.getOperator()
+					|| !isSameOperand(l.getLeftOperand(), r.getLeftOperand())
+					|| !isSameOperand(l.getRightOperand(), r.getRightOperand())
+					|| l.getOther().size() != r.getOther().size()) {
+				return false;
+			}
+			for (int i = 0; i < l.getOther().size(); i++) {
+				if (!isSameOperand(l.getOther().get(i), r.getOther().get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (left instanceof BinaryExpression) {
+			BinaryExpression<?> l = (BinaryExpression<?>) left;
+			BinaryExpression<?> r = (BinaryExpression<?>) right;
+			return l.getOperator() == r.getOperator()
+					&& isSameOperand(l.getLeftOperand(), r.getLeftOperand())
+					&& isSameOperand(l.getRightOperand(), r.getRightOperand());
+		}
+		if (left instanceof UnaryExpression) {
+			UnaryExpression<?> l = (UnaryExpression<?>) left;
+			UnaryExpression<?> r = (UnaryExpression<?>) right;
+			return l.getOperator() == r.getOperator()
+					&& isSameOperand(l.getOperand(), r.getOperand());
+		}
+		if (left instanceof Cast) {
+			return isSameOperand(((Cast<?>) left).getArgument(), ((Cast<?>) right).getArgument());
+		}
+		return false;
+	}
+
+	/**
+	 * Operands with symbolic variables have to be the same object, concrete
+	 * ones only have to be equal
+	 */
+	private static boolean isSameOperand(Expression<?> left, Expression<?> right) {
+		if (left == right) {
+			return true;
+		}
+		if (left == null || right == null || left.containsSymbolicVariable()
+				|| right.containsSymbolicVariable()) {
+			return false;
+		}
+		return left.getClass() == right.getClass() && left.equals(right)
+				&& Objects.equals(left.getConcreteValue(), right.getConcreteValue());
+	}
+}
@@ -30,6 +30,30 @@ public final class Fp32Operand implements SingleWordOperand, RealOperand {
 	
 	private final RealValue realExpr;
 	
+	private static final Fp32Operand ZERO = new Fp32Operand(ExpressionFactory.RCONST_0);
+
+	private static final Fp32Operand ONE = new Fp32Operand(ExpressionFactory.RCONST_1);
+
+	private static final Fp32Operand TWO = new Fp32Operand(ExpressionFactory.RCONST_2);
+
+	/**
+	 * Returns an operand for the given expression, which is shared if the
+	 * expression is one of the constants of {@link ExpressionFactory}
+	 *
+	 * @param realExpr
+	 * @return
+	 */
+	public static Fp32Operand valueOf(RealValue realExpr) {
+		if (realExpr == ExpressionFactory.RCONST_0) {
+			return ZERO;
+		} else if (realExpr == ExpressionFactory.RCONST_1) {
+			return ONE;
+		} else if (realExpr == ExpressionFactory.RCONST_2) {
+			return TWO;
+		}
+		return new Fp32Operand(realExpr);
+	}
+
 	public Fp32Operand(RealValue realExpr) {
 		this.realExpr=realExpr;
 	}
@@ -29,6 +29,30 @@ import org.smartut.symbolic.expr.fp.RealValue;
 public final class Fp64Operand implements DoubleWordOperand, RealOperand {
 	private final RealValue realExpr;
 
+	private static final Fp64Operand ZERO = new Fp64Operand(ExpressionFactory.RCONST_0);
+
+	private static final Fp64Operand ONE = new Fp64Operand(ExpressionFactory.RCONST_1);
+
+	private static final Fp64Operand TWO = new Fp64Operand(ExpressionFactory.RCONST_2);
+
+	/**
+	 * Returns an operand for the given expression, shared like
+	 * {@link Fp32Operand#valueOf(RealValue)} does
+	 *
+	 * @param realExpr
+	 * @return
+	 */
+	public static Fp64Operand valueOf(RealValue realExpr) {
+		if (realExpr == ExpressionFactory.RCONST_0) {
+			return ZERO;
+		} else if (realExpr == ExpressionFactory.RCONST_1) {
+			return ONE;
+		} else if (realExpr == ExpressionFactory.RCONST_2) {
+			return TWO;
+		}
+		return new Fp64Operand(realExpr);
+	}
+
 	public Fp64Operand(RealValue realExpr) {
 		this.realExpr = realExpr;
 	}
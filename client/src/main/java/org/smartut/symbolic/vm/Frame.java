@@ -65,20 +65,48 @@ public abstract class Frame {
 	/**
 	 * Operand stack
 	 */
-	public final OperandStack operandStack = new OperandStack();
+	public final OperandStack operandStack;
 
 	/**
 	 * List of local variables
 	 */
 	final LocalsTable localsTable;
 
+	/**
+	 * The frame was given back to the {@link FramePool}
+	 */
+	boolean released = false;
+
 	/**
 	 * Constructor
 	 */
 	protected Frame(int maxLocals) {
+		this(0, maxLocals);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param maxStack
+	 *            the maximum size of the operand stack of the method, or 0
+	 *            if it is not known
+	 */
+	protected Frame(int maxStack, int maxLocals) {
+		operandStack = maxStack > 0 ? new OperandStack(maxStack) : new OperandStack();
 		localsTable = new LocalsTable(maxLocals);
 	}
 
+	/**
+	 * Prepares a frame of the {@link FramePool} for a new invocation
+	 */
+	void reset(int maxStack, int maxLocals) {
+		weInvokedInstrumentedCode = true;
+		invokeNeedsThis = false;
+		released = false;
+		operandStack.reset(maxStack);
+		localsTable.reset(maxLocals);
+	}
+
 	public abstract Member getMember();
 
 	/**
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.vm;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Frames of methods and constructors that returned, kept to be reused by the
+ * next invocations on the same thread instead of allocating new frames,
+ * operand stacks and locals tables.
+ * 
+ * A frame is only reused once it is released, and it keeps its operands until
+ * it is reused, so the return value can still be taken from a frame just
+ * popped.
+ */
+final class FramePool {
+
+	/**
+	 * Maximum number of frames of each kind kept
+	 */
+	private static final int MAX_POOLED_FRAMES = 64;
+
+	private static final ThreadLocal<FramePool> POOL = ThreadLocal.withInitial(FramePool::new);
+
+	private final Deque<MethodFrame> methodFrames = new ArrayDeque<>();
+
+	private final Deque<ConstructorFrame> constructorFrames = new ArrayDeque<>();
+
+	private FramePool() {
+	}
+
+	static MethodFrame newMethodFrame(Method method, int maxStack, int maxLocals) {
+		MethodFrame frame = POOL.get().methodFrames.poll();
+		if (frame == null) {
+			return new MethodFrame(method, maxStack, maxLocals);
+		}
+		frame.reset(method, maxStack, maxLocals);
+		return frame;
+	}
+
+	static ConstructorFrame newConstructorFrame(Constructor<?> constructor, int maxStack, int maxLocals) {
+		ConstructorFrame frame = POOL.get().constructorFrames.poll();
+		if (frame == null) {
+			return new ConstructorFrame(constructor, maxStack, maxLocals);
+		}
+		frame.reset(constructor, maxStack, maxLocals);
+		return frame;
+	}
+
+	/**
+	 * Gives back a frame that is no longer on the stack of frames
+	 * 
+	 * @param frame
+	 */
+	static void release(Frame frame) {
+		if (frame.released) {
+			return;
+		}
+		if (frame instanceof MethodFrame) {
+			FramePool pool = POOL.get();
+			if (pool.methodFrames.size() < MAX_POOLED_FRAMES) {
+				frame.released = true;
+				pool.methodFrames.push((MethodFrame) frame);
+			}
+		} else if (frame instanceof ConstructorFrame) {
+			FramePool pool = POOL.get();
+			if (pool.constructorFrames.size() < MAX_POOLED_FRAMES) {
+				frame.released = true;
+				pool.constructorFrames.push((ConstructorFrame) frame);
+			}
+		}
+	}
+}
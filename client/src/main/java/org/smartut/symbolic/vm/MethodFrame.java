@@ -30,7 +30,7 @@ import java.lang.reflect.Modifier;
  */
 public final class MethodFrame extends Frame {
 
-	private final Method method;
+	private Method method;
 
 	/**
 	 * Constructor
@@ -40,6 +40,19 @@ public final class MethodFrame extends Frame {
 		this.method = method;
 	}
 
+	MethodFrame(Method method, int maxStack, int maxLocals) {
+		super(maxStack, maxLocals);
+		this.method = method;
+	}
+
+	/**
+	 * Reuses this frame for another invocation
+	 */
+	void reset(Method method, int maxStack, int maxLocals) {
+		reset(maxStack, maxLocals);
+		this.method = method;
+	}
+
 	@Override
 	public int getNrFormalParameters() {
 		return method.getParameterTypes().length;
@@ -19,44 +19,83 @@
  */
 package org.smartut.symbolic.vm;
 
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 import org.smartut.symbolic.expr.bv.IntegerValue;
 import org.smartut.symbolic.expr.fp.RealValue;
 import org.smartut.symbolic.expr.ref.ReferenceExpression;
 
 /**
+ * The operands are kept in an array, sized from the maximum stack size of the
+ * method when it is known, which grows if more operands are pushed.
  * 
  * @author galeotti
  * 
  */
 public final class OperandStack implements Iterable<Operand> {
 
-	private final Deque<Operand> stack = new LinkedList<>();
+	private static final int DEFAULT_CAPACITY = 8;
+
+	private Operand[] stack;
+
+	/**
+	 * Number of operands, the top one is at <code>size - 1</code>
+	 */
+	private int size = 0;
 
 	public OperandStack() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public OperandStack(int capacity) {
+		stack = new Operand[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Removes all operands, and makes room for the given number of them
+	 * 
+	 * @param capacity
+	 */
+	void reset(int capacity) {
+		if (stack.length < capacity) {
+			stack = new Operand[capacity];
+		} else {
+			Arrays.fill(stack, 0, size, null);
+		}
+		size = 0;
+	}
+
+	private void push(Operand operand) {
+		if (size == stack.length) {
+			stack = Arrays.copyOf(stack, size * 2);
+		}
+		stack[size++] = operand;
+	}
+
+	private Operand peek() {
+		return size == 0 ? null : stack[size - 1];
 	}
 
 	public void pushRef(ReferenceExpression r) {
-		stack.push(new ReferenceOperand(r));
+		push(new ReferenceOperand(r));
 	}
 
 	public void pushBv32(IntegerValue e) {
-		stack.push(new Bv32Operand(e));
+		push(Bv32Operand.valueOf(ExpressionFactory.intern(e)));
 	}
 
 	public void pushBv64(IntegerValue e) {
-		stack.push(new Bv64Operand(e));
+		push(Bv64Operand.valueOf(ExpressionFactory.intern(e)));
 	}
 
 	public void pushFp32(RealValue e) {
-		stack.push(new Fp32Operand(e));
+		push(Fp32Operand.valueOf(ExpressionFactory.intern(e)));
 	}
 
 	public void pushFp64(RealValue e) {
-		stack.push(new Fp64Operand(e));
+		push(Fp64Operand.valueOf(ExpressionFactory.intern(e)));
 	}
 
 	public ReferenceExpression popRef() {
@@ -90,51 +129,75 @@ public final class OperandStack implements Iterable<Operand> {
 	}
 
 	public Operand popOperand() {
-		Operand ret_val = this.stack.pop();
+		if (size == 0) {
+			throw new NoSuchElementException("OperandStack is empty");
+		}
+		Operand ret_val = stack[--size];
+		stack[size] = null;
 		return ret_val;
 	}
 
 	public void clearOperands() {
-		stack.clear();
+		Arrays.fill(stack, 0, size, null);
+		size = 0;
 	}
 
 	public void pushOperand(Operand operand) {
 		if (operand == null) {
 			throw new IllegalArgumentException("Cannot push a null operand into OperandStack");
 		}
-		stack.push(operand);
+		push(operand);
 	}
 
 	public RealValue peekFp64() {
-		Operand operand = stack.peek();
+		Operand operand = peek();
 		Fp64Operand fp64 = (Fp64Operand) operand;
 		return fp64.getRealExpression();
 	}
 
 	public RealValue peekFp32() {
-		Operand operand = stack.peek();
+		Operand operand = peek();
 		Fp32Operand fp32 = (Fp32Operand) operand;
 		return fp32.getRealExpression();
 	}
 
 	public IntegerValue peekBv64() {
-		Operand operand = stack.peek();
+		Operand operand = peek();
 		Bv64Operand bv64 = (Bv64Operand) operand;
 		return bv64.getIntegerExpression();
 	}
 
 	public IntegerValue peekBv32() {
-		Operand operand = stack.peek();
+		Operand operand = peek();
 		Bv32Operand bv32 = (Bv32Operand) operand;
 		return bv32.getIntegerExpression();
 	}
 
 	public Operand peekOperand() {
-		return stack.peek();
+		return peek();
 	}
 
+	/**
+	 * Iterates over the operands from the top of the stack
+	 */
 	public Iterator<Operand> iterator() {
-		return stack.iterator();
+		return new Iterator<Operand>() {
+
+			private int next = size - 1;
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public Operand next() {
+				if (next < 0) {
+					throw new NoSuchElementException();
+				}
+				return stack[next--];
+			}
+		};
 	}
 
 	public ReferenceExpression peekRef() {
@@ -150,7 +213,7 @@ public final class OperandStack implements Iterable<Operand> {
 
 	@Override
 	public String toString() {
-		if (this.stack.isEmpty()) {
+		if (size == 0) {
 			return "<<EMPTY_OPERAND_STACK>>";
 		}
 
@@ -162,15 +225,15 @@ public final class OperandStack implements Iterable<Operand> {
 	}
 
 	public int size() {
-		return stack.size();
+		return size;
 	}
 
 	public boolean isEmpty() {
-		return stack.isEmpty();
+		return size == 0;
 	}
 
 	public void pushNullRef() {
 		ReferenceExpression nullExpression = ExpressionFactory.buildNewNullExpression();
-		this.stack.push(new ReferenceOperand(nullExpression));
+		push(new ReferenceOperand(nullExpression));
 	}
 }
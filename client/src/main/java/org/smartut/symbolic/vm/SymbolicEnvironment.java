@@ -24,9 +24,9 @@ import org.smartut.dse.MainConfig;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Set;
 
 import org.smartut.symbolic.expr.ref.ReferenceExpression;
@@ -49,7 +49,7 @@ public final class SymbolicEnvironment {
 	/**
 	 * Stack of function/method/constructor invocation frames
 	 */
-	private final Deque<Frame> stackFrame = new LinkedList<>();
+	private final Deque<Frame> stackFrame = new ArrayDeque<>();
 
 	/**
 	 * Classes whose static fields have been set to the default zero value or a
@@ -78,8 +78,15 @@ public final class SymbolicEnvironment {
 		return res;
 	}
 
+	/**
+	 * Pops the top frame, which can be reused by the next frame created
+	 * 
+	 * @return the popped frame
+	 */
 	public Frame popFrame() {
-		return stackFrame.pop();
+		Frame frame = stackFrame.pop();
+		FramePool.release(frame);
+		return frame;
 	}
 
 	public Class<?> ensurePrepared(String className) {
@@ -172,7 +179,9 @@ public final class SymbolicEnvironment {
 	 * pseudo-callers stack, so our method can pop them from there.
 	 */
 	public void prepareStack(Method mainMethod) {
-		stackFrame.clear();
+		while (!stackFrame.isEmpty()) {
+			popFrame();
+		}
 		// bottom of the stack trace
 		this.pushFrame(new FakeBottomFrame());
 
@@ -19,6 +19,9 @@
  */
 package org.smartut.testcarver.capture;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -92,24 +95,16 @@ public final class CaptureLog implements Cloneable {
 	 */
 
 	//--- LOG Table
-	// REC_NO | OID | METHOD | PARAMS
+	// REC_NO | OID | CID | METHOD | DESC | PARAMS | RETURN | IS STATIC
 
-	/*
-	 * FIXME: following lists seem to be aligned
-	 */
-
-	// rec_no is implied by index
-	public final List<Integer> objectIds;
-	public final List<Integer> captureIds;
-	public final List<String> methodNames;
 	/**
-	 * FIXME: this seems always containing Integer objects, representing either
-	 * null or an object identifier (oid). should it be <Integer[]> ?
+	 * The records are kept out of the heap, so that the memory needed for
+	 * carving does not grow with the length of the trace. Clones share the
+	 * records until one of them logs a new record.
 	 */
-	public final List<Object[]> params;
-	public final List<Object> returnValues;
-	public final List<Boolean> isStaticCallList;
-	public final List<String> descList;
+	private CaptureRecords records;
+
+	private boolean recordsShared = false;
 
 	//--- OID Info Table
 	// OID | INIT_REC_NO | CLASS
@@ -141,12 +136,11 @@ public final class CaptureLog implements Cloneable {
 	 * Main constructor
 	 */
 	public CaptureLog() {
-		this.objectIds = new ArrayList<>();
-		this.methodNames = new ArrayList<>();
-		this.params = new ArrayList<>();
-		this.captureIds = new ArrayList<>();
-		this.returnValues = new ArrayList<>();
-		this.descList = new ArrayList<>();
+		this(new CaptureRecords());
+	}
+
+	private CaptureLog(final CaptureRecords records) {
+		this.records = records;
 
 		this.oidRecMapping = new LinkedHashMap<>();
 		this.oidInitRecNo = new ArrayList<>();
@@ -155,13 +149,71 @@ public final class CaptureLog implements Cloneable {
 		this.oidFirstInits = new ArrayList<>();
 		this.oidDependencies = new ArrayList<>();
 
-		this.isStaticCallList = new ArrayList<>();
-
 		this.oidNamesOfAccessedFields = new LinkedHashMap<>();
 
 		this.xstream = new XStream();
 	}
 
+	public int getRecordCount() {
+		return records.size();
+	}
+
+	public int getObjectId(final int recordIndex) {
+		return records.getObjectId(recordIndex);
+	}
+
+	public int getCaptureId(final int recordIndex) {
+		return records.getCaptureId(recordIndex);
+	}
+
+	public String getMethodName(final int recordIndex) {
+		return records.getMethodName(recordIndex);
+	}
+
+	public String getDescriptor(final int recordIndex) {
+		return records.getDescriptor(recordIndex);
+	}
+
+	/**
+	 * The parameters are either {@code null}, the oid of an object, or the
+	 * value of a plain init record
+	 *
+	 * @param recordIndex
+	 * @return a new array with the parameters of the record
+	 */
+	public Object[] getParams(final int recordIndex) {
+		return records.getParams(recordIndex);
+	}
+
+	/**
+	 * @param recordIndex
+	 * @return the oid of the returned object, or {@link #RETURN_TYPE_VOID}
+	 */
+	public Object getReturnValue(final int recordIndex) {
+		return records.getReturnValue(recordIndex);
+	}
+
+	public boolean isStaticCall(final int recordIndex) {
+		return records.isStaticCall(recordIndex);
+	}
+
+	private void addRecord(final int oid, final int captureId, final String methodName,
+	        final String methodDesc, final Object[] methodParams, final boolean isStatic) {
+		ownRecords().add(oid, captureId, methodName, methodDesc, methodParams, isStatic);
+	}
+
+	/**
+	 * Has to be used for any change of the records, so that records shared
+	 * with a clone are copied first
+	 */
+	private CaptureRecords ownRecords() {
+		if (recordsShared) {
+			records = records.copy();
+			recordsShared = false;
+		}
+		return records;
+	}
+
 	public String getNameOfAccessedFields(final int captureId) {
 		return oidNamesOfAccessedFields.get(captureId);
 	}
@@ -233,7 +285,7 @@ public final class CaptureLog implements Cloneable {
 		if (!oidRecMapping.containsKey(oid)) {
 			throw new IllegalArgumentException("OID " + oid + " is not recognized");
 		}
-		int nRec = objectIds.size();
+		int nRec = records.size();
 		/*
 		 * FIXME: it seems negative indexes have special meaning...
 		 */
@@ -257,21 +309,15 @@ public final class CaptureLog implements Cloneable {
 
 	@Override
 	public CaptureLog clone() {
-		final CaptureLog log = new CaptureLog();
-
-		log.objectIds.addAll(this.objectIds);
-		log.methodNames.addAll(this.methodNames);
-		log.params.addAll(this.params);
-		log.captureIds.addAll(this.captureIds);
-		log.returnValues.addAll(this.returnValues);
-		log.descList.addAll(this.descList);
+		final CaptureLog log = new CaptureLog(this.records);
+		log.recordsShared = true;
+		this.recordsShared = true;
 
 		log.oidRecMapping.putAll(this.oidRecMapping);
 		log.oidInitRecNo.addAll(this.oidInitRecNo);
 		log.oidClassNames.addAll(this.oidClassNames);
 		log.oids.addAll(this.oids);
 		log.oidNamesOfAccessedFields.putAll(this.oidNamesOfAccessedFields);
-		log.isStaticCallList.addAll(this.isStaticCallList);
 		log.oidDependencies.addAll(this.oidDependencies);
 		log.oidFirstInits.addAll(this.oidFirstInits);
 
@@ -279,12 +325,11 @@ public final class CaptureLog implements Cloneable {
 	}
 
 	public void clear() {
-		this.objectIds.clear();
-		this.methodNames.clear();
-		this.params.clear();
-		this.captureIds.clear();
-		this.returnValues.clear();
-		this.descList.clear();
+		if (!recordsShared) {
+			this.records.close();
+		}
+		this.records = new CaptureRecords();
+		this.recordsShared = false;
 
 		this.oidRecMapping.clear();
 		this.oidInitRecNo.clear();
@@ -292,25 +337,94 @@ public final class CaptureLog implements Cloneable {
 		this.oids.clear();
 		this.oidFirstInits.clear();
 		this.oidDependencies.clear();
-		this.isStaticCallList.clear();
 
 		this.oidNamesOfAccessedFields.clear();
 	}
 
+	/**
+	 * Releases the file holding the records, which are shared with the
+	 * clones of this log
+	 */
+	public void close() {
+		this.records.close();
+	}
+
+	/**
+	 * Writes the log in a binary format, streaming the records
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeTo(final DataOutputStream out) throws IOException {
+		this.records.write(out);
+
+		out.writeInt(this.oids.size());
+		for (int i = 0; i < this.oids.size(); i++) {
+			out.writeInt(this.oids.get(i));
+			out.writeInt(this.oidInitRecNo.get(i));
+			out.writeUTF(this.oidClassNames.get(i));
+			out.writeInt(this.oidFirstInits.get(i));
+			out.writeInt(this.oidDependencies.get(i));
+		}
+
+		out.writeInt(this.oidRecMapping.size());
+		for (final Map.Entry<Integer, Integer> entry : this.oidRecMapping.entrySet()) {
+			out.writeInt(entry.getKey());
+			out.writeInt(entry.getValue());
+		}
+
+		out.writeInt(this.oidNamesOfAccessedFields.size());
+		for (final Map.Entry<Integer, String> entry : this.oidNamesOfAccessedFields.entrySet()) {
+			out.writeInt(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+	}
+
+	/**
+	 * Reads a log written by {@link #writeTo(DataOutputStream)}
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static CaptureLog readFrom(final DataInputStream in) throws IOException {
+		final CaptureLog log = new CaptureLog(CaptureRecords.read(in));
+
+		final int numInfoRecs = in.readInt();
+		for (int i = 0; i < numInfoRecs; i++) {
+			log.oids.add(in.readInt());
+			log.oidInitRecNo.add(in.readInt());
+			log.oidClassNames.add(in.readUTF());
+			log.oidFirstInits.add(in.readInt());
+			log.oidDependencies.add(in.readInt());
+		}
+
+		final int numMappings = in.readInt();
+		for (int i = 0; i < numMappings; i++) {
+			log.oidRecMapping.put(in.readInt(), in.readInt());
+		}
+
+		final int numFields = in.readInt();
+		for (int i = 0; i < numFields; i++) {
+			log.oidNamesOfAccessedFields.put(in.readInt(), in.readUTF());
+		}
+		return log;
+	}
+
 	private boolean updateInfoTable(final int oid, final Object receiver,
 	        final boolean replace) {
 		// update oid info table, if necessary
 		// -> we assume that USUALLY the first record belonging to an object belongs to its instanciation
 		if (this.oidRecMapping.containsKey(oid)) {
 			if (replace) {
-				final int logRecNo = this.objectIds.size();
+				final int logRecNo = this.records.size();
 				updateWhereObjectWasInitializedFirst(oid, -logRecNo);
 				return true;
 			} else {
 				return false;
 			}
 		} else {
-			final int logRecNo = this.objectIds.size();
+			final int logRecNo = this.records.size();
 			final int infoRecNo = this.oidInitRecNo.size();
 
 			logger.debug("Adding mapping oid->index   {} -> {}", oid, infoRecNo);
@@ -389,13 +503,8 @@ public final class CaptureLog implements Cloneable {
 			handleReturnValue(captureId, receiver, returnValue);
 		}
 
-		this.captureIds.add(captureId);
-		this.objectIds.add(System.identityHashCode(receiver));
-		this.methodNames.add(END_CAPTURE_PSEUDO_METHOD);
-		this.descList.add(EMPTY_DESC);
-		this.params.add(NO_ARGS);
-		this.returnValues.add(RETURN_TYPE_VOID);
-		this.isStaticCallList.add(Boolean.FALSE);
+		addRecord(System.identityHashCode(receiver), captureId, END_CAPTURE_PSEUDO_METHOD, EMPTY_DESC,
+		          NO_ARGS, false);
 	}
 
 	/**
@@ -409,13 +518,13 @@ public final class CaptureLog implements Cloneable {
 	private int findRecordOfMethodStart(final Object receiver, final int captureId) {
 		final int oid = System.identityHashCode(receiver);
 
-		int currentRecord = captureIds.size() - 1;
+		int currentRecord = records.size() - 1;
 
 		int nestedCalls = 0;
 		while (true) {
-			if (this.captureIds.get(currentRecord) == captureId
-			        && this.objectIds.get(currentRecord) == oid) {
-				if (this.methodNames.get(currentRecord).equals(END_CAPTURE_PSEUDO_METHOD)) {
+			if (records.getCaptureId(currentRecord) == captureId
+			        && records.getObjectId(currentRecord) == oid) {
+				if (records.getMethodName(currentRecord).equals(END_CAPTURE_PSEUDO_METHOD)) {
 					nestedCalls++;
 				} else {
 					if (nestedCalls == 0) {
@@ -444,10 +553,10 @@ public final class CaptureLog implements Cloneable {
 
 			final int firstInitRecNo = this.oidFirstInits.get(this.oidRecMapping.get(returnValueOID));
 
-			final String methodName = methodNames.get(firstInitRecNo);
+			final String methodName = records.getMethodName(firstInitRecNo);
 			final boolean isObservedConstructionCaughtForThisObject = methodName.equals(OBSERVED_INIT);
-			final boolean isUnObservedConstructionCaughtForThisObject = NOT_OBSERVED_INIT_METHODS.contains(methodNames.get(firstInitRecNo));
-			final boolean noReturnValueHasBeenSet = RETURN_TYPE_VOID.equals(returnValues.get(firstInitRecNo));
+			final boolean isUnObservedConstructionCaughtForThisObject = NOT_OBSERVED_INIT_METHODS.contains(methodName);
+			final boolean noReturnValueHasBeenSet = RETURN_TYPE_VOID.equals(records.getReturnValue(firstInitRecNo));
 
 			if (!isObservedConstructionCaughtForThisObject
 			        && !isUnObservedConstructionCaughtForThisObject) {
@@ -475,16 +584,16 @@ public final class CaptureLog implements Cloneable {
 				if (this.oidRecMapping.containsKey(returnValueOID)) {
 					final int infoRecNo = this.oidRecMapping.get(returnValueOID);
 					final int initRecNo = getRecordIndexOfWhereObjectWasInitializedFirst(returnValueOID);
-					final String method = this.methodNames.get(Math.abs(initRecNo));
+					final String method = records.getMethodName(Math.abs(initRecNo));
 
 					if ((!OBSERVED_INIT.equals(method) && !NOT_OBSERVED_INIT_METHODS.contains(method)))//|| currentRecord < Math.abs(initRecNo))
 					{
-						this.returnValues.set(currentRecord, returnValueOID); // oid as integer works here as we exclude plain values
+						ownRecords().setReturnValue(currentRecord, returnValueOID); // oid as integer works here as we exclude plain values
 						updateWhereObjectWasInitializedFirst(returnValueOID,
 						                                     -currentRecord);
 						this.oidFirstInits.set(infoRecNo, currentRecord);
 					} else {
-						this.returnValues.set(currentRecord, returnValueOID);
+						ownRecords().setReturnValue(currentRecord, returnValueOID);
 					}
 
 				} else {
@@ -493,7 +602,7 @@ public final class CaptureLog implements Cloneable {
 					addNewInitRec(currentRecord);
 					this.oidFirstInits.add(currentRecord);
 
-					this.returnValues.set(currentRecord, returnValueOID); // oid as integer works here as we exclude plain values
+					ownRecords().setReturnValue(currentRecord, returnValueOID); // oid as integer works here as we exclude plain values
 
 					this.registerObjectsClassName(returnValue);
 
@@ -599,13 +708,7 @@ public final class CaptureLog implements Cloneable {
 
 		// save receiver class -> might be reference in later calls e.g. doSth(Person.class)
 		if (receiver instanceof Class) {
-			this.objectIds.add(oid);
-			this.descList.add(EMPTY_DESC);
-			this.methodNames.add(PLAIN_INIT);
-			this.params.add(new Object[] { receiver });
-			this.returnValues.add(RETURN_TYPE_VOID);
-			this.captureIds.add(PSEUDO_CAPTURE_ID);
-			this.isStaticCallList.add(Boolean.FALSE);
+			addRecord(oid, PSEUDO_CAPTURE_ID, PLAIN_INIT, EMPTY_DESC, new Object[] { receiver }, false);
 			this.logEnd(PSEUDO_CAPTURE_ID, receiver, RETURN_TYPE_VOID);
 		}
 
@@ -662,13 +765,7 @@ public final class CaptureLog implements Cloneable {
 		this.updateInfoTable(oid, receiver, isConstructor);
 
 		//--- create method call record
-		this.objectIds.add(oid);
-		this.methodNames.add(methodName);
-		this.descList.add(methodDesc);
-		this.params.add(methodParams);
-		this.returnValues.add(RETURN_TYPE_VOID);
-		this.captureIds.add(captureId);
-		this.isStaticCallList.add(receiver instanceof Class);
+		addRecord(oid, captureId, methodName, methodDesc, methodParams, receiver instanceof Class);
 
 		this.checkIfInstanceFromInnerInstanceClass(receiver);
 	}
@@ -690,14 +787,8 @@ public final class CaptureLog implements Cloneable {
 			final boolean isInstrumented = TransformerUtil.isClassConsideredForInstrumentation(param.getClass().getName());
 
 			if (isPlain(param) || param instanceof Class) {
-				this.objectIds.add(paramOID);
 				// exemplary output in test code: Integer number = 123;
-				this.methodNames.add(PLAIN_INIT);
-				this.params.add(new Object[] { param });
-				this.descList.add(EMPTY_DESC);
-				this.returnValues.add(RETURN_TYPE_VOID);
-				this.captureIds.add(PSEUDO_CAPTURE_ID);
-				this.isStaticCallList.add(Boolean.FALSE);
+				addRecord(paramOID, PSEUDO_CAPTURE_ID, PLAIN_INIT, EMPTY_DESC, new Object[] { param }, false);
 				this.logEnd(PSEUDO_CAPTURE_ID, param, RETURN_TYPE_VOID);
 
 			} else if (isCollection && !isInstrumented) {
@@ -719,13 +810,7 @@ public final class CaptureLog implements Cloneable {
 					this.updateInfoTable(paramOID, param, true);
 				}
 
-				this.objectIds.add(paramOID);
-				this.methodNames.add(COLLECTION_INIT);
-				this.params.add(valArray);
-				this.descList.add(EMPTY_DESC);
-				this.returnValues.add(RETURN_TYPE_VOID);
-				this.captureIds.add(PSEUDO_CAPTURE_ID);
-				this.isStaticCallList.add(Boolean.FALSE);
+				addRecord(paramOID, PSEUDO_CAPTURE_ID, COLLECTION_INIT, EMPTY_DESC, valArray, false);
 				this.logEnd(PSEUDO_CAPTURE_ID, param, RETURN_TYPE_VOID);
 
 			} else if (isMap && !isInstrumented) {
@@ -757,13 +842,7 @@ public final class CaptureLog implements Cloneable {
 					this.updateInfoTable(paramOID, param, true);
 				}
 
-				this.objectIds.add(paramOID);
-				this.methodNames.add(MAP_INIT);
-				this.params.add(valArray);
-				this.descList.add(EMPTY_DESC);
-				this.returnValues.add(RETURN_TYPE_VOID);
-				this.captureIds.add(PSEUDO_CAPTURE_ID);
-				this.isStaticCallList.add(Boolean.FALSE);
+				addRecord(paramOID, PSEUDO_CAPTURE_ID, MAP_INIT, EMPTY_DESC, valArray, false);
 				this.logEnd(PSEUDO_CAPTURE_ID, param, RETURN_TYPE_VOID);
 
 			} else if (isArray) {
@@ -785,13 +864,7 @@ public final class CaptureLog implements Cloneable {
 					this.updateInfoTable(paramOID, param, true);
 				}
 
-				this.objectIds.add(paramOID);
-				this.methodNames.add(ARRAY_INIT);
-				this.params.add(valArray);
-				this.descList.add(EMPTY_DESC);
-				this.returnValues.add(RETURN_TYPE_VOID);
-				this.captureIds.add(PSEUDO_CAPTURE_ID);
-				this.isStaticCallList.add(Boolean.FALSE);
+				addRecord(paramOID, PSEUDO_CAPTURE_ID, ARRAY_INIT, EMPTY_DESC, valArray, false);
 				this.logEnd(PSEUDO_CAPTURE_ID, param, RETURN_TYPE_VOID);
 
 			} else {
@@ -813,34 +886,24 @@ public final class CaptureLog implements Cloneable {
 			this.updateInfoTable(subjectOID, subject, true);
 		}
 
-		this.objectIds.add(subjectOID);
 		// create new serialization record for first emersion
 		// exemplary output in test code: Person newJoe = (Person) xstream.fromXML(xml); 
 
 		this.checkIfInstanceFromInnerInstanceClass(subject);
-		this.methodNames.add(NOT_OBSERVED_INIT);
 
+		Object serializedSubject;
 		try {
-			//					this.xstream.toXML(param, sout);
-			//					this.sout.flush();
-			//					
-			//					this.params.add(new Object[]{ this.bout.toByteArray() });
-			//					
-			//					this.bout.reset();
-			// FIXME
-			this.params.add(new Object[] { this.xstream.toXML(subject) });
+			serializedSubject = this.xstream.toXML(subject);
 		} catch (final Exception e) {
 			logger.info("an error occurred while serializing param '{}' -> adding null as param instead",
 			            subject, e);
 
 			// param can not be serialized -> add null as param
-			this.params.add(new Object[] { null });
+			serializedSubject = null;
 		}
 
-		this.descList.add(EMPTY_DESC);
-		this.returnValues.add(RETURN_TYPE_VOID);
-		this.captureIds.add(PSEUDO_CAPTURE_ID);
-		this.isStaticCallList.add(Boolean.FALSE);
+		addRecord(subjectOID, PSEUDO_CAPTURE_ID, NOT_OBSERVED_INIT, EMPTY_DESC,
+		          new Object[] { serializedSubject }, false);
 		this.logEnd(PSEUDO_CAPTURE_ID, subject, RETURN_TYPE_VOID);
 	}
 
@@ -854,18 +917,18 @@ public final class CaptureLog implements Cloneable {
 
 		int captureId;
 
-		final int numRecords = this.objectIds.size();
+		final int numRecords = this.records.size();
 		for (int i = 0; i < numRecords; i++) {
-			captureId = this.captureIds.get(i);
+			captureId = this.records.getCaptureId(i);
 
 			builder.append(i).append(delimiter) // RECNO
-			.append(this.objectIds.get(i)).append(delimiter) // OID
+			.append(this.records.getObjectId(i)).append(delimiter) // OID
 			.append(captureId).append(delimiter) // CID
-			.append(this.methodNames.get(i)).append(delimiter) // METHOD
-			.append(Arrays.toString(this.params.get(i))).append(delimiter) // PARAMS
-			.append(this.returnValues.get(i)).append(delimiter) // RETURN
-			.append(this.isStaticCallList.get(i)).append(delimiter) // IS STATIC
-			.append(this.descList.get(i)).append(delimiter) // DESC
+			.append(this.records.getMethodName(i)).append(delimiter) // METHOD
+			.append(Arrays.toString(this.records.getParams(i))).append(delimiter) // PARAMS
+			.append(this.records.getReturnValue(i)).append(delimiter) // RETURN
+			.append(this.records.isStaticCall(i)).append(delimiter) // IS STATIC
+			.append(this.records.getDescriptor(i)).append(delimiter) // DESC
 			.append(this.oidNamesOfAccessedFields.get(captureId)) // ACCESSED FIELDS
 			.append('\n');
 		}
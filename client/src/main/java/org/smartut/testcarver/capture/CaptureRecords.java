@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcarver.capture;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.smartut.TestGenerationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The records of a {@link CaptureLog}. Each record has a fixed layout in a
+ * {@link MappedRegion}, and refers to its parameters in a second region, so
+ * the heap only holds the dictionary of method names and descriptors and the
+ * classes passed as parameters, independent of the number of records.
+ */
+final class CaptureRecords implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(CaptureRecords.class);
+
+	private static final int RECORD_SIZE = 32;
+
+	private static final int OBJECT_ID = 0;
+	private static final int CAPTURE_ID = 4;
+	private static final int METHOD_NAME = 8;
+	private static final int DESCRIPTOR = 12;
+	private static final int RETURN_VALUE = 16;
+	private static final int PARAMS = 20;
+	private static final int FLAGS = 28;
+
+	private static final byte STATIC_CALL = 1;
+	private static final byte RETURNS_OBJECT = 2;
+
+	private static final int NO_NAME = -1;
+
+	private static final byte NULL = 0;
+	private static final byte INTEGER = 1;
+	private static final byte LONG = 2;
+	private static final byte SHORT = 3;
+	private static final byte BYTE = 4;
+	private static final byte DOUBLE = 5;
+	private static final byte FLOAT = 6;
+	private static final byte BOOLEAN = 7;
+	private static final byte CHARACTER = 8;
+	private static final byte STRING = 9;
+	private static final byte OBJECT = 10;
+
+	private final MappedRegion records;
+
+	private final MappedRegion params;
+
+	private final List<String> names;
+
+	private final Map<String, Integer> nameIndex;
+
+	/**
+	 * Parameters that are neither boxed primitives nor strings, which are
+	 * the classes of static calls and of class literals
+	 */
+	private final List<Object> objects;
+
+	private final Map<Object, Integer> objectIndex;
+
+	private int size = 0;
+
+	private long paramsLength = 0;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+	CaptureRecords() {
+		this(new MappedRegion("smartut_capture_records"), new MappedRegion("smartut_capture_params"),
+				new ArrayList<>(), new HashMap<>(), new ArrayList<>(), new IdentityHashMap<>());
+	}
+
+	private CaptureRecords(MappedRegion records, MappedRegion params, List<String> names,
+			Map<String, Integer> nameIndex, List<Object> objects, Map<Object, Integer> objectIndex) {
+		this.records = records;
+		this.params = params;
+		this.names = names;
+		this.nameIndex = nameIndex;
+		this.objects = objects;
+		this.objectIndex = objectIndex;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Appends a record without return value
+	 *
+	 * @return the number of the record
+	 */
+	int add(int objectId, int captureId, String methodName, String descriptor, Object[] methodParams,
+			boolean isStatic) {
+		long position = (long) size * RECORD_SIZE;
+		records.putInt(position + OBJECT_ID, objectId);
+		records.putInt(position + CAPTURE_ID, captureId);
+		records.putInt(position + METHOD_NAME, intern(methodName));
+		records.putInt(position + DESCRIPTOR, intern(descriptor));
+		records.putInt(position + RETURN_VALUE, 0);
+		records.putLong(position + PARAMS, paramsLength);
+		records.put(position + FLAGS, isStatic ? STATIC_CALL : 0);
+		paramsLength += writeParams(paramsLength, methodParams);
+		return size++;
+	}
+
+	private void checkRecord(int record) {
+		if (record < 0 || record >= size) {
+			throw new IndexOutOfBoundsException("Record " + record + " is invalid, as there are " + size
+					+ " records");
+		}
+	}
+
+	int getObjectId(int record) {
+		checkRecord(record);
+		return records.getInt((long) record * RECORD_SIZE + OBJECT_ID);
+	}
+
+	int getCaptureId(int record) {
+		checkRecord(record);
+		return records.getInt((long) record * RECORD_SIZE + CAPTURE_ID);
+	}
+
+	String getMethodName(int record) {
+		checkRecord(record);
+		return name(records.getInt((long) record * RECORD_SIZE + METHOD_NAME));
+	}
+
+	String getDescriptor(int record) {
+		checkRecord(record);
+		return name(records.getInt((long) record * RECORD_SIZE + DESCRIPTOR));
+	}
+
+	boolean isStaticCall(int record) {
+		checkRecord(record);
+		return (records.get((long) record * RECORD_SIZE + FLAGS) & STATIC_CALL) != 0;
+	}
+
+	/**
+	 * @return the oid of the returned object, or
+	 *         {@link CaptureLog#RETURN_TYPE_VOID} if none was recorded
+	 */
+	Object getReturnValue(int record) {
+		checkRecord(record);
+		long position = (long) record * RECORD_SIZE;
+		if ((records.get(position + FLAGS) & RETURNS_OBJECT) == 0) {
+			return CaptureLog.RETURN_TYPE_VOID;
+		}
+		return records.getInt(position + RETURN_VALUE);
+	}
+
+	void setReturnValue(int record, int oid) {
+		checkRecord(record);
+		long position = (long) record * RECORD_SIZE;
+		records.putInt(position + RETURN_VALUE, oid);
+		records.put(position + FLAGS, (byte) (records.get(position + FLAGS) | RETURNS_OBJECT));
+	}
+
+	/**
+	 * Decodes the parameters of a record into a new array, which the caller
+	 * may keep or modify
+	 */
+	Object[] getParams(int record) {
+		checkRecord(record);
+		long position = records.getLong((long) record * RECORD_SIZE + PARAMS);
+		byte[] length = new byte[4];
+		params.get(position, length, 0, 4);
+		int byteCount = ByteBuffer.wrap(length).getInt();
+		ByteBuffer in = ByteBuffer.allocate(byteCount);
+		params.get(position + 4, in.array(), 0, byteCount);
+
+		Object[] values = new Object[in.getInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = readValue(in);
+		}
+		return values;
+	}
+
+	private int intern(String name) {
+		if (name == null) {
+			return NO_NAME;
+		}
+		Integer index = nameIndex.get(name);
+		if (index == null) {
+			index = names.size();
+			names.add(name);
+			nameIndex.put(name, index);
+		}
+		return index;
+	}
+
+	private String name(int index) {
+		return index == NO_NAME ? null : names.get(index);
+	}
+
+	private long writeParams(long position, Object[] values) {
+		buffer.clear();
+		ensureCapacity(8);
+		buffer.putInt(0);
+		buffer.putInt(values.length);
+		for (Object value : values) {
+			writeValue(value);
+		}
+		int byteCount = buffer.position() - 4;
+		buffer.putInt(0, byteCount);
+		params.put(position, buffer.array(), 0, buffer.position());
+		return buffer.position();
+	}
+
+	private void ensureCapacity(int bytes) {
+		if (buffer.remaining() < bytes) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+		}
+	}
+
+	private void writeValue(Object value) {
+		ensureCapacity(9);
+		if (value == null) {
+			buffer.put(NULL);
+		} else if (value instanceof Integer) {
+			buffer.put(INTEGER).putInt((Integer) value);
+		} else if (value instanceof Long) {
+			buffer.put(LONG).putLong((Long) value);
+		} else if (value instanceof Short) {
+			buffer.put(SHORT).putShort((Short) value);
+		} else if (value instanceof Byte) {
+			buffer.put(BYTE).put((Byte) value);
+		} else if (value instanceof Double) {
+			buffer.put(DOUBLE).putDouble((Double) value);
+		} else if (value instanceof Float) {
+			buffer.put(FLOAT).putFloat((Float) value);
+		} else if (value instanceof Boolean) {
+			buffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+		} else if (value instanceof Character) {
+			buffer.put(CHARACTER).putChar((Character) value);
+		} else if (value instanceof String) {
+			String string = (String) value;
+			ensureCapacity(5 + 2 * string.length());
+			buffer.put(STRING).putInt(string.length());
+			for (int i = 0; i < string.length(); i++) {
+				buffer.putChar(string.charAt(i));
+			}
+		} else {
+			Integer index = objectIndex.get(value);
+			if (index == null) {
+				index = objects.size();
+				objects.add(value);
+				objectIndex.put(value, index);
+			}
+			buffer.put(OBJECT).putInt(index);
+		}
+	}
+
+	private Object readValue(ByteBuffer in) {
+		byte tag = in.get();
+		switch (tag) {
+		case NULL:
+			return null;
+		case INTEGER:
+			return in.getInt();
+		case LONG:
+			return in.getLong();
+		case SHORT:
+			return in.getShort();
+		case BYTE:
+			return in.get();
+		case DOUBLE:
+			return in.getDouble();
+		case FLOAT:
+			return in.getFloat();
+		case BOOLEAN:
+			return in.get() != 0;
+		case CHARACTER:
+			return in.getChar();
+		case STRING:
+			char[] chars = new char[in.getInt()];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = in.getChar();
+			}
+			return new String(chars);
+		case OBJECT:
+			return objects.get(in.getInt());
+		default:
+			throw new IllegalStateException("Unknown parameter tag " + tag);
+		}
+	}
+
+	/**
+	 * Creates a copy that can be extended independently of these records
+	 */
+	CaptureRecords copy() {
+		CaptureRecords copy = new CaptureRecords(records.copy((long) size * RECORD_SIZE), params.copy(paramsLength),
+				new ArrayList<>(names), new HashMap<>(nameIndex), new ArrayList<>(objects),
+				new IdentityHashMap<>(objectIndex));
+		copy.size = size;
+		copy.paramsLength = paramsLength;
+		return copy;
+	}
+
+	/**
+	 * Writes the records, streaming the regions. Parameters that are classes
+	 * are written by name.
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(names.size());
+		for (String name : names) {
+			out.writeUTF(name);
+		}
+		out.writeInt(objects.size());
+		for (Object object : objects) {
+			if (object instanceof Class) {
+				out.writeBoolean(true);
+				out.writeUTF(((Class<?>) object).getName());
+			} else {
+				logger.info("Cannot save parameter {} of type {}, saving null instead", object,
+						object.getClass().getName());
+				out.writeBoolean(false);
+			}
+		}
+		out.writeInt(size);
+		records.write(out, (long) size * RECORD_SIZE);
+		out.writeLong(paramsLength);
+		params.write(out, paramsLength);
+	}
+
+	static CaptureRecords read(DataInputStream in) throws IOException {
+		CaptureRecords records = new CaptureRecords();
+		int nameCount = in.readInt();
+		for (int i = 0; i < nameCount; i++) {
+			records.intern(in.readUTF());
+		}
+		int objectCount = in.readInt();
+		for (int i = 0; i < objectCount; i++) {
+			Object object = null;
+			if (in.readBoolean()) {
+				String className = in.readUTF();
+				try {
+					object = Class.forName(className, false, TestGenerationContext.getInstance().getClassLoaderForSUT());
+				} catch (ClassNotFoundException e) {
+					logger.info("Cannot load class {} of a saved parameter: {}", className, e.getMessage());
+				}
+			}
+			if (object != null) {
+				records.objectIndex.put(object, records.objects.size());
+			}
+			records.objects.add(object);
+		}
+		records.size = in.readInt();
+		records.records.read(in, (long) records.size * RECORD_SIZE);
+		records.paramsLength = in.readLong();
+		records.params.read(in, records.paramsLength);
+		return records;
+	}
+
+	@Override
+	public void close() {
+		records.close();
+		params.close();
+	}
+}
@@ -19,6 +19,10 @@
  */
 package org.smartut.testcarver.capture;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -31,9 +35,6 @@ import org.smartut.testcarver.exception.CapturerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.thoughtworks.xstream.XStream;
-import com.thoughtworks.xstream.io.xml.StaxDriver;
-
 public final class Capturer {
 	private static CaptureLog currentLog;
 	private static boolean isCaptureStarted = false;
@@ -115,28 +116,43 @@ public final class Capturer {
 		 */
 	}
 
+	/**
+	 * Writes the captured logs in a binary format, one record after the
+	 * other, and closes the stream
+	 */
 	public static void save(final OutputStream out) throws IOException {
 		if (out == null) {
 			throw new NullPointerException("given OutputStream must not be null");
 		}
 
-		final XStream xstream = new XStream();
-		xstream.toXML(logs, out);
-		out.close();
+		try (DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out))) {
+			dataOut.writeInt(logs.size());
+			for (CaptureLog log : logs) {
+				log.writeTo(dataOut);
+			}
+		}
 	}
 
-	@SuppressWarnings("unchecked")
-	public static void load(final InputStream in) {
+	public static void load(final InputStream in) throws IOException {
 		if (in == null) {
 			throw new NullPointerException("given InputStream must not be null");
 		}
 
-		final XStream xstream = new XStream(new StaxDriver());
-		logs.addAll((ArrayList<CaptureLog>) xstream.fromXML(in));
+		final DataInputStream dataIn = new DataInputStream(new BufferedInputStream(in));
+		final int numLogs = dataIn.readInt();
+		for (int i = 0; i < numLogs; i++) {
+			logs.add(CaptureLog.readFrom(dataIn));
+		}
 	}
 
 	 public static void clear() {
+		if (currentLog != null) {
+			currentLog.close();
+		}
 		currentLog = null;
+		for (CaptureLog log : logs) {
+			log.close();
+		}
 		logs.clear();
 		classesToBeObserved.clear();
 		isCaptureStarted = false;
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcarver.capture;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A growing byte region that is mapped from a temporary file in chunks of
+ * {@link #CHUNK_SIZE} bytes, so that its content is not kept on the heap.
+ * Chunks are mapped when they are first accessed. If no temporary file can
+ * be created, the chunks are allocated on the heap instead.
+ *
+ * <p>
+ * Values accessed with {@link #getInt(long)} and friends must not cross a
+ * chunk boundary, which holds for fixed size records of a size that divides
+ * the chunk size.
+ */
+final class MappedRegion implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappedRegion.class);
+
+	static final int CHUNK_SIZE = 1 << 20;
+
+	private final String prefix;
+
+	private final List<ByteBuffer> chunks = new ArrayList<>();
+
+	private File file;
+
+	private RandomAccessFile access;
+
+	private boolean onHeap = false;
+
+	private boolean closed = false;
+
+	MappedRegion(String prefix) {
+		this.prefix = prefix;
+	}
+
+	private ByteBuffer chunk(long position) {
+		if (closed) {
+			throw new IllegalStateException("Region has already been closed");
+		}
+		int index = (int) (position / CHUNK_SIZE);
+		while (chunks.size() <= index) {
+			chunks.add(allocate(chunks.size()));
+		}
+		return chunks.get(index);
+	}
+
+	private ByteBuffer allocate(int index) {
+		if (access == null && !onHeap) {
+			try {
+				file = File.createTempFile(prefix, ".bin");
+				file.deleteOnExit();
+				access = new RandomAccessFile(file, "rw");
+			} catch (IOException e) {
+				logger.warn("Cannot create a file for {}, keeping it on the heap: {}", prefix, e.getMessage());
+				onHeap = true;
+			}
+		}
+		if (!onHeap) {
+			try {
+				return access.getChannel().map(FileChannel.MapMode.READ_WRITE, (long) index * CHUNK_SIZE, CHUNK_SIZE);
+			} catch (IOException e) {
+				logger.warn("Cannot map {}, keeping the rest of it on the heap: {}", prefix, e.getMessage());
+				onHeap = true;
+			}
+		}
+		return ByteBuffer.allocate(CHUNK_SIZE);
+	}
+
+	private static int offset(long position) {
+		return (int) (position % CHUNK_SIZE);
+	}
+
+	int getInt(long position) {
+		return chunk(position).getInt(offset(position));
+	}
+
+	void putInt(long position, int value) {
+		chunk(position).putInt(offset(position), value);
+	}
+
+	long getLong(long position) {
+		return chunk(position).getLong(offset(position));
+	}
+
+	void putLong(long position, long value) {
+		chunk(position).putLong(offset(position), value);
+	}
+
+	byte get(long position) {
+		return chunk(position).get(offset(position));
+	}
+
+	void put(long position, byte value) {
+		chunk(position).put(offset(position), value);
+	}
+
+	/**
+	 * Copies bytes into the region, across chunk boundaries
+	 */
+	void put(long position, byte[] source, int offset, int length) {
+		while (length > 0) {
+			ByteBuffer chunk = chunk(position);
+			int start = offset(position);
+			int count = Math.min(length, CHUNK_SIZE - start);
+			ByteBuffer view = chunk.duplicate();
+			view.position(start);
+			view.put(source, offset, count);
+			position += count;
+			offset += count;
+			length -= count;
+		}
+	}
+
+	/**
+	 * Copies bytes out of the region, across chunk boundaries
+	 */
+	void get(long position, byte[] target, int offset, int length) {
+		while (length > 0) {
+			ByteBuffer chunk = chunk(position);
+			int start = offset(position);
+			int count = Math.min(length, CHUNK_SIZE - start);
+			ByteBuffer view = chunk.duplicate();
+			view.position(start);
+			view.get(target, offset, count);
+			position += count;
+			offset += count;
+			length -= count;
+		}
+	}
+
+	/**
+	 * Creates a new region with the first {@code length} bytes of this one
+	 */
+	MappedRegion copy(long length) {
+		MappedRegion copy = new MappedRegion(prefix);
+		byte[] buffer = new byte[(int) Math.min(length, CHUNK_SIZE)];
+		for (long position = 0; position < length; position += buffer.length) {
+			int count = (int) Math.min(buffer.length, length - position);
+			get(position, buffer, 0, count);
+			copy.put(position, buffer, 0, count);
+		}
+		return copy;
+	}
+
+	void write(DataOutput out, long length) throws IOException {
+		byte[] buffer = new byte[(int) Math.min(length, CHUNK_SIZE)];
+		for (long position = 0; position < length; position += buffer.length) {
+			int count = (int) Math.min(buffer.length, length - position);
+			get(position, buffer, 0, count);
+			out.write(buffer, 0, count);
+		}
+	}
+
+	void read(DataInput in, long length) throws IOException {
+		byte[] buffer = new byte[(int) Math.min(length, CHUNK_SIZE)];
+		for (long position = 0; position < length; position += buffer.length) {
+			int count = (int) Math.min(buffer.length, length - position);
+			in.readFully(buffer, 0, count);
+			put(position, buffer, 0, count);
+		}
+	}
+
+	/**
+	 * Releases the file. Mapped chunks are only unmapped once they are
+	 * garbage collected, but are no longer reachable from here.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		chunks.clear();
+		if (access != null) {
+			try {
+				access.close();
+			} catch (IOException e) {
+				logger.debug("Cannot close {}: {}", file, e.getMessage());
+			}
+			if (!file.delete()) {
+				logger.debug("Cannot delete {} yet", file);
+			}
+		}
+	}
+}
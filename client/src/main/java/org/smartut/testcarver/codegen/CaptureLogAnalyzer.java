@@ -117,7 +117,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 
 		generator.before(log);
 
-		final int numLogRecords = log.objectIds.size();
+		final int numLogRecords = log.getRecordCount();
 		CaptureLogAnalyzerException.check(numLogRecords > 0, "list of captured object ids is empty for log %s", log);
 		
 		int currentOID    = targetOIDs.get(0);
@@ -127,7 +127,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 		for(int currentRecord = Math.abs(log.getRecordIndexOfWhereObjectWasInitializedFirst(currentOID)); currentRecord < numLogRecords; currentRecord++)
 		//for(int currentRecord = log.getRecordIndex(currentOID); currentRecord < numLogRecords; currentRecord++)	
 		{
-			currentOID = log.objectIds.get(currentRecord);
+			currentOID = log.getObjectId(currentRecord);
 			logger.debug("Current record {}, current oid {} type {}", currentRecord, currentOID, log.getTypeName(currentOID));
 			if(generator.isMaximumLengthReached()) {
 				logger.debug("Max length reached, stopping carving");
@@ -265,7 +265,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 	private int findCaller(final CaptureLog log, final int currentRecord)
 	{
 		logger.debug("Looking for caller of {}", currentRecord);
-		final int numRecords = log.objectIds.size();
+		final int numRecords = log.getRecordCount();
 		logger.debug("numRecords = {}", numRecords);
 
 		//--- look for the end of the calling method
@@ -273,12 +273,12 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 		logger.debug("Starting with {}", record);
 		do
 		{
-			record = this.findEndOfMethod(log, record, log.objectIds.get(record));
+			record = this.findEndOfMethod(log, record, log.getObjectId(record));
 			record++;
 			logger.debug("Now is {}", record);
 		}
 		while(  record < numRecords &&
-				! log.methodNames.get(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD));  // is not the end of the calling method
+				! log.getMethodName(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD));  // is not the end of the calling method
 		logger.debug("records = {}", record);
 
 		if(record >= numRecords)
@@ -289,9 +289,9 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 		}
 		else
 		{
-			logger.debug("Found caller {}: {}", record, log.objectIds.size());
+			logger.debug("Found caller {}: {}", record, log.getRecordCount());
 			// found caller
-			return log.objectIds.get(record);
+			return log.getObjectId(record);
 		}
 	}
 
@@ -306,15 +306,15 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 
 	private int findEndOfMethod(final CaptureLog log, final int currentRecord, final int currentOID)
 	{
-//		final int numRecords = log.objectIds.size();
+//		final int numRecords = log.getRecordCount();
 //
 //		int record = currentRecord;
 //
-//		final int captureId = log.captureIds.get(currentRecord);
+//		final int captureId = log.getCaptureId(currentRecord);
 //		while(   record < numRecords &&
-//				! ( log.objectIds.get(record) == currentOID &&
-//				    log.captureIds.get(record) == captureId && 
-//				    log.methodNames.get(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD)))
+//				! ( log.getObjectId(record) == currentOID &&
+//				    log.getCaptureId(record) == captureId && 
+//				    log.getMethodName(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD)))
 //		{
 //			record++;
 //		}
@@ -323,19 +323,19 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 		
 		int record = currentRecord;
 		
-		final int captureId = log.captureIds.get(record);
+		final int captureId = log.getCaptureId(record);
 		logger.debug("captureId {}, record {}", captureId, record);
 		int nestedCalls = 0;
 		while(true){
-			if(log.captureIds.size() <= record || log.objectIds.size() <= record) {
-				logger.debug("Screw this: {}, {}, {}", log.captureIds.size(), log.objectIds.size(), record);
+			if(log.getRecordCount() <= record) {
+				logger.debug("Screw this: {}, {}", log.getRecordCount(), record);
 				break;
 			}
-			logger.debug("Current record: {}: {} <-> {}, {} <-> {}", record, captureId, log.captureIds.get(record), currentOID, log.objectIds.get(record));
-			if(log.captureIds.get(record) == captureId &&
-					log.objectIds.get(record)  == currentOID){
-				logger.debug(log.methodNames.get(record));
-				if(log.methodNames.get(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD)){
+			logger.debug("Current record: {}: {} <-> {}, {} <-> {}", record, captureId, log.getCaptureId(record), currentOID, log.getObjectId(record));
+			if(log.getCaptureId(record) == captureId &&
+					log.getObjectId(record)  == currentOID){
+				logger.debug(log.getMethodName(record));
+				if(log.getMethodName(record).equals(CaptureLog.END_CAPTURE_PSEUDO_METHOD)){
 					nestedCalls--;
 					if(nestedCalls == 0)
 					{
@@ -404,8 +404,8 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 				break;
 			
 //			for(; currentRecord <= end; currentRecord++) {
-			currentOID     = log.objectIds.get(currentRecord);
-			returnValueObj = log.returnValues.get(currentRecord);
+			currentOID     = log.getObjectId(currentRecord);
+			returnValueObj = log.getReturnValue(currentRecord);
 			returnValue    = returnValueObj.equals(CaptureLog.RETURN_TYPE_VOID) ? -1 : (Integer) returnValueObj;
 			logger.debug("Checking: "+currentRecord+": "+log.getTypeName(currentOID) +" to generate "+log.getTypeName(oid));
 
@@ -427,7 +427,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 				}
 				
 				
-				methodName = log.methodNames.get(currentRecord);
+				methodName = log.getMethodName(currentRecord);
 				
 				if(CaptureLog.PLAIN_INIT.equals(methodName)) {
 					logger.debug("Plain init");
@@ -480,7 +480,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 					if(CaptureLog.PUTFIELD.equals(methodName) || CaptureLog.PUTSTATIC.equals(methodName))
 					{
 						// a field assignment has always one argument
-						methodArgs = log.params.get(currentRecord);
+						methodArgs = log.getParams(currentRecord);
 						methodArgOID = (Integer) methodArgs[0];
 						if(methodArgOID != null && methodArgOID != oid)
 						{
@@ -528,7 +528,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 					int callerOID = this.findCaller(log, currentRecord);
 					logger.debug("Caller oid {} ", callerOID);
 
-					methodArgs = log.params.get(currentRecord);
+					methodArgs = log.getParams(currentRecord);
 					logger.debug("Getting "+methodArgs.length+" method args: {}", methodArgs);
 					for (final Object methodArg : methodArgs) {
 						// there can only be OIDs or null
@@ -616,7 +616,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 		try
 		{
 			
-			final Object[] methodArgs = log.params.get(currentRecord);
+			final Object[] methodArgs = log.getParams(currentRecord);
 			restoreArgs(methodArgs, currentRecord, log, generator, blackList);
 			generator.createArrayInitStmt(log, currentRecord);
 			currentRecord = findEndOfMethod(log, currentRecord, currentOID);
@@ -637,7 +637,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 			int currentRecord, int currentOID) {
 		try
 		{
-			final Object[] methodArgs = log.params.get(currentRecord);
+			final Object[] methodArgs = log.getParams(currentRecord);
 			restoreArgs(methodArgs, currentRecord, log, generator, blackList);
 			generator.createMapInitStmt(log, currentRecord);
 			currentRecord = findEndOfMethod(log, currentRecord, currentOID);
@@ -657,7 +657,7 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 		
 		try
 		{
-			final Object[] methodArgs = log.params.get(currentRecord);
+			final Object[] methodArgs = log.getParams(currentRecord);
 			restoreArgs(methodArgs, currentRecord, log, generator, blackList);
 			generator.createCollectionInitStmt(log, currentRecord);
 			currentRecord = findEndOfMethod(log, currentRecord, currentOID);
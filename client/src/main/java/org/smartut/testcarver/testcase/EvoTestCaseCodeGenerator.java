@@ -90,9 +90,9 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 			return;
 		
 		// assumption: all necessary statements are created and there is one variable for each referenced object
-		final int oid = log.objectIds.get(logRecNo);
-		final Object[] methodArgs = log.params.get(logRecNo);
-		final String methodName = log.methodNames.get(logRecNo);
+		final int oid = log.getObjectId(logRecNo);
+		final Object[] methodArgs = log.getParams(logRecNo);
+		final String methodName = log.getMethodName(logRecNo);
 		Class<?> type;
 		try {
 			final String typeName = log.getTypeName(oid);
@@ -116,7 +116,7 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 				this.oidToVarRefMap.put(oid, testCase.addStatement(constStmt));
 			} else {
 				//------------------ handling for ordinary method calls e.g. var1 = var0.doSth();
-				final Object returnValue = log.returnValues.get(logRecNo);
+				final Object returnValue = log.getReturnValue(logRecNo);
 
 				if (CaptureLog.RETURN_TYPE_VOID.equals(returnValue)) {
 
@@ -158,7 +158,7 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 	}
 
 	private Class<?>[] getMethodParamTypeClasses(CaptureLog log, int logRecNo) {
-		final String methodDesc = log.descList.get(logRecNo);
+		final String methodDesc = log.getDescriptor(logRecNo);
 		final org.objectweb.asm.Type[] methodParamTypes = org.objectweb.asm.Type.getArgumentTypes(methodDesc);
 
 		final Class<?>[] methodParamTypeClasses = new Class[methodParamTypes.length];
@@ -197,7 +197,7 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 	public void createPlainInitStmt(CaptureLog log, int logRecNo) {
 		// NOTE: PLAIN INIT: has always one non-null param
 		// TODO: use primitives
-		final int oid = log.objectIds.get(logRecNo);
+		final int oid = log.getObjectId(logRecNo);
 
 		if (this.oidToVarRefMap.containsKey(oid)) {
 			// TODO this might happen because of Integer.valueOf(), for example. . Is this approach ok?
@@ -205,7 +205,7 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 		}
 
 		final String type = log.getTypeName(oid);
-		final Object value = log.params.get(logRecNo)[0];
+		final Object value = log.getParams(logRecNo)[0];
 
 		final VariableReference varRef;
 
@@ -233,11 +233,11 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 
 		// NOTE: PLAIN INIT: has always one non-null param
 		// TODO: use primitives
-		final int oid = log.objectIds.get(logRecNo);
+		final int oid = log.getObjectId(logRecNo);
 
 		try {
 
-			final Object value = log.params.get(logRecNo)[0];
+			final Object value = log.getParams(logRecNo)[0];
 			final PrimitiveStatement stringRep = new ImmutableStringPrimitiveStatement(testCase, (String)value);
 			final VariableReference stringRepRef = testCase.addStatement(stringRep);
 
@@ -252,9 +252,9 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 	public void createFieldWriteAccessStmt(CaptureLog log, int logRecNo) {
 		// assumption: all necessary statements are created and there is one variable for each referenced object
 
-		final Object[] methodArgs = log.params.get(logRecNo);
-		final int oid = log.objectIds.get(logRecNo);
-		final int captureId = log.captureIds.get(logRecNo);
+		final Object[] methodArgs = log.getParams(logRecNo);
+		final int oid = log.getObjectId(logRecNo);
+		final int captureId = log.getCaptureId(logRecNo);
 
 		final String fieldName = log.getNameOfAccessedFields(captureId);
 		final String typeName = log.getTypeName(oid);
@@ -262,7 +262,7 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 		try {
 			final Class<?> type = getClassForName(typeName);
 
-			final String fieldDesc = log.descList.get(logRecNo);
+			final String fieldDesc = log.getDescriptor(logRecNo);
 			final Class<?> fieldType = CaptureUtil.getClassFromDesc(fieldDesc);
 
 			final FieldReference targetFieldRef = new FieldReference(testCase,
@@ -294,14 +294,14 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 	@Override
 	public void createFieldReadAccessStmt(CaptureLog log, int logRecNo) {
 		// assumption: all necessary statements are created and there is one variable for reach referenced object
-		final int oid = log.objectIds.get(logRecNo);
-		final int captureId = log.captureIds.get(logRecNo);
+		final int oid = log.getObjectId(logRecNo);
+		final int captureId = log.getCaptureId(logRecNo);
 
-		final Object returnValue = log.returnValues.get(logRecNo);
+		final Object returnValue = log.getReturnValue(logRecNo);
 		if (!CaptureLog.RETURN_TYPE_VOID.equals(returnValue)) // TODO necessary?
 		{
 			Integer returnValueOID = (Integer) returnValue;
-//			final String descriptor = log.descList.get(logRecNo);
+//			final String descriptor = log.getDescriptor(logRecNo);
 //			final org.objectweb.asm.Type fieldTypeType = org.objectweb.asm.Type.getType(descriptor);
 			final String typeName = log.getTypeName(oid);
 			final String fieldName = log.getNameOfAccessedFields(captureId);
@@ -473,9 +473,9 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 
 	@Override
 	public void createArrayInitStmt(final CaptureLog log, final int logRecNo) {
-		final int oid = log.objectIds.get(logRecNo);
+		final int oid = log.getObjectId(logRecNo);
 
-		final Object[] params = log.params.get(logRecNo);
+		final Object[] params = log.getParams(logRecNo);
 		final String arrTypeName = log.getTypeName(oid);
 		final Class<?> arrType = getClassForName(arrTypeName);
 
@@ -533,8 +533,8 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 	public void createCollectionInitStmt(final CaptureLog log, final int logRecNo) {
 		try 
 		{
-			final int oid = log.objectIds.get(logRecNo);
-			final Object[] params = log.params.get(logRecNo);
+			final int oid = log.getObjectId(logRecNo);
+			final Object[] params = log.getParams(logRecNo);
 			String collTypeName = log.getTypeName(oid);
 			Class<?> collType = getClassForName(collTypeName);
 
@@ -614,8 +614,8 @@ public final class EvoTestCaseCodeGenerator implements ICodeGenerator<TestCase>
 	@Override
 	public void createMapInitStmt(final CaptureLog log, final int logRecNo) {
 		try {
-			final int oid = log.objectIds.get(logRecNo);
-			final Object[] params = log.params.get(logRecNo);
+			final int oid = log.getObjectId(logRecNo);
+			final Object[] params = log.getParams(logRecNo);
 			String collTypeName = log.getTypeName(oid);
 			Class<?> collType = getClassForName(collTypeName);
 
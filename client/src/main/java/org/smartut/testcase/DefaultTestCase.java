@@ -366,7 +366,8 @@ public class DefaultTestCase implements TestCase, Serializable {
 				Statement copy = s.clone(t);
 				t.statements.add(copy);
 				copy.setRetval(s.getReturnValue().clone(t));
-				copy.setAssertions(s.copyAssertions(t, 0));
+				if (s.hasAssertions())
+					copy.setAssertions(s.copyAssertions(t, 0));
 				// copy mutate delete
 				copy.setCouldMutationDelete(s.couldMutateDelete());
 			}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.function.BiPredicate;
+
+import org.smartut.TimeController;
+import org.smartut.ga.ConstructionFailedException;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testcase.statements.ArrayStatement;
+import org.smartut.testcase.statements.PrimitiveExpression;
+import org.smartut.testcase.statements.PrimitiveStatement;
+import org.smartut.testcase.statements.Statement;
+import org.smartut.testcase.variable.VariableReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes statements from a test in as few executions as possible. The
+ * removal of statements is done in three stages:
+ * <ol>
+ * <li>the statements that the last execution of the test depends on are
+ * sliced backwards along their variable references, starting from the
+ * statements that were executed and can have side effects</li>
+ * <li>all statements outside of this slice are removed at once, which takes
+ * one execution</li>
+ * <li>the remaining statements are removed in chunks, starting with halves of
+ * the test and halving the chunks until single statements are removed, which
+ * takes one execution per chunk</li>
+ * </ol>
+ * A removal is only kept if the given check accepts the test after the
+ * removal, otherwise the test is restored.
+ */
+public class SlicingMinimizer {
+
+	private static final Logger logger = LoggerFactory.getLogger(SlicingMinimizer.class);
+
+	/**
+	 * Decides whether a test can replace the original one. The check has to
+	 * execute the test if needed, and is called once per attempted removal
+	 */
+	private final BiPredicate<TestChromosome, TestChromosome> check;
+
+	private int executions = 0;
+
+	private int removedStatements = 0;
+
+	private int remainingStatements = 0;
+
+	/**
+	 * @param check
+	 *            gets the original test and the test after the removal, and
+	 *            returns true if the removal should be kept
+	 */
+	public SlicingMinimizer(BiPredicate<TestChromosome, TestChromosome> check) {
+		this.check = check;
+	}
+
+	/**
+	 * Removes the statements of the test that are not needed according to the
+	 * check. The test needs to have an execution result.
+	 * 
+	 * @param test
+	 *            the test to minimize in place
+	 * @return true if statements were removed
+	 */
+	public boolean minimize(TestChromosome test) {
+		int originalSize = test.size();
+
+		BitSet slice = test.isChanged() ? null : getSlice(test.getTestCase(), test.getLastExecutionResult());
+		if (slice != null && slice.cardinality() < test.size() && !isTimeoutReached()) {
+			logger.debug("Removing {} statements outside of the slice", test.size() - slice.cardinality());
+			TestChromosome original = test.clone();
+			for (int i = test.size() - 1; i >= 0; i--) {
+				if (!slice.get(i)) {
+					test.getTestCase().remove(i);
+				}
+			}
+			accept(original, test);
+		}
+
+		for (int chunkSize = test.size() / 2; chunkSize > 1; chunkSize /= 2) {
+			if (!removeChunks(test, chunkSize)) {
+				break;
+			}
+		}
+		// single statements until nothing can be removed, as the removal of
+		// a statement may allow the removal of statements checked before
+		boolean changed = true;
+		while (changed && test.size() > 0) {
+			changed = removeChunks(test, 1);
+			if (isTimeoutReached()) {
+				break;
+			}
+		}
+
+		removedStatements += originalSize - test.size();
+		remainingStatements += test.size();
+		return test.size() < originalSize;
+	}
+
+	/**
+	 * Tries to remove consecutive chunks of statements, from the end of the
+	 * test to its beginning
+	 * 
+	 * @return true if a chunk was removed, false if nothing was removed or the
+	 *         time is up
+	 */
+	private boolean removeChunks(TestChromosome test, int chunkSize) {
+		boolean changed = false;
+		int end = test.size();
+		while (end > 0) {
+			if (isTimeoutReached()) {
+				return false;
+			}
+			end = Math.min(end, test.size());
+			int start = Math.max(0, end - chunkSize);
+
+			TestChromosome original = test.clone();
+			boolean modified = false;
+			// statements are deleted from the back, so that the positions of
+			// the statements still to delete do not change
+			for (int i = end - 1; i >= start; i--) {
+				try {
+					modified |= TestFactory.getInstance().deleteStatementGracefully(test.getTestCase(), i);
+				} catch (ConstructionFailedException e) {
+					modified = false;
+					break;
+				}
+			}
+			if (!modified) {
+				restore(test, original);
+			} else if (accept(original, test)) {
+				changed = true;
+			}
+			end = start;
+		}
+		return changed;
+	}
+
+	private boolean accept(TestChromosome original, TestChromosome test) {
+		test.setChanged(true);
+		test.getTestCase().clearCoveredGoals();
+		executions++;
+		if (check.test(original, test)) {
+			return true;
+		}
+		restore(test, original);
+		return false;
+	}
+
+	private static void restore(TestChromosome test, TestChromosome original) {
+		test.setTestCase(original.getTestCase());
+		test.copyCachedResults(original);
+		test.setFitnessValues(original.getFitnessValues());
+		test.setPreviousFitnessValues(original.getPreviousFitnessValues());
+		test.setChanged(false);
+	}
+
+	/**
+	 * The statements the execution of a test depends on. These are the
+	 * executed statements that are not plain values, and all statements
+	 * defining the variables they refer to.
+	 * 
+	 * @return the positions of the statements in the slice, or null if the
+	 *         test was not executed
+	 */
+	public static BitSet getSlice(TestCase test, ExecutionResult result) {
+		if (result == null || result.test != test) {
+			return null;
+		}
+
+		int executed = Math.min(result.getExecutedStatements(), test.size());
+		BitSet slice = new BitSet(test.size());
+		Deque<Integer> worklist = new ArrayDeque<>();
+		for (int i = 0; i < executed; i++) {
+			Statement statement = test.getStatement(i);
+			if (!isValue(statement) || result.isThereAnExceptionAtPosition(i)) {
+				slice.set(i);
+				worklist.add(i);
+			}
+		}
+
+		while (!worklist.isEmpty()) {
+			Statement statement = test.getStatement(worklist.poll());
+			for (VariableReference var : statement.getVariableReferences()) {
+				addDefinition(var, slice, worklist);
+				if (var.getAdditionalVariableReference() != null) {
+					addDefinition(var.getAdditionalVariableReference(), slice, worklist);
+				}
+			}
+		}
+		return slice;
+	}
+
+	private static void addDefinition(VariableReference var, BitSet slice, Deque<Integer> worklist) {
+		int position = var.getStPosition();
+		if (!slice.get(position)) {
+			slice.set(position);
+			worklist.add(position);
+		}
+	}
+
+	/**
+	 * Statements that only define a value, and therefore have no effect if
+	 * the value is not used
+	 */
+	private static boolean isValue(Statement statement) {
+		return statement instanceof PrimitiveStatement || statement instanceof PrimitiveExpression
+				|| statement instanceof ArrayStatement;
+	}
+
+	private static boolean isTimeoutReached() {
+		return !TimeController.getInstance().isThereStillTimeInThisPhase();
+	}
+
+	/**
+	 * @return the number of times the check was called, i.e., the number of
+	 *         executions of tests
+	 */
+	public int getExecutions() {
+		return executions;
+	}
+
+	/**
+	 * @return the number of executions saved with respect to removing one
+	 *         statement per execution, which takes at least one execution per
+	 *         removed statement and one per remaining statement
+	 */
+	public int getSavedExecutions() {
+		return removedStatements + remainingStatements - executions;
+	}
+}
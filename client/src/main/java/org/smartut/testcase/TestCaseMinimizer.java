@@ -21,7 +21,6 @@ package org.smartut.testcase;
 
 import org.smartut.Properties;
 import org.smartut.TimeController;
-import org.smartut.ga.ConstructionFailedException;
 import org.smartut.ga.FitnessFunction;
 import org.smartut.ga.SecondaryObjective;
 import org.smartut.testcase.statements.Statement;
@@ -44,6 +43,10 @@ public class TestCaseMinimizer {
 
 	private final TestFitnessFunction fitnessFunction;
 
+	private int executions = 0;
+
+	private int savedExecutions = 0;
+
 	/**
 	 * Constructor
 	 * 
@@ -131,52 +134,12 @@ public class TestCaseMinimizer {
 			return;
 		}
 		
-		boolean changed = true;
-
-		while (changed) {
-			changed = false;
-
-			for (int i = c.test.size() - 1; i >= 0; i--) {
-				if (isTimeoutReached()) {
-					logger.debug("Timeout reached before minimizing statement {}", c.test.getStatement(i).getCode());
-					return;
-				}
-				
-				logger.debug("Deleting statement {}", c.test.getStatement(i).getCode());
-				TestChromosome copy = c.clone();
-				boolean modified;
-				try {
-					modified = TestFactory.getInstance().deleteStatementGracefully(c.test, i);
-				} catch (ConstructionFailedException e) {
-					modified = false;
-				}
-				
-				if(!modified){
-					c.setChanged(false);
-					c.test = copy.test;
-					logger.debug("Deleting failed");
-					continue;
-				}
-
-				c.setChanged(true);
-
-				if (isTimeoutReached()) {
-					logger.debug("Keeping original version due to timeout");
-					restoreTestCase(c, copy);
-					return;
-				}
-
-				if (! isWorse(fitnessFunction, copy, c)) {
-					logger.debug("Keeping shorter version");
-					changed = true;
-					break;
-				} else {
-					logger.debug("Keeping original version");
-					restoreTestCase(c, copy);
-				}
-
-			}
-		}
+		SlicingMinimizer statementMinimizer = new SlicingMinimizer(
+				(copy, test) -> !isWorse(fitnessFunction, copy, test));
+		statementMinimizer.minimize(c);
+		executions += statementMinimizer.getExecutions();
+		savedExecutions += statementMinimizer.getSavedExecutions();
+		logger.debug("Minimized test case with {} executions", statementMinimizer.getExecutions());
 
 		//TODO: add back this check
 		assert  (fitnessFunction.isMaximizationFunction() ?
@@ -199,13 +162,19 @@ public class TestCaseMinimizer {
 
 	}
 
-	private static void restoreTestCase(TestChromosome c, TestChromosome copy) {
-		c.test = copy.test;
-		c.copyCachedResults(copy);
-		//c.setFitness(copy.getFitness());
-		c.setFitnessValues(copy.getFitnessValues());
-		c.setPreviousFitnessValues(copy.getPreviousFitnessValues());
-		c.setChanged(false);
+	/**
+	 * @return the number of executions of tests needed to remove statements
+	 */
+	public int getExecutions() {
+		return executions;
+	}
+
+	/**
+	 * @return the number of executions saved by removing several statements
+	 *         at once
+	 */
+	public int getSavedExecutions() {
+		return savedExecutions;
 	}
 
 }
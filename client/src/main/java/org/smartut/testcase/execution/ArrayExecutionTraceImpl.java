@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.execution;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.smartut.TestGenerationContext;
+import org.smartut.coverage.branch.BranchPool;
+import org.smartut.coverage.mutation.MutationPool;
+
+/**
+ * Execution trace that keeps branch distances, predicate counters and mutant
+ * distances in primitive arrays indexed by the (dense) ids assigned by
+ * {@link BranchPool} and {@link MutationPool}, rather than in synchronized
+ * maps of boxed values. The map based accessors of {@link ExecutionTrace} are
+ * served by read-only views that are built on demand and cached until the
+ * next write.
+ *
+ * Everything else (method calls, lines, def-use, contexts) is inherited from
+ * {@link ExecutionTraceImpl}.
+ */
+public class ArrayExecutionTraceImpl extends ExecutionTraceImpl {
+
+	private static final int MIN_CAPACITY = 16;
+
+	// Per branch id data. A slot is only meaningful if hasBranchDistance is set
+	private double[] trueDistanceArray;
+	private double[] falseDistanceArray;
+	private double[] trueDistanceSumArray;
+	private double[] falseDistanceSumArray;
+	private int[] predicateCountArray;
+	private int[] trueCountArray;
+	private int[] falseCountArray;
+	private boolean[] hasBranchDistance;
+
+	/** Whether a branch id is already contained in passedBranches */
+	private boolean[] branchListed;
+
+	/** Ids of the branches written so far, used to reset only the touched slots */
+	private int[] passedBranches;
+	private int numPassedBranches = 0;
+
+	// Per mutation id data. A slot is only meaningful if mutantTouched is set
+	private double[] mutantDistanceArray;
+	private boolean[] mutantTouched;
+
+	/** Ids of the mutants written so far, used to reset only the touched slots */
+	private int[] passedMutants;
+	private int numPassedMutants = 0;
+
+	/** Map views on the branch data, null if they have to be rebuilt */
+	private BranchViews branchViews = null;
+
+	/** Map views on the mutant data, null if they have to be rebuilt */
+	private MutantViews mutantViews = null;
+
+	private static final class BranchViews {
+		private Map<Integer, Double> trueDistances;
+		private Map<Integer, Double> falseDistances;
+		private Map<Integer, Double> trueDistancesSum;
+		private Map<Integer, Double> falseDistancesSum;
+		private Map<Integer, Integer> predicateCount;
+	}
+
+	private static final class MutantViews {
+		private Map<Integer, Double> distances;
+		private Set<Integer> touched;
+	}
+
+	public ArrayExecutionTraceImpl() {
+		super();
+	}
+
+	@Override
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		ensureBranchCapacity(branch);
+		predicateCountArray[branch]++;
+		if (true_distance == 0.0)
+			trueCountArray[branch]++;
+		if (false_distance == 0.0)
+			falseCountArray[branch]++;
+		markBranchPassed(branch);
+	}
+
+	@Override
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
+		ensureBranchCapacity(branch);
+		if (!hasBranchDistance[branch]) {
+			hasBranchDistance[branch] = true;
+			trueDistanceArray[branch] = true_distance;
+			falseDistanceArray[branch] = false_distance;
+			trueDistanceSumArray[branch] = true_distance;
+			falseDistanceSumArray[branch] = false_distance;
+		} else {
+			trueDistanceArray[branch] = Math.min(trueDistanceArray[branch], true_distance);
+			falseDistanceArray[branch] = Math.min(falseDistanceArray[branch], false_distance);
+			trueDistanceSumArray[branch] += true_distance;
+			falseDistanceSumArray[branch] += false_distance;
+		}
+		markBranchPassed(branch);
+	}
+
+	@Override
+	protected boolean isBranchCoveredTrue(int branch) {
+		return isKnownBranch(branch) && trueCountArray[branch] > 0;
+	}
+
+	@Override
+	protected boolean isBranchCoveredFalse(int branch) {
+		return isKnownBranch(branch) && falseCountArray[branch] > 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void mutationPassed(int mutationId, double distance) {
+		ensureMutantCapacity(mutationId);
+		if (!mutantTouched[mutationId]) {
+			mutantTouched[mutationId] = true;
+			mutantDistanceArray[mutationId] = distance;
+			if (numPassedMutants == passedMutants.length)
+				passedMutants = Arrays.copyOf(passedMutants, passedMutants.length * 2);
+			passedMutants[numPassedMutants++] = mutationId;
+		} else {
+			mutantDistanceArray[mutationId] = Math.min(distance, mutantDistanceArray[mutationId]);
+		}
+		mutantViews = null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Only the slots written since the last reset are cleared, the arrays are
+	 * kept for the next execution
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		for (int i = 0; i < numPassedBranches; i++) {
+			int branch = passedBranches[i];
+			hasBranchDistance[branch] = false;
+			branchListed[branch] = false;
+			trueDistanceArray[branch] = 0.0;
+			falseDistanceArray[branch] = 0.0;
+			trueDistanceSumArray[branch] = 0.0;
+			falseDistanceSumArray[branch] = 0.0;
+			predicateCountArray[branch] = 0;
+			trueCountArray[branch] = 0;
+			falseCountArray[branch] = 0;
+		}
+		numPassedBranches = 0;
+		for (int i = 0; i < numPassedMutants; i++) {
+			int mutant = passedMutants[i];
+			mutantTouched[mutant] = false;
+			mutantDistanceArray[mutant] = 0.0;
+		}
+		numPassedMutants = 0;
+		branchViews = null;
+		mutantViews = null;
+	}
+
+	@Override
+	protected ExecutionTraceImpl createEmptyCopy() {
+		return new ArrayExecutionTraceImpl();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public ArrayExecutionTraceImpl clone() {
+		ArrayExecutionTraceImpl copy = (ArrayExecutionTraceImpl) super.clone();
+		if (hasBranchDistance != null) {
+			copy.trueDistanceArray = trueDistanceArray.clone();
+			copy.falseDistanceArray = falseDistanceArray.clone();
+			copy.trueDistanceSumArray = trueDistanceSumArray.clone();
+			copy.falseDistanceSumArray = falseDistanceSumArray.clone();
+			copy.predicateCountArray = predicateCountArray.clone();
+			copy.trueCountArray = trueCountArray.clone();
+			copy.falseCountArray = falseCountArray.clone();
+			copy.hasBranchDistance = hasBranchDistance.clone();
+			copy.branchListed = branchListed.clone();
+			copy.passedBranches = passedBranches.clone();
+			copy.numPassedBranches = numPassedBranches;
+		}
+		if (mutantTouched != null) {
+			copy.mutantDistanceArray = mutantDistanceArray.clone();
+			copy.mutantTouched = mutantTouched.clone();
+			copy.passedMutants = passedMutants.clone();
+			copy.numPassedMutants = numPassedMutants;
+		}
+		return copy;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getTrueDistance(int branchId) {
+		if (!hasTrueDistance(branchId))
+			throw new IllegalArgumentException("No distance recorded for branch " + branchId);
+		return trueDistanceArray[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getFalseDistance(int branchId) {
+		if (!hasFalseDistance(branchId))
+			throw new IllegalArgumentException("No distance recorded for branch " + branchId);
+		return falseDistanceArray[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasTrueDistance(int predicateId) {
+		return isKnownBranch(predicateId) && hasBranchDistance[predicateId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasFalseDistance(int predicateId) {
+		return isKnownBranch(predicateId) && hasBranchDistance[predicateId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistances() {
+		return getBranchViews().trueDistances;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistances() {
+		return getBranchViews().falseDistances;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistancesSum() {
+		return getBranchViews().trueDistancesSum;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistancesSum() {
+		return getBranchViews().falseDistancesSum;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getPredicateExecutionCount() {
+		return getBranchViews().predicateCount;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredPredicates() {
+		return getBranchViews().predicateCount.keySet();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredTrueBranches() {
+		Set<Integer> covered = new LinkedHashSet<>();
+		for (int branch : getSortedPassedBranches()) {
+			if (hasBranchDistance[branch] && trueDistanceArray[branch] == 0.0)
+				covered.add(branch);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredFalseBranches() {
+		Set<Integer> covered = new LinkedHashSet<>();
+		for (int branch : getSortedPassedBranches()) {
+			if (hasBranchDistance[branch] && falseDistanceArray[branch] == 0.0)
+				covered.add(branch);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getMutationDistance(int mutationId) {
+		if (!wasMutationTouched(mutationId))
+			throw new IllegalArgumentException("No distance recorded for mutant " + mutationId);
+		return mutantDistanceArray[mutationId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getMutationDistances() {
+		return getMutantViews().distances;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean wasMutationTouched(int mutationId) {
+		return mutantTouched != null && mutationId >= 0 && mutationId < mutantTouched.length
+				&& mutantTouched[mutationId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getTouchedMutants() {
+		return getMutantViews().touched;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getInfectedMutants() {
+		Set<Integer> infectedMutants = new LinkedHashSet<>();
+		for (int mutant : getSortedPassedMutants()) {
+			if (mutantDistanceArray[mutant] == 0.0)
+				infectedMutants.add(mutant);
+		}
+		return infectedMutants;
+	}
+
+	private boolean isKnownBranch(int branch) {
+		return hasBranchDistance != null && branch >= 0 && branch < hasBranchDistance.length;
+	}
+
+	private void markBranchPassed(int branch) {
+		if (!branchListed[branch]) {
+			branchListed[branch] = true;
+			if (numPassedBranches == passedBranches.length)
+				passedBranches = Arrays.copyOf(passedBranches, passedBranches.length * 2);
+			passedBranches[numPassedBranches++] = branch;
+		}
+		branchViews = null;
+	}
+
+	private void ensureBranchCapacity(int branch) {
+		assert branch >= 0 : "Negative branch id " + branch;
+		if (hasBranchDistance == null) {
+			int capacity = Math.max(MIN_CAPACITY, BranchPool.getInstance(
+					TestGenerationContext.getInstance().getClassLoaderForSUT()).getBranchCounter() + 1);
+			capacity = Math.max(capacity, branch + 1);
+			trueDistanceArray = new double[capacity];
+			falseDistanceArray = new double[capacity];
+			trueDistanceSumArray = new double[capacity];
+			falseDistanceSumArray = new double[capacity];
+			predicateCountArray = new int[capacity];
+			trueCountArray = new int[capacity];
+			falseCountArray = new int[capacity];
+			hasBranchDistance = new boolean[capacity];
+			branchListed = new boolean[capacity];
+			passedBranches = new int[MIN_CAPACITY];
+		} else if (branch >= hasBranchDistance.length) {
+			// Classes can be loaded and instrumented while the test is running
+			int capacity = Math.max(branch + 1, hasBranchDistance.length * 2);
+			trueDistanceArray = Arrays.copyOf(trueDistanceArray, capacity);
+			falseDistanceArray = Arrays.copyOf(falseDistanceArray, capacity);
+			trueDistanceSumArray = Arrays.copyOf(trueDistanceSumArray, capacity);
+			falseDistanceSumArray = Arrays.copyOf(falseDistanceSumArray, capacity);
+			predicateCountArray = Arrays.copyOf(predicateCountArray, capacity);
+			trueCountArray = Arrays.copyOf(trueCountArray, capacity);
+			falseCountArray = Arrays.copyOf(falseCountArray, capacity);
+			hasBranchDistance = Arrays.copyOf(hasBranchDistance, capacity);
+			branchListed = Arrays.copyOf(branchListed, capacity);
+		}
+	}
+
+	private void ensureMutantCapacity(int mutationId) {
+		assert mutationId >= 0 : "Negative mutation id " + mutationId;
+		if (mutantTouched == null) {
+			int capacity = Math.max(MIN_CAPACITY, MutationPool.getInstance(
+					TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutantCounter());
+			capacity = Math.max(capacity, mutationId + 1);
+			mutantDistanceArray = new double[capacity];
+			mutantTouched = new boolean[capacity];
+			passedMutants = new int[MIN_CAPACITY];
+		} else if (mutationId >= mutantTouched.length) {
+			int capacity = Math.max(mutationId + 1, mutantTouched.length * 2);
+			mutantDistanceArray = Arrays.copyOf(mutantDistanceArray, capacity);
+			mutantTouched = Arrays.copyOf(mutantTouched, capacity);
+		}
+	}
+
+	private int[] getSortedPassedBranches() {
+		if (numPassedBranches == 0)
+			return new int[0];
+		int[] sorted = Arrays.copyOf(passedBranches, numPassedBranches);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	private int[] getSortedPassedMutants() {
+		if (numPassedMutants == 0)
+			return new int[0];
+		int[] sorted = Arrays.copyOf(passedMutants, numPassedMutants);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	private BranchViews getBranchViews() {
+		if (branchViews != null)
+			return branchViews;
+
+		Map<Integer, Double> trueDistances = new LinkedHashMap<>();
+		Map<Integer, Double> falseDistances = new LinkedHashMap<>();
+		Map<Integer, Double> trueDistancesSum = new LinkedHashMap<>();
+		Map<Integer, Double> falseDistancesSum = new LinkedHashMap<>();
+		Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
+		for (int branch : getSortedPassedBranches()) {
+			if (hasBranchDistance[branch]) {
+				trueDistances.put(branch, trueDistanceArray[branch]);
+				falseDistances.put(branch, falseDistanceArray[branch]);
+				trueDistancesSum.put(branch, trueDistanceSumArray[branch]);
+				falseDistancesSum.put(branch, falseDistanceSumArray[branch]);
+			}
+			if (predicateCountArray[branch] > 0)
+				predicateCount.put(branch, predicateCountArray[branch]);
+		}
+
+		BranchViews views = new BranchViews();
+		views.trueDistances = Collections.unmodifiableMap(trueDistances);
+		views.falseDistances = Collections.unmodifiableMap(falseDistances);
+		views.trueDistancesSum = Collections.unmodifiableMap(trueDistancesSum);
+		views.falseDistancesSum = Collections.unmodifiableMap(falseDistancesSum);
+		views.predicateCount = Collections.unmodifiableMap(predicateCount);
+		branchViews = views;
+		return views;
+	}
+
+	private MutantViews getMutantViews() {
+		if (mutantViews != null)
+			return mutantViews;
+
+		Map<Integer, Double> distances = new LinkedHashMap<>();
+		for (int mutant : getSortedPassedMutants()) {
+			distances.put(mutant, mutantDistanceArray[mutant]);
+		}
+
+		MutantViews views = new MutantViews();
+		views.distances = Collections.unmodifiableMap(distances);
+		views.touched = Collections.unmodifiableSet(distances.keySet());
+		mutantViews = views;
+		return views;
+	}
+}
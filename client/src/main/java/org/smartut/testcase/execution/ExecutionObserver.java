@@ -110,6 +110,18 @@ public abstract class ExecutionObserver {
 	 * Allow observers to update the execution result at the end the execution of a test.
 	 */
 	public abstract void testExecutionFinished(ExecutionResult r, Scope s);
+
+	/**
+	 * Whether this observer is informed about the statements before the first
+	 * observed position of an execution, see
+	 * {@link TestCaseExecutor#executeObservingFrom(TestCase, int)}. Observers
+	 * with side effects on the SUT have to observe all statements.
+	 * 
+	 * @return true by default
+	 */
+	public boolean observesAllStatements() {
+		return true;
+	}
 	
 	/**
 	 * Need a way to clear previously produced results
@@ -26,6 +26,8 @@ import org.smartut.coverage.mutation.Mutation;
 import org.smartut.ga.metaheuristics.mapelites.FeatureVector;
 import org.smartut.testcase.TestCase;
 import org.smartut.testcase.statements.Statement;
+import org.smartut.testsuite.IncrementalSuiteFitness;
+import org.smartut.testsuite.TraceContribution;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -93,6 +95,15 @@ public class ExecutionResult implements Cloneable {
 
     private Map<Integer, Set<OutputCoverageGoal>> outputGoals = new LinkedHashMap<>();
 
+	/** Mutation id to the position of the first statement that reached it */
+	private Map<Integer, Integer> mutantReachPositions = null;
+
+	/**
+	 * What this result contributes to each suite fitness function. Shared with
+	 * the clones, and reset whenever the trace or the exceptions change
+	 */
+	private Map<IncrementalSuiteFitness, TraceContribution> contributions = null;
+
 	// experiment .. tried to remember intermediately calculated ControlFlowDistances .. no real speed up
 	//	public Map<Branch, ControlFlowDistance> intermediateDistances;
 
@@ -148,6 +159,7 @@ public class ExecutionResult implements Cloneable {
 	 */
 	public void reportNewThrownException(Integer position, Throwable t) {
 		exceptions.put(position, t);
+		contributions = null;
 	}
 
 	/**
@@ -272,6 +284,7 @@ public class ExecutionResult implements Cloneable {
 			throw new IllegalArgumentException("Trace cannot be null");
 		}
 		this.trace = trace;
+		contributions = null;
 	}
 
 	/**
@@ -306,6 +319,62 @@ public class ExecutionResult implements Cloneable {
 		return traces.values();
 	}
 
+	/**
+	 * Copy the entries of the output traces of another execution of the same
+	 * test for all statements before the given position, as observers do not
+	 * need to observe statements that behave the same in both executions
+	 * 
+	 * @param other
+	 *            an execution of the same test
+	 * @param position
+	 *            the first statement that was observed in this execution
+	 */
+	public void addTracesBefore(ExecutionResult other, int position) {
+		for (Map.Entry<Class<?>, OutputTrace<?>> entry : traces.entrySet()) {
+			OutputTrace<?> prefix = other.getTrace(entry.getKey());
+			if (prefix != null) {
+				entry.getValue().addEntriesBefore(prefix, position);
+			}
+		}
+	}
+
+	/**
+	 * @return the contribution of this result computed by the given suite
+	 *         fitness function, or null if not computed yet
+	 */
+	public TraceContribution getContribution(IncrementalSuiteFitness fitness) {
+		return contributions == null ? null : contributions.get(fitness);
+	}
+
+	public void setContribution(IncrementalSuiteFitness fitness, TraceContribution contribution) {
+		if (contributions == null) {
+			contributions = new IdentityHashMap<>();
+		}
+		contributions.put(fitness, contribution);
+	}
+
+	public void setMutantReachPositions(Map<Integer, Integer> positions) {
+		this.mutantReachPositions = positions;
+	}
+
+	public Map<Integer, Integer> getMutantReachPositions() {
+		return mutantReachPositions;
+	}
+
+	/**
+	 * Position of the first statement whose execution, or the observation
+	 * of whose outcome, reached the given mutant
+	 * 
+	 * @param mutationId
+	 * @return 0 if unknown, as all statements may then depend on the mutant
+	 */
+	public int getFirstPositionReaching(int mutationId) {
+		if (mutantReachPositions == null) {
+			return 0;
+		}
+		return mutantReachPositions.getOrDefault(mutationId, 0);
+	}
+
 	/**
 	 * Was the reason for termination a timeout?
 	 * 
@@ -416,6 +485,10 @@ public class ExecutionResult implements Cloneable {
 			copy.readProperties.addAll(readProperties);
 		}
 		copy.wasAnyPropertyWritten = wasAnyPropertyWritten;
+		copy.mutantReachPositions = mutantReachPositions;
+		if (contributions != null) {
+			copy.contributions = new IdentityHashMap<>(contributions);
+		}
 		copy.featureVectors = new ArrayList<>(this.featureVectors);
 
 		return copy;
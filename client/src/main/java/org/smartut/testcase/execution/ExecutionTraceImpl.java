@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -325,32 +326,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 
 		if (traceCoverage) {
-			if (!coveredPredicates.containsKey(branch))
-				coveredPredicates.put(branch, 1);
-			else
-				coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
-
-			if (true_distance == 0.0) {
-				if (!coveredTrue.containsKey(branch))
-					coveredTrue.put(branch, 1);
-				else
-					coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
-			}
-
-			if (false_distance == 0.0) {
-				if (!coveredFalse.containsKey(branch))
-					coveredFalse.put(branch, 1);
-				else
-					coveredFalse.put(branch, coveredFalse.get(branch) + 1);
-			}
+			updateBranchCoverage(branch, true_distance, false_distance);
 		}
 
 		if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
 			if (gradientBranches.contains(branch)) {
-				if ((coveredTrue.containsKey(branch)))
+				if (isBranchCoveredTrue(branch))
 					gradientBranchesCoveredTrue.add(branch);
-				if ((coveredFalse.containsKey(branch)))
+				if (isBranchCoveredFalse(branch))
 					gradientBranchesCoveredFalse.add(branch);
 			}
 		}
@@ -363,8 +346,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					.getInstruction().getASMNode().getPrevious() != null)
 				previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
 						.getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-			boolean cTrue = coveredTrue.containsKey(branch);
-			boolean cFalse = coveredFalse.containsKey(branch);
+			boolean cTrue = isBranchCoveredTrue(branch);
+			boolean cFalse = isBranchCoveredFalse(branch);
 			switch (previousOpcode) {
 			case Opcodes.LCMP:
 				trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -451,6 +434,59 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
+		updateBranchDistances(branch, true_distance, false_distance);
+
+		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
+			updateBranchContextMaps(branch, true_distance, false_distance);
+		}
+
+		// This requires a lot of memory and should not really be used
+		if (Properties.BRANCH_EVAL) {
+			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
+		}
+	}
+
+	/**
+	 * Increase the execution counters of the given predicate, and of its true
+	 * and false outcomes if they were taken
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		if (!coveredPredicates.containsKey(branch))
+			coveredPredicates.put(branch, 1);
+		else
+			coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+
+		if (true_distance == 0.0) {
+			if (!coveredTrue.containsKey(branch))
+				coveredTrue.put(branch, 1);
+			else
+				coveredTrue.put(branch, coveredTrue.get(branch) + 1);
+
+		}
+
+		if (false_distance == 0.0) {
+			if (!coveredFalse.containsKey(branch))
+				coveredFalse.put(branch, 1);
+			else
+				coveredFalse.put(branch, coveredFalse.get(branch) + 1);
+		}
+	}
+
+	/**
+	 * Keep the minimum and the sum of the observed distances of the given
+	 * predicate
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
 		if (!trueDistances.containsKey(branch))
 			trueDistances.put(branch, true_distance);
 		else
@@ -470,17 +506,22 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			falseDistancesSum.put(branch, false_distance);
 		else
 			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+	}
 
-		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
-			updateBranchContextMaps(branch, true_distance, false_distance);
-		}
+	/**
+	 * @param branch
+	 * @return true if the true outcome of the predicate was counted as covered
+	 */
+	protected boolean isBranchCoveredTrue(int branch) {
+		return coveredTrue.containsKey(branch);
+	}
 
-		// This requires a lot of memory and should not really be used
-		if (Properties.BRANCH_EVAL) {
-			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
-		}
+	/**
+	 * @param branch
+	 * @return true if the false outcome of the predicate was counted as covered
+	 */
+	protected boolean isBranchCoveredFalse(int branch) {
+		return coveredFalse.containsKey(branch);
 	}
 
 	/**
@@ -515,19 +556,52 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			coveredFalseContext.put(branch, new HashMap<>());
 		}
 		//CallContext context = new CallContext(new Throwable().getStackTrace());
-		CallContext context = new CallContext(stack);
+		CallContext context = getCurrentContext();
 
-		if (!coveredPredicateContext.get(branch).containsKey(context)) {
-			coveredPredicateContext.get(branch).put(context, 1);
+		Map<CallContext, Integer> predicateContexts = coveredPredicateContext.get(branch);
+		Integer count = predicateContexts.get(context);
+		if (count == null) {
+			predicateContexts.put(context, 1);
 			coveredTrueContext.get(branch).put(context, true_distance);
 			coveredFalseContext.get(branch).put(context, false_distance);
 		} else {
-			coveredPredicateContext.get(branch).put(context, coveredPredicateContext.get(branch).get(context) + 1);
-			coveredTrueContext.get(branch).put(context,
-					Math.min(coveredTrueContext.get(branch).get(context), true_distance));
-			coveredFalseContext.get(branch).put(context,
-					Math.min(coveredFalseContext.get(branch).get(context), false_distance));
+			predicateContexts.put(context, count + 1);
+			// only box a distance when the minimum changes
+			Map<CallContext, Double> trueContexts = coveredTrueContext.get(branch);
+			double trueMin = trueContexts.get(context);
+			if (Double.compare(Math.min(trueMin, true_distance), trueMin) != 0) {
+				trueContexts.put(context, Math.min(trueMin, true_distance));
+			}
+			Map<CallContext, Double> falseContexts = coveredFalseContext.get(branch);
+			double falseMin = falseContexts.get(context);
+			if (Double.compare(Math.min(falseMin, false_distance), falseMin) != 0) {
+				falseContexts.put(context, Math.min(falseMin, false_distance));
+			}
+		}
+	}
+
+	/**
+	 * Returns the call context of the current stack. The context is derived
+	 * from the one of the caller when a method is entered, so that this does
+	 * not walk the stack on every branch.
+	 */
+	private CallContext getCurrentContext() {
+		MethodCall top = stack.peek();
+		if (top == null) {
+			return CallContext.Frame.getRoot().getContext();
+		}
+		if (top.contextFrame == null) {
+			CallContext.Frame frame = CallContext.Frame.getRoot();
+			Iterator<MethodCall> it = stack.descendingIterator();
+			while (it.hasNext()) {
+				MethodCall call = it.next();
+				if (call.contextFrame == null) {
+					call.contextFrame = frame.enter(call.className, call.methodName);
+				}
+				frame = call.contextFrame;
+			}
 		}
+		return top.contextFrame.getContext();
 	}
 
 	/**
@@ -582,7 +656,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public ExecutionTraceImpl clone() {
 
-		ExecutionTraceImpl copy = new ExecutionTraceImpl();
+		ExecutionTraceImpl copy = createEmptyCopy();
 		for (MethodCall call : finishedCalls) {
 			copy.finishedCalls.add(call.clone());
 		}
@@ -630,6 +704,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		return copy;
 	}
 
+	/**
+	 * Create the empty trace that {@link #clone()} fills in. Subclasses keeping
+	 * their data in different structures return an instance of their own type.
+	 * 
+	 * @return a new, empty trace of the same type
+	 */
+	protected ExecutionTraceImpl createEmptyCopy() {
+		return new ExecutionTraceImpl();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -746,7 +830,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 
 		// CallContext context = new CallContext(new Throwable().getStackTrace());
-		CallContext context = new CallContext(stack);
+		CallContext context = getCurrentContext();
 
 		if (!coveredMethodContext.get(id).containsKey(context)) {
 			coveredMethodContext.get(id).put(context, 1);
@@ -1579,15 +1663,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nCovered predicates: ");
-		for (Entry<Integer, Integer> entry : coveredPredicates.entrySet()) {
+		for (Entry<Integer, Integer> entry : getPredicateExecutionCount().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nTrue distances: ");
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nFalse distances: ");
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		return ret.toString();
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.smartut.Properties;
 import org.smartut.coverage.dataflow.DefUse;
 import org.smartut.setup.CallContext;
 import org.smartut.testcase.execution.ExecutionTraceImpl.BranchEval;
@@ -46,7 +47,10 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 	 * </p>
 	 */
 	public ExecutionTraceProxy() {
-		this.trace = new ExecutionTraceImpl();
+		if (Properties.ARRAY_EXECUTION_TRACE)
+			this.trace = new ArrayExecutionTraceImpl();
+		else
+			this.trace = new ExecutionTraceImpl();
 	}
 
 	/**
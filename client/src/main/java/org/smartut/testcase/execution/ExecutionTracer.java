@@ -19,7 +19,10 @@
  */
 package org.smartut.testcase.execution;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.smartut.coverage.dataflow.DefUsePool;
 import org.smartut.coverage.dataflow.Definition;
@@ -55,6 +58,11 @@ public class ExecutionTracer {
 
 	private ExecutionTrace trace;
 
+	/**
+	 * Mutants reached while the tracer was disabled, e.g. by inspectors that
+	 * execution observers call between statements
+	 */
+	private final Set<Integer> mutantsReachedWhileDisabled = ConcurrentHashMap.newKeySet();
 
 	private static boolean checkCallerThread = true;
 
@@ -64,6 +72,18 @@ public class ExecutionTracer {
 	 */
 	private static volatile Thread currentThread = null;
 
+	/**
+	 * Tracers of parallel execution workers, bound to the threads of the
+	 * worker that owns them. Threads without a binding use the global instance
+	 */
+	private static final ThreadLocal<ExecutionTracer> workerTracer = new ThreadLocal<>();
+
+	/** Set once a worker tracer exists, to keep the thread local lookup off the common path */
+	private static volatile boolean hasWorkerTracers = false;
+
+	/** Thread executing the tests of a worker tracer, null for the global instance */
+	private volatile Thread workerThread = null;
+
 	/**
 	 * <p>
 	 * setThread
@@ -183,17 +203,61 @@ public class ExecutionTracer {
 	 * @return a {@link org.smartut.testcase.execution.ExecutionTracer} object.
 	 */
 	public static ExecutionTracer getExecutionTracer() {
+		if (hasWorkerTracers) {
+			ExecutionTracer tracer = workerTracer.get();
+			if (tracer != null) {
+				return tracer;
+			}
+		}
 		if (instance == null) {
 			instance = new ExecutionTracer();
 		}
 		return instance;
 	}
 
+	/**
+	 * Create a tracer for a parallel execution worker. The tracer only
+	 * receives the events of threads it is bound to with
+	 * {@link #bindToCurrentThread()}
+	 * 
+	 * @return a new, disabled tracer
+	 */
+	public static ExecutionTracer newWorkerTracer() {
+		hasWorkerTracers = true;
+		return new ExecutionTracer();
+	}
+
+	/**
+	 * Route the events of the current thread to this tracer
+	 */
+	public void bindToCurrentThread() {
+		workerTracer.set(this);
+	}
+
+	/**
+	 * Route the events of the current thread back to the global tracer
+	 */
+	public static void unbindCurrentThread() {
+		workerTracer.remove();
+	}
+
+	/**
+	 * Set the thread executing the tests of this worker tracer. Events of
+	 * other threads bound to this tracer are ignored, as for
+	 * {@link #setThread(Thread)}
+	 * 
+	 * @param thread
+	 */
+	public void setWorkerThread(Thread thread) {
+		workerThread = thread;
+	}
+
 	/**
 	 * Reset for new execution
 	 */
 	public void clear() {
 		trace = new ExecutionTraceProxy();
+		mutantsReachedWhileDisabled.clear();
 		BooleanHelper.clearStack();
 		num_statements = 0;
 	}
@@ -209,6 +273,12 @@ public class ExecutionTracer {
 		if (!checkCallerThread) {
 			return false;
 		}
+		if (hasWorkerTracers) {
+			ExecutionTracer tracer = workerTracer.get();
+			if (tracer != null) {
+				return Thread.currentThread() != tracer.workerThread;
+			}
+		}
 		if (currentThread == null) {
 			logger.error("CurrentThread has not been set!");
 			Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
@@ -238,6 +308,18 @@ public class ExecutionTracer {
 		// return copy;
 	}
 
+	/**
+	 * Return the ids of all mutants reached since the trace was cleared,
+	 * including those reached while the tracer was disabled
+	 * 
+	 * @return a new set of mutation ids
+	 */
+	public Set<Integer> getReachedMutants() {
+		Set<Integer> reached = new HashSet<>(trace.getTouchedMutants());
+		reached.addAll(mutantsReachedWhileDisabled);
+		return reached;
+	}
+
 	/**
 	 * Return the last explicitly thrown exception
 	 * 
@@ -269,7 +351,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		//logger.trace("Entering method " + classname + "." + methodname);
 		tracer.trace.enteredMethod(classname, methodname, caller);
@@ -377,7 +459,14 @@ public class ExecutionTracer {
 	 * Called by the instrumented code each time a new source line is executed
 	 */
 	public static void checkTimeout() {
-		ExecutionTracer tracer = getExecutionTracer();
+		checkTimeout(getExecutionTracer());
+	}
+
+	/*
+	 * For the callbacks that already looked up the tracer of the current
+	 * thread, so that they do not look it up a second time
+	 */
+	private static void checkTimeout(ExecutionTracer tracer) {
 		if (tracer.disabled)
 			return;
 
@@ -414,7 +503,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.linePassed(className, methodName, line);
 	}
@@ -441,7 +530,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		ConstantPoolManager.getInstance().addDynamicConstant(val);
 
@@ -502,7 +591,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 		
 		tracer.trace.putStaticPassed(classNameWithDots, fieldName);
 	}
@@ -543,7 +632,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.getStaticPassed(classNameWithDots, fieldName);
 	}
@@ -572,7 +661,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 		
 		ConstantPoolManager.getInstance().addDynamicConstant(val1);
 		ConstantPoolManager.getInstance().addDynamicConstant(val2);
@@ -653,7 +742,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		double distance_true = 0;
 		double distance_false = 0;
@@ -694,7 +783,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		double distance_true = 0;
 		double distance_false = 0;
@@ -798,13 +887,15 @@ public class ExecutionTracer {
 	 */
 	public static void passedMutation(double distance, int mutationId) {
 		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		if (tracer.disabled) {
+			tracer.mutantsReachedWhileDisabled.add(mutationId);
 			return;
+		}
 
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.mutationPassed(mutationId, distance);
 	}
@@ -830,7 +921,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.setExplicitException((Throwable) exception);
 
@@ -849,7 +940,7 @@ public class ExecutionTracer {
 		if (isThreadNeqCurrentThread())
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.num_statements++;
 	}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.execution;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.smartut.Properties;
+import org.smartut.runtime.LoopCounter;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.execution.reset.ClassReInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One of the workers of the {@link ParallelTestCaseExecutor}. A worker
+ * executes one test at a time on its own thread, with its own
+ * {@link ExecutionTracer}, its own {@link LoopCounter} and on its own copy of
+ * the SUT classes, and handles timeouts like the {@link TestCaseExecutor}
+ * does.
+ */
+class ExecutionWorker implements ThreadFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionWorker.class);
+
+	private final int id;
+
+	private final ClassLoader classLoader;
+
+	private final ExecutionTracer tracer;
+
+	private final LoopCounter loopCounter;
+
+	private final Set<Thread> stalledThreads = new LinkedHashSet<>();
+
+	private ExecutorService executor;
+
+	private volatile Thread currentThread = null;
+
+	private int threadCounter = 0;
+
+	/**
+	 * @param id
+	 *            used to name the threads of the worker
+	 * @param classLoader
+	 *            class loader on which the tests of this worker are executed
+	 */
+	ExecutionWorker(int id, ClassLoader classLoader) {
+		this.id = id;
+		this.classLoader = classLoader;
+		this.tracer = ExecutionTracer.newWorkerTracer();
+		this.loopCounter = LoopCounter.newWorkerCounter();
+		this.executor = Executors.newSingleThreadExecutor(this);
+	}
+
+	ExecutionTracer getTracer() {
+		return tracer;
+	}
+
+	/**
+	 * Execute a copy of the test on the class loader of this worker. Has to be
+	 * called from a thread that is not executing other tests, as it gets bound
+	 * to the tracer of this worker for the duration of the call
+	 * 
+	 * @param test
+	 *            the test to execute, which is not modified
+	 * @return the result of the execution, referring to the given test
+	 */
+	ExecutionResult execute(TestCase test) {
+		DefaultTestCase copy = (DefaultTestCase) test.clone();
+		copy.changeClassLoader(classLoader);
+
+		// called outside of the worker thread, so this is the global counter
+		LoopCounter global = LoopCounter.getInstance();
+		loopCounter.setActive(global.isActivated());
+		// also starts a new epoch, so no iterations of the previous test count
+		loopCounter.setHistogramEnabled(global.isHistogramEnabled());
+
+		tracer.bindToCurrentThread();
+		ExecutionResult result;
+		try {
+			tracer.clear();
+			result = execute(copy);
+			result.setTest(test);
+		} finally {
+			ExecutionTracer.unbindCurrentThread();
+			loopCounter.reset();
+			global.addHistograms(loopCounter);
+		}
+
+		if (Properties.RESET_STATIC_FIELDS) {
+			// class resetting goes through global state
+			synchronized (ClassReInitializer.getInstance()) {
+				ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(copy, result);
+			}
+		}
+		return result;
+	}
+
+	private ExecutionResult execute(DefaultTestCase test) {
+		TestRunnable callable = new TestRunnable(test, new Scope(), Collections.emptySet());
+		callable.setOutputMutedByCaller();
+		callable.storeCurrentThreads();
+
+		TimeoutHandler<ExecutionResult> handler = new TimeoutHandler<>();
+		try {
+			ExecutionResult result = handler.execute(callable, executor, Properties.TIMEOUT,
+					Properties.CPU_TIMEOUT);
+			callable.killAndJoinClientThreads();
+			return result;
+		} catch (InterruptedException e) {
+			logger.info("InterruptedException");
+			return abortedResult(test, callable);
+		} catch (ExecutionException e) {
+			logger.error("ExecutionException (this is likely a serious error in the framework)", e);
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			return abortedResult(test, callable);
+		} catch (TimeoutException e) {
+			logger.info("TimeoutException in worker {}, need to stop runner", id);
+			stopRunner(handler, callable);
+			ExecutionResult result = abortedResult(test, callable);
+			result.reportNewThrownException(test.size(), new TestCaseExecutor.TimeoutExceeded());
+			ExecutionTracer.setKillSwitch(false);
+			ExecutionTracer.enable();
+			return result;
+		}
+	}
+
+	private ExecutionResult abortedResult(TestCase test, TestRunnable callable) {
+		ExecutionResult result = new ExecutionResult(test, null);
+		result.setThrownExceptions(callable.getExceptionsThrown());
+		result.setTrace(tracer.getTrace());
+		tracer.clear();
+		return result;
+	}
+
+	@SuppressWarnings("deprecation")
+	private void stopRunner(TimeoutHandler<ExecutionResult> handler, TestRunnable callable) {
+		ExecutionTracer.setKillSwitch(true);
+		try {
+			handler.getLastTask().get(Properties.SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException | ExecutionException | TimeoutException e) {
+			// checked below
+		}
+
+		if (!callable.isRunFinished()) {
+			handler.getLastTask().cancel(true);
+			try {
+				executor.awaitTermination(Properties.SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				logger.info("Interrupted");
+			}
+		}
+
+		if (!callable.isRunFinished()) {
+			logger.info("Run of worker {} still not finished, replacing executor.", id);
+			executor.shutdownNow();
+			Thread thread = currentThread;
+			if (thread != null && thread.isAlive()) {
+				logger.info("Thread survived - unsafe operation.");
+				try {
+					thread.stop();
+				} catch (ThreadDeath t) {
+					logger.info("ThreadDeath.");
+				} catch (Throwable t) {
+					logger.info("Throwable: " + t);
+				}
+			}
+			executor = Executors.newSingleThreadExecutor(this);
+		}
+		ExecutionTracer.disable();
+	}
+
+	/**
+	 * Stop the thread of this worker
+	 */
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	int getNumStalledThreads() {
+		stalledThreads.removeIf(t -> !t.isAlive());
+		return stalledThreads.size();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Thread newThread(Runnable r) {
+		if (currentThread != null && currentThread.isAlive()) {
+			currentThread.setPriority(Thread.MIN_PRIORITY);
+			stalledThreads.add(currentThread);
+			logger.info("Current number of stalled threads in worker {}: {}", id, getNumStalledThreads());
+		}
+
+		ThreadGroup threadGroup = new ThreadGroup(TestCaseExecutor.TEST_EXECUTION_THREAD_GROUP);
+		Thread thread = new Thread(threadGroup, () -> {
+			tracer.bindToCurrentThread();
+			loopCounter.bindToCurrentThread();
+			r.run();
+		});
+		thread.setName(TestCaseExecutor.TEST_EXECUTION_THREAD + "_WORKER_" + id + "_" + threadCounter);
+		threadCounter++;
+		thread.setContextClassLoader(classLoader);
+		tracer.setWorkerThread(thread);
+		currentThread = thread;
+		return thread;
+	}
+}
@@ -26,6 +26,8 @@ package org.smartut.testcase.execution;
 
 import java.util.ArrayList;
 import java.util.List;
+
+import org.smartut.setup.CallContext;
 public class MethodCall implements Cloneable {
 	public String className;
 	public String methodName;
@@ -37,6 +39,8 @@ public class MethodCall implements Cloneable {
 	public int methodId;
 	public int callingObjectID;
 	public int callDepth;
+	/** Call context of the stack up to this call, set once it is needed */
+	public CallContext.Frame contextFrame;
 
 	/**
 	 * <p>Constructor for MethodCall.</p>
@@ -161,6 +165,7 @@ public class MethodCall implements Cloneable {
 		copy.trueDistanceTrace = new ArrayList<>(trueDistanceTrace);
 		copy.falseDistanceTrace = new ArrayList<>(falseDistanceTrace);
 		copy.defuseCounterTrace = new ArrayList<>(defuseCounterTrace);
+		copy.contextFrame = contextFrame;
 		return copy;
 	}
 }
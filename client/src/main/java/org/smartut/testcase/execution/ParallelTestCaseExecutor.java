@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.smartut.Properties;
+import org.smartut.TestGenerationContext;
+import org.smartut.ga.Chromosome;
+import org.smartut.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.smartut.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.smartut.instrumentation.InstrumentedCopyClassLoader;
+import org.smartut.instrumentation.InstrumentingClassLoader;
+import org.smartut.runtime.LoopCounter;
+import org.smartut.runtime.Runtime;
+import org.smartut.runtime.RuntimeSettings;
+import org.smartut.runtime.sandbox.Sandbox;
+import org.smartut.runtime.util.JOptionPaneInputs;
+import org.smartut.runtime.util.SystemInUtil;
+import org.smartut.setup.TestCluster;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.TestChromosome;
+import org.smartut.testsuite.TestSuiteChromosome;
+import org.smartut.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes batches of tests concurrently on
+ * {@link Properties#PARALLEL_EXECUTION_WORKERS} workers. Each worker has its
+ * own thread, its own {@link ExecutionTracer}, its own {@link LoopCounter} and
+ * its own copy of the instrumented SUT classes, so that traces, loop counts and
+ * static state of tests executed at the same time do not interfere.
+ * 
+ * <p>
+ * The classes of the runtime environment are not copied, so the mocks (time,
+ * randomness, virtual file system and network, input streams, GUI) are shared
+ * by all workers and could only be reset once per batch rather than once per
+ * test. Tests are therefore executed sequentially by the
+ * {@link TestCaseExecutor} whenever any of these mocks is in use, as well as
+ * when execution observers are registered.
+ */
+public class ParallelTestCaseExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTestCaseExecutor.class);
+
+	/**
+	 * Prefix of the names of the threads dispatching tests to the workers, so
+	 * that they are ignored when stopping the threads spawned by the SUT
+	 */
+	private static final String DISPATCHER_THREAD = TestCaseExecutor.TEST_EXECUTION_THREAD + "_DISPATCHER";
+
+	private static ParallelTestCaseExecutor instance = null;
+
+	private final List<ExecutionWorker> workers = new ArrayList<>();
+
+	private BlockingQueue<ExecutionWorker> idleWorkers = null;
+
+	private ExecutorService dispatcher = null;
+
+	/** Class loader the copies of the workers are based on */
+	private InstrumentingClassLoader classLoader = null;
+
+	/** Whether the user was told that the workers are ignored */
+	private static volatile boolean sequentialExecutionReported = false;
+
+	private ParallelTestCaseExecutor() {
+	}
+
+	public static synchronized ParallelTestCaseExecutor getInstance() {
+		if (instance == null)
+			instance = new ParallelTestCaseExecutor();
+
+		return instance;
+	}
+
+	/**
+	 * Tests can be executed in parallel if more than one worker is configured,
+	 * no execution observers are registered and the tests do not use the
+	 * shared mocks of the runtime environment
+	 * 
+	 * @return true if {@link #executeAll(List)} executes tests concurrently
+	 */
+	public static boolean isEnabled() {
+		if (Properties.PARALLEL_EXECUTION_WORKERS <= 1
+				|| !TestCaseExecutor.getInstance().getExecutionObservers().isEmpty()) {
+			return false;
+		}
+		if (usesSharedRuntime()) {
+			if (!sequentialExecutionReported) {
+				sequentialExecutionReported = true;
+				LoggingUtils.getSmartUtLogger().warn("* Ignoring parallel_execution_workers="
+						+ Properties.PARALLEL_EXECUTION_WORKERS
+						+ ", as tests using the mocks of the runtime environment are executed sequentially."
+						+ " Set virtual_fs, virtual_net, replace_calls, replace_system_in, replace_gui and jee"
+						+ " to false to execute tests in parallel");
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean usesSharedRuntime() {
+		return RuntimeSettings.isUsingAnyMocking() || RuntimeSettings.mockSystemIn || RuntimeSettings.useJEE;
+	}
+
+	/**
+	 * Shut down the threads of all workers
+	 */
+	public static synchronized void pullDown() {
+		if (instance != null) {
+			instance.shutdownWorkers();
+		}
+	}
+
+	/**
+	 * Execute all tests of the given chromosomes that were changed since their
+	 * last execution, and store the results in the chromosomes, so that
+	 * fitness functions do not execute them again. Chromosomes other than
+	 * tests and test suites are ignored
+	 * 
+	 * @param chromosomes
+	 */
+	public void executeChanged(List<? extends Chromosome<?>> chromosomes) {
+		List<TestChromosome> pending = new ArrayList<>();
+		for (Chromosome<?> chromosome : chromosomes) {
+			if (chromosome instanceof TestChromosome) {
+				addIfChanged((TestChromosome) chromosome, pending);
+			} else if (chromosome instanceof TestSuiteChromosome) {
+				for (TestChromosome test : ((TestSuiteChromosome) chromosome).getTestChromosomes()) {
+					addIfChanged(test, pending);
+				}
+			}
+		}
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		List<TestCase> tests = new ArrayList<>(pending.size());
+		for (TestChromosome test : pending) {
+			tests.add(test.getTestCase());
+		}
+		List<ExecutionResult> results = executeAll(tests);
+		for (int i = 0; i < pending.size(); i++) {
+			pending.get(i).setLastExecutionResult(results.get(i));
+			pending.get(i).setChanged(false);
+		}
+	}
+
+	private static void addIfChanged(TestChromosome test, List<TestChromosome> pending) {
+		if (test.isChanged() || test.getLastExecutionResult() == null) {
+			pending.add(test);
+		}
+	}
+
+	/**
+	 * Execute the given tests, concurrently if {@link #isEnabled()}
+	 * 
+	 * @param tests
+	 * @return the results of the executions, in the same order as the tests
+	 */
+	public List<ExecutionResult> executeAll(List<TestCase> tests) {
+		List<ExecutionResult> results = new ArrayList<>(tests.size());
+		if (!isEnabled()) {
+			for (TestCase test : tests) {
+				results.add(TestCaseExecutor.runTest(test));
+			}
+			return results;
+		}
+
+		ensureWorkers();
+
+		Runtime.getInstance().resetRuntime();
+		SystemInUtil.getInstance().initForTestCase();
+		JOptionPaneInputs.getInstance().initForTestCase();
+		if (!Properties.PRINT_TO_SYSTEM) {
+			LoggingUtils.muteCurrentOutAndErrStream();
+		}
+		Sandbox.goingToExecuteSUTCode();
+		TestGenerationContext.getInstance().goingToExecuteSUTCode();
+		try {
+			List<Future<ExecutionResult>> futures = new ArrayList<>(tests.size());
+			for (TestCase test : tests) {
+				futures.add(dispatcher.submit(() -> executeOnIdleWorker(test)));
+			}
+			for (Future<ExecutionResult> future : futures) {
+				results.add(getResult(future));
+			}
+		} finally {
+			Sandbox.doneWithExecutingSUTCode();
+			TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+			if (!Properties.PRINT_TO_SYSTEM) {
+				LoggingUtils.restorePreviousOutAndErrStream();
+			}
+		}
+
+		for (ExecutionResult result : results) {
+			MaxTestsStoppingCondition.testExecuted();
+			MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+			TestCaseExecutor.timeExecuted += result.getExecutionTime();
+			TestCaseExecutor.testsExecuted++;
+			TestCluster.getInstance().handleRuntimeAccesses(result.test);
+		}
+		return results;
+	}
+
+	private ExecutionResult executeOnIdleWorker(TestCase test) throws InterruptedException {
+		ExecutionWorker worker = idleWorkers.take();
+		try {
+			return worker.execute(test);
+		} finally {
+			idleWorkers.put(worker);
+		}
+	}
+
+	private static ExecutionResult getResult(Future<ExecutionResult> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new Error(e);
+		} catch (ExecutionException e) {
+			logger.error("TG: Exception caught: ", e.getCause());
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new Error(e.getCause());
+		}
+	}
+
+	/**
+	 * Create the workers, or re-create them if the class loader of the SUT
+	 * changed since they were created
+	 */
+	private synchronized void ensureWorkers() {
+		InstrumentingClassLoader current = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		if (current == classLoader && !workers.isEmpty()) {
+			return;
+		}
+		shutdownWorkers();
+
+		logger.info("Starting {} test execution workers", Properties.PARALLEL_EXECUTION_WORKERS);
+		classLoader = current;
+		idleWorkers = new ArrayBlockingQueue<>(Properties.PARALLEL_EXECUTION_WORKERS);
+		for (int i = 0; i < Properties.PARALLEL_EXECUTION_WORKERS; i++) {
+			ExecutionWorker worker = new ExecutionWorker(i, new InstrumentedCopyClassLoader(current));
+			workers.add(worker);
+			idleWorkers.add(worker);
+		}
+		int[] counter = { 0 };
+		dispatcher = Executors.newFixedThreadPool(Properties.PARALLEL_EXECUTION_WORKERS, r -> {
+			Thread thread = new Thread(r, DISPATCHER_THREAD + "_" + counter[0]++);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private synchronized void shutdownWorkers() {
+		if (dispatcher != null) {
+			dispatcher.shutdownNow();
+			dispatcher = null;
+		}
+		workers.forEach(ExecutionWorker::shutdown);
+		workers.clear();
+		idleWorkers = null;
+		classLoader = null;
+	}
+}
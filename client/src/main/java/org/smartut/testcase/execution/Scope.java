@@ -23,6 +23,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -33,16 +34,42 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.smartut.setup.TestUsageChecker;
+import org.smartut.testcase.TestCase;
 import org.smartut.testcase.variable.ArrayReference;
+import org.smartut.testcase.variable.ConstantValue;
 import org.smartut.testcase.variable.VariableReference;
 
 /**
  * This class represents the state of a test case execution
  *
+ * <p>
+ * The value of a variable is kept in a slot given by the position of the
+ * statement that defines it, so that executing a statement neither hashes
+ * variable references nor takes a lock. Hence the test must not change while
+ * it is executed with this scope. Array elements and fields are not
+ * stored here, but read and written through the array or object that holds
+ * them. Only the thread executing the test writes values; other threads,
+ * such as the one that timed out the execution, may read them.
+ *
  * @author Gordon Fraser
  */
 public class Scope {
 
+	private static final int INITIAL_SLOTS = 16;
+
+	/**
+	 * The variables that have a value, by position of their defining statement
+	 */
+	private volatile VariableReference[] references = new VariableReference[INITIAL_SLOTS];
+
+	/**
+	 * The values of the variables in {@link #references}
+	 */
+	private volatile Object[] values = new Object[INITIAL_SLOTS];
+
+	/**
+	 * Variables that are not the return value of a statement of their test
+	 */
 	private final Map<VariableReference, Object> pool;
 
 	/**
@@ -52,6 +79,28 @@ public class Scope {
 		pool = Collections.synchronizedMap(new LinkedHashMap<>());
 	}
 
+	/**
+	 * Returns the slot of the given variable, or -1 if it is not defined by
+	 * the statement at its position, e.g. for array elements, fields and
+	 * constants, which compare by structure rather than by identity
+	 */
+	private static int getSlot(VariableReference reference) {
+		if (reference.isArrayIndex() || reference.isFieldReference()
+		        || reference instanceof ConstantValue) {
+			return -1;
+		}
+		TestCase test = reference.getTestCase();
+		if (test == null) {
+			return -1;
+		}
+		// -1 for a variable whose statement is not part of its test any more
+		int position = reference.findStPosition();
+		if (position < 0 || test.getStatement(position).getReturnValue() != reference) {
+			return -1;
+		}
+		return position;
+	}
+
 	/**
 	 * Set variable to new value
 	 *
@@ -60,7 +109,7 @@ public class Scope {
 	 * @param o
 	 *            Value
 	 */
-	public synchronized void setObject(VariableReference reference, Object o) {
+	public void setObject(VariableReference reference, Object o) {
 		// Learn some dynamic information about this object
 		if (reference instanceof ArrayReference) {
 			ArrayReference arrayRef = (ArrayReference) reference;
@@ -121,14 +170,49 @@ public class Scope {
 				}
 			}
 		}
-		pool.put(reference, o);
+		int slot = getSlot(reference);
+		if (slot < 0) {
+			pool.put(reference, o);
+			return;
+		}
+
+		VariableReference[] currentReferences = references;
+		Object[] currentValues = values;
+		if (slot >= currentReferences.length) {
+			int length = Math.max(slot + 1, currentReferences.length * 2);
+			currentValues = Arrays.copyOf(currentValues, length);
+			currentReferences = Arrays.copyOf(currentReferences, length);
+			values = currentValues;
+			references = currentReferences;
+		}
+		currentValues[slot] = o;
+		currentReferences[slot] = reference;
+	}
+
+	/**
+	 * Returns all variables that have a value, in the order of their
+	 * statements, followed by the other variables in the order they were set
+	 */
+	private Map<VariableReference, Object> getEntries() {
+		Map<VariableReference, Object> entries = new LinkedHashMap<>();
+		VariableReference[] currentReferences = references;
+		Object[] currentValues = values;
+		for (int i = 0; i < currentReferences.length && i < currentValues.length; i++) {
+			if (currentReferences[i] != null) {
+				entries.put(currentReferences[i], currentValues[i]);
+			}
+		}
+		synchronized (pool) {
+			entries.putAll(pool);
+		}
+		return entries;
 	}
 
 	/**
 	 * Debug output
 	 */
 	public void printPool() {
-		for (Entry<VariableReference, Object> entry : pool.entrySet()) {
+		for (Entry<VariableReference, Object> entry : getEntries().entrySet()) {
 			System.out.println("Pool: " + entry.getKey().getName() + ", "
 			        + entry.getKey().getType() + " : " + entry.getValue());
 		}
@@ -137,7 +221,7 @@ public class Scope {
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
-		for (Entry<VariableReference, Object> entry : pool.entrySet()) {
+		for (Entry<VariableReference, Object> entry : getEntries().entrySet()) {
 			sb.append(entry.getKey().getName());
 			sb.append(", ");
 			sb.append(entry.getKey().getType());
@@ -156,8 +240,18 @@ public class Scope {
 	 *            VariableReference we are looking for
 	 * @return Current value of reference
 	 */
-	public synchronized Object getObject(VariableReference reference) {
-		return pool.get(reference);
+	public Object getObject(VariableReference reference) {
+		int slot = getSlot(reference);
+		if (slot < 0) {
+			return pool.get(reference);
+		}
+		VariableReference[] currentReferences = references;
+		Object[] currentValues = values;
+		if (slot < currentReferences.length && slot < currentValues.length
+		        && currentReferences[slot] == reference) {
+			return currentValues[slot];
+		}
+		return null;
 	}
 
 	/**
@@ -169,7 +263,7 @@ public class Scope {
 	 */
 	public List<VariableReference> getElements(Type type) {
 		List<VariableReference> refs = new ArrayList<>();
-		for (Entry<VariableReference, Object> entry : pool.entrySet()) {
+		for (Entry<VariableReference, Object> entry : getEntries().entrySet()) {
 			if (type.equals(entry.getKey().getType())
 			        || (entry.getValue() != null && type.equals(entry.getValue().getClass()))) {
 				refs.add(entry.getKey());
@@ -190,7 +284,7 @@ public class Scope {
 	 * @return Collection of all Objects
 	 */
 	public Collection<Object> getObjects() {
-		return pool.values();
+		return getEntries().values();
 	}
 	
 	/**
@@ -199,7 +293,7 @@ public class Scope {
 	 * @return Collection of all variableReferences
 	 */
 	public Collection<VariableReference> getVariables() {
-		return pool.keySet();
+		return getEntries().keySet();
 	}
 
 	/**
@@ -212,7 +306,7 @@ public class Scope {
 	// TODO: Need to add all fields and stuff as well?
 	public Collection<Object> getObjects(Type type) {
 		Set<Object> objects = new LinkedHashSet<>();
-		for (Object o : pool.values()) {
+		for (Object o : getEntries().values()) {
 			if (o != null && o.getClass().equals(type))
 				objects.add(o);
 		}
@@ -177,6 +177,7 @@ public class TestCaseExecutor implements ThreadFactory {
 				instance.executor = null;
 			}
 		}
+		ParallelTestCaseExecutor.pullDown();
 	}
 
 	/**
@@ -271,8 +272,30 @@ public class TestCaseExecutor implements ThreadFactory {
 	 * @return a {@link org.smartut.testcase.execution.ExecutionResult} object.
 	 */
 	public ExecutionResult execute(TestCase tc, int timeout) {
+		return execute(tc, timeout, 0);
+	}
+
+	/**
+	 * Execute a test case on a new scope, and only inform the observers that
+	 * do not need to observe all statements (see
+	 * {@link ExecutionObserver#observesAllStatements()}) about the statements
+	 * starting at the given position. Used when the outcome of the preceding
+	 * statements is already known from a previous execution, e.g. when running
+	 * a test on a mutant that is only reached at that position.
+	 * 
+	 * @param tc
+	 *            a {@link org.smartut.testcase.TestCase} object.
+	 * @param firstObservedPosition
+	 *            a int.
+	 * @return a {@link org.smartut.testcase.execution.ExecutionResult} object.
+	 */
+	public ExecutionResult executeObservingFrom(TestCase tc, int firstObservedPosition) {
+		return execute(tc, Properties.TIMEOUT, firstObservedPosition);
+	}
+
+	private ExecutionResult execute(TestCase tc, int timeout, int firstObservedPosition) {
 		Scope scope = new Scope();
-		ExecutionResult result = execute(tc, scope, timeout);
+		ExecutionResult result = execute(tc, scope, timeout, firstObservedPosition);
 
 		if (Properties.RESET_STATIC_FIELDS) {
 			logger.debug("Resetting classes after execution");
@@ -291,7 +314,7 @@ public class TestCaseExecutor implements ThreadFactory {
 	 * @return a {@link org.smartut.testcase.execution.ExecutionResult} object.
 	 */
 	@SuppressWarnings("deprecation")
-	private ExecutionResult execute(TestCase tc, Scope scope, int timeout) {
+	private ExecutionResult execute(TestCase tc, Scope scope, int timeout, int firstObservedPosition) {
 		ExecutionTracer.getExecutionTracer().clear();
 
 		// TODO: Re-insert!
@@ -306,6 +329,7 @@ public class TestCaseExecutor implements ThreadFactory {
 
 		// #TODO steenbuck could be nicer (TestRunnable should be an interface
 		TestRunnable callable = new TestRunnable(tc, scope, observers);
+		callable.setFirstObservedPosition(firstObservedPosition);
 		callable.storeCurrentThreads();
 
 		/*
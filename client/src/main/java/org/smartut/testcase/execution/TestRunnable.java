@@ -72,6 +72,18 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected Set<ExecutionObserver> observers;
 
 	protected final ThreadStopper threadStopper;
+
+	/**
+	 * Whether System.out/err are muted by this runnable, or were already
+	 * muted by the caller for a whole batch of executions
+	 */
+	private boolean muteOutput = !Properties.PRINT_TO_SYSTEM;
+
+	/**
+	 * Statements before this position are only reported to the observers that
+	 * observe all statements
+	 */
+	private int firstObservedPosition = 0;
 	
 	/**
 	 * <p>
@@ -99,6 +111,30 @@ public class TestRunnable implements InterfaceTestRunnable {
 		threadStopper = new ThreadStopper(killSwitch, threadsToIgnore, Properties.TIMEOUT);
 	}
 
+	/**
+	 * Leave System.out/err alone during execution, as they are handled by the
+	 * caller. Needed when several tests are executed concurrently
+	 */
+	void setOutputMutedByCaller() {
+		muteOutput = false;
+	}
+
+	/**
+	 * Only report the statements starting at the given position to the
+	 * observers that do not need to observe all statements
+	 * 
+	 * @param position
+	 *            a int.
+	 */
+	void setFirstObservedPosition(int position) {
+		firstObservedPosition = position;
+	}
+
+	private boolean isObserved(ExecutionObserver observer, Statement s) {
+		return firstObservedPosition == 0 || observer.observesAllStatements()
+				|| s.getPosition() >= firstObservedPosition;
+	}
+
 	/**
 	 * <p>
 	 * After the test case is executed, if any SUT thread is still running, we
@@ -133,7 +169,11 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected void informObservers_before(Statement s) {
 		ExecutionTracer.disable();
 		try {
-			observers.forEach(o -> o.beforeStatement(s, scope));
+			for (ExecutionObserver o : observers) {
+				if (isObserved(o, s)) {
+					o.beforeStatement(s, scope);
+				}
+			}
 		} finally {
 			ExecutionTracer.enable();
 		}
@@ -151,7 +191,11 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected void informObservers_after(Statement s, Throwable exceptionThrown) {
 		ExecutionTracer.disable();
 		try {
-			observers.forEach(o -> o.afterStatement(s, scope, exceptionThrown));
+			for (ExecutionObserver o : observers) {
+				if (isObserved(o, s)) {
+					o.afterStatement(s, scope, exceptionThrown);
+				}
+			}
 		} finally {
 			ExecutionTracer.enable();
 		}
@@ -181,7 +225,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 		PrintStream out = (Properties.PRINT_TO_SYSTEM ? System.out : new PrintStream(byteStream));
 		byteStream.reset();
 
-		if (!Properties.PRINT_TO_SYSTEM) {
+		if (muteOutput) {
 			LoggingUtils.muteCurrentOutAndErrStream();
 		}
 
@@ -233,7 +277,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 			logger.error("Suppressed/ignored exception during test case execution on class "
 			                     + Properties.TARGET_CLASS + ": " + e.getMessage(), e);
 		} finally {
-			if (!Properties.PRINT_TO_SYSTEM) {
+			if (muteOutput) {
 				LoggingUtils.restorePreviousOutAndErrStream();
 			}
 			if(Properties.REPLACE_CALLS){
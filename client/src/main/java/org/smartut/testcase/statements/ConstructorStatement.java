@@ -82,6 +82,18 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 		this.constructor = constructor;
 	}
 
+	/**
+	 * Creates a copy of {@code original} for the test case {@code tc}. The constructor and the
+	 * annotations are shared with {@code original} rather than copied, as statements only ever
+	 * replace them (see {@link #changeClassLoader(ClassLoader)}).
+	 */
+	private ConstructorStatement(TestCase tc, ConstructorStatement original,
+	        List<VariableReference> parameters) {
+		super(tc, new VariableReferenceImpl(tc, original.constructor.getOwnerClass()), parameters,
+				original.annotations, original.parameterAnnotations);
+		this.constructor = original.constructor;
+	}
+
 	/**
 	 * This constructor allows you to use an already existing VariableReference
 	 * as retvar. This should only be done, iff an old statement is replaced
@@ -231,7 +243,7 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 						}
 					}
 
-					Object ret = constructor.getConstructor().newInstance(inputs);
+					Object ret = MemberInvokers.newInstance(constructor.getConstructor(), inputs);
 
 					try {
 						// assert(retval.getVariableClass().isAssignableFrom(ret.getClass())) :"we want an " + retval.getVariableClass() + " but got an " + ret.getClass();
@@ -277,11 +289,7 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 			new_params.add(r.copy(newTestCase, offset));
 		}
 
-		AbstractStatement copy = new ConstructorStatement(newTestCase,
-		        constructor.copy(), new_params);
-		// copy.assertions = copyAssertions(newTestCase, offset);
-
-		return copy;
+		return new ConstructorStatement(newTestCase, this, new_params);
 	}
 
 
@@ -452,6 +460,8 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 	/** {@inheritDoc} */
 	@Override
 	public void changeClassLoader(ClassLoader loader) {
+		// Copies of this statement may share the constructor
+		constructor = constructor.copy();
 		constructor.changeClassLoader(loader);
 		super.changeClassLoader(loader);
 	}
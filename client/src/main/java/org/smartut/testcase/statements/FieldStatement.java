@@ -236,7 +236,7 @@ public class FieldStatement extends AbstractStatement {
 						throw new SmartUtError(e);
 					}
 
-					Object ret = field.getField().get(source_object);
+					Object ret = MemberInvokers.get(field.getField(), source_object);
 					if(ret!=null && !retval.isAssignableFrom(ret.getClass())) {
 						throw new CodeUnderTestException(new ClassCastException());
 					}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.statements;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.smartut.Properties;
+
+/**
+ * Invokes the methods, constructors and fields of the statements through
+ * cached {@link MethodHandle}s instead of core reflection.
+ * 
+ * <p>
+ * The handles are kept in a {@link ClassValue} of the declaring class, so
+ * that there is one cache per class loader of the SUT, and they are collected
+ * together with the classes. A handle is only created once the member was
+ * invoked successfully through reflection: at that point the declaring class
+ * is initialized, so the errors of static initializers are still raised by
+ * reflection exactly as before. Whenever the arguments would need a check or
+ * conversion that reflection reports as {@link IllegalArgumentException},
+ * the call goes through reflection as well, so that the statements observe
+ * the same exceptions either way.
+ */
+final class MemberInvokers {
+
+	/* marks members that cannot be invoked through a handle */
+	private static final MethodHandle UNAVAILABLE = MethodHandles.constant(Object.class, null);
+
+	private static final ClassValue<ConcurrentMap<Member, MethodHandle>> handles = new ClassValue<ConcurrentMap<Member, MethodHandle>>() {
+		@Override
+		protected ConcurrentMap<Member, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private MemberInvokers() {
+		// only static methods
+	}
+
+	public static Object invoke(Method method, Object callee, Object[] inputs)
+			throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+		MethodHandle handle = getHandle(method);
+		if (handle == null || !canPass(method.getParameterTypes(), inputs)
+				|| (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(callee))) {
+			Object result = method.invoke(callee, inputs);
+			createHandle(method);
+			return result;
+		}
+
+		try {
+			if (Modifier.isStatic(method.getModifiers())) {
+				return (Object) handle.invokeExact(inputs);
+			} else {
+				return (Object) handle.invokeExact(callee, inputs);
+			}
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	public static Object newInstance(Constructor<?> constructor, Object[] inputs) throws InstantiationException,
+			IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+		MethodHandle handle = getHandle(constructor);
+		if (handle == null || !canPass(constructor.getParameterTypes(), inputs)) {
+			Object result = constructor.newInstance(inputs);
+			createHandle(constructor);
+			return result;
+		}
+
+		try {
+			return (Object) handle.invokeExact(inputs);
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	public static Object get(Field field, Object source) throws IllegalArgumentException, IllegalAccessException {
+		MethodHandle handle = getHandle(field);
+		if (handle == null
+				|| (!Modifier.isStatic(field.getModifiers()) && !field.getDeclaringClass().isInstance(source))) {
+			Object result = field.get(source);
+			createHandle(field);
+			return result;
+		}
+
+		try {
+			if (Modifier.isStatic(field.getModifiers())) {
+				return (Object) handle.invokeExact();
+			} else {
+				return (Object) handle.invokeExact(source);
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			// a getter does not throw checked exceptions
+			throw new IllegalStateException(t);
+		}
+	}
+
+	/**
+	 * @return null if the member has to be invoked through reflection
+	 */
+	private static MethodHandle getHandle(Member member) {
+		if (!Properties.METHOD_HANDLE_INVOCATION) {
+			return null;
+		}
+		MethodHandle handle = handles.get(member.getDeclaringClass()).get(member);
+		return handle == UNAVAILABLE ? null : handle;
+	}
+
+	private static void createHandle(Member member) {
+		if (!Properties.METHOD_HANDLE_INVOCATION) {
+			return;
+		}
+		ConcurrentMap<Member, MethodHandle> cache = handles.get(member.getDeclaringClass());
+		if (cache.containsKey(member)) {
+			return;
+		}
+		MethodHandle handle;
+		try {
+			handle = isCallerSensitive(member) ? UNAVAILABLE : createSpreadHandle(member);
+		} catch (IllegalAccessException | RuntimeException e) {
+			// e.g., members of classes that are not accessible to a lookup
+			handle = UNAVAILABLE;
+		}
+		cache.putIfAbsent(member, handle);
+	}
+
+	/*
+	 * The JDK has methods that depend on their caller, which is not the same
+	 * for a handle as for reflection
+	 */
+	private static boolean isCallerSensitive(Member member) {
+		String name = member.getDeclaringClass().getName();
+		return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+				|| name.startsWith("com.sun.") || name.startsWith("jdk.");
+	}
+
+	/*
+	 * Methods take (Object, Object[]) if not static, else (Object[]), and
+	 * return Object; getters take (Object) if not static, else nothing
+	 */
+	private static MethodHandle createSpreadHandle(Member member) throws IllegalAccessException {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		boolean isStatic = Modifier.isStatic(member.getModifiers());
+		if (member instanceof Field) {
+			MethodHandle getter = lookup.unreflectGetter((Field) member);
+			return getter.asType(getter.type().generic());
+		}
+
+		MethodHandle handle;
+		int numParameters;
+		if (member instanceof Method) {
+			handle = lookup.unreflect((Method) member);
+			numParameters = ((Method) member).getParameterCount();
+		} else {
+			handle = lookup.unreflectConstructor((Constructor<?>) member);
+			numParameters = ((Constructor<?>) member).getParameterCount();
+			isStatic = true;
+		}
+		// varargs are already collected in an array by the statements
+		handle = handle.asFixedArity();
+		handle = handle.asType(handle.type().generic());
+		handle = handle.asSpreader(Object[].class, numParameters);
+		return handle.asType(isStatic ? MethodType.methodType(Object.class, Object[].class)
+				: MethodType.methodType(Object.class, Object.class, Object[].class));
+	}
+
+	/**
+	 * Checks that the inputs can be passed without the conversions for which
+	 * reflection throws an {@link IllegalArgumentException}
+	 */
+	private static boolean canPass(Class<?>[] parameterTypes, Object[] inputs) {
+		if (inputs.length != parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < inputs.length; i++) {
+			Class<?> type = parameterTypes[i];
+			Object input = inputs[i];
+			if (type.isPrimitive()) {
+				if (input == null || !isWidening(input.getClass(), type)) {
+					return false;
+				}
+			} else if (input != null && !type.isInstance(input)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Unboxing followed by a widening primitive conversion, as done by
+	 * Method.invoke
+	 */
+	private static boolean isWidening(Class<?> wrapper, Class<?> primitive) {
+		int from = rank(wrapper);
+		if (from < 0) {
+			return false;
+		}
+		if (primitive == boolean.class) {
+			return wrapper == Boolean.class;
+		}
+		if (wrapper == Boolean.class) {
+			return false;
+		}
+		if (wrapper == Character.class) {
+			return primitive == char.class || rank(primitive) >= rank(Integer.class);
+		}
+		if (primitive == char.class) {
+			return false;
+		}
+		return rank(primitive) >= from;
+	}
+
+	private static int rank(Class<?> type) {
+		if (type == Byte.class || type == byte.class)
+			return 0;
+		if (type == Short.class || type == short.class)
+			return 1;
+		if (type == Character.class || type == char.class)
+			return 1;
+		if (type == Integer.class || type == int.class)
+			return 2;
+		if (type == Long.class || type == long.class)
+			return 3;
+		if (type == Float.class || type == float.class)
+			return 4;
+		if (type == Double.class || type == double.class)
+			return 5;
+		if (type == Boolean.class || type == boolean.class)
+			return 6;
+		return -1;
+	}
+}
@@ -32,10 +32,12 @@ import org.smartut.testcase.variable.ArrayReference;
 import org.smartut.testcase.TestCase;
 import org.smartut.testcase.TestFactory;
 import org.smartut.testcase.variable.VariableReference;
+import org.smartut.testcase.variable.VariableReferenceImpl;
 import org.smartut.testcase.execution.CodeUnderTestException;
 import org.smartut.testcase.execution.SmartUtError;
 import org.smartut.testcase.execution.Scope;
 import org.smartut.testcase.execution.UncompilableCodeException;
+import org.smartut.utils.generic.GenericClass;
 import org.smartut.utils.generic.GenericMethod;
 import org.smartut.utils.Randomness;
 import org.objectweb.asm.Type;
@@ -117,6 +119,30 @@ public class MethodStatement extends EntityWithParametersStatement {
 		init(method, callee);
 	}
 
+	/**
+	 * Creates a copy of {@code original} for the test case {@code tc}. The method, the annotations
+	 * and the type of the return value are shared with {@code original} rather than copied, as
+	 * statements only ever replace them (see {@link #changeClassLoader(ClassLoader)}).
+	 */
+	private MethodStatement(TestCase tc, MethodStatement original, VariableReference callee,
+	        List<VariableReference> parameters) {
+		super(tc, copyReturnValue(tc, original), parameters, original.annotations,
+				original.parameterAnnotations);
+
+		init(original.method, callee);
+	}
+
+	private static VariableReference copyReturnValue(TestCase tc, MethodStatement original) {
+		VariableReference retval = original.retval;
+		if (retval instanceof ArrayReference) {
+			// The length of an array returned by the method itself is unknown
+			int length = new GenericClass(original.method.getReturnType()).isArray() ? 0
+			        : ((ArrayReference) retval).getArrayLength();
+			return new ArrayReference(tc, retval.getGenericClass(), length);
+		}
+		return new VariableReferenceImpl(tc, retval.getGenericClass());
+	}
+
 	private void init(GenericMethod method, VariableReference callee) throws IllegalArgumentException {
 		if (callee == null && !method.isStatic()) {
 			throw new IllegalArgumentException(
@@ -259,7 +285,7 @@ public class MethodStatement extends EntityWithParametersStatement {
 						throw new SmartUtError(e);
 					}
 
-					Object ret = method.getMethod().invoke(callee_object, inputs);
+					Object ret = MemberInvokers.invoke(method.getMethod(), callee_object, inputs);
 					// Try exact return type
 					/*
 					 * TODO: Sometimes we do want to cast an Object to String etc...
@@ -324,31 +350,10 @@ public class MethodStatement extends EntityWithParametersStatement {
 			newParams.add(r.copy(newTestCase, offset));
 		}
 
-		MethodStatement m;
-		if (isStatic()) {
-			// FIXXME: If callee is an array index, this will return an invalid
-			// copy of the cloned variable!
-			m = new MethodStatement(newTestCase, method.copy(), null, newParams);
-		} else {
-			VariableReference newCallee = callee.copy(newTestCase, offset);
-			m = new MethodStatement(newTestCase, method.copy(), newCallee, newParams);
-
-		}
-		if (retval instanceof ArrayReference
-		        && !(m.getReturnValue() instanceof ArrayReference)) {
-			// logger.info("Copying array retval: " + retval.getGenericClass());
-			//	assert (retval.getGenericClass() != null);
-			//	assert (retval.getGenericClass().isArray()) : method.toString();
-			ArrayReference newRetVal = new ArrayReference(newTestCase,
-			        retval.getGenericClass(), ((ArrayReference) retval).getArrayLength());
-			m.setRetval(newRetVal);
-
-		}
-		m.getReturnValue().setType(retval.getType()); // Actual type may have changed, e.g. subtype
-
-		// m.assertions = copyAssertions(newTestCase, offset);
-
-		return m;
+		// FIXXME: If callee is an array index, this will return an invalid
+		// copy of the cloned variable!
+		VariableReference newCallee = isStatic() ? null : callee.copy(newTestCase, offset);
+		return new MethodStatement(newTestCase, this, newCallee, newParams);
 	}
 
 	/** {@inheritDoc} */
@@ -607,6 +612,8 @@ public class MethodStatement extends EntityWithParametersStatement {
 	/** {@inheritDoc} */
 	@Override
 	public void changeClassLoader(ClassLoader loader) {
+		// Copies of this statement may share the method
+		method = method.copy();
 		method.changeClassLoader(loader);
 		super.changeClassLoader(loader);
 	}
@@ -154,6 +154,18 @@ public class ArrayIndex extends VariableReferenceImpl {
 		indices.set(0, index);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public int findStPosition() {
+		assert (array != null);
+		for (int i = 0; i < testCase.size(); i++) {
+			if (testCase.getStatement(i).getReturnValue().equals(this)) {
+				return i;
+			}
+		}
+		return array.findStPosition();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public int getStPosition() {
@@ -114,14 +114,24 @@ public class ConstantValue extends VariableReferenceImpl {
 	 */
 	@Override
 	public int getStPosition() {
+		int position = findStPosition();
+		if (position >= 0) {
+			return position;
+		}
+
+		throw new AssertionError(
+		        "A ConstantValue position is only defined if the VariableReference is defined by a statement");
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int findStPosition() {
 		for (int i = 0; i < testCase.size(); i++) {
 			if (testCase.getStatement(i).references(this)) {
 				return i;
 			}
 		}
-
-		throw new AssertionError(
-		        "A ConstantValue position is only defined if the VariableReference is defined by a statement");
+		return -1;
 	}
 
 	/**
@@ -284,6 +284,24 @@ public class FieldReference extends VariableReferenceImpl {
 		}
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public int findStPosition() {
+		for (int i = 0; i < testCase.size(); i++) {
+			if (testCase.getStatement(i).getReturnValue().equals(this)) {
+				return i;
+			}
+		}
+		if (source != null)
+			return source.findStPosition();
+		for (int i = 0; i < testCase.size(); i++) {
+			if (testCase.getStatement(i).references(this)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public int getStPosition() {
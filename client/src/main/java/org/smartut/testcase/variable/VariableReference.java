@@ -47,6 +47,14 @@ public interface VariableReference extends Comparable<VariableReference>, Serial
 	 */
     int getStPosition();
 
+	/**
+	 * Like {@link #getStPosition()}, for a VariableReference that may not be
+	 * defined by any statement of its testcase
+	 * 
+	 * @return the position, or -1 if no statement defines it
+	 */
+    int findStPosition();
+
 	/**
 	 * Distance metric used to select variables for mutation based on how close
 	 * they are to the SUT
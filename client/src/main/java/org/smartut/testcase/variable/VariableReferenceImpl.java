@@ -27,7 +27,6 @@ import org.smartut.testcase.TestCase;
 import org.smartut.testcase.execution.CodeUnderTestException;
 import org.smartut.testcase.execution.Scope;
 import org.smartut.utils.generic.GenericClass;
-import org.smartut.utils.PassiveChangeListener;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.commons.GeneratorAdapter;
 import org.slf4j.Logger;
@@ -50,7 +49,11 @@ public class VariableReferenceImpl implements VariableReference {
 	 * The testCase in which this VariableReference is valid
 	 */
 	protected TestCase testCase;
-	protected final PassiveChangeListener<Void> changeListener = new PassiveChangeListener<>();
+
+	/**
+	 * Where the defining statement was found last. It is only a hint, checked
+	 * each time the position is requested
+	 */
 	protected Integer stPosition;
 	private String originalCode;
 
@@ -65,7 +68,6 @@ public class VariableReferenceImpl implements VariableReference {
 	public VariableReferenceImpl(TestCase testCase, GenericClass type) {
 		this.testCase = testCase;
 		this.type = type;
-		testCase.addListener(changeListener);
 	}
 
 	/**
@@ -88,38 +90,63 @@ public class VariableReferenceImpl implements VariableReference {
 	 * The position of the statement, defining this VariableReference, in the
 	 * testcase.
 	 *
-	 * TODO: Notify change listener also when return value changes
+	 * The last known position is checked first, as it is still right unless
+	 * statements were inserted or removed before it. Otherwise the statements
+	 * are searched outwards from there, so a reference that moved by a few
+	 * statements is found again after a few comparisons. This keeps copying a
+	 * test, which resolves every reference it contains, linear in its length.
 	 *
+	 * No lock is taken: a stale or concurrently updated hint only makes the
+	 * search start elsewhere, as every hint is checked before it is used.
 	 */
 	@Override
-	public synchronized int getStPosition() {
-		if (stPosition == null || changeListener.hasChanged()) {
-			stPosition = null;
-			for (int i = 0; i < testCase.size(); i++) {
-				Statement stmt = testCase.getStatement(i);
-				if (stmt.getReturnValue().equals(this)) {
-					stPosition = i;
-					break;
-				}
+	public int getStPosition() {
+		int position = findStPosition();
+		if (position >= 0) {
+			return position;
+		}
+
+		int size = testCase.size();
+		String msg = "Bloody annoying bug \n";
+		msg += "Test case has " + size + " function calls \n";
+		for (int i = 0; i < size; i++) {
+			msg += testCase.getStatement(i).getCode(null) + "\n";
+		}
+		msg += "failed to find type " + this.type.getTypeName() + "\n";
+
+		throw new AssertionError(
+		        msg + "A VariableReferences position is only defined if the VariableReference is defined by a statement in the testCase");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The statements are searched starting where this reference was found
+	 * last, as in {@link #getStPosition()}
+	 */
+	@Override
+	public int findStPosition() {
+		int size = testCase.size();
+		Integer last = stPosition;
+		int start = last == null ? 0 : Math.min(last, size);
+		for (int distance = 0; distance <= start || start + distance < size; distance++) {
+			if (start + distance < size && isDefinedAt(start + distance)) {
+				int position = start + distance;
+				stPosition = position;
+				return position;
 			}
-			if (stPosition == null) {
-				String msg = "Bloody annoying bug \n";
-				msg += "Test case has " + testCase.size() + " function calls \n";
-				for (int i = 0; i < testCase.size(); i++) {
-					msg += testCase.getStatement(i).getCode(null) + "\n";
-				}
-				msg += "failed to find type " + this.type.getTypeName() + "\n";
-
-				throw new AssertionError(
-				        msg + "A VariableReferences position is only defined if the VariableReference is defined by a statement in the testCase");
+			if (distance > 0 && distance <= start && isDefinedAt(start - distance)) {
+				int position = start - distance;
+				stPosition = position;
+				return position;
 			}
-		} else {
-			int position = stPosition; //somehow this could be null, leading to NPE. Synchronization issue?
-			stPosition = null;
-			stPosition = getStPosition();
-			assert (stPosition == position);
 		}
-		return stPosition;
+		stPosition = null;
+		return -1;
+	}
+
+	private boolean isDefinedAt(int position) {
+		return testCase.getStatement(position).getReturnValue().equals(this);
 	}
 	
 	@Override
@@ -152,13 +179,27 @@ public class VariableReferenceImpl implements VariableReference {
 	 */
 	@Override
 	public VariableReference clone(TestCase newTestCase) {
-		return newTestCase.getStatement(getStPosition()).getReturnValue();
+		return getReturnValue(newTestCase, getStPosition());
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public VariableReference copy(TestCase newTestCase, int offset) {
-		return newTestCase.getStatement(getStPosition() + offset).getReturnValue();
+		return getReturnValue(newTestCase, getStPosition() + offset);
+	}
+
+	/**
+	 * Returns the reference defined at the given position of another test,
+	 * passing the position on as its hint. Without it, the references of a
+	 * copy would be searched from the first statement when the copy is
+	 * copied again.
+	 */
+	private static VariableReference getReturnValue(TestCase test, int position) {
+		VariableReference reference = test.getStatement(position).getReturnValue();
+		if (reference instanceof VariableReferenceImpl) {
+			((VariableReferenceImpl) reference).stPosition = position;
+		}
+		return reference;
 	}
 
 	/**
@@ -572,6 +613,8 @@ public class VariableReferenceImpl implements VariableReference {
 	/** {@inheritDoc} */
 	@Override
 	public void changeClassLoader(ClassLoader loader) {
+		// Copies of the defining statement may share the type
+		type = new GenericClass(type);
 		type.changeClassLoader(loader);
 	}
 }
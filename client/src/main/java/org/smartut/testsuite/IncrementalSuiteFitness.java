@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testsuite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.smartut.testcase.execution.ExecutionResult;
+
+/**
+ * A suite fitness function that is computed from what each execution result
+ * contributes on its own, so that only the results of changed tests need to
+ * be analyzed again.
+ */
+public interface IncrementalSuiteFitness {
+
+	/**
+	 * Analyzes a single execution result, including the side effects of
+	 * covering goals (archive, covered goals of the test). Called only once
+	 * for each result, as the contribution is kept with the result and its
+	 * clones.
+	 * 
+	 * @param result
+	 *            a result that was not analyzed by this fitness function yet
+	 * @return the values of the goals reached by the result
+	 */
+	TraceContribution analyzeTrace(ExecutionResult result);
+
+	/**
+	 * Aggregates the contributions of the given results of a suite. Only the
+	 * results that were not part of the previous aggregation of the suite are
+	 * analyzed and added, and only the results that are gone are removed.
+	 * 
+	 * @param suite
+	 *            the suite the results belong to
+	 * @param results
+	 *            the results of all the tests of the suite
+	 * @param kinds
+	 *            how each channel of the contributions is aggregated
+	 * @return the aggregate, which must not be modified
+	 */
+	default SuiteAggregate aggregate(TestSuiteChromosome suite, List<ExecutionResult> results,
+			SuiteAggregate.Kind... kinds) {
+		List<TraceContribution> contributions = new ArrayList<>(results.size());
+		for (ExecutionResult result : results) {
+			TraceContribution contribution = result.getContribution(this);
+			if (contribution == null) {
+				contribution = analyzeTrace(result);
+				result.setContribution(this, contribution);
+			}
+			contributions.add(contribution);
+		}
+
+		SuiteAggregate aggregate = suite.getAggregate(this);
+		if (aggregate == null) {
+			aggregate = new SuiteAggregate(suite, kinds);
+		}
+		aggregate = aggregate.update(suite, contributions);
+		suite.setAggregate(this, aggregate);
+		return aggregate;
+	}
+}
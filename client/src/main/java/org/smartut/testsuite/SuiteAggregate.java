@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testsuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The contributions of the tests of a suite to a fitness function, aggregated
+ * per goal: summed for {@link Kind#SUM} channels (e.g., predicate execution
+ * counts), minimized for {@link Kind#MIN} channels (e.g., branch distances).
+ * 
+ * When the tests of the suite change, only the contributions of the removed
+ * and added tests are applied. Removing the contribution that holds the
+ * minimum of a goal makes the aggregate look for the new minimum among the
+ * remaining contributions of that goal only.
+ * 
+ * Clones of a suite share its aggregates until they are updated, at which
+ * point the aggregate is copied.
+ */
+public final class SuiteAggregate {
+
+	public enum Kind {
+		SUM, MIN
+	}
+
+	private final Kind[] kinds;
+
+	/** sum or minimum of each goal, per channel */
+	private final double[][] values;
+
+	/**
+	 * number of contributions with the goal (SUM), or with the minimum of the
+	 * goal (MIN)
+	 */
+	private final int[][] counts;
+
+	/** aggregated contributions, with their multiplicity */
+	private final Map<TraceContribution, Integer> contributions = new IdentityHashMap<>();
+
+	/** the suite this aggregate can be updated in place for */
+	private final Object owner;
+
+	public SuiteAggregate(Object owner, Kind... kinds) {
+		this.owner = owner;
+		this.kinds = kinds.clone();
+		this.values = new double[kinds.length][];
+		this.counts = new int[kinds.length][];
+		for (int channel = 0; channel < kinds.length; channel++) {
+			values[channel] = new double[0];
+			counts[channel] = new int[0];
+		}
+	}
+
+	private SuiteAggregate(SuiteAggregate other, Object owner) {
+		this.owner = owner;
+		this.kinds = other.kinds;
+		this.values = new double[kinds.length][];
+		this.counts = new int[kinds.length][];
+		for (int channel = 0; channel < kinds.length; channel++) {
+			values[channel] = other.values[channel].clone();
+			counts[channel] = other.counts[channel].clone();
+		}
+		contributions.putAll(other.contributions);
+	}
+
+	/**
+	 * Brings the aggregate up to date with the current contributions of the
+	 * tests of a suite.
+	 * 
+	 * @param suite
+	 *            the suite the contributions belong to
+	 * @return this aggregate, or an updated copy if this aggregate belongs to
+	 *         a different suite (i.e., the suite was cloned)
+	 */
+	public SuiteAggregate update(Object suite, List<TraceContribution> current) {
+		Map<TraceContribution, Integer> currentCounts = new IdentityHashMap<>();
+		for (TraceContribution contribution : current) {
+			currentCounts.merge(contribution, 1, Integer::sum);
+		}
+
+		List<TraceContribution> removed = new ArrayList<>();
+		for (Entry<TraceContribution, Integer> entry : contributions.entrySet()) {
+			int surplus = entry.getValue() - currentCounts.getOrDefault(entry.getKey(), 0);
+			for (int i = 0; i < surplus; i++) {
+				removed.add(entry.getKey());
+			}
+		}
+		List<TraceContribution> added = new ArrayList<>();
+		for (Entry<TraceContribution, Integer> entry : currentCounts.entrySet()) {
+			int missing = entry.getValue() - contributions.getOrDefault(entry.getKey(), 0);
+			for (int i = 0; i < missing; i++) {
+				added.add(entry.getKey());
+			}
+		}
+		if (removed.isEmpty() && added.isEmpty()) {
+			return this;
+		}
+
+		SuiteAggregate target = owner == suite ? this : new SuiteAggregate(this, suite);
+		target.apply(removed, added);
+		return target;
+	}
+
+	private void apply(List<TraceContribution> removed, List<TraceContribution> added) {
+		BitSet[] stale = new BitSet[kinds.length];
+		for (TraceContribution contribution : removed) {
+			contributions.computeIfPresent(contribution, (c, n) -> n == 1 ? null : n - 1);
+			for (int channel = 0; channel < channels(contribution); channel++) {
+				remove(channel, contribution.getGoals(channel), contribution.getValues(channel), stale);
+			}
+		}
+		for (TraceContribution contribution : added) {
+			contributions.merge(contribution, 1, Integer::sum);
+			for (int channel = 0; channel < channels(contribution); channel++) {
+				add(channel, contribution.getGoals(channel), contribution.getValues(channel));
+			}
+		}
+		for (int channel = 0; channel < kinds.length; channel++) {
+			if (stale[channel] != null) {
+				recomputeMinimum(channel, stale[channel]);
+			}
+		}
+	}
+
+	private int channels(TraceContribution contribution) {
+		return Math.min(kinds.length, contribution.getNumberOfChannels());
+	}
+
+	private void add(int channel, int[] goals, double[] goalValues) {
+		if (goals.length == 0) {
+			return;
+		}
+		ensureCapacity(channel, goals[goals.length - 1] + 1);
+		double[] v = values[channel];
+		int[] c = counts[channel];
+		for (int i = 0; i < goals.length; i++) {
+			int goal = goals[i];
+			if (kinds[channel] == Kind.SUM) {
+				v[goal] += goalValues[i];
+				c[goal]++;
+			} else if (goalValues[i] < v[goal]) {
+				v[goal] = goalValues[i];
+				c[goal] = 1;
+			} else if (goalValues[i] == v[goal]) {
+				c[goal]++;
+			}
+		}
+	}
+
+	private void remove(int channel, int[] goals, double[] goalValues, BitSet[] stale) {
+		double[] v = values[channel];
+		int[] c = counts[channel];
+		for (int i = 0; i < goals.length; i++) {
+			int goal = goals[i];
+			if (kinds[channel] == Kind.SUM) {
+				v[goal] -= goalValues[i];
+				c[goal]--;
+			} else if (goalValues[i] == v[goal] && --c[goal] == 0) {
+				if (stale[channel] == null) {
+					stale[channel] = new BitSet();
+				}
+				stale[channel].set(goal);
+			}
+		}
+	}
+
+	private void recomputeMinimum(int channel, BitSet goals) {
+		double[] v = values[channel];
+		int[] c = counts[channel];
+		for (int goal = goals.nextSetBit(0); goal >= 0; goal = goals.nextSetBit(goal + 1)) {
+			v[goal] = Double.POSITIVE_INFINITY;
+			c[goal] = 0;
+		}
+		for (Entry<TraceContribution, Integer> entry : contributions.entrySet()) {
+			TraceContribution contribution = entry.getKey();
+			if (channel >= contribution.getNumberOfChannels()) {
+				continue;
+			}
+			int[] contributionGoals = contribution.getGoals(channel);
+			double[] contributionValues = contribution.getValues(channel);
+			for (int i = 0; i < contributionGoals.length; i++) {
+				int goal = contributionGoals[i];
+				if (!goals.get(goal)) {
+					continue;
+				}
+				if (contributionValues[i] < v[goal]) {
+					v[goal] = contributionValues[i];
+					c[goal] = entry.getValue();
+				} else if (contributionValues[i] == v[goal]) {
+					c[goal] += entry.getValue();
+				}
+			}
+		}
+	}
+
+	private void ensureCapacity(int channel, int size) {
+		int length = values[channel].length;
+		if (size <= length) {
+			return;
+		}
+		int newLength = Math.max(size, length * 2);
+		values[channel] = Arrays.copyOf(values[channel], newLength);
+		counts[channel] = Arrays.copyOf(counts[channel], newLength);
+		if (kinds[channel] == Kind.MIN) {
+			Arrays.fill(values[channel], length, newLength, Double.POSITIVE_INFINITY);
+		}
+	}
+
+	/**
+	 * @return true if any of the aggregated contributions has a value for the
+	 *         goal
+	 */
+	public boolean has(int channel, int goal) {
+		return goal >= 0 && goal < counts[channel].length && counts[channel][goal] > 0;
+	}
+
+	/**
+	 * @return the sum or minimum of the goal, or NaN if no contribution has a
+	 *         value for it
+	 */
+	public double get(int channel, int goal) {
+		return has(channel, goal) ? values[channel][goal] : Double.NaN;
+	}
+
+	/**
+	 * @return the number of goals with a value in the given channel
+	 */
+	public int getNumberOfGoals(int channel) {
+		int n = 0;
+		for (int count : counts[channel]) {
+			if (count > 0) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * @return the number of aggregated contributions
+	 */
+	public int size() {
+		int n = 0;
+		for (int count : contributions.values()) {
+			n += count;
+		}
+		return n;
+	}
+}
@@ -0,0 +1,950 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testsuite;
+
+import org.smartut.TestGenerationContext;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.statements.ArrayStatement;
+import org.smartut.testcase.statements.AssignmentStatement;
+import org.smartut.testcase.statements.ConstructorStatement;
+import org.smartut.testcase.statements.EnumPrimitiveStatement;
+import org.smartut.testcase.statements.FieldStatement;
+import org.smartut.testcase.statements.MethodStatement;
+import org.smartut.testcase.statements.NullStatement;
+import org.smartut.testcase.statements.PrimitiveStatement;
+import org.smartut.testcase.statements.Statement;
+import org.smartut.testcase.statements.StringPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.BytePrimitiveStatement;
+import org.smartut.testcase.statements.numeric.CharPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.smartut.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.LongPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.smartut.testcase.variable.ArrayIndex;
+import org.smartut.testcase.variable.ArrayReference;
+import org.smartut.testcase.variable.FieldReference;
+import org.smartut.testcase.variable.VariableReference;
+import org.smartut.testcase.variable.VariableReferenceImpl;
+import org.smartut.utils.ParameterizedTypeImpl;
+import org.smartut.utils.generic.GenericArrayTypeImpl;
+import org.smartut.utils.generic.GenericClass;
+import org.smartut.utils.generic.GenericConstructor;
+import org.smartut.utils.generic.GenericField;
+import org.smartut.utils.generic.GenericMethod;
+import org.smartut.utils.generic.WildcardTypeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format of test cases, to store seeds and object pools.
+ *
+ * <p>
+ * A stream starts with a magic number and the version of the format, followed
+ * by records of test cases. The statements of a test case are encoded with
+ * varints, and the names of classes, methods and fields are interned: each
+ * name is written once per stream, and referred to by its index afterwards.
+ * Test cases with statements that have no compact encoding (e.g., functional
+ * mocks, or statements with assertions) are stored with Java serialization
+ * inside their record, so that any test case can be written. Types are
+ * written with their wildcards, type variables and generic arrays, which Java
+ * serialization of {@link GenericClass} reduces to their bounds.
+ *
+ * <p>
+ * The records are read one at a time, so that a stream does not have to be
+ * read completely.
+ */
+public class TestCaseCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCaseCodec.class);
+
+    private static final byte[] MAGIC = { 'S', 'U', 'T', 'C' };
+
+    /**
+     * Has to be increased on any change of the encoding
+     */
+    public static final int VERSION = 2;
+
+    /* kinds of records */
+    private static final int END = 0;
+    private static final int COMPACT = 1;
+    private static final int SERIALIZED = 2;
+
+    /* kinds of statements */
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int SHORT = 3;
+    private static final int BYTE = 4;
+    private static final int CHAR = 5;
+    private static final int FLOAT = 6;
+    private static final int DOUBLE = 7;
+    private static final int BOOLEAN = 8;
+    private static final int STRING = 9;
+    private static final int NULL = 10;
+    private static final int ENUM = 11;
+    private static final int ARRAY = 12;
+    private static final int CONSTRUCTOR = 13;
+    private static final int METHOD = 14;
+    private static final int FIELD = 15;
+    private static final int ASSIGNMENT = 16;
+
+    /* kinds of variable references */
+    private static final int NO_VARIABLE = 0;
+    private static final int VARIABLE = 1;
+    private static final int ARRAY_INDEX = 2;
+    private static final int FIELD_REFERENCE = 3;
+
+    /* kinds of types */
+    private static final int CLASS_TYPE = 0;
+    private static final int PARAMETERIZED_TYPE = 1;
+    private static final int WILDCARD_TYPE = 2;
+    private static final int TYPE_VARIABLE = 3;
+    private static final int GENERIC_ARRAY_TYPE = 4;
+
+    private TestCaseCodec() {
+        // only nested classes
+    }
+
+    /**
+     * @return true if the file starts with the header of this format
+     */
+    public static boolean isBinaryFormat(File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = new byte[MAGIC.length];
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Thrown while encoding a statement that has no compact encoding
+     */
+    private static class NotEncodableException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        NotEncodableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Writes test cases to a stream. Needs to be closed to mark the end of
+     * the test cases.
+     */
+    public static class Writer implements Closeable, Flushable {
+
+        private final DataOutputStream out;
+
+        private final Map<String, Integer> names = new HashMap<>();
+
+        private final List<String> nameList = new ArrayList<>();
+
+        /**
+         * Names of the record being encoded, which are only kept if the
+         * record is written
+         */
+        private final List<String> pendingNames = new ArrayList<>();
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private DataOutputStream record;
+
+        public Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+            this.out.write(MAGIC);
+            writeVarInt(this.out, VERSION);
+        }
+
+        /**
+         * Writes a test case in the compact encoding if possible, otherwise
+         * with Java serialization
+         */
+        public void writeTest(TestCase test) throws IOException {
+            buffer.reset();
+            pendingNames.clear();
+            record = new DataOutputStream(buffer);
+            try {
+                encode(test);
+                record.flush();
+                verify(test, buffer.toByteArray());
+                nameList.addAll(pendingNames);
+                out.writeByte(COMPACT);
+                buffer.writeTo(out);
+                return;
+            } catch (NotEncodableException e) {
+                logger.debug("Using Java serialization for test: {}", e.getMessage());
+            }
+            names.keySet().removeAll(pendingNames);
+            pendingNames.clear();
+
+            buffer.reset();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(buffer)) {
+                objectOut.writeObject(test);
+            }
+            out.writeByte(SERIALIZED);
+            writeVarInt(out, buffer.size());
+            buffer.writeTo(out);
+        }
+
+        /**
+         * Writes a type, e.g., the key of a test case in an object pool
+         */
+        public void writeClass(GenericClass clazz) throws IOException {
+            buffer.reset();
+            pendingNames.clear();
+            record = new DataOutputStream(buffer);
+            try {
+                encodeClass(clazz);
+            } catch (NotEncodableException e) {
+                throw new IOException("Cannot write type " + clazz + ": " + e.getMessage());
+            }
+            record.flush();
+            nameList.addAll(pendingNames);
+            buffer.writeTo(out);
+        }
+
+        public void writeInt(int value) throws IOException {
+            writeVarInt(out, value);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(END);
+            out.close();
+        }
+
+        /**
+         * Decodes the record again, so that a test case that cannot be read
+         * back as an equal test case, e.g., because of members that cannot be
+         * resolved by name, is written with Java serialization instead
+         */
+        private void verify(TestCase test, byte[] bytes) throws NotEncodableException {
+            List<String> decodingNames = new ArrayList<>(nameList);
+            Reader reader = new Reader(new DataInputStream(new ByteArrayInputStream(bytes)), decodingNames);
+            TestCase decoded;
+            try {
+                decoded = reader.decode();
+            } catch (IOException | RuntimeException e) {
+                throw new NotEncodableException("cannot decode: " + e);
+            }
+            if (decoded.size() != test.size()) {
+                throw new NotEncodableException("decoded test has a different size");
+            }
+            for (int i = 0; i < test.size(); i++) {
+                // compares the values, members and types, including type arguments
+                if (!decoded.getStatement(i).same(test.getStatement(i))) {
+                    throw new NotEncodableException("decoded test has a different statement at " + i);
+                }
+            }
+        }
+
+        private void writeName(String name) throws IOException {
+            Integer index = names.get(name);
+            if (index != null) {
+                writeVarInt(record, index);
+                return;
+            }
+            // new names are numbered in the order they appear in the stream
+            index = nameList.size() + pendingNames.size();
+            names.put(name, index);
+            pendingNames.add(name);
+            writeVarInt(record, index);
+            writeString(record, name);
+        }
+
+        private void encode(TestCase test) throws IOException, NotEncodableException {
+            writeVarInt(record, test.size());
+            for (Statement statement : test) {
+                encode(statement);
+            }
+        }
+
+        private void encode(Statement statement) throws IOException, NotEncodableException {
+            if (!statement.getAssertions().isEmpty() || !statement.getComment().isEmpty()) {
+                throw new NotEncodableException("statement with assertions or comment");
+            }
+
+            Class<?> kind = statement.getClass();
+            if (kind == MethodStatement.class) {
+                MethodStatement methodStatement = (MethodStatement) statement;
+                writeHeader(METHOD, statement);
+                GenericMethod method = methodStatement.getMethod();
+                encodeClass(method.getOwnerClass());
+                writeName(method.getDeclaringClass().getName());
+                writeName(method.getName());
+                writeName(org.objectweb.asm.Type.getMethodDescriptor(method.getMethod()));
+                encodeReference(method.isStatic() ? null : methodStatement.getCallee());
+                encodeReferences(methodStatement.getParameterReferences());
+            } else if (kind == ConstructorStatement.class) {
+                ConstructorStatement constructorStatement = (ConstructorStatement) statement;
+                writeHeader(CONSTRUCTOR, statement);
+                GenericConstructor constructor = constructorStatement.getConstructor();
+                encodeClass(constructor.getOwnerClass());
+                writeName(constructor.getDeclaringClass().getName());
+                writeName(org.objectweb.asm.Type.getConstructorDescriptor(constructor.getConstructor()));
+                encodeReferences(constructorStatement.getParameterReferences());
+            } else if (kind == FieldStatement.class) {
+                FieldStatement fieldStatement = (FieldStatement) statement;
+                writeHeader(FIELD, statement);
+                encodeField(fieldStatement.getField());
+                encodeReference(fieldStatement.getField().isStatic() ? null : fieldStatement.getSource());
+            } else if (kind == AssignmentStatement.class) {
+                writeHeader(ASSIGNMENT, statement);
+                encodeReference(statement.getReturnValue());
+                encodeReference(((AssignmentStatement) statement).getValue());
+            } else if (kind == ArrayStatement.class) {
+                writeHeader(ARRAY, statement);
+                List<Integer> lengths = ((ArrayStatement) statement).getLengths();
+                writeVarInt(record, lengths.size());
+                for (int length : lengths) {
+                    writeVarInt(record, length);
+                }
+            } else if (kind == NullStatement.class) {
+                writeHeader(NULL, statement);
+            } else if (kind == EnumPrimitiveStatement.class) {
+                writeHeader(ENUM, statement);
+                Enum<?> value = (Enum<?>) ((EnumPrimitiveStatement<?>) statement).getValue();
+                record.writeBoolean(value != null);
+                if (value != null) {
+                    writeName(value.name());
+                }
+            } else if (kind == StringPrimitiveStatement.class) {
+                writeHeader(STRING, statement);
+                String value = ((StringPrimitiveStatement) statement).getValue();
+                record.writeBoolean(value != null);
+                if (value != null) {
+                    writeString(record, value);
+                }
+            } else {
+                encodePrimitive(statement);
+            }
+        }
+
+        private void encodePrimitive(Statement statement) throws IOException, NotEncodableException {
+            Class<?> kind = statement.getClass();
+            Object value = statement instanceof PrimitiveStatement ? ((PrimitiveStatement<?>) statement).getValue()
+                    : null;
+            if (value == null) {
+                throw new NotEncodableException("unsupported statement " + kind.getName());
+            }
+            if (kind == IntPrimitiveStatement.class) {
+                writeHeader(INT, statement);
+                writeVarLong(record, zigZag((Integer) value));
+            } else if (kind == LongPrimitiveStatement.class) {
+                writeHeader(LONG, statement);
+                writeVarLong(record, zigZag((Long) value));
+            } else if (kind == ShortPrimitiveStatement.class) {
+                writeHeader(SHORT, statement);
+                writeVarLong(record, zigZag((Short) value));
+            } else if (kind == BytePrimitiveStatement.class) {
+                writeHeader(BYTE, statement);
+                record.writeByte((Byte) value);
+            } else if (kind == CharPrimitiveStatement.class) {
+                writeHeader(CHAR, statement);
+                writeVarInt(record, (Character) value);
+            } else if (kind == FloatPrimitiveStatement.class) {
+                writeHeader(FLOAT, statement);
+                record.writeInt(Float.floatToRawIntBits((Float) value));
+            } else if (kind == DoublePrimitiveStatement.class) {
+                writeHeader(DOUBLE, statement);
+                record.writeLong(Double.doubleToRawLongBits((Double) value));
+            } else if (kind == BooleanPrimitiveStatement.class) {
+                writeHeader(BOOLEAN, statement);
+                record.writeBoolean((Boolean) value);
+            } else {
+                throw new NotEncodableException("unsupported statement " + kind.getName());
+            }
+        }
+
+        /**
+         * The kind of the statement, and the type of the variable it defines
+         */
+        private void writeHeader(int kind, Statement statement) throws IOException, NotEncodableException {
+            record.writeByte(kind);
+            encodeClass(statement.getReturnValue().getGenericClass());
+        }
+
+        private void encodeField(GenericField field) throws IOException, NotEncodableException {
+            encodeClass(field.getOwnerClass());
+            writeName(field.getField().getDeclaringClass().getName());
+            writeName(field.getName());
+        }
+
+        private void encodeReferences(List<VariableReference> references) throws IOException, NotEncodableException {
+            writeVarInt(record, references.size());
+            for (VariableReference reference : references) {
+                encodeReference(reference);
+            }
+        }
+
+        private void encodeReference(VariableReference reference) throws IOException, NotEncodableException {
+            if (reference == null) {
+                record.writeByte(NO_VARIABLE);
+            } else if (reference.getClass() == VariableReferenceImpl.class
+                    || reference.getClass() == ArrayReference.class) {
+                record.writeByte(VARIABLE);
+                writeVarInt(record, reference.getStPosition());
+            } else if (reference.getClass() == ArrayIndex.class) {
+                ArrayIndex index = (ArrayIndex) reference;
+                record.writeByte(ARRAY_INDEX);
+                writeVarInt(record, index.getArray().getStPosition());
+                writeVarInt(record, index.getArrayIndices().size());
+                for (int i : index.getArrayIndices()) {
+                    writeVarInt(record, i);
+                }
+            } else if (reference.getClass() == FieldReference.class) {
+                FieldReference field = (FieldReference) reference;
+                record.writeByte(FIELD_REFERENCE);
+                encodeField(field.getField());
+                encodeReference(field.getSource());
+            } else {
+                throw new NotEncodableException("unsupported variable " + reference.getClass().getName());
+            }
+        }
+
+        private void encodeClass(GenericClass clazz) throws IOException, NotEncodableException {
+            if (clazz == null || clazz.getRawClass() == null) {
+                record.writeBoolean(false);
+                return;
+            }
+            record.writeBoolean(true);
+            encodeType(clazz.getType() == null ? clazz.getRawClass() : clazz.getType());
+        }
+
+        /**
+         * Type variables are written as their name and declaring class, so
+         * those declared by methods and constructors have no encoding
+         */
+        private void encodeType(Type type) throws IOException, NotEncodableException {
+            if (type instanceof Class) {
+                record.writeByte(CLASS_TYPE);
+                writeName(((Class<?>) type).getName());
+            } else if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                record.writeByte(PARAMETERIZED_TYPE);
+                writeName(((Class<?>) parameterizedType.getRawType()).getName());
+                Type owner = parameterizedType.getOwnerType();
+                record.writeBoolean(owner != null);
+                if (owner != null) {
+                    encodeType(owner);
+                }
+                encodeTypes(parameterizedType.getActualTypeArguments());
+            } else if (type instanceof WildcardType) {
+                WildcardType wildcardType = (WildcardType) type;
+                record.writeByte(WILDCARD_TYPE);
+                encodeTypes(wildcardType.getUpperBounds());
+                encodeTypes(wildcardType.getLowerBounds());
+            } else if (type instanceof TypeVariable) {
+                TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+                if (!(typeVariable.getGenericDeclaration() instanceof Class)) {
+                    throw new NotEncodableException("type variable " + typeVariable + " not declared by a class");
+                }
+                record.writeByte(TYPE_VARIABLE);
+                writeName(((Class<?>) typeVariable.getGenericDeclaration()).getName());
+                writeName(typeVariable.getName());
+            } else if (type instanceof GenericArrayType) {
+                record.writeByte(GENERIC_ARRAY_TYPE);
+                encodeType(((GenericArrayType) type).getGenericComponentType());
+            } else {
+                throw new NotEncodableException("unsupported type " + type);
+            }
+        }
+
+        private void encodeTypes(Type[] types) throws IOException, NotEncodableException {
+            writeVarInt(record, types.length);
+            for (Type type : types) {
+                encodeType(type);
+            }
+        }
+    }
+
+    /**
+     * Reads test cases from a stream, one at a time
+     */
+    public static class Reader implements Closeable {
+
+        private final DataInputStream in;
+
+        private final List<String> names;
+
+        private final ClassLoader loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+
+        private final Map<String, Class<?>> classes = new HashMap<>();
+
+        private final Map<String, Member> members = new HashMap<>();
+
+        private boolean finished = false;
+
+        /**
+         * @throws IOException
+         *             if the stream does not start with the header of this
+         *             format, or has a different version
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+            this.names = new ArrayList<>();
+            byte[] header = new byte[MAGIC.length];
+            this.in.readFully(header);
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != MAGIC[i]) {
+                    throw new IOException("Not a binary test file");
+                }
+            }
+            int version = readVarInt(this.in);
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of binary test file, expected " + VERSION);
+            }
+        }
+
+        private Reader(DataInputStream in, List<String> names) {
+            this.in = in;
+            this.names = names;
+        }
+
+        /**
+         * @return the next test case, or null if there are no more test
+         *         cases
+         */
+        public TestCase readTest() throws IOException {
+            if (finished) {
+                return null;
+            }
+            int kind = in.read();
+            if (kind == COMPACT) {
+                return decode();
+            } else if (kind == SERIALIZED) {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    TestCase test = (TestCase) objectIn.readObject();
+                    for (Statement statement : test) {
+                        statement.changeClassLoader(loader);
+                    }
+                    return test;
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Cannot read serialized test: " + e.getMessage(), e);
+                }
+            } else if (kind == END || kind < 0) {
+                finished = true;
+                return null;
+            } else {
+                throw new IOException("Unknown kind of record: " + kind);
+            }
+        }
+
+        public GenericClass readClass() throws IOException {
+            return decodeClass();
+        }
+
+        public int readInt() throws IOException {
+            return readVarInt(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private String readName() throws IOException {
+            int index = readVarInt(in);
+            if (index == names.size()) {
+                names.add(readString(in));
+            } else if (index > names.size()) {
+                throw new IOException("Invalid name index " + index);
+            }
+            return names.get(index);
+        }
+
+        private TestCase decode() throws IOException {
+            TestCase test = new DefaultTestCase();
+            int size = readVarInt(in);
+            for (int i = 0; i < size; i++) {
+                test.addStatement(decodeStatement(test));
+            }
+            return test;
+        }
+
+        private Statement decodeStatement(TestCase test) throws IOException {
+            int kind = in.readByte();
+            GenericClass type = decodeClass();
+            Statement statement;
+            switch (kind) {
+            case INT:
+                statement = new IntPrimitiveStatement(test, (int) unZigZag(readVarLong(in)));
+                break;
+            case LONG:
+                statement = new LongPrimitiveStatement(test, unZigZag(readVarLong(in)));
+                break;
+            case SHORT:
+                statement = new ShortPrimitiveStatement(test, (short) unZigZag(readVarLong(in)));
+                break;
+            case BYTE:
+                statement = new BytePrimitiveStatement(test, in.readByte());
+                break;
+            case CHAR:
+                statement = new CharPrimitiveStatement(test, (char) readVarInt(in));
+                break;
+            case FLOAT:
+                statement = new FloatPrimitiveStatement(test, Float.intBitsToFloat(in.readInt()));
+                break;
+            case DOUBLE:
+                statement = new DoublePrimitiveStatement(test, Double.longBitsToDouble(in.readLong()));
+                break;
+            case BOOLEAN:
+                statement = new BooleanPrimitiveStatement(test, in.readBoolean());
+                break;
+            case STRING:
+                statement = new StringPrimitiveStatement(test, in.readBoolean() ? readString(in) : null);
+                break;
+            case NULL:
+                statement = new NullStatement(test, type.getType());
+                break;
+            case ENUM:
+                statement = decodeEnum(test, type);
+                break;
+            case ARRAY:
+                int[] lengths = new int[readVarInt(in)];
+                for (int i = 0; i < lengths.length; i++) {
+                    lengths[i] = readVarInt(in);
+                }
+                statement = new ArrayStatement(test, type.getType(), lengths);
+                break;
+            case CONSTRUCTOR:
+                GenericClass constructorOwner = decodeClass();
+                Constructor<?> constructor = getConstructor(readName(), readName());
+                statement = new ConstructorStatement(test, new GenericConstructor(constructor, constructorOwner),
+                        decodeReferences(test));
+                break;
+            case METHOD:
+                GenericClass methodOwner = decodeClass();
+                Method method = getMethod(readName(), readName(), readName());
+                VariableReference callee = decodeReference(test);
+                statement = new MethodStatement(test, new GenericMethod(method, methodOwner), callee,
+                        decodeReferences(test));
+                break;
+            case FIELD:
+                GenericField field = decodeField();
+                statement = new FieldStatement(test, field, decodeReference(test));
+                break;
+            case ASSIGNMENT:
+                VariableReference variable = decodeReference(test);
+                statement = new AssignmentStatement(test, variable, decodeReference(test));
+                // the variable defines the type
+                return statement;
+            default:
+                throw new IOException("Unknown kind of statement: " + kind);
+            }
+
+            VariableReference retval = statement.getReturnValue();
+            if (type != null && !type.equals(retval.getGenericClass())) {
+                retval.setType(type.getType());
+            }
+            return statement;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Statement decodeEnum(TestCase test, GenericClass type) throws IOException {
+            Class<?> enumClass = type.getRawClass();
+            // constants with a body are subclasses of the enum
+            if (!enumClass.isEnum() && enumClass.getSuperclass() != null && enumClass.getSuperclass().isEnum()) {
+                enumClass = enumClass.getSuperclass();
+            }
+            EnumPrimitiveStatement statement = new EnumPrimitiveStatement(test, (Class) enumClass);
+            if (in.readBoolean()) {
+                statement.setValue(Enum.valueOf((Class) enumClass, readName()));
+            } else {
+                statement.setValue(null);
+            }
+            return statement;
+        }
+
+        private List<VariableReference> decodeReferences(TestCase test) throws IOException {
+            int size = readVarInt(in);
+            List<VariableReference> references = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                references.add(decodeReference(test));
+            }
+            return references;
+        }
+
+        private VariableReference decodeReference(TestCase test) throws IOException {
+            int kind = in.readByte();
+            switch (kind) {
+            case NO_VARIABLE:
+                return null;
+            case VARIABLE:
+                return test.getStatement(readVarInt(in)).getReturnValue();
+            case ARRAY_INDEX:
+                VariableReference array = test.getStatement(readVarInt(in)).getReturnValue();
+                if (!(array instanceof ArrayReference)) {
+                    throw new IOException("Not an array: " + array);
+                }
+                int size = readVarInt(in);
+                List<Integer> indices = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    indices.add(readVarInt(in));
+                }
+                return new ArrayIndex(test, (ArrayReference) array, indices);
+            case FIELD_REFERENCE:
+                GenericField field = decodeField();
+                VariableReference source = decodeReference(test);
+                return source == null ? new FieldReference(test, field) : new FieldReference(test, field, source);
+            default:
+                throw new IOException("Unknown kind of variable: " + kind);
+            }
+        }
+
+        private GenericField decodeField() throws IOException {
+            GenericClass owner = decodeClass();
+            String className = readName();
+            String name = readName();
+            String key = className + "." + name;
+            Field field = (Field) members.get(key);
+            if (field == null) {
+                try {
+                    field = getClass(className).getDeclaredField(name);
+                } catch (NoSuchFieldException e) {
+                    throw new IOException("Unknown field " + key, e);
+                }
+                members.put(key, field);
+            }
+            return new GenericField(field, owner);
+        }
+
+        private Method getMethod(String className, String name, String descriptor) throws IOException {
+            String key = className + "." + name + descriptor;
+            Method method = (Method) members.get(key);
+            if (method == null) {
+                for (Method candidate : getClass(className).getDeclaredMethods()) {
+                    if (candidate.getName().equals(name)
+                            && org.objectweb.asm.Type.getMethodDescriptor(candidate).equals(descriptor)) {
+                        method = candidate;
+                        break;
+                    }
+                }
+                if (method == null) {
+                    throw new IOException("Unknown method " + key);
+                }
+                members.put(key, method);
+            }
+            return method;
+        }
+
+        private Constructor<?> getConstructor(String className, String descriptor) throws IOException {
+            String key = className + ".<init>" + descriptor;
+            Constructor<?> constructor = (Constructor<?>) members.get(key);
+            if (constructor == null) {
+                for (Constructor<?> candidate : getClass(className).getDeclaredConstructors()) {
+                    if (org.objectweb.asm.Type.getConstructorDescriptor(candidate).equals(descriptor)) {
+                        constructor = candidate;
+                        break;
+                    }
+                }
+                if (constructor == null) {
+                    throw new IOException("Unknown constructor " + key);
+                }
+                members.put(key, constructor);
+            }
+            return constructor;
+        }
+
+        private GenericClass decodeClass() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            Type type = decodeType();
+            if (type instanceof Class) {
+                return new GenericClass((Class<?>) type);
+            }
+            return new GenericClass(type);
+        }
+
+        private Type decodeType() throws IOException {
+            int kind = in.readByte();
+            switch (kind) {
+            case CLASS_TYPE:
+                return getClass(readName());
+            case PARAMETERIZED_TYPE: {
+                Class<?> rawClass = getClass(readName());
+                Type owner = in.readBoolean() ? decodeType() : null;
+                return new ParameterizedTypeImpl(rawClass, decodeTypes(), owner);
+            }
+            case WILDCARD_TYPE: {
+                Type[] upperBounds = decodeTypes();
+                return new WildcardTypeImpl(upperBounds, decodeTypes());
+            }
+            case TYPE_VARIABLE: {
+                Class<?> declaration = getClass(readName());
+                String name = readName();
+                for (TypeVariable<?> typeVariable : declaration.getTypeParameters()) {
+                    if (typeVariable.getName().equals(name)) {
+                        return typeVariable;
+                    }
+                }
+                throw new IOException("Unknown type variable " + name + " of " + declaration.getName());
+            }
+            case GENERIC_ARRAY_TYPE:
+                return GenericArrayTypeImpl.createArrayType(decodeType());
+            default:
+                throw new IOException("Unknown kind of type " + kind);
+            }
+        }
+
+        private Type[] decodeTypes() throws IOException {
+            Type[] types = new Type[readVarInt(in)];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = decodeType();
+            }
+            return types;
+        }
+
+        private Class<?> getClass(String name) throws IOException {
+            Class<?> clazz = classes.get(name);
+            if (clazz == null) {
+                try {
+                    clazz = getPrimitiveClass(name);
+                    if (clazz == null) {
+                        clazz = Class.forName(name, false, loader);
+                    }
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Unknown class " + name, e);
+                }
+                classes.put(name, clazz);
+            }
+            return clazz;
+        }
+    }
+
+    private static Class<?> getPrimitiveClass(String name) {
+        switch (name) {
+        case "void":
+            return void.class;
+        case "int":
+            return int.class;
+        case "short":
+            return short.class;
+        case "long":
+            return long.class;
+        case "float":
+            return float.class;
+        case "double":
+            return double.class;
+        case "boolean":
+            return boolean.class;
+        case "byte":
+            return byte.class;
+        case "char":
+            return char.class;
+        default:
+            return null;
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Strings are written as their chars, as modified UTF-8 is limited to 64K
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+        writeVarInt(out, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            writeVarInt(out, value.charAt(i));
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) readVarInt(in);
+        }
+        return new String(chars);
+    }
+}
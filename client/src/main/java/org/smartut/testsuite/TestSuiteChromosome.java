@@ -21,8 +21,10 @@ package org.smartut.testsuite;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.smartut.Properties;
@@ -54,6 +56,9 @@ public final class TestSuiteChromosome
 	private static int secondaryObjIndex = 0;
 	private static final long serialVersionUID = 88380759969800800L;
 
+	/** Aggregated contributions of the tests to incremental fitness functions */
+	private transient Map<IncrementalSuiteFitness, SuiteAggregate> aggregates = null;
+
 	/**
 	 * Add an additional secondary objective to the end of the list of
 	 * objectives
@@ -141,6 +146,21 @@ public final class TestSuiteChromosome
 	 */
 	protected TestSuiteChromosome(TestSuiteChromosome source) {
 		super(source);
+		if (source.aggregates != null) {
+			// shared until updated, see SuiteAggregate#update
+			aggregates = new IdentityHashMap<>(source.aggregates);
+		}
+	}
+
+	SuiteAggregate getAggregate(IncrementalSuiteFitness fitness) {
+		return aggregates == null ? null : aggregates.get(fitness);
+	}
+
+	void setAggregate(IncrementalSuiteFitness fitness, SuiteAggregate aggregate) {
+		if (aggregates == null) {
+			aggregates = new IdentityHashMap<>();
+		}
+		aggregates.put(fitness, aggregate);
 	}
 
 	/**
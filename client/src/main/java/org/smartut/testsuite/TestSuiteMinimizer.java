@@ -27,7 +27,6 @@ import org.smartut.coverage.TestFitnessFactory;
 import org.smartut.coverage.branch.BranchCoverageTestFitness;
 import org.smartut.coverage.line.LineCoverageTestFitness;
 import org.smartut.coverage.method.MethodCoverageTestFitness;
-import org.smartut.ga.ConstructionFailedException;
 import org.smartut.junit.CoverageAnalysis;
 import org.smartut.junit.writer.TestSuiteWriter;
 import org.smartut.rmi.ClientServices;
@@ -72,6 +71,16 @@ public class TestSuiteMinimizer {
      */
     protected static long startTime = 0L;
 
+    /**
+     * Executions of tests needed to remove statements
+     */
+    private int minimizationExecutions = 0;
+
+    /**
+     * Executions saved by removing several statements at once
+     */
+    private int savedExecutions = 0;
+
     /**
      * <p>
      * Constructor for TestSuiteMinimizer.
@@ -117,6 +126,15 @@ public class TestSuiteMinimizer {
                 suite.size());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimized_Length,
                 suite.totalLengthOfTestCases());
+        trackMinimizationExecutions();
+    }
+
+    /**
+     * The executions are summed over all minimizations done by this minimizer
+     */
+    private void trackMinimizationExecutions() {
+        ClientServices.track(RuntimeVariable.Minimization_Executions, minimizationExecutions);
+        ClientServices.track(RuntimeVariable.Minimization_Saved_Executions, savedExecutions);
     }
 
     private void updateClientStatus(int progress) {
@@ -224,6 +242,8 @@ public class TestSuiteMinimizer {
                         goal);
                 TestChromosome copy = test.clone();
                 minimizer.minimize(copy);
+                minimizationExecutions += minimizer.getExecutions();
+                savedExecutions += minimizer.getSavedExecutions();
                 if (isTimeoutReached()) {
                     logger.warn("Minimization timeout. Roll back to original test suite");
                     return;
@@ -299,9 +319,7 @@ public class TestSuiteMinimizer {
 
         SecondaryObjective strategy = Properties.SECONDARY_OBJECTIVE[0];
 
-        boolean size = false;
         if (strategy == SecondaryObjective.SIZE) {
-            size = true;
             // If we want to remove tests, start with shortest
             suite.tests.sort(comparingInt(TestChromosome::size));
         } else if (strategy == SecondaryObjective.MAX_LENGTH) {
@@ -316,13 +334,48 @@ public class TestSuiteMinimizer {
             fitness.add(ff.getFitness(suite));
         }
 
-        minimizeByDeleteStatement(suite, size, fitness);
+        minimizeByDeleteStatement(suite, fitness);
 
         this.removeEmptyTestCases(suite);
         this.removeRedundantTestCases(suite, goals);
     }
 
-    private void minimizeByDeleteStatement(TestSuiteChromosome suite, boolean size, List<Double> fitness) {
+    private void minimizeByDeleteStatement(TestSuiteChromosome suite, List<Double> fitness) {
+        SlicingMinimizer minimizer = new SlicingMinimizer((original, modified) -> {
+            // record exceptions size before delete statement
+            int exceptSizeOriginal = original.getLastExecutionResult() == null ? 0
+                : original.getLastExecutionResult().getAllThrownExceptions().size();
+
+            List<Double> modifiedVerFitness = new ArrayList<>();
+            for (TestFitnessFactory<?> ff : testFitnessFactories)
+                modifiedVerFitness.add(ff.getFitness(suite));
+
+            // record exceptions size after delete statement
+            int exceptSizeDeleted = modified.getLastExecutionResult() == null ? 0
+                : modified.getLastExecutionResult().getAllThrownExceptions().size();
+            // check exception first, then check fitness
+            if (exceptSizeDeleted > exceptSizeOriginal) {
+                logger.debug("exceptSizeOriginal is {}, exceptSizeDeleted is {}", exceptSizeOriginal, exceptSizeDeleted);
+                return false;
+            }
+            for (int i_fit = 0; i_fit < modifiedVerFitness.size(); i_fit++) {
+                int compare_ff = Double.compare(modifiedVerFitness.get(i_fit), fitness.get(i_fit));
+                if (compare_ff < 0) {
+                    // new value is lower than previous one
+                    fitness.clear();
+                    fitness.addAll(modifiedVerFitness);
+                    return true;
+                } else if (compare_ff > 0) {
+                    logger.debug("Restoring fitness from " + modifiedVerFitness + " to " + fitness);
+                    return false;
+                }
+            }
+            // if we can guarantee that we have the same fitness value with less statements, better
+            return true;
+        });
+
+        // removing statements from one test can change the fitness that the
+        // statements of the other tests are checked against
         boolean changed = true;
         while (changed && !isTimeoutReached()) {
             changed = false;
@@ -332,94 +385,13 @@ public class TestSuiteMinimizer {
             for (TestChromosome testChromosome : suite.tests) {
                 if (isTimeoutReached())
                     break;
-                for (int i = testChromosome.size() - 1; i >= 0; i--) {
-                    if (isTimeoutReached())
-                        break;
-
-                    logger.debug("Current size: " + suite.size() + "/"
-                        + suite.totalLengthOfTestCases());
-                    logger.debug("Deleting statement "
-                        + testChromosome.getTestCase().getStatement(i).getCode()
-                        + " from test");
-                    TestChromosome originalTestChromosome = testChromosome.clone();
-
-                    // record exceptions size before delete statement
-                    int exceptSizeOriginal = testChromosome.getLastExecutionResult().getAllThrownExceptions().size();
-
-                    boolean modified = false;
-                    try {
-                        TestFactory testFactory = TestFactory.getInstance();
-                        modified = testFactory.deleteStatementGracefully(testChromosome.getTestCase(), i);
-                    } catch (ConstructionFailedException e) {
-                        modified = false;
-                    }
-
-                    if(!modified){
-                        testChromosome.setChanged(false);
-                        testChromosome.setTestCase(originalTestChromosome.getTestCase());
-                        logger.debug("Deleting failed");
-                        continue;
-                    }
-
-                    testChromosome.setChanged(true);
-                    testChromosome.getTestCase().clearCoveredGoals();
-
-                    List<Double> modifiedVerFitness = new ArrayList<>();
-                    for (TestFitnessFactory<?> ff : testFitnessFactories)
-                        modifiedVerFitness.add(ff.getFitness(suite));
-
-                    int compare_ff = 0;
-                    // record exceptions size after delete statement
-                    int exceptSizeDeleted = testChromosome.getLastExecutionResult().getAllThrownExceptions().size();
-                    boolean exceptionCheckPass = true;
-                    if(exceptSizeDeleted > exceptSizeOriginal) {
-                        logger.debug("exceptSizeOriginal is {}, exceptSizeDeleted is {}", exceptSizeOriginal, exceptSizeDeleted);
-                        exceptionCheckPass = false;
-                        compare_ff = 1;
-                    }
-                    // check exception first, then check fitness
-                    if(exceptionCheckPass) {
-                        for (int i_fit = 0; i_fit < modifiedVerFitness.size(); i_fit++) {
-                            if (Double.compare(modifiedVerFitness.get(i_fit), fitness.get(i_fit)) < 0) {
-                                compare_ff = -1; // new value is lower than previous one
-                                break;
-                            } else if (Double.compare(modifiedVerFitness.get(i_fit), fitness.get(i_fit)) > 0) {
-                                compare_ff = 1; // new value is greater than previous one
-                                break;
-                            }
-                        }
-                    }
-
-                    // the value 0 if d1 (previous fitness) is numerically equal to d2 (new fitness)
-                    if (compare_ff == 0) {
-                        continue; // if we can guarantee that we have the same fitness value with less statements, better
-                        // a value less than 0 if d1 is numerically less than d2
-                    } else if (compare_ff == -1) {
-                        fitness = modifiedVerFitness;
-                        changed = true;
-                        /**
-                         * This means, that we try to delete statements equally
-                         * from each test case (If size is 'false'.) The hope is
-                         * that the median length of the test cases is shorter,
-                         * as opposed to the average length.
-                         */
-                        if (!size)
-                            break;
-                    }
-                    // and a value greater than 0 if d1 is numerically greater than d2
-                    else if (compare_ff == 1) {
-                        // Restore previous state
-                        logger.debug("Can't remove statement "
-                            + originalTestChromosome.getTestCase().getStatement(i).getCode());
-                        logger.debug("Restoring fitness from " + modifiedVerFitness
-                            + " to " + fitness);
-                        testChromosome.setTestCase(originalTestChromosome.getTestCase());
-                        testChromosome.setLastExecutionResult(originalTestChromosome.getLastExecutionResult());
-                        testChromosome.setChanged(false);
-                    }
-                }
+                logger.debug("Current size: " + suite.size() + "/" + suite.totalLengthOfTestCases());
+                changed |= minimizer.minimize(testChromosome);
             }
         }
+
+        minimizationExecutions += minimizer.getExecutions();
+        savedExecutions += minimizer.getSavedExecutions();
     }
 
     /**
@@ -468,9 +440,7 @@ public class TestSuiteMinimizer {
     public void minimizeByDeleteStatementPerTest(TestSuiteChromosome suite) {
         SecondaryObjective strategy = Properties.SECONDARY_OBJECTIVE[0];
 
-        boolean size = false;
         if (strategy == SecondaryObjective.SIZE) {
-            size = true;
             // If we want to remove tests, start with shortest
             suite.tests.sort(comparingInt(TestChromosome::size));
         } else if (strategy == SecondaryObjective.MAX_LENGTH) {
@@ -489,10 +459,12 @@ public class TestSuiteMinimizer {
             for (TestFitnessFactory<?> ff : testFitnessFactories) {
                 fitness.add(ff.getFitness(copy));
             }
-            minimizeByDeleteStatement(copy, size, fitness);
+            minimizeByDeleteStatement(copy, fitness);
         }
 
         removeEmptyTestCases(suite);
+
+        trackMinimizationExecutions();
     }
 
     public static void removeEmptyTestCases(TestSuiteChromosome suite) {
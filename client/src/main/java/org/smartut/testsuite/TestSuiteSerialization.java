@@ -20,9 +20,9 @@
 package org.smartut.testsuite;
 
 import org.smartut.TestGenerationContext;
+import org.smartut.testcase.TestCase;
 import org.smartut.testcase.TestChromosome;
 import org.smartut.testcase.statements.Statement;
-import org.smartut.utils.DebuggingObjectOutputStream;
 import org.smartut.runtime.util.Inputs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,41 +42,27 @@ public class TestSuiteSerialization {
     public static boolean saveTests(List<TestSuiteChromosome> list, File target) throws IllegalArgumentException{
         Inputs.checkNull(list,target);
 
-        File parent = target.getParentFile();
-        if(!parent.exists()){
-            parent.mkdirs();
-        }
-
-        try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-            for(TestSuiteChromosome ts : list) {
-                for (TestChromosome tc : ts.getTestChromosomes()) {
-                    out.writeObject(tc);
-                }
-            }
-
-            out.flush();
-            out.close();
-        }catch (IOException e){
-            logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
-            return false;
+        List<TestChromosome> tests = new ArrayList<>();
+        for(TestSuiteChromosome ts : list) {
+            tests.addAll(ts.getTestChromosomes());
         }
-
-        return true;
+        return writeTests(tests, target);
     }
     
     public static boolean saveTests(TestSuiteChromosome ts, File target) throws IllegalArgumentException{
+        return writeTests(ts.getTestChromosomes(), target);
+    }
+
+    private static boolean writeTests(List<TestChromosome> tests, File target) {
         File parent = target.getParentFile();
-        if(!parent.exists()){
+        if(parent != null && !parent.exists()){
             parent.mkdirs();
         }
 
-        try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-        	for (TestChromosome tc : ts.getTestChromosomes()) {
-        		out.writeObject(tc);
+        try(TestCaseCodec.Writer out = new TestCaseCodec.Writer(new FileOutputStream(target))){
+            for (TestChromosome tc : tests) {
+                out.writeTest(tc.getTestCase());
             }
-
-            out.flush();
-            out.close();
         }catch (IOException e){
             logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
             return false;
@@ -108,8 +94,52 @@ public class TestSuiteSerialization {
     }
 
     public static List<TestChromosome> loadTests(File target) throws IllegalArgumentException{
+        return loadTests(target, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Load at most the given number of tests, reading only as much of the
+     * file as needed if it is in the binary format
+     *
+     * @param target file written by one of the saveTests methods
+     * @param maxTests maximum number of tests to load
+     * @return the tests, possibly an empty list if the file cannot be read
+     */
+    public static List<TestChromosome> loadTests(File target, int maxTests) throws IllegalArgumentException{
         Inputs.checkNull(target);
 
+        if (target.exists() && !TestCaseCodec.isBinaryFormat(target)) {
+            // written by an older version
+            List<TestChromosome> list = loadSerializedTests(target);
+            return list.size() > maxTests ? new ArrayList<>(list.subList(0, maxTests)) : list;
+        }
+
+        List<TestChromosome> list = new ArrayList<>();
+
+        try(TestCaseCodec.Reader in = new TestCaseCodec.Reader(new FileInputStream(target)) ){
+            try {
+                while (list.size() < maxTests) {
+                    TestCase test = in.readTest();
+                    if (test == null) {
+                        break;
+                    }
+                    TestChromosome tc = new TestChromosome();
+                    tc.setTestCase(test);
+                    list.add(tc);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Problems when reading a serialized test from " + target.getAbsolutePath() + " : " + e.getMessage());
+            }
+        } catch (FileNotFoundException e) {
+            logger.warn("Cannot load tests because file does not exist: "+target.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
+        }
+
+        return list;
+    }
+
+    private static List<TestChromosome> loadSerializedTests(File target) {
         List<TestChromosome> list = new ArrayList<>();
 
         try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(target)) ){
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testsuite;
+
+import java.util.Arrays;
+
+/**
+ * What one execution result contributes to a suite fitness function: for each
+ * channel (e.g., true distances, predicate counts), a sparse vector of values
+ * indexed by goal id.
+ * 
+ * Contributions are immutable, so that the clones of an execution result can
+ * share the contribution computed for the original.
+ */
+public final class TraceContribution {
+
+	/**
+	 * Contribution of a result that is ignored by the fitness function, e.g.
+	 * because of a timeout
+	 */
+	public static final TraceContribution NONE = new TraceContribution(new int[0][], new double[0][]);
+
+	/** goal ids of each channel, in ascending order */
+	private final int[][] goals;
+
+	private final double[][] values;
+
+	private TraceContribution(int[][] goals, double[][] values) {
+		this.goals = goals;
+		this.values = values;
+	}
+
+	public int getNumberOfChannels() {
+		return goals.length;
+	}
+
+	/**
+	 * @return the goal ids with a value in the given channel, in ascending
+	 *         order. The array must not be modified
+	 */
+	public int[] getGoals(int channel) {
+		return goals[channel];
+	}
+
+	/**
+	 * @return the values of the goals returned by {@link #getGoals(int)}. The
+	 *         array must not be modified
+	 */
+	public double[] getValues(int channel) {
+		return values[channel];
+	}
+
+	/**
+	 * @return the value of the goal in the given channel, or NaN if the goal
+	 *         has no value
+	 */
+	public double getValue(int channel, int goal) {
+		if (channel >= goals.length) {
+			return Double.NaN;
+		}
+		int index = Arrays.binarySearch(goals[channel], goal);
+		return index < 0 ? Double.NaN : values[channel][index];
+	}
+
+	public static class Builder {
+
+		private final int[][] goals;
+
+		private final double[][] values;
+
+		private final int[] sizes;
+
+		public Builder(int channels) {
+			goals = new int[channels][];
+			values = new double[channels][];
+			sizes = new int[channels];
+			for (int i = 0; i < channels; i++) {
+				goals[i] = new int[8];
+				values[i] = new double[8];
+			}
+		}
+
+		/**
+		 * Sets the value of a goal. Each goal can only get one value per
+		 * channel.
+		 */
+		public Builder add(int channel, int goal, double value) {
+			if (goal < 0) {
+				throw new IllegalArgumentException("Negative goal id: " + goal);
+			}
+			int size = sizes[channel];
+			if (size == goals[channel].length) {
+				goals[channel] = Arrays.copyOf(goals[channel], size * 2);
+				values[channel] = Arrays.copyOf(values[channel], size * 2);
+			}
+			goals[channel][size] = goal;
+			values[channel][size] = value;
+			sizes[channel] = size + 1;
+			return this;
+		}
+
+		public TraceContribution build() {
+			int[][] sortedGoals = new int[goals.length][];
+			double[][] sortedValues = new double[goals.length][];
+			for (int channel = 0; channel < goals.length; channel++) {
+				int size = sizes[channel];
+				int[] g = Arrays.copyOf(goals[channel], size);
+				double[] v = Arrays.copyOf(values[channel], size);
+				if (!isSorted(g)) {
+					sort(g, v);
+				}
+				sortedGoals[channel] = g;
+				sortedValues[channel] = v;
+			}
+			return new TraceContribution(sortedGoals, sortedValues);
+		}
+
+		private static boolean isSorted(int[] g) {
+			for (int i = 1; i < g.length; i++) {
+				if (g[i - 1] >= g[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static void sort(int[] g, double[] v) {
+			// pairs of (goal, position), so that the values can follow the goals
+			long[] pairs = new long[g.length];
+			for (int i = 0; i < g.length; i++) {
+				pairs[i] = ((long) g[i] << 32) | i;
+			}
+			Arrays.sort(pairs);
+			double[] original = v.clone();
+			for (int i = 0; i < pairs.length; i++) {
+				g[i] = (int) (pairs[i] >>> 32);
+				v[i] = original[(int) pairs[i]];
+				if (i > 0 && g[i] == g[i - 1]) {
+					throw new IllegalArgumentException("Goal " + g[i] + " has more than one value");
+				}
+			}
+		}
+	}
+}
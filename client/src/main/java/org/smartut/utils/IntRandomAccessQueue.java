@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.utils;
+
+import org.smartut.Properties;
+
+/**
+ * A {@link DefaultRandomAccessQueue} of int values that does not box them.
+ * 
+ * Values are kept in insertion order in a ring buffer, and indexed by an open
+ * addressing hash table, so that adding a value that is already in the queue
+ * does not allocate.
+ */
+public class IntRandomAccessQueue implements RandomAccessQueue<Integer> {
+
+	/* values in insertion order, starting at head */
+	private int[] queue = new int[16];
+
+	private int head = 0;
+
+	private int size = 0;
+
+	/* slots with (value | USED), 0 for the empty slots */
+	private long[] table = new long[32];
+
+	private static final long USED = 1L << 32;
+
+	@Override
+	public void restrictedAdd(Integer value) {
+		restrictedAdd(value.intValue());
+	}
+
+	public void restrictedAdd(int value) {
+		if (contains(value)) {
+			return;
+		}
+		if (size == queue.length) {
+			grow();
+		}
+		queue[(head + size) % queue.length] = value;
+		size++;
+		insert(value);
+		while (size > Math.max(1, Properties.DYNAMIC_POOL_SIZE)) {
+			int oldest = queue[head];
+			head = (head + 1) % queue.length;
+			size--;
+			remove(oldest);
+		}
+	}
+
+	public boolean contains(int value) {
+		long entry = (value & 0xFFFFFFFFL) | USED;
+		int mask = table.length - 1;
+		for (int i = slot(value, mask); table[i] != 0; i = (i + 1) & mask) {
+			if (table[i] == entry) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Integer getRandomValue() {
+		return getRandomInt();
+	}
+
+	public int getRandomInt() {
+		if (size == 0) {
+			throw new IllegalStateException("Queue is empty");
+		}
+		return queue[(head + Randomness.nextInt(size)) % queue.length];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private static int slot(int value, int mask) {
+		int h = value * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private void insert(int value) {
+		int mask = table.length - 1;
+		int i = slot(value, mask);
+		while (table[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		table[i] = (value & 0xFFFFFFFFL) | USED;
+	}
+
+	/*
+	 * Removes with backward shifting, so that the probe sequences of the
+	 * remaining values stay intact without tombstones
+	 */
+	private void remove(int value) {
+		long entry = (value & 0xFFFFFFFFL) | USED;
+		int mask = table.length - 1;
+		int i = slot(value, mask);
+		while (table[i] != entry) {
+			if (table[i] == 0) {
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		int gap = i;
+		for (int j = (gap + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+			int home = slot((int) table[j], mask);
+			// move the entry into the gap unless its home slot lies between the gap and j
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				table[gap] = table[j];
+				gap = j;
+			}
+		}
+		table[gap] = 0;
+	}
+
+	private void grow() {
+		int[] values = new int[queue.length * 2];
+		for (int i = 0; i < size; i++) {
+			values[i] = queue[(head + i) % queue.length];
+		}
+		queue = values;
+		head = 0;
+		table = new long[queue.length * 2];
+		for (int i = 0; i < size; i++) {
+			insert(queue[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder res = new StringBuilder("[ ");
+		for (int i = 0; i < size; i++) {
+			res.append(queue[(head + i) % queue.length]).append(" ");
+		}
+		res.append("]");
+		return res.toString();
+	}
+}
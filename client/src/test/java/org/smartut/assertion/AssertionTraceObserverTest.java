@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.assertion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.smartut.Properties;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.execution.ExecutionObserver;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testcase.execution.Scope;
+import org.smartut.testcase.execution.TestCaseExecutor;
+import org.smartut.testcase.statements.Statement;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+
+public class AssertionTraceObserverTest {
+
+	private static final boolean DEFAULT_PURE_INSPECTORS = Properties.PURE_INSPECTORS;
+
+	private static final boolean DEFAULT_PURE_EQUALS = Properties.PURE_EQUALS;
+
+	@After
+	public void tearDown() {
+		Properties.PURE_INSPECTORS = DEFAULT_PURE_INSPECTORS;
+		Properties.PURE_EQUALS = DEFAULT_PURE_EQUALS;
+		TestCaseExecutor.getInstance().newObservers();
+	}
+
+	@Test
+	public void testOnlyObserversCallingTheSUTObserveThePrefix() {
+		AssertionTraceObserver<?>[] readOnly = { new PrimitiveTraceObserver(), new NullTraceObserver(),
+				new SameTraceObserver(), new PrimitiveFieldTraceObserver(), new ArrayTraceObserver(),
+				new ArrayLengthObserver() };
+		for (AssertionTraceObserver<?> observer : readOnly) {
+			Assert.assertFalse(observer.observesAllStatements());
+		}
+		// contains may change the state of the SUT
+		Assert.assertTrue(new ContainsTraceObserver().observesAllStatements());
+	}
+
+	@Test
+	public void testInspectorsObserveThePrefixUnlessPure() {
+		Properties.PURE_INSPECTORS = true;
+		Assert.assertFalse(new InspectorTraceObserver().observesAllStatements());
+		Properties.PURE_INSPECTORS = false;
+		Assert.assertTrue(new InspectorTraceObserver().observesAllStatements());
+
+		Properties.PURE_EQUALS = true;
+		Assert.assertFalse(new ComparisonTraceObserver().observesAllStatements());
+		Properties.PURE_EQUALS = false;
+		Assert.assertTrue(new ComparisonTraceObserver().observesAllStatements());
+	}
+
+	@Test
+	public void testPrefixIsOnlyReportedToObserversOfAllStatements() {
+		DefaultTestCase test = new DefaultTestCase();
+		test.addStatement(new IntPrimitiveStatement(test, 0));
+		test.addStatement(new IntPrimitiveStatement(test, 1));
+		test.addStatement(new IntPrimitiveStatement(test, 2));
+
+		RecordingObserver all = new RecordingObserver(true);
+		RecordingObserver window = new RecordingObserver(false);
+		TestCaseExecutor.getInstance().addObserver(all);
+		TestCaseExecutor.getInstance().addObserver(window);
+
+		TestCaseExecutor.getInstance().executeObservingFrom(test, 2);
+		Assert.assertEquals(Collections.singletonList(2), window.positions);
+		Assert.assertEquals(3, all.positions.size());
+
+		// the window only applies to the execution it was given for
+		window.positions.clear();
+		TestCaseExecutor.getInstance().execute(test);
+		Assert.assertEquals(3, window.positions.size());
+	}
+
+	private static class RecordingObserver extends ExecutionObserver {
+
+		private final boolean observesAllStatements;
+
+		private final List<Integer> positions = new ArrayList<>();
+
+		RecordingObserver(boolean observesAllStatements) {
+			this.observesAllStatements = observesAllStatements;
+		}
+
+		@Override
+		public boolean observesAllStatements() {
+			return observesAllStatements;
+		}
+
+		@Override
+		public void output(int position, String output) {
+		}
+
+		@Override
+		public void beforeStatement(Statement statement, Scope scope) {
+		}
+
+		@Override
+		public void afterStatement(Statement statement, Scope scope, Throwable exception) {
+			positions.add(statement.getPosition());
+		}
+
+		@Override
+		public void testExecutionFinished(ExecutionResult r, Scope s) {
+		}
+
+		@Override
+		public void clear() {
+		}
+	}
+}
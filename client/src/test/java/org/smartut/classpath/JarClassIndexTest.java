@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.classpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.jar.JarFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.smartut.Properties;
+
+public class JarClassIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File jar;
+
+	private File indexDir;
+
+	@Before
+	public void setUp() throws IOException {
+		jar = new File(folder.getRoot(), "water-simulator.jar");
+		Files.copy(new File("local_test_data" + File.separator + "water-simulator.jar").toPath(), jar.toPath());
+		indexDir = new File(folder.getRoot(), "index");
+		Properties.CLASSPATH_INDEX_DIR = indexDir.getAbsolutePath();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.CLASSPATH_INDEX_DIR = null;
+	}
+
+	@Test
+	public void testIndexIsStoredAndReused() throws IOException {
+		assertNull(JarClassIndex.load(jar));
+
+		JarClassIndex scanned = JarClassIndex.getOrCreate(jar);
+		assertNotNull(scanned);
+		assertEquals(1, indexDir.listFiles().length);
+
+		JarClassIndex loaded = JarClassIndex.load(jar);
+		assertNotNull(loaded);
+		assertEquals(scanned.getClassNames().size(), loaded.getClassNames().size());
+		assertTrue(loaded.getClassNames().contains("simulator.DAWN"));
+
+		ClassNode cn = new ClassNode();
+		try (JarFile jarFile = new JarFile(jar);
+				InputStream in = jarFile.getInputStream(jarFile.getEntry("simulator/DAWN.class"))) {
+			new ClassReader(in).accept(cn, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE);
+		}
+		JarClassIndex.ClassInfo info = loaded.getClassInfo("simulator.DAWN");
+		assertEquals(cn.name, info.getName());
+		assertEquals(cn.access, info.getAccess());
+		assertEquals(cn.superName, info.getSuperName());
+		assertEquals(cn.interfaces, info.getInterfaces());
+		assertEquals(cn.methods.size(), info.getNumberOfMethods());
+		assertEquals(scanned.getClassInfo("simulator.DAWN").isTestable(), info.isTestable());
+	}
+
+	@Test
+	public void testChangedJarIsIndexedAgain() {
+		assertNotNull(JarClassIndex.getOrCreate(jar));
+		assertTrue(jar.setLastModified(jar.lastModified() + 10_000));
+		assertNull(JarClassIndex.load(jar));
+
+		assertNotNull(JarClassIndex.getOrCreate(jar));
+		assertEquals(2, indexDir.listFiles().length);
+	}
+
+	@Test
+	public void testNotStoredWhenDisabled() {
+		Properties.CLASSPATH_INDEX_DIR = null;
+		assertNotNull(JarClassIndex.getOrCreate(jar));
+		assertNull(JarClassIndex.load(jar));
+		assertFalse(indexDir.exists());
+	}
+}
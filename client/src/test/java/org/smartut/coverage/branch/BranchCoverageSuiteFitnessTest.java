@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.coverage.branch;
+
+import java.lang.reflect.Method;
+
+import org.smartut.Properties;
+import org.smartut.Properties.Criterion;
+import org.smartut.TestGenerationContext;
+import org.smartut.classpath.ClassPathHandler;
+import org.smartut.instrumentation.InstrumentingClassLoader;
+import org.smartut.symbolic.TestCaseBuilder;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.TestChromosome;
+import org.smartut.testcase.execution.TestCaseExecutor;
+import org.smartut.testcase.variable.VariableReference;
+import org.smartut.testsuite.TestSuiteChromosome;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.FlagExample1;
+
+public class BranchCoverageSuiteFitnessTest {
+
+	private static final String TARGET_CLASS = FlagExample1.class.getCanonicalName();
+
+	private InstrumentingClassLoader cl;
+
+	@BeforeClass
+	public static void init() {
+		String cp = System.getProperty("user.dir") + "/target/test-classes";
+		ClassPathHandler.getInstance().addElementToTargetProjectClassPath(cp);
+	}
+
+	@Before
+	public void setUp() throws ClassNotFoundException {
+		Properties.CRITERION = new Properties.Criterion[] { Criterion.BRANCH };
+		Properties.TARGET_CLASS = TARGET_CLASS;
+		TestGenerationContext.getInstance().resetContext();
+		TestCaseExecutor.getInstance().newObservers();
+		cl = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		// instruments the class, so that its branches are known
+		cl.loadClass(TARGET_CLASS);
+	}
+
+	@After
+	public void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+	}
+
+	private TestCase buildTestCase(int x) throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		Class<?> clazz = cl.loadClass(TARGET_CLASS);
+		VariableReference example = builder.appendConstructor(clazz.getConstructor());
+		VariableReference value = builder.appendIntPrimitive(x);
+		Method testMe = clazz.getMethod("testMe", int.class);
+		builder.appendMethod(example, testMe, value);
+		return builder.getDefaultTestCase();
+	}
+
+	private TestSuiteChromosome buildSuite(int... values) throws Exception {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (int x : values) {
+			suite.addTest(buildTestCase(x));
+		}
+		return suite;
+	}
+
+	@Test
+	public void testIncrementalFitnessAfterChangingOneTest() throws Exception {
+		BranchCoverageSuiteFitness fitness = new BranchCoverageSuiteFitness();
+		TestSuiteChromosome suite = buildSuite(1, 2);
+		double original = fitness.getFitness(suite);
+		Assert.assertTrue(original > 0.0);
+
+		TestSuiteChromosome offspring = suite.clone();
+		TestChromosome changed = offspring.getTestChromosome(1);
+		offspring.deleteTest(changed);
+		offspring.addTest(buildTestCase(28241));
+		double incremental = fitness.getFitness(offspring);
+
+		// same as evaluating the tests from scratch
+		double expected = new BranchCoverageSuiteFitness().getFitness(buildSuite(1, 28241));
+		Assert.assertEquals(expected, incremental, 0.0);
+		Assert.assertTrue(incremental < original);
+		Assert.assertEquals(1.0, offspring.getCoverage(), 0.0);
+
+		// the parent keeps its own aggregate
+		Assert.assertEquals(original, fitness.getFitness(suite), 0.0);
+
+		offspring.deleteTest(offspring.getTestChromosome(1));
+		Assert.assertEquals(new BranchCoverageSuiteFitness().getFitness(buildSuite(1)),
+				fitness.getFitness(offspring), 0.0);
+	}
+}
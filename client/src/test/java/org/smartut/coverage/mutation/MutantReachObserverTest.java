@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.coverage.mutation;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartut.assertion.OutputTrace;
+import org.smartut.assertion.PrimitiveTraceEntry;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testcase.execution.ExecutionTracer;
+import org.smartut.testcase.execution.Scope;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+import org.smartut.testcase.variable.VariableReference;
+
+public class MutantReachObserverTest {
+
+	private DefaultTestCase test;
+
+	@Before
+	public void setUp() {
+		test = new DefaultTestCase();
+		for (int i = 0; i < 3; i++) {
+			test.addStatement(new IntPrimitiveStatement(test, i));
+		}
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.enable();
+	}
+
+	@After
+	public void tearDown() {
+		ExecutionTracer.disable();
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@Test
+	public void testFirstReachingStatement() {
+		MutantReachObserver observer = new MutantReachObserver();
+		Scope scope = new Scope();
+
+		observer.beforeStatement(test.getStatement(0), scope);
+		ExecutionTracer.passedMutation(1.0, 5);
+		observer.beforeStatement(test.getStatement(1), scope);
+		// reached by an inspector called by an observer after statement 1
+		ExecutionTracer.disable();
+		ExecutionTracer.passedMutation(0.0, 7);
+		ExecutionTracer.enable();
+		observer.beforeStatement(test.getStatement(2), scope);
+		ExecutionTracer.passedMutation(0.0, 5);
+		ExecutionTracer.passedMutation(0.0, 9);
+
+		ExecutionResult result = new ExecutionResult(test);
+		observer.testExecutionFinished(result, scope);
+
+		Assert.assertEquals(0, result.getFirstPositionReaching(5));
+		Assert.assertEquals(1, result.getFirstPositionReaching(7));
+		Assert.assertEquals(2, result.getFirstPositionReaching(9));
+		Assert.assertEquals(0, result.getFirstPositionReaching(42));
+		Assert.assertFalse(ExecutionTracer.getExecutionTracer().getTrace().getTouchedMutants().contains(7));
+	}
+
+	@Test
+	public void testTracesBeforeReachAreCopied() {
+		VariableReference var0 = test.getStatement(0).getReturnValue();
+		VariableReference var2 = test.getStatement(2).getReturnValue();
+
+		OutputTrace<PrimitiveTraceEntry> original = new OutputTrace<>();
+		original.addEntry(0, var0, new PrimitiveTraceEntry(var0, 0));
+		original.addEntry(2, var2, new PrimitiveTraceEntry(var2, 2));
+		ExecutionResult origResult = new ExecutionResult(test);
+		origResult.setTrace(original, PrimitiveTraceEntry.class);
+
+		// the mutant was only observed from statement 2 on
+		OutputTrace<PrimitiveTraceEntry> mutated = new OutputTrace<>();
+		mutated.addEntry(2, var2, new PrimitiveTraceEntry(var2, 3));
+		ExecutionResult mutantResult = new ExecutionResult(test);
+		mutantResult.setTrace(mutated, PrimitiveTraceEntry.class);
+		Assert.assertFalse(mutated.containsEntry(0, var0));
+
+		mutantResult.addTracesBefore(origResult, 2);
+
+		Assert.assertTrue(mutated.containsEntry(0, var0));
+		Assert.assertFalse(original.getEntry(0, var0).differs(mutated.getEntry(0, var0)));
+		Assert.assertTrue(original.getEntry(2, var2).differs(mutated.getEntry(2, var2)));
+		Assert.assertEquals(1, original.numDiffer(mutated));
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.instrumentation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.smartut.Properties;
+import org.smartut.classpath.ClassPathHandler;
+import org.smartut.runtime.instrumentation.RemoveFinalClassAdapter;
+
+import com.examples.with.different.packagename.FinalConstants;
+
+public class InstrumentedBytecodeCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String targetClass;
+
+	@BeforeClass
+	public static void initClass() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsSmartUt();
+	}
+
+	@Before
+	public void setUp() {
+		targetClass = Properties.TARGET_CLASS;
+		// FinalConstants is a dependency, not the class under test
+		Properties.TARGET_CLASS = "com.examples.with.different.packagename.FlagExample1";
+		Properties.INSTRUMENTATION_CACHE_DIR = folder.getRoot().getAbsolutePath();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.TARGET_CLASS = targetClass;
+		Properties.INSTRUMENTATION_CACHE_DIR = null;
+	}
+
+	@Test
+	public void testSecondClassLoaderUsesCache() throws Exception {
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		String className = FinalConstants.class.getName();
+		long hits = cache.getNumberOfHits();
+		long misses = cache.getNumberOfMisses();
+
+		new InstrumentingClassLoader().loadClass(className);
+		assertEquals(misses + 1, cache.getNumberOfMisses());
+		assertEquals(hits, cache.getNumberOfHits());
+
+		RemoveFinalClassAdapter.finalClasses.remove(className);
+		Class<?> instrumented = new InstrumentingClassLoader().loadClass(className);
+		assertEquals(hits + 1, cache.getNumberOfHits());
+		assertTrue(RemoveFinalClassAdapter.finalClasses.contains(className));
+
+		assertFalse(Modifier.isFinal(instrumented.getModifiers()));
+		Object instance = instrumented.getConstructor().newInstance();
+		assertEquals("forty-two", instrumented.getMethod("describe", int.class).invoke(instance, 42));
+	}
+
+	@Test
+	public void testEntryIsReadBack() throws IOException {
+		String className = FinalConstants.class.getName().replace('.', '/');
+		byte[] classBytes = IOUtils.toByteArray(FinalConstants.class.getResourceAsStream("FinalConstants.class"));
+		ClassReader reader = new ClassReader(classBytes);
+		CachedInstrumentation entry = BytecodeInstrumentation.instrumentNonTargetClass(className, reader,
+				ClassReader.SKIP_FRAMES);
+		assertTrue(entry.getNonSUTConstants().contains("forty-two"));
+		assertTrue(entry.getNonSUTConstants().contains(42));
+
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		String key = cache.getKey(className, classBytes);
+		cache.put(key, entry);
+		CachedInstrumentation read = cache.get(key);
+
+		assertNotNull(read);
+		assertArrayEquals(entry.getBytecode(), read.getBytecode());
+		entry.getNonSUTConstants().removeIf(c -> c == null);
+		assertEquals(entry.getNonSUTConstants(), read.getNonSUTConstants());
+		assertEquals(entry.getFinalClasses(), read.getFinalClasses());
+	}
+
+	@Test
+	public void testKeyDependsOnSettings() {
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		byte[] bytes = new byte[] { 1, 2, 3 };
+		String key = cache.getKey("Foo", bytes);
+		assertEquals(key, cache.getKey("Foo", bytes));
+
+		boolean makeAccessible = Properties.MAKE_ACCESSIBLE;
+		Properties.MAKE_ACCESSIBLE = !makeAccessible;
+		try {
+			assertFalse(key.equals(cache.getKey("Foo", bytes)));
+		} finally {
+			Properties.MAKE_ACCESSIBLE = makeAccessible;
+		}
+		assertFalse(key.equals(cache.getKey("Foo", new byte[] { 1, 2, 4 })));
+	}
+}
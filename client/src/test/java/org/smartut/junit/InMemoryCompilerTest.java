@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.junit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartut.classpath.ClassPathHandler;
+
+public class InMemoryCompilerTest {
+
+	@Before
+	public void init() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsSmartUt();
+	}
+
+	@Test
+	public void testNestedClassesAreKept() {
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("foo.Outer", "package foo; public class Outer { "
+				+ "public Runnable get() { return new Runnable() { public void run() {} }; } "
+				+ "static class Inner {} }");
+
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(sources);
+
+		Assert.assertTrue(result.isSuccessful());
+		Assert.assertTrue(result.getClasses().containsKey("foo.Outer"));
+		Assert.assertTrue(result.getClasses().containsKey("foo.Outer$1"));
+		Assert.assertTrue(result.getClasses().containsKey("foo.Outer$Inner"));
+	}
+
+	@Test
+	public void testErrorsAreMappedToUnits() {
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("foo.Good", "package foo; public class Good { int x = 1; }");
+		sources.put("foo.Bad", "package foo; public class Bad { int x = \"no\"; }");
+		sources.put("foo.AlsoBad", "package foo; public class AlsoBad { void m() { undefined(); } }");
+
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(sources);
+
+		Assert.assertFalse(result.isSuccessful());
+		Assert.assertEquals(2, result.getErrors().size());
+		Assert.assertTrue(result.getErrors().containsKey("foo.Bad"));
+		Assert.assertTrue(result.getErrors().containsKey("foo.AlsoBad"));
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.rmi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartut.statistics.RuntimeVariable;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.TestChromosome;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+
+public class MigrationServiceTest {
+
+	private final BlockingQueue<byte[]> batches = new LinkedBlockingQueue<>();
+
+	private MigrationService<TestChromosome> migration;
+
+	@SuppressWarnings("unchecked")
+	private final ClientNodeLocal<TestChromosome> clientNode = mock(ClientNodeLocal.class);
+
+	@Before
+	public void setUp() throws Exception {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		doAnswer(invocation -> batches.add(invocation.getArgument(1)))
+				.when(master).smartut_migrate(eq("ClientNode1"), any(byte[].class));
+		migration = new MigrationService<>(master, "ClientNode1", 10);
+	}
+
+	@After
+	public void tearDown() {
+		migration.stop(clientNode);
+	}
+
+	private static TestChromosome createTest(int... values) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int value : values) {
+			test.addStatement(new IntPrimitiveStatement(test, value));
+		}
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	private static List<String> toCode(Collection<TestChromosome> tests) {
+		return tests.stream().map(t -> t.getTestCase().toCode()).collect(Collectors.toList());
+	}
+
+	private List<TestChromosome> nextBatch() throws Exception {
+		byte[] batch = batches.poll(10, TimeUnit.SECONDS);
+		Assert.assertNotNull("No batch was sent", batch);
+		return MigrationService.decode(batch);
+	}
+
+	@Test
+	public void testSendsCopiesOnceInBackground() throws Exception {
+		TestChromosome first = createTest(1, 2);
+		migration.send(Collections.singleton(first));
+
+		List<TestChromosome> sent = nextBatch();
+		Assert.assertEquals(toCode(Collections.singleton(first)), toCode(sent));
+
+		// a structurally identical test is not sent again
+		TestChromosome second = createTest(3);
+		migration.send(Arrays.asList(createTest(1, 2), second));
+		Assert.assertEquals(toCode(Collections.singleton(second)), toCode(nextBatch()));
+
+		migration.stop(clientNode);
+		verify(clientNode).trackOutputVariable(RuntimeVariable.Migrants_Sent, 2L);
+		verify(clientNode).trackOutputVariable(RuntimeVariable.Migrants_Discarded, 1L);
+	}
+
+	@Test
+	public void testReceiveSkipsKnownTests() throws Exception {
+		migration.send(Collections.singleton(createTest(1)));
+		nextBatch();
+
+		byte[] batch = MigrationService.encode(Arrays.asList(createTest(1), createTest(2)));
+		Set<TestChromosome> received = migration.receive(batch);
+		Assert.assertEquals(toCode(Collections.singleton(createTest(2))), toCode(received));
+		Assert.assertTrue(migration.receive(batch).isEmpty());
+	}
+
+	@Test
+	public void testSenderRestartsAfterRemoteException() throws Exception {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		doThrow(new RemoteException("unreachable"))
+				.doAnswer(invocation -> batches.add(invocation.getArgument(1)))
+				.when(master).smartut_migrate(eq("ClientNode1"), any(byte[].class));
+		MigrationService<TestChromosome> failing = new MigrationService<>(master, "ClientNode1", 10);
+		try {
+			failing.send(Collections.singleton(createTest(1)));
+
+			// the first batch is lost, a later migration starts a new sender
+			byte[] batch = null;
+			for (int i = 2; batch == null && i < 50; i++) {
+				failing.send(Collections.singleton(createTest(i)));
+				batch = batches.poll(200, TimeUnit.MILLISECONDS);
+			}
+			Assert.assertNotNull("No batch was sent after the failure", batch);
+		} finally {
+			failing.stop(clientNode);
+		}
+		// at least the migrant of the failed batch
+		verify(clientNode).trackOutputVariable(eq(RuntimeVariable.Migrants_Discarded), longThat(n -> n >= 1L));
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.setup;
+
+import java.util.LinkedList;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.smartut.Properties;
+import org.smartut.testcase.execution.MethodCall;
+
+public class CallContextFrameTest {
+
+	@After
+	public void resetProperties() {
+		Properties.JUNIT = "";
+	}
+
+	/*
+	 * Compares the frame of each prefix of the calls with the context
+	 * computed from the whole stack
+	 */
+	private static void assertSameContexts(String... calls) {
+		LinkedList<MethodCall> stack = new LinkedList<>();
+		stack.push(new MethodCall("", "", 0, 0, 0));
+		CallContext.Frame frame = CallContext.Frame.getRoot();
+		Assert.assertEquals(new CallContext(stack), frame.getContext());
+		for (String call : calls) {
+			String[] names = call.split("#");
+			stack.push(new MethodCall(names[0], names[1], 0, 0, stack.size()));
+			frame = frame.enter(names[0], names[1]);
+			CallContext expected = new CallContext(stack);
+			Assert.assertEquals(expected, frame.getContext());
+			Assert.assertEquals(expected.toString(), frame.getContext().toString());
+		}
+	}
+
+	@Test
+	public void testPlainCalls() {
+		assertSameContexts("com.example.Foo#a()V", "com.example.Bar#b()V", "com.example.Foo#c()V");
+	}
+
+	@Test
+	public void testExcludedCalls() {
+		assertSameContexts("java.lang.Thread#run()V", "com.example.Foo#a()V", "java.util.List#add()Z",
+				"com.example.Bar#b()V", "sun.misc.Unsafe#get()V", "java.lang.Object#wait()V");
+	}
+
+	@Test
+	public void testRecursion() {
+		assertSameContexts("com.example.Foo#a()V", "com.example.Foo#a()V", "com.example.Foo#a()V",
+				"com.example.Foo#a()V", "com.example.Bar#b()V", "com.example.Bar#b()V", "com.example.Bar#b()V");
+	}
+
+	@Test
+	public void testJUnitExcludes() {
+		Properties.JUNIT = "com.example.FooTest";
+		assertSameContexts("com.example.FooTest#test()V", "com.example.Foo#a()V");
+	}
+
+	@Test
+	public void testFramesAreShared() {
+		CallContext.Frame frame = CallContext.Frame.getRoot().enter("com.example.Foo", "a()V");
+		Assert.assertSame(frame, CallContext.Frame.getRoot().enter("com.example.Foo", "a()V"));
+		Assert.assertSame(frame.getContext(), frame.enter("java.lang.Object", "wait()V").getContext());
+	}
+}
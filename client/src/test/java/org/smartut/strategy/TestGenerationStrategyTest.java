@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.strategy;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.smartut.runtime.LoopCounter;
+
+public class TestGenerationStrategyTest {
+
+	@Test
+	public void testFormatIterationHistogram() {
+		long[] histogram = new long[LoopCounter.HISTOGRAM_BUCKETS];
+		assertEquals("", TestGenerationStrategy.formatIterationHistogram(histogram));
+
+		histogram[1] = 5;
+		histogram[3] = 2;
+		histogram[LoopCounter.HISTOGRAM_BUCKETS - 1] = 1;
+		assertEquals("1:5 4:2 " + (1L << 62) + ":1", TestGenerationStrategy.formatIterationHistogram(histogram));
+	}
+}
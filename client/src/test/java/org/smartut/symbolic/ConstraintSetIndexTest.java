@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.smartut.symbolic.expr.Constraint;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+import org.smartut.symbolic.vm.ConstraintFactory;
+import org.smartut.symbolic.vm.ExpressionFactory;
+
+public class ConstraintSetIndexTest {
+
+	private final IntegerVariable x = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final IntegerVariable y = new IntegerVariable("y", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private static Set<Constraint<?>> setOf(Constraint<?>... constraints) {
+		return new HashSet<>(Arrays.asList(constraints));
+	}
+
+	@Test
+	public void testEmptyIndex() {
+		ConstraintSetIndex index = new ConstraintSetIndex();
+		assertEquals(0, index.size());
+		assertFalse(index.contains(Collections.emptySet()));
+		assertFalse(index.containsSupersetOf(Collections.emptySet()));
+	}
+
+	@Test
+	public void testSupersets() {
+		Constraint<?> a = ConstraintFactory.gte(x, ExpressionFactory.ICONST_0);
+		Constraint<?> b = ConstraintFactory.lte(y, ExpressionFactory.ICONST_5);
+		Constraint<?> c = ConstraintFactory.eq(x, y);
+		// an equal constraint built anew is found as well
+		Constraint<?> sameAsA = ConstraintFactory.gte(x, ExpressionFactory.ICONST_0);
+
+		ConstraintSetIndex index = new ConstraintSetIndex();
+		assertTrue(index.add(setOf(a, b)));
+		assertTrue(index.add(setOf(b, c)));
+		assertFalse(index.add(setOf(b, sameAsA)));
+		assertEquals(2, index.size());
+
+		assertTrue(index.contains(setOf(sameAsA, b)));
+		assertFalse(index.contains(setOf(b)));
+
+		assertTrue(index.containsSupersetOf(setOf(sameAsA)));
+		assertTrue(index.containsSupersetOf(setOf(b)));
+		assertTrue(index.containsSupersetOf(setOf(c, b)));
+		assertTrue(index.containsSupersetOf(Collections.emptySet()));
+		assertFalse(index.containsSupersetOf(setOf(a, c)));
+		assertFalse(index.containsSupersetOf(setOf(a, ConstraintFactory.lt(x, y))));
+	}
+
+	@Test
+	public void testStoredSetIsCopied() {
+		Constraint<?> a = ConstraintFactory.gte(x, ExpressionFactory.ICONST_0);
+		Constraint<?> b = ConstraintFactory.lte(y, ExpressionFactory.ICONST_5);
+
+		Set<Constraint<?>> constraints = setOf(a);
+		ConstraintSetIndex index = new ConstraintSetIndex();
+		index.add(constraints);
+		constraints.add(b);
+
+		assertFalse(index.contains(constraints));
+		assertFalse(index.containsSupersetOf(constraints));
+		assertTrue(index.contains(setOf(a)));
+	}
+}
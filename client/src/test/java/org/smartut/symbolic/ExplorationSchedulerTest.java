@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.smartut.Properties.DSEExplorationStrategy;
+import org.smartut.symbolic.ExplorationScheduler.Negation;
+import org.smartut.symbolic.expr.Constraint;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+import org.smartut.symbolic.vm.ConstraintFactory;
+import org.smartut.symbolic.vm.ExpressionFactory;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.TestCase;
+
+public class ExplorationSchedulerTest {
+
+	private final IntegerVariable x = new IntegerVariable("x", 5, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final TestCase test = new DefaultTestCase();
+
+	@After
+	public void tearDown() {
+		DSEStats.clear();
+	}
+
+	/**
+	 * Builds the condition of branch <code>index</code> taking the given
+	 * outcome, with a constraint that is the further from flipping the larger
+	 * <code>bound</code> is
+	 */
+	private BranchCondition condition(int index, boolean isTrueBranch, long bound) {
+		Constraint<?> constraint;
+		if (isTrueBranch) {
+			constraint = ConstraintFactory.lte(x, ExpressionFactory.buildNewIntegerConstant(5 + bound));
+		} else {
+			constraint = ConstraintFactory.gte(x, ExpressionFactory.buildNewIntegerConstant(5 - bound));
+		}
+		return new IfBranchCondition("Foo", "bar", index, constraint, Collections.emptyList(), isTrueBranch);
+	}
+
+	private static PathCondition path(BranchCondition... conditions) {
+		return new PathCondition(new ArrayList<>(Arrays.asList(conditions)));
+	}
+
+	private static List<Integer> drain(ExplorationScheduler scheduler, PathCondition path) {
+		List<Integer> indexes = new ArrayList<>();
+		for (Negation negation; (negation = scheduler.next()) != null;) {
+			assertSame(path, negation.getPathCondition());
+			indexes.add(negation.getConditionIndex());
+		}
+		return indexes;
+	}
+
+	@Test
+	public void testDepthFirst() {
+		ExplorationScheduler scheduler = new ExplorationScheduler(DSEExplorationStrategy.DEPTH_FIRST, 0);
+		PathCondition first = path(condition(1, true, 1), condition(2, true, 1), condition(3, true, 1));
+		PathCondition second = path(condition(1, false, 1), condition(4, true, 1));
+		scheduler.addPath(test, first, null, 0.0);
+		scheduler.addPath(test, second, null, 0.0);
+		assertEquals(5, scheduler.size());
+
+		List<Negation> order = new ArrayList<>();
+		for (Negation negation; (negation = scheduler.next()) != null;) {
+			order.add(negation);
+		}
+		assertEquals(Arrays.asList(2, 1, 0, 1, 0),
+				Arrays.asList(order.get(0).getConditionIndex(), order.get(1).getConditionIndex(),
+						order.get(2).getConditionIndex(), order.get(3).getConditionIndex(),
+						order.get(4).getConditionIndex()));
+		assertSame(first, order.get(2).getPathCondition());
+		assertSame(second, order.get(3).getPathCondition());
+		assertTrue(scheduler.isEmpty());
+	}
+
+	@Test
+	public void testGenerationalNegatesOnlyNewConditions() {
+		ExplorationScheduler scheduler = new ExplorationScheduler(DSEExplorationStrategy.GENERATIONAL, 0);
+		PathCondition parentPath = path(condition(1, true, 1), condition(2, true, 1), condition(3, true, 1));
+		scheduler.addPath(test, parentPath, null, 1.0);
+		Negation parent = scheduler.next();
+		assertEquals(2, parent.getConditionIndex());
+		parent = scheduler.next();
+		assertEquals(1, parent.getConditionIndex());
+
+		// the child shares the conditions before the negated one
+		PathCondition childPath = path(condition(1, true, 1), condition(2, false, 1), condition(5, true, 1),
+				condition(6, true, 1));
+		scheduler.addPath(test, childPath, parent, 2.0);
+		Negation negation = scheduler.next();
+		assertSame(childPath, negation.getPathCondition());
+		assertEquals(1, negation.getGeneration());
+		assertEquals(3, negation.getConditionIndex());
+		assertEquals(2, scheduler.next().getConditionIndex());
+		assertSame(parentPath, scheduler.next().getPathCondition());
+		assertNull(scheduler.next());
+	}
+
+	@Test
+	public void testUncoveredBranchesFirst() {
+		ExplorationScheduler scheduler = new ExplorationScheduler(DSEExplorationStrategy.UNCOVERED_BRANCH, 0);
+		PathCondition first = path(condition(1, true, 100), condition(2, true, 1), condition(3, true, 10));
+		scheduler.addPath(test, first, null, 0.0);
+
+		// closest first
+		Negation negation = scheduler.next();
+		assertEquals(1, negation.getConditionIndex());
+
+		// a new path takes the other branch of the condition at index 2, which
+		// is then taken after the farther uncovered ones
+		PathCondition second = path(condition(1, true, 100), condition(3, false, 1));
+		scheduler.addPath(test, second, negation, 0.0);
+		Negation uncovered = scheduler.next();
+		assertSame(first, uncovered.getPathCondition());
+		assertEquals(0, uncovered.getConditionIndex());
+		uncovered = scheduler.next();
+		assertSame(second, uncovered.getPathCondition());
+		assertEquals(0, uncovered.getConditionIndex());
+
+		// then the covered ones, closest first
+		Negation covered = scheduler.next();
+		assertSame(second, covered.getPathCondition());
+		assertEquals(1, covered.getConditionIndex());
+		covered = scheduler.next();
+		assertSame(first, covered.getPathCondition());
+		assertEquals(2, covered.getConditionIndex());
+		assertNull(scheduler.next());
+	}
+
+	@Test
+	public void testDepthBound() {
+		ExplorationScheduler scheduler = new ExplorationScheduler(DSEExplorationStrategy.DEPTH_FIRST, 2);
+		PathCondition path = path(condition(1, true, 1), condition(2, true, 1), condition(3, true, 1));
+		scheduler.addPath(test, path, null, 0.0);
+		assertEquals(Arrays.asList(1, 0), drain(scheduler, path));
+	}
+
+	@Test
+	public void testNegationsOfDifferentPaths() {
+		ExplorationScheduler scheduler = new ExplorationScheduler(DSEExplorationStrategy.DEPTH_FIRST, 0);
+		PathCondition first = path(condition(1, true, 1), condition(2, true, 1));
+		PathCondition second = path(condition(1, false, 1));
+		scheduler.addPath(test, first, null, 0.0);
+		scheduler.addPath(test, second, null, 0.0);
+
+		List<Negation> negations = scheduler.nextOfDifferentPaths(2);
+		assertEquals(2, negations.size());
+		assertNotSame(negations.get(0).getPathCondition(), negations.get(1).getPathCondition());
+		assertEquals(1, scheduler.size());
+		assertEquals(1, scheduler.nextOfDifferentPaths(2).size());
+		assertTrue(scheduler.nextOfDifferentPaths(2).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeDepthBound() {
+		new ExplorationScheduler(DSEExplorationStrategy.DEPTH_FIRST, -1);
+	}
+}
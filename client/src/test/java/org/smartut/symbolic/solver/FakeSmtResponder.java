@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Minimal SMT-LIB responder used to test {@link SmtSolverSession} without an
+ * actual solver. Expects one command per line. A query is unsat if any of the
+ * asserted formulas contains <code>false</code>; models assign to each
+ * declared constant the number of assertions on the stack. Declarations are
+ * scoped, and declaring a constant that is already declared is an error. Asserting a formula
+ * containing <code>crash</code> terminates the process, and one containing
+ * <code>hang</code> never answers.
+ */
+public class FakeSmtResponder {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+		PrintStream out = System.out;
+
+		LinkedList<List<String>> constants = new LinkedList<>();
+		constants.push(new ArrayList<>());
+		LinkedList<List<String>> stack = new LinkedList<>();
+		stack.push(new ArrayList<>());
+
+		String line;
+		while ((line = in.readLine()) != null) {
+			line = line.trim();
+			if (line.startsWith("(push")) {
+				stack.push(new ArrayList<>());
+				constants.push(new ArrayList<>());
+			} else if (line.startsWith("(pop")) {
+				int n = Integer.parseInt(line.substring(5, line.length() - 1).trim());
+				for (int i = 0; i < n; i++) {
+					stack.pop();
+					constants.pop();
+				}
+			} else if (line.startsWith("(declare-const")) {
+				String constant = line.split(" ")[1];
+				if (constants.stream().anyMatch(c -> c.contains(constant))) {
+					out.println("(error \"constant " + constant + " already declared\")");
+				} else {
+					constants.peek().add(constant);
+				}
+			} else if (line.startsWith("(assert")) {
+				if (line.contains("crash")) {
+					return;
+				}
+				if (line.contains("hang")) {
+					Thread.sleep(Long.MAX_VALUE);
+				}
+				stack.peek().add(line);
+			} else if (line.equals("(check-sat)")) {
+				boolean unsat = stack.stream().flatMap(List::stream).anyMatch(a -> a.contains("false"));
+				out.println(unsat ? "unsat" : "sat");
+			} else if (line.equals("(get-model)")) {
+				long size = stack.stream().mapToLong(List::size).sum();
+				out.println("(model ");
+				for (List<String> scope : constants) {
+					for (String constant : scope) {
+						out.println("  (define-fun " + constant + " () Int " + size + ")");
+					}
+				}
+				out.println(")");
+			} else if (line.startsWith("(echo")) {
+				out.println(line.substring(line.indexOf('"') + 1, line.lastIndexOf('"')));
+			} else if (!line.startsWith("(set-") && !line.isEmpty()) {
+				out.println("(error \"unsupported command\")");
+			}
+			out.flush();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.smartut.symbolic.solver.smt.SmtModelParser;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SmtSolverSessionTest {
+
+	private static final long TIMEOUT = 10_000;
+
+	private static final List<String> DECLARE_X = Collections.singletonList("(declare-const x Int)");
+
+	private SmtSolverSession session;
+
+	@Before
+	public void setUp() {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		String cp = System.getProperty("user.dir") + "/target/test-classes";
+		String cmd = java + " -cp " + cp + " " + FakeSmtResponder.class.getName();
+		session = new SmtSolverSession(cmd, Collections.singletonList("(set-option :produce-models true)"));
+	}
+
+	@After
+	public void tearDown() {
+		session.close();
+	}
+
+	@Test
+	public void testSharedPrefixIsNotSentAgain() throws Exception {
+		String output = session.solve(DECLARE_X, Arrays.asList("(assert a)", "(assert b)", "(assert c)"), TIMEOUT);
+		Assert.assertEquals(3L, new SmtModelParser().parse(output).getValue("x"));
+		Assert.assertEquals(3, session.getNumberOfAssertionsSent());
+
+		// sibling query: only the last assertion differs
+		output = session.solve(DECLARE_X, Arrays.asList("(assert a)", "(assert b)", "(assert d)"), TIMEOUT);
+		Assert.assertEquals(3L, new SmtModelParser().parse(output).getValue("x"));
+		Assert.assertEquals(4, session.getNumberOfAssertionsSent());
+
+		// shorter query pops the extra scopes
+		output = session.solve(DECLARE_X, Collections.singletonList("(assert a)"), TIMEOUT);
+		Assert.assertEquals(1L, new SmtModelParser().parse(output).getValue("x"));
+		Assert.assertEquals(4, session.getNumberOfAssertionsSent());
+		Assert.assertEquals(1, session.getNumberOfStarts());
+	}
+
+	@Test
+	public void testUnsat() throws Exception {
+		String output = session.solve(DECLARE_X, Arrays.asList("(assert a)", "(assert false)"), TIMEOUT);
+		Assert.assertEquals("unsat", output);
+
+		output = session.solve(DECLARE_X, Arrays.asList("(assert a)", "(assert b)"), TIMEOUT);
+		Assert.assertTrue(output.startsWith("sat"));
+	}
+
+	@Test
+	public void testNewDeclarationKeepsSharedPrefix() throws Exception {
+		List<String> declareXY = Arrays.asList("(declare-const x Int)", "(declare-const y Int)");
+		session.solve(DECLARE_X, Arrays.asList("(assert a)", "(assert b)"), TIMEOUT);
+		String output = session.solve(declareXY, Arrays.asList("(assert a)", "(assert b)", "(assert c)"), TIMEOUT);
+		SolverResult result = new SmtModelParser().parse(output);
+		Assert.assertEquals(3L, result.getValue("x"));
+		Assert.assertEquals(3L, result.getValue("y"));
+		// y is declared in the scope of c, the prefix was kept
+		Assert.assertEquals(3, session.getNumberOfAssertionsSent());
+
+		// popping c also pops y, which is declared again when needed
+		output = session.solve(DECLARE_X, Collections.singletonList("(assert a)"), TIMEOUT);
+		Assert.assertNull(new SmtModelParser().parse(output).getValue("y"));
+		output = session.solve(declareXY, Arrays.asList("(assert a)", "(assert d)"), TIMEOUT);
+		Assert.assertEquals(2L, new SmtModelParser().parse(output).getValue("y"));
+		Assert.assertEquals(4, session.getNumberOfAssertionsSent());
+		Assert.assertEquals(1, session.getNumberOfStarts());
+	}
+
+	@Test
+	public void testRestartAfterCrash() throws Exception {
+		session.solve(DECLARE_X, Collections.singletonList("(assert a)"), TIMEOUT);
+		try {
+			session.solve(DECLARE_X, Collections.singletonList("(assert crash)"), TIMEOUT);
+			Assert.fail("Expected IOException");
+		} catch (IOException e) {
+			// crashed again after the restart
+		}
+		Assert.assertEquals(2, session.getNumberOfStarts());
+
+		String output = session.solve(DECLARE_X, Arrays.asList("(assert a)", "(assert b)"), TIMEOUT);
+		Assert.assertEquals(2L, new SmtModelParser().parse(output).getValue("x"));
+		Assert.assertEquals(3, session.getNumberOfStarts());
+	}
+
+	@Test
+	public void testTimeoutKillsSolver() throws Exception {
+		try {
+			session.solve(DECLARE_X, Collections.singletonList("(assert hang)"), 1000);
+			Assert.fail("Expected SolverTimeoutException");
+		} catch (SolverTimeoutException e) {
+			// expected
+		}
+		String output = session.solve(DECLARE_X, Collections.singletonList("(assert a)"), TIMEOUT);
+		Assert.assertTrue(output.startsWith("sat"));
+		Assert.assertEquals(2, session.getNumberOfStarts());
+	}
+
+	@Test(expected = SolverErrorException.class)
+	public void testErrorIsReported() throws Exception {
+		session.solve(Collections.singletonList("(declare-sort U 0)"), Collections.singletonList("(assert a)"),
+				TIMEOUT);
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartut.Properties;
+import org.smartut.symbolic.expr.Comparator;
+import org.smartut.symbolic.expr.Constraint;
+import org.smartut.symbolic.expr.IntegerConstraint;
+import org.smartut.symbolic.expr.Operator;
+import org.smartut.symbolic.expr.bv.IntegerBinaryExpression;
+import org.smartut.symbolic.expr.bv.IntegerConstant;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+
+public class SolverCacheTest {
+
+	/**
+	 * Answers every query with a fixed result and counts the calls
+	 */
+	private static class FixedSolver extends Solver {
+
+		private final SolverResult result;
+
+		private int calls = 0;
+
+		FixedSolver(SolverResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			calls++;
+			return result;
+		}
+	}
+
+	private int cacheSize;
+
+	private int modelReuse;
+
+	@Before
+	public void setUp() {
+		cacheSize = Properties.SOLVER_CACHE_SIZE;
+		modelReuse = Properties.SOLVER_CACHE_MODEL_REUSE;
+		SolverCache.getInstance().reset();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.SOLVER_CACHE_SIZE = cacheSize;
+		Properties.SOLVER_CACHE_MODEL_REUSE = modelReuse;
+		SolverCache.getInstance().reset();
+	}
+
+	private static IntegerVariable var(String name) {
+		return new IntegerVariable(name, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static Constraint<?> gt(IntegerVariable v, long value) {
+		return new IntegerConstraint(v, Comparator.GT, new IntegerConstant(value));
+	}
+
+	private static Constraint<?> lt(IntegerVariable v, long value) {
+		return new IntegerConstraint(v, Comparator.LT, new IntegerConstant(value));
+	}
+
+	private static SolverResult sat(String name, long value) {
+		Map<String, Object> model = new HashMap<>();
+		model.put(name, value);
+		return SolverResult.newSAT(model);
+	}
+
+	@Test
+	public void testRenamedAndReorderedQueryIsHit() {
+		SolverCache cache = SolverCache.getInstance();
+		IntegerVariable x = var("x");
+		IntegerVariable y = var("y");
+		Map<String, Object> model = new HashMap<>();
+		model.put("x", 20L);
+		model.put("y", 5L);
+		FixedSolver solver = new FixedSolver(SolverResult.newSAT(model));
+		cache.solve(solver, Arrays.asList(gt(x, 10), lt(y, 7)));
+
+		IntegerVariable a = var("a");
+		IntegerVariable b = var("b");
+		// constant operand is folded: 3 + 4 == 7
+		IntegerBinaryExpression seven = new IntegerBinaryExpression(new IntegerConstant(3), Operator.PLUS,
+				new IntegerConstant(4), 7L);
+		Constraint<?> bLt7 = new IntegerConstraint(b, Comparator.LT, seven);
+		SolverResult result = cache.solve(solver, Arrays.asList(bLt7, gt(a, 10)));
+
+		assertEquals(1, solver.calls);
+		assertTrue(result.isSAT());
+		assertEquals(20L, result.getValue("a"));
+		assertEquals(5L, result.getValue("b"));
+		assertEquals(1, cache.getNumberOfHits());
+		assertEquals(1, cache.getNumberOfMisses());
+	}
+
+	@Test
+	public void testSupersetOfUNSATIsUNSAT() {
+		SolverCache cache = SolverCache.getInstance();
+		IntegerVariable x = var("x");
+		IntegerVariable y = var("y");
+		FixedSolver solver = new FixedSolver(SolverResult.newUNSAT());
+		cache.solve(solver, Arrays.asList(gt(x, 10), lt(x, 5)));
+
+		SolverResult result = cache.solve(solver, Arrays.asList(gt(y, 0), lt(x, 5), gt(x, 10)));
+		assertEquals(1, solver.calls);
+		assertTrue(result.isUNSAT());
+		assertEquals(1, cache.getNumberOfUNSATSubsumptions());
+	}
+
+	@Test
+	public void testCachedModelIsReused() {
+		SolverCache cache = SolverCache.getInstance();
+		IntegerVariable x = var("x");
+		FixedSolver solver = new FixedSolver(sat("x", 50L));
+		cache.solve(solver, Arrays.asList(gt(x, 10)));
+
+		// x=50 also satisfies x<100, but not x<20
+		SolverResult result = cache.solve(solver, Arrays.asList(lt(x, 100)));
+		assertEquals(1, solver.calls);
+		assertEquals(50L, result.getValue("x"));
+		assertEquals(1, cache.getNumberOfReusedModels());
+
+		assertNull(cache.getCachedResult(Arrays.asList(lt(x, 20))));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntriesAreEvicted() {
+		Properties.SOLVER_CACHE_SIZE = 2;
+		Properties.SOLVER_CACHE_MODEL_REUSE = 0;
+		SolverCache cache = SolverCache.getInstance();
+		IntegerVariable x = var("x");
+		FixedSolver solver = new FixedSolver(sat("x", 0L));
+
+		cache.solve(solver, Arrays.asList(gt(x, 1)));
+		cache.solve(solver, Arrays.asList(gt(x, 2)));
+		// touch x>1 so that x>2 is the eldest
+		assertNotNull(cache.getCachedResult(Arrays.asList(gt(x, 1))));
+		cache.solve(solver, Arrays.asList(gt(x, 3)));
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getNumberOfEvictions());
+		assertNotNull(cache.getCachedResult(Arrays.asList(gt(x, 1))));
+		assertNull(cache.getCachedResult(Arrays.asList(gt(x, 2))));
+	}
+
+	@Test
+	public void testBoundsArePartOfTheQuery() {
+		SolverCache cache = SolverCache.getInstance();
+		FixedSolver solver = new FixedSolver(sat("x", 200L));
+		IntegerVariable wide = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		cache.solve(solver, Arrays.asList(gt(wide, 10)));
+
+		// same constraint, but x is a byte
+		IntegerVariable narrow = new IntegerVariable("x", 0, Byte.MIN_VALUE, Byte.MAX_VALUE);
+		assertNull(cache.getCachedResult(Arrays.asList(gt(narrow, 10))));
+
+		IntegerVariable same = new IntegerVariable("y", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		SolverResult result = cache.getCachedResult(Arrays.asList(gt(same, 10)));
+		assertNotNull(result);
+		assertEquals(200L, result.getValue("y"));
+	}
+
+	@Test
+	public void testUnknownIsNotCached() {
+		SolverCache cache = SolverCache.getInstance();
+		FixedSolver solver = new FixedSolver(SolverResult.newUnknown());
+		Collection<Constraint<?>> query = Arrays.asList(gt(var("x"), 1));
+		cache.solve(solver, query);
+		cache.solve(solver, query);
+		assertEquals(2, solver.calls);
+		assertEquals(0, cache.size());
+	}
+}
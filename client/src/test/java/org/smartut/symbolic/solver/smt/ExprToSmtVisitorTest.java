@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.solver.smt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.smartut.symbolic.expr.Operator;
+import org.smartut.symbolic.expr.bv.IntegerBinaryExpression;
+import org.smartut.symbolic.expr.bv.IntegerConstant;
+import org.smartut.symbolic.expr.bv.IntegerValue;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+
+public class ExprToSmtVisitorTest {
+
+	private final IntegerVariable x = new IntegerVariable("x", 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private static IntegerValue plus(IntegerValue left, long right, long concreteValue) {
+		return new IntegerBinaryExpression(left, Operator.PLUS, new IntegerConstant(right), concreteValue);
+	}
+
+	@Test
+	public void testSameExpressionIsTranslatedOnce() {
+		IntegerValue sum = plus(plus(x, 1, 4), 1, 5);
+		ExprToSmtVisitor visitor = new ExprToSmtVisitor();
+		SmtExpr first = visitor.translate(sum);
+		assertSame(first, visitor.translate(sum));
+
+		// equal but distinct expressions are translated again, to an equal expression
+		SmtExpr other = visitor.translate(plus(plus(x, 1, 4), 1, 5));
+		assertNotSame(first, other);
+		assertEquals(first, other);
+
+		// each visitor has its own translations
+		assertNotSame(first, new ExprToSmtVisitor().translate(sum));
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.smartut.symbolic.expr.Operator;
+import org.smartut.symbolic.expr.bv.IntegerBinaryExpression;
+import org.smartut.symbolic.expr.bv.IntegerConstant;
+import org.smartut.symbolic.expr.bv.IntegerUnaryExpression;
+import org.smartut.symbolic.expr.bv.IntegerValue;
+import org.smartut.symbolic.expr.bv.IntegerVariable;
+
+public class ExpressionInternerTest {
+
+	private final IntegerVariable x = new IntegerVariable("x", 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private static IntegerValue plus(IntegerValue left, long right, long concreteValue) {
+		return new IntegerBinaryExpression(left, Operator.PLUS, new IntegerConstant(right), concreteValue);
+	}
+
+	@Test
+	public void testEqualExpressionsAreShared() {
+		ExpressionInterner interner = new ExpressionInterner();
+		IntegerValue first = interner.intern(plus(x, 7, 10));
+		IntegerValue second = interner.intern(plus(x, 7, 10));
+		assertSame(first, second);
+
+		// sharing grows bottom-up
+		IntegerValue outer = interner.intern(new IntegerUnaryExpression(first, Operator.NEG, -10L));
+		IntegerValue other = interner.intern(new IntegerUnaryExpression(interner.intern(plus(x, 7, 10)), Operator.NEG, -10L));
+		assertSame(outer, other);
+		assertEquals(2, interner.size());
+	}
+
+	@Test
+	public void testDifferentConcreteValuesAreNotShared() {
+		ExpressionInterner interner = new ExpressionInterner();
+		IntegerValue first = interner.intern(plus(x, 7, 10));
+		IntegerValue second = interner.intern(plus(x, 7, 12));
+		assertEquals(first, second);
+		assertNotSame(first, second);
+		assertEquals(Long.valueOf(12), second.getConcreteValue());
+
+		IntegerVariable otherX = new IntegerVariable("x", 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		assertNotSame(first, interner.intern(plus(otherX, 7, 10)));
+		assertNotSame(first, interner.intern(plus(x, 8, 10)));
+	}
+
+	@Test
+	public void testLeavesAreNotInterned() {
+		ExpressionInterner interner = new ExpressionInterner();
+		IntegerConstant constant = new IntegerConstant(7);
+		assertSame(constant, interner.intern(constant));
+		assertSame(x, interner.intern(x));
+		IntegerValue concrete = new IntegerBinaryExpression(constant, Operator.PLUS, constant, 14L);
+		assertSame(concrete, interner.intern(concrete));
+		assertEquals(0, interner.size());
+	}
+
+	@Test
+	public void testTableGrows() {
+		ExpressionInterner interner = new ExpressionInterner();
+		List<IntegerValue> values = new ArrayList<>();
+		IntegerValue sum = x;
+		for (int i = 0; i < 1000; i++) {
+			sum = interner.intern(plus(sum, 1, 4 + i));
+			values.add(sum);
+		}
+		assertEquals(1000, interner.size());
+
+		sum = x;
+		for (int i = 0; i < 1000; i++) {
+			sum = interner.intern(plus(sum, 1, 4 + i));
+			assertSame(values.get(i), sum);
+		}
+		assertEquals(1000, interner.size());
+	}
+
+	@Test
+	public void testCachedHashCode() {
+		IntegerValue first = plus(x, 7, 10);
+		IntegerValue second = plus(x, 7, 12);
+		assertEquals(first.hashCode(), first.hashCode());
+		assertEquals(first.hashCode(), second.hashCode());
+	}
+}
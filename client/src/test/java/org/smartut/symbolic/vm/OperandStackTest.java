@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.symbolic.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+import org.smartut.symbolic.expr.bv.IntegerConstant;
+import org.smartut.symbolic.expr.bv.IntegerValue;
+
+public class OperandStackTest {
+
+	@Test
+	public void testGrowsBeyondCapacity() {
+		OperandStack stack = new OperandStack(2);
+		for (int i = 0; i < 20; i++) {
+			stack.pushBv32(new IntegerConstant(1000 + i));
+		}
+		assertEquals(20, stack.size());
+
+		// iteration starts from the top
+		Iterator<Operand> it = stack.iterator();
+		assertEquals(Long.valueOf(1019), ((Bv32Operand) it.next()).getIntegerExpression().getConcreteValue());
+		assertEquals(Long.valueOf(1018), ((Bv32Operand) it.next()).getIntegerExpression().getConcreteValue());
+
+		for (int i = 19; i >= 0; i--) {
+			assertEquals(Long.valueOf(1000 + i), stack.popBv32().getConcreteValue());
+		}
+		assertTrue(stack.isEmpty());
+		assertNull(stack.peekOperand());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPopEmpty() {
+		new OperandStack().popOperand();
+	}
+
+	@Test
+	public void testReset() {
+		OperandStack stack = new OperandStack(1);
+		stack.pushBv64(new IntegerConstant(7));
+		stack.pushFp64(ExpressionFactory.RCONST_1);
+		stack.reset(4);
+		assertTrue(stack.isEmpty());
+		assertFalse(stack.iterator().hasNext());
+	}
+
+	@Test
+	public void testSmallConstantsShareOperands() {
+		IntegerValue small = new IntegerConstant(42);
+		assertSame(Bv32Operand.valueOf(small), Bv32Operand.valueOf(new IntegerConstant(42)));
+		assertEquals(Long.valueOf(42), Bv32Operand.valueOf(small).getIntegerExpression().getConcreteValue());
+		assertNotSame(Bv32Operand.valueOf(new IntegerConstant(1000)), Bv32Operand.valueOf(new IntegerConstant(1000)));
+		assertSame(Bv64Operand.valueOf(ExpressionFactory.ICONST_0), Bv64Operand.valueOf(new IntegerConstant(0)));
+		assertSame(Fp64Operand.valueOf(ExpressionFactory.RCONST_2), Fp64Operand.valueOf(ExpressionFactory.RCONST_2));
+
+		OperandStack stack = new OperandStack();
+		stack.pushBv32(small);
+		stack.pushBv32(ExpressionFactory.buildNewIntegerConstant(42));
+		assertSame(stack.popOperand(), stack.popOperand());
+	}
+
+	@Test
+	public void testReleasedFramesAreReused() throws NoSuchMethodException {
+		MethodFrame frame = FramePool.newMethodFrame(Object.class.getMethod("hashCode"), 2, 1);
+		frame.operandStack.pushBv32(ExpressionFactory.ICONST_1);
+		frame.localsTable.setBv32Local(0, ExpressionFactory.ICONST_2);
+		FramePool.release(frame);
+		FramePool.release(frame);
+
+		// the operands stay until the frame is reused
+		assertEquals(1, frame.operandStack.size());
+
+		MethodFrame reused = FramePool.newMethodFrame(Object.class.getMethod("toString"), 2, 1);
+		assertSame(frame, reused);
+		assertEquals("toString", reused.getMember().getName());
+		assertTrue(reused.operandStack.isEmpty());
+		assertNull(reused.localsTable.getOperand(0));
+
+		// released only once
+		assertNotSame(frame, FramePool.newMethodFrame(Object.class.getMethod("toString"), 2, 1));
+	}
+}
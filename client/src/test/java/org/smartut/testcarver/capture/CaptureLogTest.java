@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcarver.capture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CaptureLogTest {
+
+	public static class Person {
+		public void setAge(int age) {
+		}
+	}
+
+	private static CaptureLog createLog(Person person) {
+		CaptureLog log = new CaptureLog();
+		log.log(1, person, CaptureLog.OBSERVED_INIT, "()V");
+		log.logEnd(1, person, CaptureLog.RETURN_TYPE_VOID);
+		log.log(2, person, "setAge", "(I)V", 42);
+		log.logEnd(2, person, CaptureLog.RETURN_TYPE_VOID);
+		return log;
+	}
+
+	@Test
+	public void testRecords() {
+		Person person = new Person();
+		CaptureLog log = createLog(person);
+		try {
+			int oid = System.identityHashCode(person);
+			Assert.assertEquals(Person.class.getName(), log.getTypeName(oid));
+
+			// constructor, end, plain init of 42 and its end, the call and its end
+			Assert.assertEquals(6, log.getRecordCount());
+			Assert.assertEquals(CaptureLog.OBSERVED_INIT, log.getMethodName(0));
+			Assert.assertEquals(CaptureLog.END_CAPTURE_PSEUDO_METHOD, log.getMethodName(1));
+			Assert.assertEquals(CaptureLog.PLAIN_INIT, log.getMethodName(2));
+			Assert.assertArrayEquals(new Object[] { 42 }, log.getParams(2));
+			Assert.assertEquals("setAge", log.getMethodName(4));
+			Assert.assertEquals("(I)V", log.getDescriptor(4));
+			Assert.assertEquals(oid, log.getObjectId(4));
+			Assert.assertEquals(2, log.getCaptureId(4));
+			Assert.assertFalse(log.isStaticCall(4));
+			Assert.assertEquals(CaptureLog.RETURN_TYPE_VOID, log.getReturnValue(4));
+		} finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void testCloneSharesRecordsUntilLogged() {
+		Person person = new Person();
+		CaptureLog log = createLog(person);
+		try {
+			CaptureLog clone = log.clone();
+			Assert.assertEquals(log.toString(), clone.toString());
+
+			clone.log(3, person, "setAge", "(I)V", 43);
+			Assert.assertEquals(6, log.getRecordCount());
+			Assert.assertEquals(9, clone.getRecordCount());
+			Assert.assertArrayEquals(new Object[] { 43 }, clone.getParams(6));
+			clone.close();
+		} finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void testCloneKeepsReturnValues() {
+		Person person = new Person();
+		CaptureLog log = createLog(person);
+		try {
+			log.log(3, person, "getFriend", "()L" + Person.class.getName().replace('.', '/') + ";");
+			CaptureLog clone = log.clone();
+
+			// setting the return value of the call must not change the clone
+			Person friend = new Person();
+			log.logEnd(3, person, friend);
+			Assert.assertEquals(System.identityHashCode(friend), log.getReturnValue(6));
+			Assert.assertEquals(CaptureLog.RETURN_TYPE_VOID, clone.getReturnValue(6));
+			Assert.assertEquals(7, clone.getRecordCount());
+			clone.close();
+		} finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		CaptureLog log = createLog(new Person());
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(bytes)) {
+				log.writeTo(out);
+			}
+			CaptureLog copy = CaptureLog.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+			Assert.assertEquals(log.toString(), copy.toString());
+			copy.close();
+		} finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void testRecordsAcrossChunks() {
+		CaptureRecords records = new CaptureRecords();
+		try {
+			char[] chars = new char[3001];
+			Arrays.fill(chars, 'x');
+			String value = new String(chars);
+			int count = 2 * MappedRegion.CHUNK_SIZE / value.length();
+			for (int i = 0; i < count; i++) {
+				records.add(i, i, "m" + (i % 3), null, new Object[] { value, i, null, String.class, 'c', 1.5 },
+						i % 2 == 0);
+			}
+			records.setReturnValue(count - 1, 17);
+
+			Assert.assertEquals(count, records.size());
+			for (int i = 0; i < count; i++) {
+				Assert.assertEquals(i, records.getObjectId(i));
+				Assert.assertEquals("m" + (i % 3), records.getMethodName(i));
+				Assert.assertNull(records.getDescriptor(i));
+				Assert.assertEquals(i % 2 == 0, records.isStaticCall(i));
+				Assert.assertArrayEquals(new Object[] { value, i, null, String.class, 'c', 1.5 }, records.getParams(i));
+			}
+			Assert.assertEquals(17, records.getReturnValue(count - 1));
+			Assert.assertEquals(CaptureLog.RETURN_TYPE_VOID, records.getReturnValue(0));
+		} finally {
+			records.close();
+		}
+	}
+}
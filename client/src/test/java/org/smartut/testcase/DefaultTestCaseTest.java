@@ -19,8 +19,19 @@
  */
 package org.smartut.testcase;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.smartut.testcase.statements.ConstructorStatement;
+import org.smartut.testcase.statements.MethodStatement;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+import org.smartut.testcase.variable.VariableReference;
+import org.smartut.utils.generic.GenericClass;
+import org.smartut.utils.generic.GenericConstructor;
+import org.smartut.utils.generic.GenericMethod;
 
 public class DefaultTestCaseTest {
 
@@ -31,4 +42,86 @@ public class DefaultTestCaseTest {
 		DefaultTestCase clone = tc.clone();
 		Assert.assertTrue(tc.statements != clone.statements);
 	}
+
+	@Test
+	public void testPositionsFollowInsertionsAndRemovals() {
+		DefaultTestCase tc = new DefaultTestCase();
+		List<VariableReference> refs = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			refs.add(tc.addStatement(new IntPrimitiveStatement(tc, i)));
+		}
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(i, refs.get(i).getStPosition());
+		}
+
+		tc.addStatement(new IntPrimitiveStatement(tc, 42), 3);
+		Assert.assertEquals(2, refs.get(2).getStPosition());
+		Assert.assertEquals(4, refs.get(3).getStPosition());
+		Assert.assertEquals(10, refs.get(9).getStPosition());
+
+		tc.remove(0);
+		tc.remove(0);
+		Assert.assertEquals(0, refs.get(2).getStPosition());
+		Assert.assertEquals(2, refs.get(3).getStPosition());
+		Assert.assertEquals(8, refs.get(9).getStPosition());
+	}
+
+	@Test
+	public void testCloneResolvesReferencesInCopy() {
+		DefaultTestCase tc = new DefaultTestCase();
+		for (int i = 0; i < 100; i++) {
+			tc.addStatement(new IntPrimitiveStatement(tc, i));
+		}
+		DefaultTestCase clone = tc.clone();
+		Assert.assertEquals(tc.toCode(), clone.toCode());
+		for (int i = 0; i < clone.size(); i++) {
+			VariableReference ref = clone.getStatement(i).getReturnValue();
+			Assert.assertSame(clone, ref.getTestCase());
+			Assert.assertNotSame(tc.getStatement(i).getReturnValue(), ref);
+			Assert.assertEquals(i, ref.getStPosition());
+		}
+	}
+
+	@Test
+	public void testCloneOfModifiedClone() {
+		DefaultTestCase tc = new DefaultTestCase();
+		for (int i = 0; i < 10; i++) {
+			tc.addStatement(new IntPrimitiveStatement(tc, i));
+		}
+		DefaultTestCase clone = tc.clone();
+		clone.addStatement(new IntPrimitiveStatement(clone, 42), 5);
+		DefaultTestCase cloneOfClone = clone.clone();
+		Assert.assertEquals(clone.toCode(), cloneOfClone.toCode());
+		for (int i = 0; i < cloneOfClone.size(); i++) {
+			Assert.assertEquals(i, cloneOfClone.getStatement(i).getReturnValue().getStPosition());
+		}
+	}
+
+	@Test
+	public void testChangeClassLoaderOfCloneKeepsSharedMembers() throws NoSuchMethodException {
+		DefaultTestCase tc = new DefaultTestCase();
+		GenericConstructor constructor = new GenericConstructor(ArrayList.class.getConstructor(), ArrayList.class);
+		VariableReference list = tc.addStatement(new ConstructorStatement(tc, constructor,
+				Collections.emptyList()));
+		GenericMethod method = new GenericMethod(ArrayList.class.getMethod("size"), ArrayList.class);
+		VariableReference size = tc.addStatement(new MethodStatement(tc, method, list,
+				Collections.emptyList()));
+		GenericClass sizeType = size.getGenericClass();
+
+		DefaultTestCase clone = tc.clone();
+		ConstructorStatement clonedConstructor = (ConstructorStatement) clone.getStatement(0);
+		MethodStatement clonedMethod = (MethodStatement) clone.getStatement(1);
+		Assert.assertSame(constructor, clonedConstructor.getConstructor());
+		Assert.assertSame(method, clonedMethod.getMethod());
+		Assert.assertSame(sizeType, clonedMethod.getReturnValue().getGenericClass());
+
+		clone.changeClassLoader(getClass().getClassLoader());
+		Assert.assertNotSame(constructor, clonedConstructor.getConstructor());
+		Assert.assertNotSame(method, clonedMethod.getMethod());
+		Assert.assertNotSame(sizeType, clonedMethod.getReturnValue().getGenericClass());
+		Assert.assertSame(constructor, ((ConstructorStatement) tc.getStatement(0)).getConstructor());
+		Assert.assertSame(method, ((MethodStatement) tc.getStatement(1)).getMethod());
+		Assert.assertSame(sizeType, size.getGenericClass());
+		Assert.assertEquals(tc.toCode(), clone.toCode());
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase;
+
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.smartut.testcase.execution.ExecutionResult;
+import org.smartut.testcase.execution.ExecutionTraceImpl;
+import org.smartut.testcase.statements.MethodStatement;
+import org.smartut.testcase.statements.Statement;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+import org.smartut.testcase.variable.VariableReference;
+import org.smartut.utils.generic.GenericMethod;
+
+public class SlicingMinimizerTest {
+
+	private static VariableReference addValueOf(DefaultTestCase test, VariableReference value) throws NoSuchMethodException {
+		GenericMethod method = new GenericMethod(Integer.class.getMethod("valueOf", int.class), Integer.class);
+		return test.addStatement(new MethodStatement(test, method, null, Collections.singletonList(value)));
+	}
+
+	private static boolean containsCall(TestChromosome test) {
+		for (Statement statement : test.getTestCase()) {
+			if (statement instanceof MethodStatement) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testSliceFollowsReferencesOfExecutedCalls() throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference used = test.addStatement(new IntPrimitiveStatement(test, 1));
+		test.addStatement(new IntPrimitiveStatement(test, 2));
+		addValueOf(test, used);
+		VariableReference notExecuted = test.addStatement(new IntPrimitiveStatement(test, 3));
+		addValueOf(test, notExecuted);
+
+		ExecutionResult result = new ExecutionResult(test);
+		result.setExecutedStatements(4);
+
+		BitSet slice = SlicingMinimizer.getSlice(test, result);
+		Assert.assertEquals("{0, 2}", slice.toString());
+	}
+
+	@Test
+	public void testSliceNeedsExecution() {
+		DefaultTestCase test = new DefaultTestCase();
+		test.addStatement(new IntPrimitiveStatement(test, 1));
+		Assert.assertNull(SlicingMinimizer.getSlice(test, null));
+		Assert.assertNull(SlicingMinimizer.getSlice(test, new ExecutionResult(new DefaultTestCase())));
+	}
+
+	@Test
+	public void testMinimizeWithFewExecutions() throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference value = test.addStatement(new IntPrimitiveStatement(test, 1));
+		for (int i = 0; i < 20; i++) {
+			test.addStatement(new IntPrimitiveStatement(test, i));
+		}
+		addValueOf(test, value);
+		for (int i = 0; i < 20; i++) {
+			test.addStatement(new IntPrimitiveStatement(test, i));
+		}
+
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		ExecutionResult result = new ExecutionResult(test);
+		result.setExecutedStatements(test.size());
+		result.setTrace(new ExecutionTraceImpl());
+		chromosome.setLastExecutionResult(result);
+		chromosome.setChanged(false);
+
+		SlicingMinimizer minimizer = new SlicingMinimizer((original, modified) -> containsCall(modified));
+		Assert.assertTrue(minimizer.minimize(chromosome));
+
+		Assert.assertEquals(2, chromosome.size());
+		Assert.assertTrue(containsCall(chromosome));
+		// one for the slice, and at most one per statement left
+		Assert.assertTrue(minimizer.getExecutions() <= 3);
+		Assert.assertEquals(42 - minimizer.getExecutions(), minimizer.getSavedExecutions());
+
+		// a minimized test stays the same
+		Assert.assertFalse(minimizer.minimize(chromosome));
+		Assert.assertEquals(2, chromosome.size());
+	}
+}
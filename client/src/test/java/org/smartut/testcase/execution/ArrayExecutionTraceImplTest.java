@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrayExecutionTraceImplTest {
+
+	private static void passBranches(ExecutionTrace trace) {
+		trace.branchPassed(1, 10, 3.0, 0.0);
+		trace.branchPassed(1, 10, 0.0, 1.0);
+		trace.branchPassed(5, 20, 2.0, 0.0);
+		// beyond the initial capacity
+		trace.branchPassed(100, 30, 0.0, 4.0);
+		trace.mutationPassed(0, 2.0);
+		trace.mutationPassed(0, 0.5);
+		trace.mutationPassed(70, 0.0);
+	}
+
+	@Test
+	public void testSameDataAsMapBasedTrace() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		ArrayExecutionTraceImpl actual = new ArrayExecutionTraceImpl();
+		passBranches(expected);
+		passBranches(actual);
+
+		Assert.assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+		Assert.assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+		Assert.assertEquals(expected.getTrueDistancesSum(), actual.getTrueDistancesSum());
+		Assert.assertEquals(expected.getFalseDistancesSum(), actual.getFalseDistancesSum());
+		Assert.assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+		Assert.assertEquals(expected.getCoveredPredicates(), actual.getCoveredPredicates());
+		Assert.assertEquals(expected.getCoveredTrueBranches(), actual.getCoveredTrueBranches());
+		Assert.assertEquals(expected.getCoveredFalseBranches(), actual.getCoveredFalseBranches());
+		Assert.assertEquals(expected.getMutationDistances(), actual.getMutationDistances());
+		Assert.assertEquals(expected.getTouchedMutants(), actual.getTouchedMutants());
+		Assert.assertEquals(expected.getInfectedMutants(), actual.getInfectedMutants());
+
+		Assert.assertEquals(0.0, actual.getTrueDistance(1), 0.0);
+		Assert.assertEquals(0.0, actual.getFalseDistance(1), 0.0);
+		Assert.assertEquals(0.5, actual.getMutationDistance(0), 0.0);
+		Assert.assertTrue(actual.hasTrueDistance(100));
+		Assert.assertFalse(actual.hasTrueDistance(2));
+		Assert.assertFalse(actual.wasMutationTouched(1));
+	}
+
+	@Test
+	public void testClear() {
+		ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl();
+		passBranches(trace);
+		trace.clear();
+
+		Assert.assertTrue(trace.getTrueDistances().isEmpty());
+		Assert.assertTrue(trace.getCoveredPredicates().isEmpty());
+		Assert.assertTrue(trace.getTouchedMutants().isEmpty());
+		Assert.assertFalse(trace.hasFalseDistance(5));
+
+		trace.branchPassed(5, 20, 7.0, 0.0);
+		Assert.assertEquals(7.0, trace.getTrueDistance(5), 0.0);
+		Assert.assertEquals(1, trace.getPredicateExecutionCount().get(5).intValue());
+	}
+
+	@Test
+	public void testCloneIsIndependent() {
+		ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl();
+		passBranches(trace);
+		ArrayExecutionTraceImpl copy = trace.clone();
+
+		trace.branchPassed(5, 20, 0.0, 1.0);
+		trace.mutationPassed(3, 1.0);
+
+		Assert.assertEquals(2.0, copy.getTrueDistance(5), 0.0);
+		Assert.assertFalse(copy.wasMutationTouched(3));
+		Assert.assertEquals(0.0, trace.getTrueDistance(5), 0.0);
+		Assert.assertTrue(trace.wasMutationTouched(3));
+	}
+
+	@Test
+	public void testLazyCloneThroughProxy() {
+		ExecutionTraceProxy proxy = new ExecutionTraceProxy(new ArrayExecutionTraceImpl());
+		passBranches(proxy);
+		ExecutionTrace copy = proxy.lazyClone();
+
+		proxy.branchPassed(5, 20, 0.0, 1.0);
+
+		Assert.assertEquals(2.0, copy.getTrueDistance(5), 0.0);
+		Assert.assertEquals(0.0, proxy.getTrueDistance(5), 0.0);
+	}
+}
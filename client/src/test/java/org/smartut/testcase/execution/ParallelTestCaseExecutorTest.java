@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.execution;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.smartut.Properties;
+import org.smartut.Properties.Criterion;
+import org.smartut.TestGenerationContext;
+import org.smartut.classpath.ClassPathHandler;
+import org.smartut.instrumentation.InstrumentingClassLoader;
+import org.smartut.runtime.RuntimeSettings;
+import org.smartut.runtime.TooManyResourcesException;
+import org.smartut.symbolic.TestCaseBuilder;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.statements.Statement;
+import org.smartut.testcase.variable.VariableReference;
+import org.objectweb.asm.Opcodes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.FlagExample1;
+import com.examples.with.different.packagename.mock.java.lang.RandomLoop;
+
+public class ParallelTestCaseExecutorTest {
+
+	private static final String TARGET_CLASS = FlagExample1.class.getCanonicalName();
+	private static final int DEFAULT_WORKERS = Properties.PARALLEL_EXECUTION_WORKERS;
+	private static final boolean DEFAULT_REPLACE_CALLS = Properties.REPLACE_CALLS;
+	private static final boolean DEFAULT_JVM = RuntimeSettings.mockJVMNonDeterminism;
+	private static final long DEFAULT_MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
+
+	@BeforeClass
+	public static void init() {
+		String cp = System.getProperty("user.dir") + "/target/test-classes";
+		ClassPathHandler.getInstance().addElementToTargetProjectClassPath(cp);
+	}
+
+	@Before
+	public void setUp() {
+		Properties.CRITERION = new Properties.Criterion[] { Criterion.BRANCH };
+		Properties.TARGET_CLASS = TARGET_CLASS;
+		Properties.PARALLEL_EXECUTION_WORKERS = 3;
+		TestGenerationContext.getInstance().resetContext();
+		TestCaseExecutor.getInstance().newObservers();
+	}
+
+	@After
+	public void tearDown() {
+		ParallelTestCaseExecutor.pullDown();
+		TestCaseExecutor.initExecutor();
+		Properties.PARALLEL_EXECUTION_WORKERS = DEFAULT_WORKERS;
+		Properties.REPLACE_CALLS = DEFAULT_REPLACE_CALLS;
+		RuntimeSettings.mockJVMNonDeterminism = DEFAULT_JVM;
+		RuntimeSettings.maxNumberOfIterationsPerLoop = DEFAULT_MAX_LOOP_ITERATIONS;
+		TestGenerationContext.getInstance().resetContext();
+	}
+
+	private static TestCase buildTestCase(InstrumentingClassLoader cl, int x) throws Exception {
+		return buildTestCase(cl, TARGET_CLASS, "testMe", x);
+	}
+
+	private static TestCase buildTestCase(InstrumentingClassLoader cl, String className, String methodName, int x)
+			throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		Class<?> clazz = cl.loadClass(className);
+		VariableReference example = builder.appendConstructor(clazz.getConstructor());
+		VariableReference value = builder.appendIntPrimitive(x);
+		Method method = clazz.getMethod(methodName, int.class);
+		builder.appendMethod(example, method, value);
+		return builder.getDefaultTestCase();
+	}
+
+	@Test
+	public void testSameTracesAsSequentialExecution() throws Exception {
+		InstrumentingClassLoader cl = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		List<TestCase> tests = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			tests.add(buildTestCase(cl, i % 2 == 0 ? 28241 : i));
+		}
+
+		Assert.assertTrue(ParallelTestCaseExecutor.isEnabled());
+		List<ExecutionResult> results = ParallelTestCaseExecutor.getInstance().executeAll(tests);
+		Assert.assertEquals(tests.size(), results.size());
+
+		for (int i = 0; i < tests.size(); i++) {
+			ExecutionResult parallel = results.get(i);
+			ExecutionResult sequential = TestCaseExecutor.getInstance().execute(tests.get(i));
+
+			Assert.assertSame(tests.get(i), parallel.test);
+			Assert.assertTrue(parallel.noThrownExceptions());
+			Assert.assertFalse(parallel.getTrace().getCoveredPredicates().isEmpty());
+			Assert.assertEquals(sequential.getTrace().getCoveredTrueBranches(),
+					parallel.getTrace().getCoveredTrueBranches());
+			Assert.assertEquals(sequential.getTrace().getCoveredFalseBranches(),
+					parallel.getTrace().getCoveredFalseBranches());
+			Assert.assertEquals(sequential.getTrace().getTrueDistances(), parallel.getTrace().getTrueDistances());
+		}
+	}
+
+	@Test
+	public void testSameTracesWithMockedRuntime() throws Exception {
+		Properties.REPLACE_CALLS = true;
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		TestGenerationContext.getInstance().resetContext();
+		InstrumentingClassLoader cl = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		List<TestCase> tests = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			tests.add(buildTestCase(cl, RandomLoop.class.getCanonicalName(), "guess", i * 100));
+		}
+
+		// the mocked runtime is shared by the workers
+		Assert.assertFalse(ParallelTestCaseExecutor.isEnabled());
+		List<ExecutionResult> results = ParallelTestCaseExecutor.getInstance().executeAll(tests);
+		Assert.assertEquals(tests.size(), results.size());
+
+		for (int i = 0; i < tests.size(); i++) {
+			ExecutionResult parallel = results.get(i);
+			ExecutionResult sequential = TestCaseExecutor.getInstance().execute(tests.get(i));
+
+			Assert.assertTrue(parallel.noThrownExceptions());
+			Assert.assertEquals(sequential.getTrace().getCoveredTrueBranches(),
+					parallel.getTrace().getCoveredTrueBranches());
+			Assert.assertEquals(sequential.getTrace().getCoveredFalseBranches(),
+					parallel.getTrace().getCoveredFalseBranches());
+			Assert.assertEquals(sequential.getTrace().getTrueDistances(), parallel.getTrace().getTrueDistances());
+			Assert.assertEquals(sequential.getTrace().getFalseDistances(), parallel.getTrace().getFalseDistances());
+		}
+	}
+
+	@Test
+	public void testLoopCountersPerWorkerAndTest() throws Exception {
+		RuntimeSettings.maxNumberOfIterationsPerLoop = 1000;
+		InstrumentingClassLoader cl = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		List<TestCase> tests = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			// each worker executes several tests, which together exceed the limit
+			tests.add(buildTestCase(cl, RandomLoop.class.getCanonicalName(), "sum", i % 4 == 3 ? 100000 : 600));
+		}
+
+		Assert.assertTrue(ParallelTestCaseExecutor.isEnabled());
+		List<ExecutionResult> results = ParallelTestCaseExecutor.getInstance().executeAll(tests);
+
+		for (int i = 0; i < tests.size(); i++) {
+			ExecutionResult result = results.get(i);
+			if (i % 4 == 3) {
+				Assert.assertTrue(result.getExceptionThrownAtPosition(2) instanceof TooManyResourcesException);
+			} else {
+				Assert.assertTrue(result.noThrownExceptions());
+			}
+		}
+	}
+
+	@Test
+	public void testSequentialWithObservers() throws Exception {
+		InstrumentingClassLoader cl = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		TestCaseExecutor.getInstance().addObserver(new NullOutputObserver());
+		Assert.assertFalse(ParallelTestCaseExecutor.isEnabled());
+
+		List<TestCase> tests = new ArrayList<>();
+		tests.add(buildTestCase(cl, 28241));
+		List<ExecutionResult> results = ParallelTestCaseExecutor.getInstance().executeAll(tests);
+		Assert.assertEquals(1, results.size());
+		Assert.assertFalse(results.get(0).getTrace().getCoveredPredicates().isEmpty());
+	}
+
+	@Test
+	public void testWorkerTracerIgnoresOtherThreads() throws Exception {
+		ExecutionTracer tracer = ExecutionTracer.newWorkerTracer();
+		tracer.clear();
+		Thread thread = new Thread(() -> {
+			tracer.bindToCurrentThread();
+			ExecutionTracer.enable();
+			ExecutionTracer.passedBranch(1, 2, Opcodes.IF_ICMPEQ, 1, 0);
+			ExecutionTracer.unbindCurrentThread();
+		});
+		tracer.setWorkerThread(thread);
+		thread.start();
+		thread.join();
+
+		Assert.assertEquals(1, tracer.getTrace().getPredicateExecutionCount().get(1).intValue());
+
+		// not the worker thread of the tracer, so not recorded
+		tracer.bindToCurrentThread();
+		try {
+			Assert.assertSame(tracer, ExecutionTracer.getExecutionTracer());
+			ExecutionTracer.passedBranch(1, 2, Opcodes.IF_ICMPEQ, 1, 0);
+		} finally {
+			ExecutionTracer.unbindCurrentThread();
+		}
+		Assert.assertEquals(1, tracer.getTrace().getPredicateExecutionCount().get(1).intValue());
+		Assert.assertNotSame(tracer, ExecutionTracer.getExecutionTracer());
+	}
+
+	private static class NullOutputObserver extends ExecutionObserver {
+		@Override
+		public void output(int position, String output) {
+		}
+
+		@Override
+		public void beforeStatement(Statement statement, Scope scope) {
+		}
+
+		@Override
+		public void afterStatement(Statement statement, Scope scope,
+				Throwable exception) {
+		}
+
+		@Override
+		public void testExecutionFinished(ExecutionResult r, Scope s) {
+		}
+
+		@Override
+		public void clear() {
+		}
+	}
+}
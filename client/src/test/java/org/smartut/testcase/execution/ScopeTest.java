@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.execution;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.statements.StringPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+import org.smartut.testcase.variable.ConstantValue;
+import org.smartut.testcase.variable.VariableReference;
+import org.smartut.testcase.variable.VariableReferenceImpl;
+
+public class ScopeTest {
+
+	@Test
+	public void testValuesByStatement() {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference[] refs = new VariableReference[40];
+		for (int i = 0; i < refs.length; i++) {
+			refs[i] = test.addStatement(new IntPrimitiveStatement(test, i));
+		}
+
+		Scope scope = new Scope();
+		Assert.assertNull(scope.getObject(refs[0]));
+		for (int i = refs.length - 1; i >= 0; i--) {
+			scope.setObject(refs[i], i);
+		}
+		for (int i = 0; i < refs.length; i++) {
+			Assert.assertEquals(i, scope.getObject(refs[i]));
+		}
+		Assert.assertEquals(Arrays.asList(refs), scope.getElements(int.class));
+
+		scope.setObject(refs[3], null);
+		Assert.assertNull(scope.getObject(refs[3]));
+		Assert.assertTrue(scope.getVariables().contains(refs[3]));
+		Assert.assertEquals(refs.length, scope.getObjects().size());
+	}
+
+	@Test
+	public void testReplacedStatementHasNoValue() {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "foo"));
+		Scope scope = new Scope();
+		scope.setObject(string, "foo");
+
+		VariableReference number = test.setStatement(new IntPrimitiveStatement(test, 42), 0);
+		Assert.assertNotSame(string, number);
+		Assert.assertNull(scope.getObject(number));
+		scope.setObject(number, 42);
+		Assert.assertEquals(42, scope.getObject(number));
+		Assert.assertEquals(Arrays.asList(number), scope.getElements(int.class));
+	}
+
+	@Test
+	public void testValuesOfOtherVariables() {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference constant = new ConstantValue(test, String.class);
+		Scope scope = new Scope();
+		scope.setObject(constant, "bar");
+		Assert.assertEquals("bar", scope.getObject(constant));
+		Assert.assertEquals(Arrays.asList(constant), scope.getElements(String.class));
+	}
+
+	@Test
+	public void testValuesOfVariablesWithoutStatement() {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference removed = test.addStatement(new IntPrimitiveStatement(test, 1));
+		test.remove(0);
+		Assert.assertEquals(-1, removed.findStPosition());
+		VariableReference detached = new VariableReferenceImpl((TestCase) null, Integer.class);
+
+		Scope scope = new Scope();
+		scope.setObject(removed, 1);
+		scope.setObject(detached, 2);
+		Assert.assertEquals(1, scope.getObject(removed));
+		Assert.assertEquals(2, scope.getObject(detached));
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testcase.statements;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.smartut.Properties;
+
+public class MemberInvokersTest {
+
+	public static class Target {
+		public static int counter = 0;
+
+		public final int value;
+
+		public Target(int value) {
+			this.value = value;
+		}
+
+		public long add(long x) {
+			counter++;
+			return value + x;
+		}
+
+		public static int sum(int... values) {
+			int sum = 0;
+			for (int v : values) {
+				sum += v;
+			}
+			return sum;
+		}
+
+		public static boolean calledByReflection() {
+			// the test itself is called by reflection too
+			StackTraceElement caller = new Throwable().getStackTrace()[1];
+			return !caller.getClassName().equals(MemberInvokers.class.getName());
+		}
+
+		public void fail() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+	@Before
+	public void setUp() {
+		Properties.METHOD_HANDLE_INVOCATION = true;
+	}
+
+	@After
+	public void tearDown() {
+		Properties.METHOD_HANDLE_INVOCATION = false;
+		Target.counter = 0;
+	}
+
+	@Test
+	public void testRepeatedInvocation() throws Exception {
+		Method add = Target.class.getMethod("add", long.class);
+		Target target = new Target(40);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(42L, MemberInvokers.invoke(add, target, new Object[] { 2L }));
+			// widening from int to long, as done by reflection
+			Assert.assertEquals(43L, MemberInvokers.invoke(add, target, new Object[] { 3 }));
+		}
+		Assert.assertEquals(6, Target.counter);
+	}
+
+	@Test
+	public void testHandleIsUsedAfterFirstInvocation() throws Exception {
+		Method method = Target.class.getMethod("calledByReflection");
+		Assert.assertEquals(true, MemberInvokers.invoke(method, null, new Object[0]));
+		Assert.assertEquals(false, MemberInvokers.invoke(method, null, new Object[0]));
+	}
+
+	@Test
+	public void testVarargsAreNotCollected() throws Exception {
+		Method sum = Target.class.getMethod("sum", int[].class);
+		for (int i = 0; i < 2; i++) {
+			Assert.assertEquals(6, MemberInvokers.invoke(sum, null, new Object[] { new int[] { 1, 2, 3 } }));
+		}
+	}
+
+	@Test
+	public void testExceptionsAreWrapped() throws Exception {
+		Method fail = Target.class.getMethod("fail");
+		Target target = new Target(0);
+		for (int i = 0; i < 2; i++) {
+			try {
+				MemberInvokers.invoke(fail, target, new Object[0]);
+				Assert.fail();
+			} catch (InvocationTargetException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+		}
+	}
+
+	@Test
+	public void testIllegalArgumentsAreReportedAsByReflection() throws Exception {
+		Method add = Target.class.getMethod("add", long.class);
+		Target target = new Target(0);
+		MemberInvokers.invoke(add, target, new Object[] { 1L });
+		for (Object[] inputs : new Object[][] { { null }, { "foo" }, { 1.0 }, {} }) {
+			try {
+				MemberInvokers.invoke(add, target, inputs);
+				Assert.fail();
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		try {
+			MemberInvokers.invoke(add, "not a target", new Object[] { 1L });
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testConstructorAndFields() throws Exception {
+		Constructor<Target> constructor = Target.class.getConstructor(int.class);
+		Field value = Target.class.getField("value");
+		Field counter = Target.class.getField("counter");
+		for (int i = 0; i < 2; i++) {
+			Object target = MemberInvokers.newInstance(constructor, new Object[] { i });
+			Assert.assertEquals(i, MemberInvokers.get(value, target));
+			Assert.assertEquals(0, MemberInvokers.get(counter, null));
+		}
+	}
+
+	@Test
+	public void testReflectionOnly() throws Exception {
+		Properties.METHOD_HANDLE_INVOCATION = false;
+		Method add = Target.class.getMethod("add", long.class);
+		for (int i = 0; i < 2; i++) {
+			Assert.assertEquals(3L, MemberInvokers.invoke(add, new Target(1), new Object[] { 2L }));
+		}
+		Method method = Target.class.getMethod("calledByReflection");
+		MemberInvokers.invoke(method, null, new Object[0]);
+		Assert.assertEquals(true, MemberInvokers.invoke(method, null, new Object[0]));
+	}
+}
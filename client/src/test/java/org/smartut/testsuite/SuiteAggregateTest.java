@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testsuite;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SuiteAggregateTest {
+
+	private static final int COUNTS = 0;
+	private static final int DISTANCES = 1;
+
+	private static TraceContribution contribution(int goal, double count, double distance) {
+		return new TraceContribution.Builder(2).add(COUNTS, goal, count).add(DISTANCES, goal, distance).build();
+	}
+
+	private static SuiteAggregate newAggregate(Object suite) {
+		return new SuiteAggregate(suite, SuiteAggregate.Kind.SUM, SuiteAggregate.Kind.MIN);
+	}
+
+	@Test
+	public void testBuilderSortsGoals() {
+		TraceContribution contribution = new TraceContribution.Builder(1).add(0, 7, 7.0).add(0, 2, 2.0)
+				.add(0, 40, 40.0).build();
+		Assert.assertArrayEquals(new int[] { 2, 7, 40 }, contribution.getGoals(0));
+		Assert.assertArrayEquals(new double[] { 2.0, 7.0, 40.0 }, contribution.getValues(0), 0.0);
+		Assert.assertEquals(7.0, contribution.getValue(0, 7), 0.0);
+		Assert.assertTrue(Double.isNaN(contribution.getValue(0, 3)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderRejectsDuplicateGoals() {
+		new TraceContribution.Builder(1).add(0, 7, 1.0).add(0, 2, 2.0).add(0, 7, 3.0).build();
+	}
+
+	@Test
+	public void testSumAndMinimum() {
+		Object suite = new Object();
+		TraceContribution a = contribution(3, 2, 5.0);
+		TraceContribution b = contribution(3, 1, 1.0);
+		TraceContribution c = new TraceContribution.Builder(2).add(COUNTS, 100, 1).build();
+
+		SuiteAggregate aggregate = newAggregate(suite).update(suite, Arrays.asList(a, b, c));
+		Assert.assertEquals(3.0, aggregate.get(COUNTS, 3), 0.0);
+		Assert.assertEquals(1.0, aggregate.get(DISTANCES, 3), 0.0);
+		Assert.assertTrue(aggregate.has(COUNTS, 100));
+		Assert.assertFalse(aggregate.has(DISTANCES, 100));
+		Assert.assertFalse(aggregate.has(COUNTS, 4));
+		Assert.assertEquals(2, aggregate.getNumberOfGoals(COUNTS));
+		Assert.assertEquals(3, aggregate.size());
+	}
+
+	@Test
+	public void testRemovingMinimumFindsNextOne() {
+		Object suite = new Object();
+		TraceContribution a = contribution(3, 2, 5.0);
+		TraceContribution b = contribution(3, 1, 1.0);
+		TraceContribution d = contribution(3, 1, 1.0);
+
+		SuiteAggregate aggregate = newAggregate(suite).update(suite, Arrays.asList(a, b, d));
+		// the minimum is still held by d
+		aggregate = aggregate.update(suite, Arrays.asList(a, d));
+		Assert.assertEquals(1.0, aggregate.get(DISTANCES, 3), 0.0);
+		Assert.assertEquals(3.0, aggregate.get(COUNTS, 3), 0.0);
+
+		aggregate = aggregate.update(suite, Collections.singletonList(a));
+		Assert.assertEquals(5.0, aggregate.get(DISTANCES, 3), 0.0);
+		Assert.assertEquals(2.0, aggregate.get(COUNTS, 3), 0.0);
+
+		aggregate = aggregate.update(suite, Collections.emptyList());
+		Assert.assertFalse(aggregate.has(DISTANCES, 3));
+		Assert.assertFalse(aggregate.has(COUNTS, 3));
+	}
+
+	@Test
+	public void testSameContributionTwice() {
+		Object suite = new Object();
+		TraceContribution a = contribution(1, 1, 0.5);
+
+		SuiteAggregate aggregate = newAggregate(suite).update(suite, Arrays.asList(a, a));
+		Assert.assertEquals(2.0, aggregate.get(COUNTS, 1), 0.0);
+
+		aggregate = aggregate.update(suite, Collections.singletonList(a));
+		Assert.assertEquals(1.0, aggregate.get(COUNTS, 1), 0.0);
+		Assert.assertEquals(0.5, aggregate.get(DISTANCES, 1), 0.0);
+	}
+
+	@Test
+	public void testCloneGetsCopyOnUpdate() {
+		Object suite = new Object();
+		Object clone = new Object();
+		TraceContribution a = contribution(1, 1, 2.0);
+		TraceContribution b = contribution(1, 1, 1.0);
+
+		SuiteAggregate aggregate = newAggregate(suite).update(suite, Collections.singletonList(a));
+		Assert.assertSame(aggregate, aggregate.update(clone, Collections.singletonList(a)));
+
+		SuiteAggregate cloneAggregate = aggregate.update(clone, Arrays.asList(a, b));
+		Assert.assertNotSame(aggregate, cloneAggregate);
+		Assert.assertEquals(1.0, cloneAggregate.get(DISTANCES, 1), 0.0);
+		Assert.assertEquals(2.0, aggregate.get(DISTANCES, 1), 0.0);
+		Assert.assertEquals(1.0, aggregate.get(COUNTS, 1), 0.0);
+	}
+
+	@Test
+	public void testNoContributionIsIgnored() {
+		Object suite = new Object();
+		SuiteAggregate aggregate = newAggregate(suite).update(suite,
+				Arrays.asList(TraceContribution.NONE, contribution(0, 1, 0.0)));
+		Assert.assertEquals(1.0, aggregate.get(COUNTS, 0), 0.0);
+		Assert.assertEquals(0.0, aggregate.get(DISTANCES, 0), 0.0);
+	}
+}
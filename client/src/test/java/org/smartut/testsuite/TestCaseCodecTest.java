@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.testsuite;
+
+import java.awt.Point;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.smartut.testcase.DefaultTestCase;
+import org.smartut.testcase.TestCase;
+import org.smartut.testcase.TestChromosome;
+import org.smartut.testcase.statements.ArrayStatement;
+import org.smartut.testcase.statements.AssignmentStatement;
+import org.smartut.testcase.statements.ConstructorStatement;
+import org.smartut.testcase.statements.EnumPrimitiveStatement;
+import org.smartut.testcase.statements.FieldStatement;
+import org.smartut.testcase.statements.MethodStatement;
+import org.smartut.testcase.statements.NullStatement;
+import org.smartut.testcase.statements.StringPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.CharPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.smartut.testcase.statements.numeric.IntPrimitiveStatement;
+import org.smartut.testcase.statements.numeric.LongPrimitiveStatement;
+import org.smartut.testcase.variable.ArrayIndex;
+import org.smartut.testcase.variable.ArrayReference;
+import org.smartut.testcase.variable.FieldReference;
+import org.smartut.testcase.variable.VariableReference;
+import org.smartut.utils.ParameterizedTypeImpl;
+import org.smartut.utils.generic.GenericArrayTypeImpl;
+import org.smartut.utils.generic.GenericClass;
+import org.smartut.utils.generic.GenericConstructor;
+import org.smartut.utils.generic.GenericField;
+import org.smartut.utils.generic.GenericMethod;
+import org.smartut.utils.generic.WildcardTypeImpl;
+
+public class TestCaseCodecTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static TestCase createTest() throws Exception {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference x = test.addStatement(new IntPrimitiveStatement(test, -42));
+		test.addStatement(new LongPrimitiveStatement(test, Long.MIN_VALUE));
+		test.addStatement(new DoublePrimitiveStatement(test, Double.NaN));
+		test.addStatement(new CharPrimitiveStatement(test, 'é'));
+		test.addStatement(new BooleanPrimitiveStatement(test, true));
+		VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "a\"b☃"));
+		test.addStatement(new NullStatement(test, String.class));
+		EnumPrimitiveStatement<TimeUnit> unit = new EnumPrimitiveStatement<>(test, TimeUnit.class);
+		unit.setValue(TimeUnit.HOURS);
+		test.addStatement(unit);
+
+		VariableReference list = test.addStatement(new ConstructorStatement(test,
+				new GenericConstructor(ArrayList.class.getConstructor(), ArrayList.class),
+				Collections.emptyList()));
+		test.addStatement(new MethodStatement(test,
+				new GenericMethod(ArrayList.class.getMethod("add", Object.class), ArrayList.class), list,
+				Collections.singletonList(string)));
+		test.addStatement(new MethodStatement(test,
+				new GenericMethod(Integer.class.getMethod("valueOf", int.class), Integer.class), null,
+				Collections.singletonList(x)));
+
+		VariableReference point = test.addStatement(new ConstructorStatement(test,
+				new GenericConstructor(Point.class.getConstructor(int.class, int.class), Point.class),
+				Arrays.asList(x, x)));
+		GenericField field = new GenericField(Point.class.getField("x"), Point.class);
+		test.addStatement(new FieldStatement(test, field, point));
+		test.addStatement(new AssignmentStatement(test, new FieldReference(test, field, point), x));
+		test.addStatement(new FieldStatement(test,
+				new GenericField(System.class.getField("out"), System.class), null));
+
+		ArrayStatement arrayStatement = new ArrayStatement(test, int[].class, new int[] { 3 });
+		ArrayReference array = (ArrayReference) test.addStatement(arrayStatement);
+		test.addStatement(new AssignmentStatement(test, new ArrayIndex(test, array, 2), x));
+		return test;
+	}
+
+	private static byte[] write(TestCase... tests) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TestCaseCodec.Writer out = new TestCaseCodec.Writer(bytes)) {
+			for (TestCase test : tests) {
+				out.writeTest(test);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static List<TestCase> read(byte[] bytes) throws IOException {
+		List<TestCase> tests = new ArrayList<>();
+		try (TestCaseCodec.Reader in = new TestCaseCodec.Reader(new ByteArrayInputStream(bytes))) {
+			TestCase test;
+			while ((test = in.readTest()) != null) {
+				tests.add(test);
+			}
+		}
+		return tests;
+	}
+
+	/**
+	 * Raw types get their type parameters when read, as with Java
+	 * serialization
+	 */
+	private static String readWithJavaSerialization(TestCase test) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(test);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return ((TestCase) in.readObject()).toCode();
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		TestCase test = createTest();
+		List<TestCase> copies = read(write(test, test));
+
+		Assert.assertEquals(2, copies.size());
+		Assert.assertEquals(test.toCode(), copies.get(0).toCode());
+		Assert.assertEquals(test.toCode(), copies.get(1).toCode());
+	}
+
+	@Test
+	public void testSmallerThanJavaSerialization() throws Exception {
+		TestCase test = createTest();
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+			out.writeObject(test);
+		}
+
+		byte[] one = write(test);
+		byte[] two = write(test, test);
+		Assert.assertTrue(one.length * 4 < serialized.size());
+		// the names are only written once
+		Assert.assertTrue(two.length - one.length < one.length / 2);
+	}
+
+	@Test
+	public void testStatementsWithoutEncodingAreSerialized() throws Exception {
+		TestCase test = createTest();
+		test.getStatement(0).addComment("a comment");
+		List<TestCase> copies = read(write(createTest(), test, createTest()));
+
+		Assert.assertEquals(3, copies.size());
+		Assert.assertEquals(readWithJavaSerialization(test), copies.get(1).toCode());
+		Assert.assertEquals(copies.get(0).toCode(), copies.get(2).toCode());
+	}
+
+	@Test
+	public void testPartialLoad() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			TestChromosome chromosome = new TestChromosome();
+			chromosome.setTestCase(createTest());
+			tests.add(chromosome);
+		}
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		suite.addTests(tests);
+		File file = new File(folder.getRoot(), "seeds");
+		Assert.assertTrue(TestSuiteSerialization.saveTests(suite, file));
+		Assert.assertTrue(TestCaseCodec.isBinaryFormat(file));
+
+		Assert.assertEquals(2, TestSuiteSerialization.loadTests(file, 2).size());
+		List<TestChromosome> loaded = TestSuiteSerialization.loadTests(file);
+		Assert.assertEquals(3, loaded.size());
+		Assert.assertEquals(tests.get(2).getTestCase().toCode(), loaded.get(2).getTestCase().toCode());
+	}
+
+	@Test
+	public void testLoadJavaSerialization() throws Exception {
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(createTest());
+		File file = new File(folder.getRoot(), "seeds");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+			out.writeObject(chromosome);
+		}
+		Assert.assertFalse(TestCaseCodec.isBinaryFormat(file));
+
+		List<TestChromosome> loaded = TestSuiteSerialization.loadTests(file);
+		Assert.assertEquals(1, loaded.size());
+		Assert.assertEquals(readWithJavaSerialization(chromosome.getTestCase()), loaded.get(0).getTestCase().toCode());
+	}
+
+	@Test
+	public void testClasses() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		GenericClass parameterized = new GenericClass(
+				new ParameterizedTypeImpl(List.class, new Type[] { String.class }, null));
+		try (TestCaseCodec.Writer out = new TestCaseCodec.Writer(bytes)) {
+			out.writeClass(new GenericClass(String.class));
+			out.writeClass(parameterized);
+			out.writeInt(300);
+		}
+		try (TestCaseCodec.Reader in = new TestCaseCodec.Reader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Assert.assertEquals(new GenericClass(String.class), in.readClass());
+			Assert.assertEquals(parameterized.getTypeName(), in.readClass().getTypeName());
+			Assert.assertEquals(300, in.readInt());
+			Assert.assertNull(in.readTest());
+		}
+	}
+
+	@Test
+	public void testWildcardsAndTypeVariables() throws Exception {
+		TypeVariable<?> element = List.class.getTypeParameters()[0];
+		Type extendsNumber = new ParameterizedTypeImpl(ArrayList.class,
+				new Type[] { new WildcardTypeImpl(new Type[] { Number.class }, new Type[0]) }, null);
+		Type superInteger = new ParameterizedTypeImpl(List.class,
+				new Type[] { new WildcardTypeImpl(new Type[] { Object.class }, new Type[] { Integer.class }) }, null);
+		Type[] types = { extendsNumber, superInteger, new ParameterizedTypeImpl(List.class, new Type[] { element }, null),
+				GenericArrayTypeImpl.createArrayType(superInteger), element };
+
+		DefaultTestCase test = new DefaultTestCase();
+		test.addStatement(new ConstructorStatement(test,
+				new GenericConstructor(ArrayList.class.getConstructor(), extendsNumber), Collections.emptyList()));
+		for (Type type : types) {
+			test.addStatement(new NullStatement(test, type));
+		}
+
+		List<TestCase> copies = read(write(test));
+		Assert.assertEquals(1, copies.size());
+		TestCase copy = copies.get(0);
+		Assert.assertEquals(test.toCode(), copy.toCode());
+		Assert.assertEquals(extendsNumber, copy.getStatement(0).getReturnValue().getType());
+		for (int i = 0; i < types.length; i++) {
+			Assert.assertEquals(types[i], copy.getStatement(i + 1).getReturnValue().getType());
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (TestCaseCodec.Writer out = new TestCaseCodec.Writer(bytes)) {
+			out.writeClass(new GenericClass(superInteger));
+		}
+		try (TestCaseCodec.Reader in = new TestCaseCodec.Reader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Assert.assertEquals(superInteger, in.readClass().getType());
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.utils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.smartut.Properties;
+
+public class IntRandomAccessQueueTest {
+
+	private final int defaultPoolSize = Properties.DYNAMIC_POOL_SIZE;
+
+	@After
+	public void resetProperties() {
+		Properties.DYNAMIC_POOL_SIZE = defaultPoolSize;
+	}
+
+	@Test
+	public void testDuplicatesAreIgnored() {
+		IntRandomAccessQueue queue = new IntRandomAccessQueue();
+		queue.restrictedAdd(7);
+		queue.restrictedAdd(-7);
+		queue.restrictedAdd(7);
+		Assert.assertEquals(2, queue.size());
+		Assert.assertEquals("[ 7 -7 ]", queue.toString());
+	}
+
+	@Test
+	public void testOldestValuesAreEvicted() {
+		Properties.DYNAMIC_POOL_SIZE = 50;
+		IntRandomAccessQueue queue = new IntRandomAccessQueue();
+		for (int i = 0; i < 1000; i++) {
+			queue.restrictedAdd(i * 31);
+		}
+		Assert.assertEquals(50, queue.size());
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(i >= 950, queue.contains(i * 31));
+		}
+
+		// an evicted value can be added again
+		queue.restrictedAdd(0);
+		Assert.assertTrue(queue.contains(0));
+		Assert.assertFalse(queue.contains(950 * 31));
+	}
+
+	@Test
+	public void testSameValuesAsDefaultQueue() {
+		Properties.DYNAMIC_POOL_SIZE = 20;
+		IntRandomAccessQueue queue = new IntRandomAccessQueue();
+		DefaultRandomAccessQueue<Integer> expected = new DefaultRandomAccessQueue<>();
+		Randomness.setSeed(42);
+		for (int i = 0; i < 5000; i++) {
+			int value = Randomness.nextInt(-40, 40);
+			queue.restrictedAdd(value);
+			expected.restrictedAdd(value);
+			Assert.assertEquals(expected.toString(), queue.toString());
+		}
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue(expected.toString().contains(" " + queue.getRandomInt() + " "));
+		}
+	}
+}
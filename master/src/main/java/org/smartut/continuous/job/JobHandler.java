@@ -376,6 +376,18 @@ public class JobHandler extends Thread {
 			commands.add("-Dctg_seeds_file_in=" + seedIn.getAbsolutePath() + File.separator +seedsFileName);
 		}
 
+		String instrumentationCache = Properties.INSTRUMENTATION_CACHE_DIR;
+		if (instrumentationCache == null) {
+			instrumentationCache = Properties.CTG_DIR + File.separator + Properties.CTG_INSTRUMENTATION_CACHE_DIR_NAME;
+		}
+		commands.add("-Dinstrumentation_cache_dir=" + new File(instrumentationCache).getAbsolutePath());
+
+		String classPathIndex = Properties.CLASSPATH_INDEX_DIR;
+		if (classPathIndex == null) {
+			classPathIndex = Properties.CTG_DIR + File.separator + Properties.CTG_CLASSPATH_INDEX_DIR_NAME;
+		}
+		commands.add("-Dclasspath_index_dir=" + new File(classPathIndex).getAbsolutePath());
+
 		commands.addAll(getOutputVariables());
 		commands.add("-Danalysis_criteria=" + Properties.ANALYSIS_CRITERIA);
 
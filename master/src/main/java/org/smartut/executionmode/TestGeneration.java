@@ -199,6 +199,51 @@ public class TestGeneration {
 		return results;
 	}
 	
+	/**
+	 * With several clients, the classpath is analyzed once here rather than
+	 * in each client, and the clients load the inheritance tree from a file.
+	 * The persistent caches of instrumented bytecode and of the classes of
+	 * each jar are only shared if they are set explicitly, in which case a
+	 * dependency is instrumented and a jar is scanned by the first client
+	 * only. The other results of the analysis of the SUT (branch and mutation
+	 * pools, test cluster) are still computed by each client in its own class
+	 * loader
+	 * 
+	 * @param cmdLine
+	 * @param args
+	 */
+	private static void shareClasspathAnalysis(List<String> cmdLine, List<String> args) {
+		shareInheritanceTree(cmdLine, args);
+
+		if (!hasProperty(args, "instrumentation_cache_dir") || !hasProperty(args, "classpath_index_dir")) {
+			LoggingUtils.getSmartUtLogger().info("* Set instrumentation_cache_dir and classpath_index_dir to let the "
+					+ Properties.NUM_PARALLEL_CLIENTS + " clients share the instrumented bytecode and the classes of each jar");
+		}
+	}
+
+	private static void shareInheritanceTree(List<String> cmdLine, List<String> args) {
+		if (Properties.INSTRUMENT_CONTEXT || !Properties.INHERITANCE_FILE.isEmpty()
+				|| hasProperty(args, "inheritance_file")) {
+			// the clients would not use the file, or already have one
+			return;
+		}
+		try {
+			String inheritanceFile = SmartUt.generateInheritanceTree(ClassPathHandler.getInstance().getTargetProjectClasspath());
+			cmdLine.add("-Dinheritance_file=" + inheritanceFile);
+		} catch (IOException e) {
+			LoggingUtils.getSmartUtLogger().info("* Error while traversing classpath: " + e);
+		}
+	}
+
+	private static boolean hasProperty(List<String> args, String key) {
+		for (String arg : args) {
+			if (arg.startsWith("-D" + key + "=")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private static boolean findTargetClass(String target) {
 
 		if (ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).hasClass(target)) {
@@ -320,6 +365,10 @@ public class TestGeneration {
 			}
 		}
 
+		if (Properties.NUM_PARALLEL_CLIENTS > 1) {
+			shareClasspathAnalysis(cmdLine, args);
+		}
+
 		switch (strategy) {
 		case SmartUt:
 			cmdLine.add("-Dstrategy=SmartUt");
@@ -38,6 +38,7 @@ import org.smartut.statistics.SearchStatistics;
 import org.smartut.statistics.RuntimeVariable;
 import org.smartut.utils.Listener;
 import org.smartut.utils.LoggingUtils;
+import org.smartut.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -194,19 +195,46 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	}
 
     @Override
-    public void smartut_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants)
+    public void smartut_migrate(String clientRmiIdentifier, byte[] migrants)
             throws RemoteException {
-        //implements ring topology
         int idSender = Integer.parseInt(clientRmiIdentifier.replaceAll("[^0-9]", ""));
-        int idNeighbour = (idSender + 1) % Properties.NUM_PARALLEL_CLIENTS;
+        for (int idNeighbour : getNeighbours(idSender)) {
+            ClientNodeRemote node = clients.get("ClientNode" + idNeighbour);
+            try {
+                node.immigrate(migrants);
+            } catch (RemoteException e) {
+                logger.error("Cannot send immigrating individuals to ClientNode" + idNeighbour, e);
+            }
+        }
+    }
 
-        while (!ClientState.SEARCH.equals(clientStates.get("ClientNode" + idNeighbour)) && idNeighbour != idSender) {
-            idNeighbour = (idNeighbour + 1) % Properties.NUM_PARALLEL_CLIENTS;
+    /**
+     * Returns the clients still searching that receive the migrants of the
+     * given client
+     *
+     * @param idSender the number of the sending client
+     * @return the numbers of the receiving clients
+     */
+    private List<Integer> getNeighbours(int idSender) {
+        List<Integer> searching = new ArrayList<>();
+        for (int i = 1; i < Properties.NUM_PARALLEL_CLIENTS; i++) {
+            int id = (idSender + i) % Properties.NUM_PARALLEL_CLIENTS;
+            if (ClientState.SEARCH.equals(clientStates.get("ClientNode" + id))) {
+                searching.add(id);
+            }
+        }
+        if (searching.isEmpty()) {
+            return searching;
         }
 
-        if (idNeighbour != idSender) {
-            ClientNodeRemote node = clients.get("ClientNode" + idNeighbour);
-            node.immigrate(migrants);
+        switch (Properties.MIGRATION_TOPOLOGY) {
+            case FULLY_CONNECTED:
+                return searching;
+            case RANDOM:
+                return Collections.singletonList(Randomness.choice(searching));
+            case RING:
+            default:
+                return Collections.singletonList(searching.get(0));
         }
     }
 
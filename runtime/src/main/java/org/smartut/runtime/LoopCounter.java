@@ -19,8 +19,7 @@
  */
 package org.smartut.runtime;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * In some cases, we can end up with infinite loops: eg due to a bug, a seeded mutation,
@@ -31,30 +30,119 @@ import java.util.List;
  * Therefore, for each loop in the instrumented CUTs, we can have a limit, and throw an exception
  * if too many iterations have occurred
  *
+ * <p>
+ * The counters are kept in a primitive array indexed by the loop index assigned during
+ * instrumentation. A reset does not clear the array: each counter is tagged with the epoch
+ * in which it was last used, and counters of an earlier epoch count as zero.
+ *
+ * <p>
+ * Tests executed concurrently count their iterations on separate worker counters, see
+ * {@link #newWorkerCounter()}. The loop indexes are always assigned by the global counter.
+ *
  * Created by Andrea Arcuri on 29/03/15.
  */
 public class LoopCounter {
 
     private static final LoopCounter singleton = new LoopCounter();
 
+    /**
+     * Worker counter of the current thread, inherited by the threads it spawns
+     */
+    private static final InheritableThreadLocal<LoopCounter> workerCounter = new InheritableThreadLocal<>();
+
+    private static volatile boolean hasWorkerCounters = false;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Number of buckets of the iteration histograms: bucket {@code b > 0} counts the executions
+     * in which a loop iterated between {@code 2^(b-1)} and {@code 2^b - 1} times
+     */
+    public static final int HISTOGRAM_BUCKETS = 64;
+
     private boolean activated = true;
-    
+
     /**
-     * Number of iterations so far
+     * Number of loop indexes handed out to the instrumentation
      */
-    private List<Long> counters;
+    private int numberOfLoops = 0;
+
+    /**
+     * Number of iterations so far, valid for the loops whose entry in {@link #epochs}
+     * is the current epoch
+     */
+    private long[] counters = new long[INITIAL_CAPACITY];
+
+    private int[] epochs = new int[INITIAL_CAPACITY];
+
+    private int epoch = 1;
+
+    /**
+     * Depth of static initializers on each thread, maintained by the instrumentation
+     * of the static initializers
+     */
+    private final ThreadLocal<int[]> staticInitDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private boolean histogramEnabled = false;
+
+    /**
+     * Loops used in the current epoch, whose counters are added to the histograms on reset
+     */
+    private int[] usedLoops = new int[16];
+
+    private int numberOfUsedLoops = 0;
+
+    private long[][] histograms = new long[0][];
 
 
     private LoopCounter(){
-        counters = new ArrayList<>();
     }
 
     public static LoopCounter getInstance(){
+        if(hasWorkerCounters) {
+            LoopCounter counter = workerCounter.get();
+            if(counter != null) {
+                return counter;
+            }
+        }
         return singleton;
     }
 
+    /**
+     * Creates a counter for a worker executing tests concurrently with other workers.
+     * Once bound to a thread, it counts the iterations of the loops executed by that
+     * thread and by the threads it spawns
+     *
+     * @return a new counter, not bound to any thread
+     */
+    public static LoopCounter newWorkerCounter(){
+        hasWorkerCounters = true;
+        return new LoopCounter();
+    }
+
+    /**
+     * Makes {@link #getInstance()} return this counter on the current thread, and on the
+     * threads it spawns from now on
+     */
+    public void bindToCurrentThread(){
+        if(this != singleton) {
+            workerCounter.set(this);
+        }
+    }
+
+    public static void unbindCurrentThread(){
+        workerCounter.remove();
+    }
+
     public void reset(){
-        counters.clear();
+        if(histogramEnabled) {
+            recordHistogram();
+        }
+        epoch++;
+        if(epoch == Integer.MAX_VALUE) {
+            Arrays.fill(epochs, 0);
+            epoch = 1;
+        }
     }
     
     public void setActive(boolean active) {
@@ -65,6 +153,89 @@ public class LoopCounter {
         return activated;
     }
 
+    /**
+     * Enables the histograms of the number of iterations of each loop per execution,
+     * i.e., between two resets
+     *
+     * @param enabled
+     */
+    public void setHistogramEnabled(boolean enabled) {
+        this.histogramEnabled = enabled;
+        this.numberOfUsedLoops = 0;
+        epoch++;
+    }
+
+    public boolean isHistogramEnabled() {
+        return histogramEnabled;
+    }
+
+    /**
+     * @return the number of loop indexes assigned so far
+     */
+    public int getNumberOfLoops() {
+        return numberOfLoops;
+    }
+
+    /**
+     * @param index
+     * @return a copy of the histogram of the iterations of the given loop over the
+     *         executions so far, with {@link #HISTOGRAM_BUCKETS} buckets
+     */
+    public long[] getIterationHistogram(int index) {
+        if(index < histograms.length && histograms[index] != null) {
+            return histograms[index].clone();
+        }
+        return new long[HISTOGRAM_BUCKETS];
+    }
+
+    /**
+     * @return the sum of the histograms of all loops over the executions so far, with
+     *         {@link #HISTOGRAM_BUCKETS} buckets
+     */
+    public synchronized long[] getIterationHistogram() {
+        long[] total = new long[HISTOGRAM_BUCKETS];
+        for(long[] histogram : histograms) {
+            if(histogram == null) {
+                continue;
+            }
+            for(int b = 0; b < HISTOGRAM_BUCKETS; b++) {
+                total[b] += histogram[b];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Adds the histograms of the given worker counter to the ones of this counter, and
+     * clears the ones of the worker
+     *
+     * @param worker
+     */
+    public synchronized void addHistograms(LoopCounter worker) {
+        long[][] other = worker.histograms;
+        if(other.length > histograms.length) {
+            histograms = Arrays.copyOf(histograms, other.length);
+        }
+        for(int i = 0; i < other.length; i++) {
+            if(other[i] == null) {
+                continue;
+            }
+            if(histograms[i] == null) {
+                histograms[i] = other[i];
+            } else {
+                for(int b = 0; b < HISTOGRAM_BUCKETS; b++) {
+                    histograms[i][b] += other[i][b];
+                }
+            }
+        }
+        worker.clearHistograms();
+    }
+
+    public void clearHistograms() {
+        histograms = new long[0][];
+        numberOfUsedLoops = 0;
+    }
+
     /**
      * This is called during bytecode instrumentation to determine which index
      * to assign to a new parsed loop
@@ -72,9 +243,39 @@ public class LoopCounter {
      * @return the next valid index for a new loop
      */
     public int getNewIndex(){
-        int index = counters.size();
-        counters.add(0L);
-        return index;
+        if(this != singleton) {
+            return singleton.getNewIndex();
+        }
+        synchronized (this) {
+            int index = numberOfLoops++;
+            ensureCapacity(numberOfLoops);
+            return index;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity > counters.length || capacity > epochs.length) {
+            int length = Math.max(capacity, 2 * counters.length);
+            counters = Arrays.copyOf(counters, length);
+            epochs = Arrays.copyOf(epochs, length);
+        }
+    }
+
+    /**
+     * This is added at the start of each instrumented static initializer
+     */
+    public void enteredStaticInit() {
+        staticInitDepth.get()[0]++;
+    }
+
+    /**
+     * This is added at each exit, normal or exceptional, of an instrumented static initializer
+     */
+    public void exitedStaticInit() {
+        int[] depth = staticInitDepth.get();
+        if(depth[0] > 0) {
+            depth[0]--;
+        }
     }
 
 
@@ -98,36 +299,65 @@ public class LoopCounter {
         }
         
         //first check initialization
-        int size = counters.size();
-        if(index >= size){
-            for(int i=0; i < 1 + (index - size); i++){
-                counters.add(0L);
-            }
+        if(index >= counters.length || index >= epochs.length){
+            ensureCapacity(index + 1);
         }
-        assert index < counters.size();
 
         //do increment
-        try {
-            long value = counters.get(index) + 1L;
-            counters.set(index, value);
-
-            if(value >= RuntimeSettings.maxNumberOfIterationsPerLoop && !isInStaticInit()) {
-                this.reset();
-                throw new TooManyResourcesException("Loop has been executed more times than the allowed " +
-                        RuntimeSettings.maxNumberOfIterationsPerLoop);
+        long value;
+        if(epochs[index] == epoch) {
+            value = counters[index] + 1L;
+        } else {
+            epochs[index] = epoch;
+            value = 1L;
+            if(histogramEnabled) {
+                addUsedLoop(index);
             }
-        } catch(NullPointerException e) {
-            // Some weird Java internal NPE can happen:
-            // https://github.com/SmartUt/smartut/issues/143
-            // Seems safe to swallow this instead of crashing SmartUt
+        }
+        counters[index] = value;
+
+        if(value >= RuntimeSettings.maxNumberOfIterationsPerLoop && !isInStaticInit()) {
+            this.reset();
+            throw new TooManyResourcesException("Loop has been executed more times than the allowed " +
+                    RuntimeSettings.maxNumberOfIterationsPerLoop);
         }
     }
 
+    private void addUsedLoop(int index) {
+        if(numberOfUsedLoops == usedLoops.length) {
+            usedLoops = Arrays.copyOf(usedLoops, 2 * usedLoops.length);
+        }
+        usedLoops[numberOfUsedLoops++] = index;
+    }
 
+    private void recordHistogram() {
+        for(int i = 0; i < numberOfUsedLoops; i++) {
+            int index = usedLoops[i];
+            if(index >= histograms.length) {
+                histograms = Arrays.copyOf(histograms, Math.max(index + 1, numberOfLoops));
+            }
+            if(histograms[index] == null) {
+                histograms[index] = new long[HISTOGRAM_BUCKETS];
+            }
+            int bucket = Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(counters[index]));
+            histograms[index][bucket]++;
+        }
+        numberOfUsedLoops = 0;
+    }
+
+    /**
+     * Static initializers that were not instrumented, e.g. the ones of library classes
+     * calling into the CUT, do not maintain the depth. For them the stack is walked,
+     * which is only done once a loop reaches its limit
+     */
     private boolean isInStaticInit() {
-        for (StackTraceElement elem : new Throwable().getStackTrace()) {
-            if (elem.getMethodName().startsWith("<clinit>"))
+        if(staticInitDepth.get()[0] > 0) {
+            return true;
+        }
+        for(StackTraceElement elem : Thread.currentThread().getStackTrace()) {
+            if(elem.getMethodName().equals("<clinit>")) {
                 return true;
+            }
         }
         return false;
     }
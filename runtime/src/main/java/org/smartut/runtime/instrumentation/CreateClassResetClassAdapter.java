@@ -189,6 +189,15 @@ public class CreateClassResetClassAdapter extends ClassVisitor {
 	 */
 	private final ArrayList<String> modifiedStaticFields = new ArrayList<>();
 
+	/**
+	 * @return the static fields whose <code>final</code> modifier was removed,
+	 *         as registered in {@link ModifiedTargetStaticFields} at the end of
+	 *         the visit
+	 */
+	public List<String> getModifiedStaticFields() {
+		return modifiedStaticFields;
+	}
+
 	/**
 	 * During the visit of each field, static fields are collected. If the
 	 * <code>removeFinalModifierOnStaticFields</code> is active, final static
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.runtime.instrumentation;
+
+import org.smartut.runtime.LoopCounter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Tells the {@link LoopCounter} when a static initializer is entered and left, also
+ * through an exception, so that loops in the methods it calls are not stopped.
+ * The exception handler is added last, after the handlers of the initializer itself.
+ */
+public class LoopCounterStaticInitMethodAdapter extends MethodVisitor {
+
+    private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+    private final Label start = new Label();
+
+    private final Label handler = new Label();
+
+    public LoopCounterStaticInitMethodAdapter(MethodVisitor mv) {
+        super(Opcodes.ASM9, mv);
+    }
+
+    @Override
+    public void visitCode() {
+        super.visitCode();
+        callLoopCounter("enteredStaticInit");
+        super.visitLabel(start);
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+        if (opcode == Opcodes.RETURN) {
+            callLoopCounter("exitedStaticInit");
+        }
+        super.visitInsn(opcode);
+    }
+
+    @Override
+    public void visitMaxs(int maxStack, int maxLocals) {
+        super.visitTryCatchBlock(start, handler, handler, null);
+        super.visitLabel(handler);
+        callLoopCounter("exitedStaticInit");
+        super.visitInsn(Opcodes.ATHROW);
+        super.visitMaxs(maxStack + 2, maxLocals);
+    }
+
+    private void callLoopCounter(String method) {
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, LOOP_COUNTER,
+                "getInstance", "()L" + LOOP_COUNTER + ";", false);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, LOOP_COUNTER,
+                method, "()V", false);
+    }
+}
@@ -136,23 +136,27 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 			for(int j=offset; j<length; j++){
 				ByteBuffer dst = dsts[j];
 				int r = dst.remaining();
-				for(int i=0; i<r; i++){
-					int b = NativeMockedIO.read(path, posToUpdate);
-					if(b < 0){ //end of stream
-						return -1;
-					}
+				if(r == 0){
+					continue;
+				}
+				byte[] buffer = new byte[r];
+				int n = NativeMockedIO.read(path, posToUpdate, buffer, 0, r);
 
-					if(closed){
-						throw new AsynchronousCloseException();
-					}
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
 
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
-					}
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
+				}
 
-					dst.put((byte)b);
-					counter++;
+				if(n > 0){
+					dst.put(buffer, 0, n);
+					counter += n;
+				}
+				if(n < r){ //end of stream
+					return -1;
 				}
 			}
 		}
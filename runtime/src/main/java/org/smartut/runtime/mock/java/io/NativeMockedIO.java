@@ -61,6 +61,26 @@ public class NativeMockedIO {
 	}
 
 	
+	/**
+	 * Read up to {@code len} bytes, and advance {@code position} by the number of bytes read
+	 *
+	 * @return the number of bytes read, or -1 if the end of the file was already reached
+	 */
+	public static int read(String path, AtomicInteger position, byte[] b, int off, int len) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int n = vf.read(position.get(), b, off, len);
+		if(n > 0){
+			position.addAndGet(n);
+		}
+		return n;
+	}
+
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
 		if(target==null || target.isDeleted() || target.isFolder() || !target.isWritePermission()){
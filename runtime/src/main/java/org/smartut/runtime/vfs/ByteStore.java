@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.runtime.vfs;
+
+import java.util.Arrays;
+
+/**
+ * The content of a virtual file, stored in fixed size pages of bytes.
+ * Pages that were never written are not allocated, and read as zeros.
+ *
+ * <p>
+ * Snapshots share their pages with the store they are taken from, and a
+ * page is only copied by the first of them that writes to it.
+ *
+ * <p>
+ * This class is not thread-safe, {@link VFile} synchronizes the access.
+ */
+final class ByteStore {
+
+	static final int PAGE_SIZE = 4096;
+
+	private static final int PAGE_SHIFT = 12;
+
+	private static final byte[][] NO_PAGES = new byte[0][];
+
+	private byte[][] pages = NO_PAGES;
+
+	/**
+	 * Whether a page is only referenced by this store, and so can be written
+	 * in place
+	 */
+	private boolean[] owned = new boolean[0];
+
+	private int size = 0;
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the unsigned value of the byte at {@code position}, or -1 if
+	 *         position is not lower than the size
+	 */
+	int read(int position) {
+		if (position >= size) {
+			return -1;
+		}
+		byte[] page = pages[position >>> PAGE_SHIFT];
+		return page == null ? 0 : page[position & (PAGE_SIZE - 1)] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting at {@code position} into
+	 * {@code b}
+	 *
+	 * @return the number of bytes copied, or -1 if there are none left at
+	 *         {@code position} and {@code len} is positive
+	 */
+	int read(int position, byte[] b, int off, int len) {
+		if (len <= 0) {
+			return 0;
+		}
+		if (position >= size) {
+			return -1;
+		}
+		int toRead = Math.min(len, size - position);
+		int done = 0;
+		while (done < toRead) {
+			int pos = position + done;
+			int inPage = pos & (PAGE_SIZE - 1);
+			int chunk = Math.min(toRead - done, PAGE_SIZE - inPage);
+			byte[] page = pages[pos >>> PAGE_SHIFT];
+			if (page == null) {
+				Arrays.fill(b, off + done, off + done + chunk, (byte) 0);
+			} else {
+				System.arraycopy(page, inPage, b, off + done, chunk);
+			}
+			done += chunk;
+		}
+		return toRead;
+	}
+
+	/**
+	 * Write {@code len} bytes of {@code b} at {@code position}. If position is
+	 * after the end, the gap is filled with zeros.
+	 */
+	void write(int position, byte[] b, int off, int len) {
+		if (len <= 0) {
+			return;
+		}
+		int end = position + len;
+		if (end < 0) {
+			throw new IllegalArgumentException("Virtual files cannot be larger than " + Integer.MAX_VALUE + " bytes");
+		}
+		ensurePages(end);
+		int done = 0;
+		while (done < len) {
+			int pos = position + done;
+			int inPage = pos & (PAGE_SIZE - 1);
+			int chunk = Math.min(len - done, PAGE_SIZE - inPage);
+			System.arraycopy(b, off + done, writablePage(pos >>> PAGE_SHIFT), inPage, chunk);
+			done += chunk;
+		}
+		size = Math.max(size, end);
+	}
+
+	void setLength(int newLength) {
+		if (newLength < 0) {
+			throw new IllegalArgumentException("Length cannot be negative");
+		}
+		if (newLength >= size) {
+			// the new bytes are in pages that are either missing or were
+			// zeroed when the store was truncated
+			ensurePages(newLength);
+			size = newLength;
+			return;
+		}
+
+		int numPages = pagesFor(newLength);
+		Arrays.fill(pages, numPages, pages.length, null);
+		Arrays.fill(owned, numPages, owned.length, false);
+		int inPage = newLength & (PAGE_SIZE - 1);
+		if (inPage != 0 && pages[numPages - 1] != null) {
+			Arrays.fill(writablePage(numPages - 1), inPage, PAGE_SIZE, (byte) 0);
+		}
+		size = newLength;
+	}
+
+	/**
+	 * Take a snapshot in constant time per page. Later writes to either store
+	 * are not visible in the other one.
+	 */
+	ByteStore snapshot() {
+		ByteStore copy = new ByteStore();
+		copy.pages = pages.clone();
+		copy.owned = new boolean[pages.length];
+		copy.size = size;
+		Arrays.fill(owned, false);
+		return copy;
+	}
+
+	private static int pagesFor(int length) {
+		return (int) (((long) length + PAGE_SIZE - 1) >>> PAGE_SHIFT);
+	}
+
+	private void ensurePages(int length) {
+		int needed = pagesFor(length);
+		if (needed > pages.length) {
+			int capacity = Math.max(needed, Math.min(pages.length * 2, pagesFor(Integer.MAX_VALUE)));
+			pages = Arrays.copyOf(pages, capacity);
+			owned = Arrays.copyOf(owned, capacity);
+		}
+	}
+
+	private byte[] writablePage(int index) {
+		byte[] page = pages[index];
+		if (page == null) {
+			page = new byte[PAGE_SIZE];
+		} else if (!owned[index]) {
+			page = page.clone();
+		} else {
+			return page;
+		}
+		pages[index] = page;
+		owned[index] = true;
+		return page;
+	}
+}
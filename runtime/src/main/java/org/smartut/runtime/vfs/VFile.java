@@ -19,9 +19,6 @@
  */
 package org.smartut.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Representation of a virtual file
  * 
@@ -31,19 +28,17 @@ import java.util.List;
 public class VFile extends FSObject{
 
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * the actual data contained in file
 	 */
-	private final List<Byte> data;
+	private ByteStore data;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
-
-		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<>(1024);
+		data = new ByteStore();
 	}
 
-	public void eraseData(){
-		data.clear();
+	public synchronized void eraseData(){
+		data = new ByteStore();
 	}
 
 	public synchronized int getDataSize(){
@@ -52,24 +47,7 @@ public class VFile extends FSObject{
 
 
 	public synchronized void setLength(int newLength){
-
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
-		}
-
-		if(newLength==0){
-			data.clear();
-			return;
-		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
-		}
+		data.setLength(newLength);
 	}
 
     /**
@@ -82,11 +60,24 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
-			return -1; //this represent the end of the stream
+		return data.read(position);
+	}
+
+	/**
+	 * Read up to {@code len} bytes starting at {@code position}
+	 *
+	 * @return the number of bytes read, or -1 if {@code position} is at the end of the file
+	 *   and {@code len} is positive
+	 */
+	public synchronized int read(int position, byte[] b, int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+		if(off<0 || len<0 || len > b.length-off){
+			throw new IndexOutOfBoundsException();
 		}
 
-		return data.get(position) & 0xFF;
+		return data.read(position, b, off, len);
 	}
 
 	public synchronized int writeBytes(byte[] b, int off, int len){
@@ -104,27 +95,15 @@ public class VFile extends FSObject{
 			return 0;
 		}
 
-		if(position >= data.size()){
-			setLength(position);
-		}
-
-		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
-		}
+		// a gap after the end of the file is filled with zeros
+		int written = Math.max(0, Math.min(len, b.length - off));
+		data.write(position, b, off, written);
 
 		setLastModified(getCurrentTimeMillis());
 
 		return written;
 	}
 
-
 	@Override
 	public synchronized boolean delete(){
 		eraseData();
@@ -19,6 +19,8 @@
  */
 package org.smartut.runtime;
 
+import java.util.Arrays;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -37,6 +39,9 @@ public class LoopCounterTest {
     @After
     public void tearDown() {
         LoopCounter.getInstance().reset();
+        LoopCounter.getInstance().setHistogramEnabled(false);
+        LoopCounter.getInstance().clearHistograms();
+        RuntimeSettings.maxNumberOfIterationsPerLoop = Long.MAX_VALUE;
     }
 
     @Test
@@ -47,4 +52,133 @@ public class LoopCounterTest {
 		LoopCounter.getInstance().checkLoop(5);
 		LoopCounter.getInstance().checkLoop(6);
     }
+
+    @Test
+    public void testTooManyIterations(){
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        int index = LoopCounter.getInstance().getNewIndex();
+        for(int i = 0; i < 9; i++) {
+            LoopCounter.getInstance().checkLoop(index);
+        }
+        try {
+            LoopCounter.getInstance().checkLoop(index);
+            Assert.fail();
+        } catch (TooManyResourcesException e) {
+            // expected
+        }
+
+        // the exception resets the counters
+        LoopCounter.getInstance().checkLoop(index);
+    }
+
+    @Test
+    public void testResetClearsCounters(){
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        int index = LoopCounter.getInstance().getNewIndex();
+        for(int j = 0; j < 3; j++) {
+            for (int i = 0; i < 9; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+            LoopCounter.getInstance().reset();
+        }
+        Assert.assertTrue(LoopCounter.getInstance().getNumberOfLoops() > index);
+    }
+
+    @Test
+    public void testNoStopInStaticInit(){
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        int index = LoopCounter.getInstance().getNewIndex();
+        LoopCounter.getInstance().enteredStaticInit();
+        try {
+            for (int i = 0; i < 20; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+        } finally {
+            LoopCounter.getInstance().exitedStaticInit();
+        }
+        try {
+            LoopCounter.getInstance().checkLoop(index);
+            Assert.fail();
+        } catch (TooManyResourcesException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIterationHistogram(){
+        LoopCounter.getInstance().setHistogramEnabled(true);
+        int index = LoopCounter.getInstance().getNewIndex();
+        int[] iterations = { 1, 3, 3, 100 };
+        for(int n : iterations) {
+            for (int i = 0; i < n; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+            LoopCounter.getInstance().reset();
+        }
+        long[] histogram = LoopCounter.getInstance().getIterationHistogram(index);
+        Assert.assertEquals(LoopCounter.HISTOGRAM_BUCKETS, histogram.length);
+        Assert.assertEquals(1, histogram[1]);
+        Assert.assertEquals(2, histogram[2]);
+        Assert.assertEquals(1, histogram[7]);
+        Assert.assertEquals(4, Arrays.stream(histogram).sum());
+        Assert.assertArrayEquals(histogram, LoopCounter.getInstance().getIterationHistogram());
+    }
+
+    /**
+     * Its static initializer is compiled as is, so it does not tell the counter when it starts
+     */
+    private static class UninstrumentedStaticInit {
+        private static int iterations = 0;
+
+        static {
+            int index = LoopCounter.getInstance().getNewIndex();
+            for (int i = 0; i < 20; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+                iterations++;
+            }
+        }
+    }
+
+    @Test
+    public void testNoStopInUninstrumentedStaticInit(){
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        Assert.assertEquals(20, UninstrumentedStaticInit.iterations);
+    }
+
+    @Test
+    public void testWorkerCounter() throws InterruptedException {
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        int index = LoopCounter.getInstance().getNewIndex();
+        for (int i = 0; i < 9; i++) {
+            LoopCounter.getInstance().checkLoop(index);
+        }
+
+        LoopCounter worker = LoopCounter.newWorkerCounter();
+        worker.setHistogramEnabled(true);
+        Thread thread = new Thread(() -> {
+            worker.bindToCurrentThread();
+            Assert.assertSame(worker, LoopCounter.getInstance());
+            // indexes are still assigned by the global counter
+            Assert.assertTrue(LoopCounter.getInstance().getNewIndex() > index);
+            for (int i = 0; i < 9; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+            LoopCounter.unbindCurrentThread();
+        });
+        thread.start();
+        thread.join();
+        worker.reset();
+
+        Assert.assertNotSame(worker, LoopCounter.getInstance());
+        try {
+            LoopCounter.getInstance().checkLoop(index);
+            Assert.fail();
+        } catch (TooManyResourcesException e) {
+            // expected, the iterations of the worker were not counted here
+        }
+
+        LoopCounter.getInstance().addHistograms(worker);
+        Assert.assertEquals(1, LoopCounter.getInstance().getIterationHistogram(index)[4]);
+        Assert.assertEquals(0, worker.getIterationHistogram(index)[4]);
+    }
 }
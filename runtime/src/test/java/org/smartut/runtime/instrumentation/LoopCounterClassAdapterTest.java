@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.runtime.instrumentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.smartut.runtime.LoopCounter;
+import org.smartut.runtime.RuntimeSettings;
+import org.smartut.runtime.TooManyResourcesException;
+
+public class LoopCounterClassAdapterTest {
+
+    public static class LoopInStaticInit {
+
+        public static int sum = loop(50);
+
+        public static int loop(int n) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += i;
+            }
+            return sum;
+        }
+    }
+
+    public static class FailingStaticInit {
+
+        static {
+            if (LoopInStaticInit.loop(3) > 0) {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private static class InstrumentingLoader extends ClassLoader {
+
+        InstrumentingLoader() {
+            super(LoopCounterClassAdapterTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(LoopCounterClassAdapterTest.class.getName() + "$")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                String resource = name.replace('.', '/') + ".class";
+                try (InputStream in = getParent().getResourceAsStream(resource)) {
+                    ClassReader reader = new ClassReader(in);
+                    ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+                    reader.accept(new LoopCounterClassAdapter(writer), ClassReader.SKIP_FRAMES);
+                    byte[] bytes = writer.toByteArray();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        LoopCounter.getInstance().reset();
+        RuntimeSettings.maxNumberOfIterationsPerLoop = Long.MAX_VALUE;
+    }
+
+    @Test
+    public void testLoopsCalledFromStaticInitAreNotStopped() throws Exception {
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        LoopCounter.getInstance().reset();
+
+        Class<?> clazz = Class.forName(LoopInStaticInit.class.getName(), true, new InstrumentingLoader());
+        Assert.assertEquals(LoopInStaticInit.loop(50), clazz.getField("sum").getInt(null));
+
+        try {
+            clazz.getMethod("loop", int.class).invoke(null, 50);
+            Assert.fail();
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof TooManyResourcesException);
+        }
+    }
+
+    @Test
+    public void testStaticInitLeftThroughException() throws Exception {
+        RuntimeSettings.maxNumberOfIterationsPerLoop = 10;
+        InstrumentingLoader loader = new InstrumentingLoader();
+        try {
+            Class.forName(FailingStaticInit.class.getName(), true, loader);
+            Assert.fail();
+        } catch (ExceptionInInitializerError e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        LoopCounter.getInstance().reset();
+
+        Class<?> clazz = Class.forName(LoopInStaticInit.class.getName(), true, loader);
+        try {
+            clazz.getMethod("loop", int.class).invoke(null, 50);
+            Assert.fail();
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof TooManyResourcesException);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * Copyright (C) 2021- SmartUt contributors
+ *
+ * SmartUt is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * SmartUt is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with SmartUt. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.smartut.runtime.vfs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteStoreTest {
+
+	private static byte[] sequence(int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) i;
+		}
+		return data;
+	}
+
+	@Test
+	public void testReadAcrossPages() {
+		ByteStore store = new ByteStore();
+		byte[] data = sequence(3 * ByteStore.PAGE_SIZE + 10);
+		store.write(0, data, 0, data.length);
+		Assert.assertEquals(data.length, store.size());
+
+		byte[] read = new byte[data.length + 5];
+		Assert.assertEquals(data.length - 7, store.read(7, read, 0, read.length));
+		for (int i = 7; i < data.length; i++) {
+			Assert.assertEquals(data[i], read[i - 7]);
+		}
+		Assert.assertEquals(data[ByteStore.PAGE_SIZE + 1] & 0xFF, store.read(ByteStore.PAGE_SIZE + 1));
+		Assert.assertEquals(-1, store.read(data.length));
+		Assert.assertEquals(-1, store.read(data.length, read, 0, 1));
+		Assert.assertEquals(0, store.read(data.length, read, 0, 0));
+	}
+
+	@Test
+	public void testGapsAreZero() {
+		ByteStore store = new ByteStore();
+		store.write(2 * ByteStore.PAGE_SIZE, new byte[] { 5 }, 0, 1);
+		Assert.assertEquals(2 * ByteStore.PAGE_SIZE + 1, store.size());
+		Assert.assertEquals(0, store.read(ByteStore.PAGE_SIZE));
+
+		byte[] read = new byte[] { 1, 1, 1 };
+		Assert.assertEquals(3, store.read(2 * ByteStore.PAGE_SIZE - 2, read, 0, 3));
+		Assert.assertArrayEquals(new byte[] { 0, 0, 5 }, read);
+	}
+
+	@Test
+	public void testTruncatedBytesAreZeroWhenGrowing() {
+		ByteStore store = new ByteStore();
+		byte[] data = sequence(100);
+		store.write(0, data, 0, data.length);
+
+		store.setLength(10);
+		Assert.assertEquals(10, store.size());
+		Assert.assertEquals(-1, store.read(10));
+
+		store.setLength(50);
+		Assert.assertEquals(9, store.read(9));
+		Assert.assertEquals(0, store.read(10));
+		Assert.assertEquals(0, store.read(49));
+
+		store.setLength(0);
+		Assert.assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testSnapshotIsCopyOnWrite() {
+		ByteStore store = new ByteStore();
+		byte[] data = sequence(ByteStore.PAGE_SIZE + 1);
+		store.write(0, data, 0, data.length);
+
+		ByteStore snapshot = store.snapshot();
+		store.write(0, new byte[] { 42 }, 0, 1);
+		snapshot.write(ByteStore.PAGE_SIZE, new byte[] { 43 }, 0, 1);
+		store.setLength(1);
+
+		Assert.assertEquals(42, store.read(0));
+		Assert.assertEquals(1, store.size());
+		Assert.assertEquals(0, snapshot.read(0));
+		Assert.assertEquals(43, snapshot.read(ByteStore.PAGE_SIZE));
+		Assert.assertEquals(data.length, snapshot.size());
+	}
+}